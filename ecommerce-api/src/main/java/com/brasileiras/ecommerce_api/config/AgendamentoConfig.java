@@ -0,0 +1,13 @@
+package com.brasileiras.ecommerce_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas (@Scheduled) da aplicação,
+ * como a expiração de reservas de estoque de pedidos não pagos.
+ */
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+}
@@ -0,0 +1,18 @@
+package com.brasileiras.ecommerce_api.config;
+
+import com.brasileiras.ecommerce_api.enums.VisaoPedido;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converte o parâmetro {@code view=summary|full} em {@link VisaoPedido}.
+ * O Spring Boot registra os beans Converter no MVC; valores inválidos resultam em 400.
+ */
+@Component
+public class VisaoPedidoConverter implements Converter<String, VisaoPedido> {
+
+    @Override
+    public VisaoPedido convert(String parametro) {
+        return VisaoPedido.fromParametro(parametro.trim());
+    }
+}
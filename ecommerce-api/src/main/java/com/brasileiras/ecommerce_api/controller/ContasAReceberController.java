@@ -0,0 +1,39 @@
+package com.brasileiras.ecommerce_api.controller;
+
+import com.brasileiras.ecommerce_api.dto.LancamentoContaReceberResponseDTO;
+import com.brasileiras.ecommerce_api.dto.RegeneracaoContasReceberResponseDTO;
+import com.brasileiras.ecommerce_api.service.ContasAReceberService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/contas-a-receber")
+public class ContasAReceberController {
+
+    private final ContasAReceberService contasAReceberService;
+
+    @Autowired
+    public ContasAReceberController(ContasAReceberService contasAReceberService) {
+        this.contasAReceberService = contasAReceberService;
+    }
+
+    @GetMapping("/pedido/{pedidoId}")
+    public ResponseEntity<List<LancamentoContaReceberResponseDTO>> listarPorPedido(@PathVariable Long pedidoId) {
+        return ResponseEntity.ok(contasAReceberService.listarPorPedido(pedidoId));
+    }
+
+    /**
+     * Regera os lançamentos das vendas aprovadas no período (datas no formato yyyy-MM-dd, ambas opcionais).
+     */
+    @PostMapping("/regenerar")
+    public ResponseEntity<RegeneracaoContasReceberResponseDTO> regenerar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        return ResponseEntity.ok(contasAReceberService.regenerarLancamentos(dataInicio, dataFim));
+    }
+}
@@ -0,0 +1,26 @@
+package com.brasileiras.ecommerce_api.controller;
+
+import com.brasileiras.ecommerce_api.dto.OutboxMetricasDTO;
+import com.brasileiras.ecommerce_api.service.OutboxDispatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/outbox")
+public class OutboxController {
+
+    private final OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    public OutboxController(OutboxDispatcher outboxDispatcher) {
+        this.outboxDispatcher = outboxDispatcher;
+    }
+
+    @GetMapping("/metricas")
+    public ResponseEntity<OutboxMetricasDTO> metricas() {
+        return ResponseEntity.ok(outboxDispatcher.metricas());
+    }
+}
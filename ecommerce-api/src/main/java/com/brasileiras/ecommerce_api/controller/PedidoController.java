@@ -1,67 +1,194 @@
 package com.brasileiras.ecommerce_api.controller;
 
+import com.brasileiras.ecommerce_api.dto.FiltroExportacaoPedidosDTO;
+import com.brasileiras.ecommerce_api.dto.PedidoLoteRequestDTO;
+import com.brasileiras.ecommerce_api.dto.PedidoLoteResponseDTO;
+import com.brasileiras.ecommerce_api.dto.PedidoPaginaCursorDTO;
 import com.brasileiras.ecommerce_api.dto.PedidoRequestDTO;
 import com.brasileiras.ecommerce_api.dto.PedidoResponseDTO;
+import com.brasileiras.ecommerce_api.dto.PedidoStatusLoteRequestDTO;
+import com.brasileiras.ecommerce_api.dto.PedidoStatusLoteResponseDTO;
 import com.brasileiras.ecommerce_api.dto.PedidoStatusUpdateRequestDTO; // Certifique-se de ter este DTO
+import com.brasileiras.ecommerce_api.enums.StatusPedido;
+import com.brasileiras.ecommerce_api.enums.VisaoPedido;
+import com.brasileiras.ecommerce_api.service.IdempotenciaPedidoService;
 import com.brasileiras.ecommerce_api.service.PedidoService;
+import com.brasileiras.ecommerce_api.util.VersaoRecurso;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/pedidos")
 public class PedidoController {
 
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
     private final PedidoService pedidoService;
+    private final IdempotenciaPedidoService idempotenciaPedidoService;
 
     @Autowired
-    public PedidoController(PedidoService pedidoService) {
+    public PedidoController(PedidoService pedidoService, IdempotenciaPedidoService idempotenciaPedidoService) {
         this.pedidoService = pedidoService;
+        this.idempotenciaPedidoService = idempotenciaPedidoService;
     }
 
+    /**
+     * Cria um pedido. Com o cabeçalho Idempotency-Key, repetições da mesma requisição
+     * (ex.: retentativas após timeout) devolvem o pedido criado pela primeira chamada,
+     * sinalizado pelo cabeçalho Idempotent-Replayed, em vez de criar um novo.
+     */
     @PostMapping
     public ResponseEntity<PedidoResponseDTO> criarPedido(
             @Valid @RequestBody PedidoRequestDTO pedidoRequestDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             UriComponentsBuilder uriBuilder) {
-        PedidoResponseDTO pedidoCriado = pedidoService.criarPedido(pedidoRequestDTO);
-        URI uri = uriBuilder.path("/api/pedidos/{id}").buildAndExpand(pedidoCriado.id()).toUri(); // Acessando 'id()' do record
-        return ResponseEntity.created(uri).body(pedidoCriado);
+        if (idempotencyKey == null) {
+            PedidoResponseDTO pedidoCriado = pedidoService.criarPedido(pedidoRequestDTO);
+            URI uri = uriBuilder.path("/api/pedidos/{id}").buildAndExpand(pedidoCriado.id()).toUri(); // Acessando 'id()' do record
+            return ResponseEntity.created(uri).body(pedidoCriado);
+        }
+        IdempotenciaPedidoService.Resultado resultado = idempotenciaPedidoService.criarPedido(idempotencyKey, pedidoRequestDTO);
+        URI uri = uriBuilder.path("/api/pedidos/{id}").buildAndExpand(resultado.pedido().id()).toUri();
+        return ResponseEntity.created(uri)
+                .header("Idempotent-Replayed", String.valueOf(resultado.repetida()))
+                .body(resultado.pedido());
+    }
+
+    /**
+     * Importa pedidos em massa. Cada pedido é validado individualmente e a resposta traz
+     * o resultado de cada um, para que um pedido inválido não derrube o lote inteiro.
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<PedidoLoteResponseDTO> criarPedidosEmLote(
+            @Valid @RequestBody PedidoLoteRequestDTO pedidoLoteRequestDTO) {
+        PedidoLoteResponseDTO resultado = pedidoService.criarPedidosEmLote(pedidoLoteRequestDTO.getPedidos());
+        return ResponseEntity.ok(resultado);
     }
 
+    /*
+     * Os endpoints de leitura aceitam view=summary|full (padrão full). Na visão summary o serviço lê apenas
+     * número, data, status e valor total, sem consultar cliente, endereços, itens ou formas de pagamento.
+     */
     @GetMapping
-    public ResponseEntity<Page<PedidoResponseDTO>> listarPedidos(
-            @PageableDefault(sort = "dataPedido") Pageable pageable) {
-        Page<PedidoResponseDTO> pedidos = pedidoService.listarPedidos(pageable);
+    public ResponseEntity<Page<?>> listarPedidos(
+            @PageableDefault(sort = "dataPedido") Pageable pageable,
+            @RequestParam(name = "view", defaultValue = "full") VisaoPedido visao) {
+        Page<?> pedidos = visao == VisaoPedido.RESUMO
+                ? pedidoService.listarResumos(pageable)
+                : pedidoService.listarPedidos(pageable);
         return ResponseEntity.ok(pedidos);
     }
 
 
     @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<Page<PedidoResponseDTO>> listarPedidosPorCliente(
+    public ResponseEntity<Page<?>> listarPedidosPorCliente(
             @PathVariable Long clienteId,
-            @PageableDefault(sort = "dataPedido") Pageable pageable) { // Adicionado Pageable
-        Page<PedidoResponseDTO> pedidosPage = pedidoService.listarPedidosPorCliente(clienteId, pageable);
+            @PageableDefault(sort = "dataPedido") Pageable pageable, // Adicionado Pageable
+            @RequestParam(name = "view", defaultValue = "full") VisaoPedido visao) {
+        Page<?> pedidosPage = visao == VisaoPedido.RESUMO
+                ? pedidoService.listarResumosPorCliente(clienteId, pageable)
+                : pedidoService.listarPedidosPorCliente(clienteId, pageable);
         return ResponseEntity.ok(pedidosPage);
     }
 
 
+    /**
+     * Listagem por cursor em ordem de (dataPedido, id), sem contagem total: para percorrer muitos pedidos
+     * (ex.: exportações), envie o {@code proximoCursor} recebido até que ele venha nulo.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<PedidoPaginaCursorDTO<?>> listarPedidosPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamanho,
+            @RequestParam(name = "view", defaultValue = "full") VisaoPedido visao) {
+        PedidoPaginaCursorDTO<?> pagina = visao == VisaoPedido.RESUMO
+                ? pedidoService.listarResumosPorCursor(cursor, tamanho)
+                : pedidoService.listarPedidosPorCursor(cursor, tamanho);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping("/cliente/{clienteId}/cursor")
+    public ResponseEntity<PedidoPaginaCursorDTO<?>> listarPedidosPorClientePorCursor(
+            @PathVariable Long clienteId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamanho,
+            @RequestParam(name = "view", defaultValue = "full") VisaoPedido visao) {
+        PedidoPaginaCursorDTO<?> pagina = visao == VisaoPedido.RESUMO
+                ? pedidoService.listarResumosPorClientePorCursor(clienteId, cursor, tamanho)
+                : pedidoService.listarPedidosPorClientePorCursor(clienteId, cursor, tamanho);
+        return ResponseEntity.ok(pagina);
+    }
+
+    /**
+     * Exporta os pedidos em NDJSON (um pedido JSON por linha), escrevendo direto na resposta à medida que são lidos.
+     * Filtros opcionais: período (yyyy-MM-dd, fim inclusive) e um ou mais status (?status=ENVIADO&status=ENTREGUE);
+     * com view=summary cada linha traz só número, data, status e valor total.
+     */
+    @GetMapping("/exportar")
+    public void exportarPedidos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) List<StatusPedido> status,
+            @RequestParam(name = "view", defaultValue = "full") VisaoPedido visao,
+            HttpServletResponse response) throws IOException {
+        // Validado antes de preparar a resposta, para que um filtro inválido ainda receba o erro em JSON
+        FiltroExportacaoPedidosDTO filtro = FiltroExportacaoPedidosDTO.de(dataInicio, dataFim, status);
+        response.setContentType(MEDIA_TYPE_NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"pedidos.ndjson\"");
+        pedidoService.exportarPedidos(filtro, visao, response.getOutputStream());
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<PedidoResponseDTO> buscarPedidoPorId(@PathVariable Long id) {
-        PedidoResponseDTO pedido = pedidoService.buscarPedidoPorId(id);
-        return ResponseEntity.ok(pedido);
+    public ResponseEntity<?> buscarPedidoPorId(
+            @PathVariable Long id,
+            @RequestParam(name = "view", defaultValue = "full") VisaoPedido visao,
+            WebRequest request) {
+        VersaoRecurso versao = pedidoService.buscarVersaoPorId(id, visao);
+        if (request.checkNotModified(versao.etag(), versao.ultimaModificacaoMillis())) {
+            return null; // 304 Not Modified já preparado, sem montar o pedido
+        }
+        Object pedido = visao == VisaoPedido.RESUMO
+                ? pedidoService.buscarResumoPorId(id)
+                : pedidoService.buscarPedidoPorId(id);
+        return ResponseEntity.ok()
+                .eTag(versao.etag())
+                .lastModified(versao.ultimaModificacaoMillis())
+                .body(pedido);
     }
 
     @GetMapping("/numero/{numeroPedido}")
-    public ResponseEntity<PedidoResponseDTO> buscarPedidoPorNumero(@PathVariable String numeroPedido) {
-        PedidoResponseDTO pedido = pedidoService.buscarPedidoPorNumero(numeroPedido);
-        return ResponseEntity.ok(pedido);
+    public ResponseEntity<?> buscarPedidoPorNumero(
+            @PathVariable String numeroPedido,
+            @RequestParam(name = "view", defaultValue = "full") VisaoPedido visao,
+            WebRequest request) {
+        VersaoRecurso versao = pedidoService.buscarVersaoPorNumero(numeroPedido, visao);
+        if (request.checkNotModified(versao.etag(), versao.ultimaModificacaoMillis())) {
+            return null; // 304 Not Modified já preparado, sem montar o pedido
+        }
+        Object pedido = visao == VisaoPedido.RESUMO
+                ? pedidoService.buscarResumoPorNumero(numeroPedido)
+                : pedidoService.buscarPedidoPorNumero(numeroPedido);
+        return ResponseEntity.ok()
+                .eTag(versao.etag())
+                .lastModified(versao.ultimaModificacaoMillis())
+                .body(pedido);
     }
 
     @PatchMapping("/{id}/status")
@@ -72,6 +199,18 @@ public class PedidoController {
         return ResponseEntity.ok(pedidoAtualizado);
     }
 
+    /**
+     * Aplica a mesma mudança de status a vários pedidos. Pedidos inexistentes, com transição não permitida
+     * ou sem estoque para a aprovação são recusados individualmente, com o motivo, sem afetar os demais.
+     */
+    @PatchMapping("/status/lote")
+    public ResponseEntity<PedidoStatusLoteResponseDTO> atualizarStatusEmLote(
+            @Valid @RequestBody PedidoStatusLoteRequestDTO statusLoteRequestDTO) {
+        PedidoStatusLoteResponseDTO resultado = pedidoService.atualizarStatusEmLote(
+                statusLoteRequestDTO.pedidoIds(), statusLoteRequestDTO.novoStatus());
+        return ResponseEntity.ok(resultado);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deletarPedido(@PathVariable Long id) {
         return ResponseEntity.ok(pedidoService.deletarPedido(id));
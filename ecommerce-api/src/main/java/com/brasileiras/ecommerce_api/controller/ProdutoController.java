@@ -1,31 +1,71 @@
 package com.brasileiras.ecommerce_api.controller;
 
+import com.brasileiras.ecommerce_api.dto.AjusteEstoqueLoteRequestDTO;
+import com.brasileiras.ecommerce_api.dto.AjusteEstoqueLoteResponseDTO;
+import com.brasileiras.ecommerce_api.dto.AlteracaoCatalogoLoteRequestDTO;
+import com.brasileiras.ecommerce_api.dto.AlteracaoCatalogoLoteResponseDTO;
+import com.brasileiras.ecommerce_api.dto.EstatisticasCacheDTO;
+import com.brasileiras.ecommerce_api.dto.FiltroProdutosDTO;
+import com.brasileiras.ecommerce_api.dto.LeituraCodigoBarrasDTO;
+import com.brasileiras.ecommerce_api.dto.ProdutoEstoqueBaixoDTO;
 import com.brasileiras.ecommerce_api.dto.ProdutoRequestDTO;
 import com.brasileiras.ecommerce_api.dto.ProdutoResponseDTO;
+import com.brasileiras.ecommerce_api.dto.ReconstrucaoVendasResponseDTO;
+import com.brasileiras.ecommerce_api.dto.VendasProdutoResponseDTO;
+import com.brasileiras.ecommerce_api.exception.ResourceNotFoundException;
+import com.brasileiras.ecommerce_api.service.CodigoBarrasService;
+import com.brasileiras.ecommerce_api.service.ContadorVendasService;
+import com.brasileiras.ecommerce_api.service.EstoqueBaixoService;
+import com.brasileiras.ecommerce_api.service.ImportacaoProdutoService;
 import com.brasileiras.ecommerce_api.service.ProdutoService;
+import com.brasileiras.ecommerce_api.util.VersaoRecurso;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/produtos")
 @Validated // Adiciona a anotação @Validated para validação de parâmetros
 public class ProdutoController {
 
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
     private final ProdutoService produtoService;
+    private final EstoqueBaixoService estoqueBaixoService;
+    private final ImportacaoProdutoService importacaoProdutoService;
+    private final CodigoBarrasService codigoBarrasService;
+    private final ContadorVendasService contadorVendasService;
 
     @Autowired
-    public ProdutoController(ProdutoService produtoService) {
+    public ProdutoController(ProdutoService produtoService, EstoqueBaixoService estoqueBaixoService,
+                             ImportacaoProdutoService importacaoProdutoService, CodigoBarrasService codigoBarrasService,
+                             ContadorVendasService contadorVendasService) {
         this.produtoService = produtoService;
+        this.estoqueBaixoService = estoqueBaixoService;
+        this.importacaoProdutoService = importacaoProdutoService;
+        this.codigoBarrasService = codigoBarrasService;
+        this.contadorVendasService = contadorVendasService;
     }
 
     @PostMapping
@@ -37,25 +77,86 @@ public class ProdutoController {
         return ResponseEntity.created(uri).body(produtoCriado);
     }
 
+    /**
+     * Importa (cria ou atualiza pelo SKU) os produtos de um CSV enviado no corpo, com cabeçalho, lido à medida
+     * que chega. A resposta é NDJSON, com o resultado de cada linha escrito assim que o lote dela é gravado.
+     */
+    @PostMapping(value = "/importar", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public void importarProdutos(InputStream corpo, HttpServletResponse response) throws IOException {
+        // Cabeçalho validado antes de preparar a resposta, para que um arquivo inválido ainda receba o erro em JSON
+        ImportacaoProdutoService.ArquivoImportacao arquivo = importacaoProdutoService.abrir(corpo);
+        response.setContentType(MEDIA_TYPE_NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"importacao-produtos.ndjson\"");
+        importacaoProdutoService.importar(arquivo, response.getOutputStream());
+    }
+
+    /**
+     * Altera preço de venda, preço de compra e descrição de vários produtos, identificados pelo ID ou pelo SKU.
+     * Alterações inválidas ou de produtos inexistentes são recusadas individualmente, com o motivo, sem afetar as demais.
+     */
+    @PatchMapping("/catalogo/lote")
+    public ResponseEntity<AlteracaoCatalogoLoteResponseDTO> atualizarCatalogoEmLote(
+            @Valid @RequestBody AlteracaoCatalogoLoteRequestDTO alteracaoLoteRequestDTO) {
+        AlteracaoCatalogoLoteResponseDTO resultado = produtoService.atualizarCatalogoEmLote(alteracaoLoteRequestDTO.alteracoes());
+        return ResponseEntity.ok(resultado);
+    }
+
     @GetMapping
     public ResponseEntity<Page<ProdutoResponseDTO>> listarProdutos(
             @RequestParam(required = false) String descricao,
             @RequestParam(required = false) Long fornecedorId,
             @RequestParam(required = false) Integer estoqueMaximo,
-            @PageableDefault(sort = "descricao") Pageable pageable) {
-        Page<ProdutoResponseDTO> produtos = produtoService.listarProdutosComFiltros(
-                descricao,
-                fornecedorId,
-                estoqueMaximo,
-                pageable
-        );
+            @RequestParam(required = false) BigDecimal valorVendaMinimo,
+            @RequestParam(required = false) BigDecimal valorVendaMaximo,
+            @PageableDefault Pageable pageable) { // Sem ordenação: relevância na busca por descrição, senão descrição
+        FiltroProdutosDTO filtro = FiltroProdutosDTO.de(descricao, fornecedorId, estoqueMaximo, valorVendaMinimo, valorVendaMaximo);
+        Page<ProdutoResponseDTO> produtos = produtoService.listarProdutosComFiltros(filtro, pageable);
         return ResponseEntity.ok(produtos);
     }
 
     @GetMapping("buscar/{id}")
-    public ResponseEntity<ProdutoResponseDTO> buscarProdutoPorId(@PathVariable Long id) {
+    public ResponseEntity<ProdutoResponseDTO> buscarProdutoPorId(@PathVariable Long id, WebRequest request) {
+        VersaoRecurso versao = produtoService.buscarVersaoProduto(id);
+        if (request.checkNotModified(versao.etag(), versao.ultimaModificacaoMillis())) {
+            return null; // 304 Not Modified já preparado, sem carregar o produto
+        }
         ProdutoResponseDTO produto = produtoService.buscarProdutoPorId(id);
-        return ResponseEntity.ok(produto);
+        return ResponseEntity.ok()
+                .eTag(versao.etag())
+                .lastModified(versao.ultimaModificacaoMillis())
+                .body(produto);
+    }
+
+    /**
+     * Leitura no caixa pelo código de barras da NF ou pelo SKU: preço e estoque do índice em memória, sem consultar o banco.
+     */
+    @GetMapping("codigo-barras/{codigo}")
+    public ResponseEntity<LeituraCodigoBarrasDTO> buscarPorCodigoBarras(@PathVariable String codigo) {
+        return codigoBarrasService.buscar(codigo)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com código de barras: " + codigo));
+    }
+
+    /**
+     * Produtos com estoque no ponto de reposição ou abaixo, lidos da lista mantida em memória.
+     */
+    @GetMapping("estoque-baixo")
+    public ResponseEntity<List<ProdutoEstoqueBaixoDTO>> listarEstoqueBaixo() {
+        return ResponseEntity.ok(estoqueBaixoService.listar());
+    }
+
+    /**
+     * Eventos (Server-Sent Events) de entrada e saída de produtos da lista de estoque baixo.
+     */
+    @GetMapping(value = "estoque-baixo/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharEstoqueBaixo() {
+        return estoqueBaixoService.inscrever();
+    }
+
+    @GetMapping("cache/estatisticas")
+    public ResponseEntity<EstatisticasCacheDTO> estatisticasCacheCatalogo() {
+        return ResponseEntity.ok(produtoService.estatisticasCacheCatalogo());
     }
 
     @PutMapping("atualizar/{id}")
@@ -88,4 +189,35 @@ public class ProdutoController {
         ProdutoResponseDTO produtoAtualizado = produtoService.removerEstoqueDoProduto(id, quantidade);
         return ResponseEntity.ok(produtoAtualizado);
     }
+
+    /**
+     * Ajustes de estoque de vários produtos em uma chamada (entradas positivas, saídas negativas). Os ajustes
+     * do mesmo produto são somados e gravados juntos; cada ajuste recebe o próprio resultado.
+     */
+    @PatchMapping("/estoque/lote")
+    public ResponseEntity<AjusteEstoqueLoteResponseDTO> ajustarEstoqueEmLote(
+            @Valid @RequestBody AjusteEstoqueLoteRequestDTO ajusteLoteRequestDTO) {
+        AjusteEstoqueLoteResponseDTO resultado = produtoService.ajustarEstoqueEmLote(ajusteLoteRequestDTO.ajustes());
+        return ResponseEntity.ok(resultado);
+    }
+
+    /**
+     * Unidades vendidas do produto, lidas dos contadores de vendas, com as vendas por dia do pedido no
+     * período (datas no formato yyyy-MM-dd, ambas opcionais).
+     */
+    @GetMapping("/{id}/vendas")
+    public ResponseEntity<VendasProdutoResponseDTO> buscarVendas(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        return ResponseEntity.ok(contadorVendasService.consultar(id, dataInicio, dataFim));
+    }
+
+    /**
+     * Recalcula os contadores de vendas de todos os produtos a partir dos itens de pedido.
+     */
+    @PostMapping("/vendas/reconstruir")
+    public ResponseEntity<ReconstrucaoVendasResponseDTO> reconstruirVendas() {
+        return ResponseEntity.ok(contadorVendasService.reconstruir());
+    }
 }
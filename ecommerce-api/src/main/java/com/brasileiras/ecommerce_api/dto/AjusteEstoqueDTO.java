@@ -0,0 +1,18 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Ajuste de estoque de um produto (entrada de mercadoria, inventário, avaria...).
+ *
+ * @param produtoId ID do produto.
+ * @param quantidade Unidades a somar ao estoque: positiva para entrada, negativa para saída.
+ */
+public record AjusteEstoqueDTO(
+        @NotNull(message = "O ID do produto não pode ser nulo")
+        Long produtoId,
+
+        @NotNull(message = "A quantidade não pode ser nula")
+        Integer quantidade
+) {
+}
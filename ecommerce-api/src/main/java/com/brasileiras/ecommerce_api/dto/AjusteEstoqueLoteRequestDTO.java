@@ -0,0 +1,18 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Ajustes de estoque enviados juntos (ex.: eventos do sistema de armazém). Os ajustes do mesmo produto
+ * são somados e aplicados de uma vez; cada ajuste recebe o próprio resultado.
+ */
+public record AjusteEstoqueLoteRequestDTO(
+        @NotEmpty(message = "Informe pelo menos um ajuste")
+        @Size(max = 50000, message = "O lote deve conter no máximo 50000 ajustes")
+        List<@NotNull(message = "Ajuste não pode ser nulo") AjusteEstoqueDTO> ajustes
+) {
+}
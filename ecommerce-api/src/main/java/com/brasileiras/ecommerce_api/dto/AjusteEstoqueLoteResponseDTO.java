@@ -0,0 +1,21 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import java.util.List;
+
+/**
+ * Resultado dos ajustes de estoque em lote.
+ *
+ * @param total Ajustes recebidos.
+ * @param aplicados Ajustes gravados.
+ * @param recusados Ajustes recusados.
+ * @param produtosAjustados Produtos que tiveram o estoque alterado (um UPDATE por produto).
+ * @param resultados Resultado de cada ajuste, na ordem enviada.
+ */
+public record AjusteEstoqueLoteResponseDTO(
+        int total,
+        int aplicados,
+        int recusados,
+        int produtosAjustados,
+        List<ResultadoAjusteEstoqueDTO> resultados
+) {
+}
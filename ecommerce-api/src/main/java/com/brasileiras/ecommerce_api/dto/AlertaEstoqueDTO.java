@@ -0,0 +1,19 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import com.brasileiras.ecommerce_api.enums.TipoAlertaEstoque;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento enviado aos inscritos quando um produto entra ou sai da lista de estoque baixo.
+ *
+ * @param tipo Entrada ou saída da lista.
+ * @param produto Situação do produto que provocou o evento (a última conhecida, se ele foi excluído).
+ * @param ocorridoEm Quando a mudança foi percebida.
+ */
+public record AlertaEstoqueDTO(
+        TipoAlertaEstoque tipo,
+        ProdutoEstoqueBaixoDTO produto,
+        LocalDateTime ocorridoEm
+) {
+}
@@ -0,0 +1,38 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+/**
+ * Alteração de preço e descrição de um produto no lote. O produto é identificado pelo ID ou pelo SKU
+ * (se os dois forem informados, precisam ser do mesmo produto); campos nulos não são alterados.
+ *
+ * @param id ID do produto.
+ * @param codigoBarrasProduto Código interno do produto (SKU).
+ * @param valorVenda Novo valor de venda.
+ * @param valorCompra Novo valor de compra.
+ * @param descricao Nova descrição.
+ */
+public record AlteracaoCatalogoDTO(
+        Long id,
+
+        String codigoBarrasProduto,
+
+        @Positive(message = "O valor de venda deve ser positivo.")
+        @Digits(integer = 8, fraction = 2, message = "Valor de venda inválido. Formato: até 8 dígitos inteiros e 2 decimais.")
+        BigDecimal valorVenda,
+
+        @PositiveOrZero(message = "O valor de compra deve ser positivo ou zero")
+        @Digits(integer = 8, fraction = 2, message = "Valor de compra inválido. Formato: até 8 dígitos inteiros e 2 decimais.")
+        BigDecimal valorCompra,
+
+        @Pattern(regexp = "(?s).*\\S.*", message = "A descrição não pode estar em branco")
+        @Size(max = 255, message = "A descrição deve ter no máximo 255 caracteres")
+        String descricao
+) {
+}
@@ -0,0 +1,18 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Alterações de preço e descrição aplicadas a vários produtos (ex.: campanha de remarcação).
+ * Cada alteração é validada individualmente, para que uma inválida não recuse o lote inteiro.
+ */
+public record AlteracaoCatalogoLoteRequestDTO(
+        @NotEmpty(message = "Informe pelo menos uma alteração")
+        @Size(max = 50000, message = "O lote deve conter no máximo 50000 alterações")
+        List<@NotNull(message = "Alteração não pode ser nula") AlteracaoCatalogoDTO> alteracoes
+) {
+}
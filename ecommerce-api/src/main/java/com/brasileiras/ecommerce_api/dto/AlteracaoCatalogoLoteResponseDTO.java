@@ -0,0 +1,21 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import java.util.List;
+
+/**
+ * Resultado das alterações de catálogo em lote.
+ *
+ * @param total Alterações recebidas.
+ * @param atualizados Alterações que mudaram o produto.
+ * @param inalterados Alterações válidas com os mesmos valores já gravados (o produto não foi regravado).
+ * @param recusados Alterações recusadas.
+ * @param recusas Motivo de cada recusa.
+ */
+public record AlteracaoCatalogoLoteResponseDTO(
+        int total,
+        int atualizados,
+        int inalterados,
+        int recusados,
+        List<RecusaAlteracaoCatalogoDTO> recusas
+) {
+}
@@ -0,0 +1,19 @@
+package com.brasileiras.ecommerce_api.dto;
+
+/**
+ * Estatísticas de um cache em memória desde o início da aplicação.
+ *
+ * @param tamanho Entradas atualmente em cache (estimativa).
+ * @param acertos Consultas atendidas pelo cache.
+ * @param faltas Consultas que precisaram ir ao banco.
+ * @param taxaAcerto acertos / (acertos + faltas), entre 0 e 1.
+ * @param despejos Entradas removidas pelo limite de tamanho.
+ */
+public record EstatisticasCacheDTO(
+        long tamanho,
+        long acertos,
+        long faltas,
+        double taxaAcerto,
+        long despejos
+) {
+}
@@ -0,0 +1,35 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import com.brasileiras.ecommerce_api.enums.StatusPedido;
+import com.brasileiras.ecommerce_api.exception.BusinessRuleException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Filtros da exportação de pedidos, já validados: período como [inicio, fim) e o conjunto de status.
+ */
+public record FiltroExportacaoPedidosDTO(
+        LocalDateTime inicio,
+        LocalDateTime fim,
+        Set<StatusPedido> status
+) {
+    /**
+     * @param dataInicio Primeiro dia do período (opcional).
+     * @param dataFim Último dia do período, inclusive (opcional).
+     * @param status Status a exportar; vazio ou nulo exporta todos.
+     * @throws BusinessRuleException se a data final for anterior à inicial.
+     */
+    public static FiltroExportacaoPedidosDTO de(LocalDate dataInicio, LocalDate dataFim, Collection<StatusPedido> status) {
+        if (dataInicio != null && dataFim != null && dataFim.isBefore(dataInicio)) {
+            throw new BusinessRuleException("A data final não pode ser anterior à data inicial.");
+        }
+        return new FiltroExportacaoPedidosDTO(
+                dataInicio == null ? null : dataInicio.atStartOfDay(),
+                dataFim == null ? null : dataFim.plusDays(1).atStartOfDay(),
+                status == null || status.isEmpty() ? EnumSet.allOf(StatusPedido.class) : EnumSet.copyOf(status));
+    }
+}
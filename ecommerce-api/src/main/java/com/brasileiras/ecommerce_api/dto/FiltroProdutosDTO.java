@@ -0,0 +1,48 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import com.brasileiras.ecommerce_api.exception.BusinessRuleException;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+
+/**
+ * Filtros da listagem de produtos, já validados. Todos são opcionais e os informados são combinados
+ * (o produto precisa atender a todos).
+ *
+ * @param descricao Palavras ou trechos da descrição (sem diferenciar maiúsculas e acentos).
+ * @param fornecedorId ID do fornecedor.
+ * @param estoqueMaximo Estoque máximo, inclusive.
+ * @param valorVendaMinimo Valor de venda mínimo, inclusive.
+ * @param valorVendaMaximo Valor de venda máximo, inclusive.
+ */
+public record FiltroProdutosDTO(
+        String descricao,
+        Long fornecedorId,
+        Integer estoqueMaximo,
+        BigDecimal valorVendaMinimo,
+        BigDecimal valorVendaMaximo
+) {
+    /**
+     * @throws BusinessRuleException se algum valor de venda for negativo ou se o mínimo for maior que o máximo.
+     */
+    public static FiltroProdutosDTO de(String descricao, Long fornecedorId, Integer estoqueMaximo,
+                                       BigDecimal valorVendaMinimo, BigDecimal valorVendaMaximo) {
+        if ((valorVendaMinimo != null && valorVendaMinimo.signum() < 0)
+                || (valorVendaMaximo != null && valorVendaMaximo.signum() < 0)) {
+            throw new BusinessRuleException("Os valores de venda do filtro não podem ser negativos.");
+        }
+        if (valorVendaMinimo != null && valorVendaMaximo != null && valorVendaMinimo.compareTo(valorVendaMaximo) > 0) {
+            throw new BusinessRuleException("O valor de venda mínimo não pode ser maior que o máximo.");
+        }
+        return new FiltroProdutosDTO(StringUtils.hasText(descricao) ? descricao.trim() : null,
+                fornecedorId, estoqueMaximo, valorVendaMinimo, valorVendaMaximo);
+    }
+
+    /**
+     * @return true se a descrição for o único filtro informado.
+     */
+    public boolean somenteDescricao() {
+        return descricao != null && fornecedorId == null && estoqueMaximo == null
+                && valorVendaMinimo == null && valorVendaMaximo == null;
+    }
+}
@@ -17,6 +17,15 @@ public record ItemPedidoResponseDTO(
         BigDecimal subTotal
 ) {
 
+    /**
+     * Usado pela projeção de leitura ({@code SELECT new ...}): o subtotal é calculado como em {@link ItemPedido#getSubtotal()}.
+     */
+    public ItemPedidoResponseDTO(Long id, Long produtoId, Long pedidoId, String produtoDescricao,
+                                 Integer quantidade, BigDecimal precoUnitario) {
+        this(id, produtoId, pedidoId, produtoDescricao, quantidade, precoUnitario,
+                ItemPedido.calcularSubtotal(precoUnitario, quantidade));
+    }
+
     /**
      * Cria um ItemPedidoResponseDTO a partir de um ItemPedido.
      * @param itemPedido O ItemPedido.
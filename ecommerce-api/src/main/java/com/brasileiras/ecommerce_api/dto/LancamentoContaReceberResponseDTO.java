@@ -0,0 +1,37 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import com.brasileiras.ecommerce_api.enums.FormaPagamento;
+import com.brasileiras.ecommerce_api.enums.StatusLancamento;
+import com.brasileiras.ecommerce_api.model.LancamentoContaReceber;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record LancamentoContaReceberResponseDTO(
+        Long id,
+        Long pedidoId,
+        int numeroParcela,
+        int totalParcelas,
+        FormaPagamento formaPagamento,
+        BigDecimal valor,
+        LocalDate dataLancamento,
+        LocalDate dataVencimento,
+        StatusLancamento status
+) {
+    public static LancamentoContaReceberResponseDTO fromEntity(LancamentoContaReceber lancamento) {
+        if (lancamento == null) {
+            return null;
+        }
+        return new LancamentoContaReceberResponseDTO(
+                lancamento.getId(),
+                lancamento.getPedido().getId(), // ID do proxy, sem SELECT
+                lancamento.getNumeroParcela(),
+                lancamento.getTotalParcelas(),
+                lancamento.getFormaPagamento(),
+                lancamento.getValor(),
+                lancamento.getDataLancamento(),
+                lancamento.getDataVencimento(),
+                lancamento.getStatus()
+        );
+    }
+}
@@ -0,0 +1,23 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Produto lido pelo código de barras no caixa: o necessário para registrar a venda.
+ *
+ * @param produtoId ID do produto.
+ * @param codigoBarrasProduto Código interno (SKU).
+ * @param codigoBarras Código de barras da NF.
+ * @param descricao Descrição do produto.
+ * @param valorVenda Preço de venda.
+ * @param estoque Estoque físico.
+ */
+public record LeituraCodigoBarrasDTO(
+        Long produtoId,
+        String codigoBarrasProduto,
+        String codigoBarras,
+        String descricao,
+        BigDecimal valorVenda,
+        Integer estoque
+) {
+}
@@ -0,0 +1,23 @@
+package com.brasileiras.ecommerce_api.dto;
+
+/**
+ * Métricas do processamento da outbox.
+ *
+ * @param pendentes Eventos aguardando processamento (inclui os aguardando nova tentativa).
+ * @param falhados Eventos cujas tentativas se esgotaram.
+ * @param atrasoPendenteMaisAntigoMs Idade do evento pendente mais antigo (lag atual); 0 se não houver pendentes.
+ * @param processadosDesdeInicio Eventos processados com sucesso desde o início da aplicação.
+ * @param tentativasComFalhaDesdeInicio Tentativas que terminaram em erro desde o início da aplicação.
+ * @param atrasoMedioProcessamentoMs Tempo médio entre a gravação e o processamento dos eventos.
+ * @param atrasoUltimoLoteMs Maior tempo entre gravação e processamento no último lote processado.
+ */
+public record OutboxMetricasDTO(
+        long pendentes,
+        long falhados,
+        long atrasoPendenteMaisAntigoMs,
+        long processadosDesdeInicio,
+        long tentativasComFalhaDesdeInicio,
+        long atrasoMedioProcessamentoMs,
+        long atrasoUltimoLoteMs
+) {
+}
@@ -0,0 +1,26 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Lote de pedidos para importação em massa (ex.: pedidos de marketplace).
+ * Os pedidos NÃO são validados com @Valid aqui: cada um é validado individualmente no serviço,
+ * para que um pedido inválido seja rejeitado sem derrubar o lote inteiro.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PedidoLoteRequestDTO {
+
+    @NotEmpty(message = "O lote deve conter pelo menos um pedido")
+    @Size(max = 50000, message = "O lote deve conter no máximo 50000 pedidos")
+    private List<PedidoRequestDTO> pedidos;
+}
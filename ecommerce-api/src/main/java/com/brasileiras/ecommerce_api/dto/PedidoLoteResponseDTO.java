@@ -0,0 +1,18 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import java.util.List;
+
+/**
+ * Resposta da importação de pedidos em lote, com o resultado de cada pedido na ordem de envio.
+ */
+public record PedidoLoteResponseDTO(
+        int total,
+        int criados,
+        int rejeitados,
+        List<ResultadoPedidoLoteDTO> resultados
+) {
+    public static PedidoLoteResponseDTO fromResultados(List<ResultadoPedidoLoteDTO> resultados) {
+        int criados = (int) resultados.stream().filter(ResultadoPedidoLoteDTO::sucesso).count();
+        return new PedidoLoteResponseDTO(resultados.size(), criados, resultados.size() - criados, resultados);
+    }
+}
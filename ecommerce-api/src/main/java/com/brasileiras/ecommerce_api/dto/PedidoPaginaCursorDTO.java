@@ -0,0 +1,16 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import java.util.List;
+
+/**
+ * Página da listagem de pedidos por cursor. Não traz total de elementos (não há COUNT);
+ * a próxima página é obtida enviando {@code proximoCursor}, que é nulo na última página.
+ *
+ * @param <T> {@link PedidoResponseDTO} (view=full) ou {@link PedidoResumoDTO} (view=summary).
+ */
+public record PedidoPaginaCursorDTO<T>(
+        List<T> conteudo,
+        String proximoCursor,
+        boolean possuiMais
+) {
+}
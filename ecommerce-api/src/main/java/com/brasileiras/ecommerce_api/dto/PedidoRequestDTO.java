@@ -1,7 +1,11 @@
 package com.brasileiras.ecommerce_api.dto;
 
 import com.brasileiras.ecommerce_api.enums.FormaPagamento;
+import com.brasileiras.ecommerce_api.model.Pedido;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -10,7 +14,10 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Data
@@ -32,4 +39,44 @@ public class PedidoRequestDTO {
     @NotEmpty(message = "Pedido deve ter pelo menos uma forma de pagamento")
     private Set<FormaPagamento> formasPagamento;
 
+    // Opcional: só pode ser maior que 1 com cartão de crédito
+    @Min(value = 1, message = "Número de parcelas deve ser no mínimo 1")
+    @Max(value = Pedido.MAXIMO_PARCELAS, message = "Número de parcelas deve ser no máximo " + Pedido.MAXIMO_PARCELAS)
+    private Integer numeroParcelas;
+
+    /**
+     * Linhas repetidas do mesmo produto são somadas em {@link #quantidadesPorProduto()}: a soma, feita aqui em long,
+     * não pode passar do maior int.
+     */
+    @AssertTrue(message = "A quantidade total de um mesmo produto deve ser no máximo " + Integer.MAX_VALUE)
+    public boolean isQuantidadesDentroDoLimite() {
+        if (this.itens == null) {
+            return true;
+        }
+        Map<Long, Long> totais = new HashMap<>();
+        for (ItemPedidoRequestDTO item : this.itens) {
+            if (item != null && item.getQuantidade() != null
+                    && totais.merge(item.getProdutoId(), (long) item.getQuantidade(), Long::sum) > Integer.MAX_VALUE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Consolida as linhas do pedido por produto, somando as quantidades de linhas repetidas.
+     * Mantém a ordem da primeira ocorrência de cada produto na requisição.
+     * @throws ArithmeticException se a soma passar do maior int (requisição não validada, ver {@link #isQuantidadesDentroDoLimite()}).
+     */
+    public Map<Long, Integer> quantidadesPorProduto() {
+        Map<Long, Integer> quantidades = new LinkedHashMap<>();
+        for (ItemPedidoRequestDTO item : this.itens) {
+            quantidades.merge(item.getProdutoId(), item.getQuantidade(), Math::addExact);
+        }
+        return quantidades;
+    }
+
+    public int parcelas() {
+        return numeroParcelas == null ? 1 : numeroParcelas;
+    }
 }
@@ -26,7 +26,8 @@ public record PedidoResponseDTO(
         ClienteResponseDTO cliente,
         EnderecoResponseDTO enderecoEntrega,
         List<ItemPedidoResponseDTO> itens,
-        Set<FormaPagamento> formasPagamento
+        Set<FormaPagamento> formasPagamento,
+        Integer numeroParcelas
 ) {
     public static PedidoResponseDTO fromEntity(Pedido pedido) {
         if (pedido == null) {
@@ -48,7 +49,8 @@ public record PedidoResponseDTO(
                   o DTO receba um conjunto vazio em vez de nulo,
                   o que é geralmente mais seguro para os consumidores da API.
                   */
-               pedido.getFormasPagamento() != null ? pedido.getFormasPagamento() : Collections.emptySet() // Garantir que não seja nulo
+               pedido.getFormasPagamento() != null ? pedido.getFormasPagamento() : Collections.emptySet(), // Garantir que não seja nulo
+                pedido.getNumeroParcelas()
         );
     }
 
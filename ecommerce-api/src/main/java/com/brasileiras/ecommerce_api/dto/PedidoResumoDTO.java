@@ -0,0 +1,23 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import com.brasileiras.ecommerce_api.enums.StatusPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Visão resumida do pedido (view=summary), para telas de listagem.
+ * Preenchido direto por expressão de construtor, sem ler cliente, endereços ou itens.
+ */
+public record PedidoResumoDTO(
+        Long id,
+        String numeroPedido,
+        LocalDateTime dataPedido,
+        StatusPedido status,
+        BigDecimal valorTotal
+) {
+
+    public static PedidoResumoDTO fromResposta(PedidoResponseDTO pedido) {
+        return new PedidoResumoDTO(pedido.id(), pedido.numeroPedido(), pedido.dataPedido(), pedido.status(), pedido.valorTotal());
+    }
+}
@@ -0,0 +1,21 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import com.brasileiras.ecommerce_api.enums.StatusPedido;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Mudança de status aplicada a vários pedidos (ex.: atualizações enviadas pelo parceiro logístico).
+ */
+public record PedidoStatusLoteRequestDTO(
+        @NotEmpty(message = "Informe pelo menos um ID de pedido")
+        @Size(max = 50000, message = "O lote deve conter no máximo 50000 pedidos")
+        List<@NotNull(message = "ID do pedido não pode ser nulo") Long> pedidoIds,
+
+        @NotNull(message = "Novo status é obrigatório")
+        StatusPedido novoStatus
+) {
+}
@@ -0,0 +1,17 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import java.util.List;
+
+/**
+ * Resultado da mudança de status em lote: quantos pedidos foram atualizados e quais foram recusados.
+ */
+public record PedidoStatusLoteResponseDTO(
+        int total,
+        int atualizados,
+        int recusados,
+        List<RecusaStatusPedidoDTO> recusas
+) {
+    public static PedidoStatusLoteResponseDTO fromRecusas(int total, List<RecusaStatusPedidoDTO> recusas) {
+        return new PedidoStatusLoteResponseDTO(total, total - recusas.size(), recusas.size(), recusas);
+    }
+}
@@ -0,0 +1,17 @@
+package com.brasileiras.ecommerce_api.dto;
+
+/**
+ * Produto com estoque no ponto de reposição ou abaixo.
+ *
+ * @param produtoId ID do produto.
+ * @param descricao Descrição do produto.
+ * @param estoque Estoque atual.
+ * @param pontoReposicao Ponto de reposição configurado no produto.
+ */
+public record ProdutoEstoqueBaixoDTO(
+        Long produtoId,
+        String descricao,
+        Integer estoque,
+        Integer pontoReposicao
+) {
+}
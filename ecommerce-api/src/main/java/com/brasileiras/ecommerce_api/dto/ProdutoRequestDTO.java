@@ -41,6 +41,11 @@ public class ProdutoRequestDTO {
     @Min(value = 0, message = "O estoque não pode ser negativo")
     private Integer estoque;
 
+    // Opcional: estoque a partir do qual o produto entra na lista de estoque baixo. Na atualização, nulo mantém
+    // o valor atual e 0 desliga o acompanhamento
+    @Min(value = 0, message = "O ponto de reposição não pode ser negativo")
+    private Integer pontoReposicao;
+
     @NotNull(message = "O ID do fornecedor não pode ser nulo")
     private Long fornecedorId;
 
@@ -51,6 +56,7 @@ public class ProdutoRequestDTO {
                 .codigoBarras(this.codigoBarras)
                 .valorCompra(this.valorCompra)
                 .valorVenda(this.valorVenda)
+                .pontoReposicao(this.pontoReposicao)
                 .fornecedor(fornecedor)
                 .build();
         produto.setEstoque(this.estoque != null ? this.estoque : 0);
@@ -64,6 +70,7 @@ public class ProdutoRequestDTO {
         if (this.valorCompra != null) produtoExistente.setValorCompra(this.valorCompra);
         if (this.valorVenda != null) produtoExistente.setValorVenda(this.valorVenda);
         if (this.estoque != null) produtoExistente.setEstoque(this.estoque);
+        if (this.pontoReposicao != null) produtoExistente.setPontoReposicao(this.pontoReposicao);
         if (novoFornecedor != null) {
             produtoExistente.setFornecedor(novoFornecedor);
         }
@@ -12,6 +12,7 @@ public record ProdutoResponseDTO(
         BigDecimal valorCompra,
         BigDecimal valorVenda,
         Integer estoque,
+        Integer pontoReposicao,
         FornecedorResponseDTO fornecedor
 ) {
     /**
@@ -37,6 +38,7 @@ public record ProdutoResponseDTO(
                 produto.getValorCompra(),
                 produto.getValorVenda(),
                 produto.getEstoque(),
+                produto.getPontoReposicao(),
                 fornecedorDTO
         );
     }
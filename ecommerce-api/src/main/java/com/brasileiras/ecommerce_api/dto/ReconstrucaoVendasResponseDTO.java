@@ -0,0 +1,17 @@
+package com.brasileiras.ecommerce_api.dto;
+
+/**
+ * Resultado da reconstrução dos contadores de vendas.
+ *
+ * @param faixas Faixas de IDs de item de pedido somadas.
+ * @param produtos Produtos com vendas.
+ * @param dias Contadores diários gravados (produto e dia).
+ * @param duracaoMs Duração total, em milissegundos.
+ */
+public record ReconstrucaoVendasResponseDTO(
+        int faixas,
+        int produtos,
+        int dias,
+        long duracaoMs
+) {
+}
@@ -0,0 +1,17 @@
+package com.brasileiras.ecommerce_api.dto;
+
+/**
+ * Alteração de catálogo recusada no lote.
+ *
+ * @param indice Posição da alteração na lista enviada (começando em 0).
+ * @param produtoId ID informado (ou encontrado pelo SKU), se houver.
+ * @param codigoBarrasProduto SKU informado, se houver.
+ * @param motivo Motivo da recusa.
+ */
+public record RecusaAlteracaoCatalogoDTO(
+        int indice,
+        Long produtoId,
+        String codigoBarrasProduto,
+        String motivo
+) {
+}
@@ -0,0 +1,13 @@
+package com.brasileiras.ecommerce_api.dto;
+
+/**
+ * Pedido cuja mudança de status foi recusada no lote.
+ *
+ * @param pedidoId ID do pedido.
+ * @param motivo Motivo da recusa.
+ */
+public record RecusaStatusPedidoDTO(
+        Long pedidoId,
+        String motivo
+) {
+}
@@ -0,0 +1,11 @@
+package com.brasileiras.ecommerce_api.dto;
+
+/**
+ * Resumo da regeração de Contas a Receber.
+ */
+public record RegeneracaoContasReceberResponseDTO(
+        long pedidosProcessados,
+        long lancamentosGerados,
+        long duracaoMs
+) {
+}
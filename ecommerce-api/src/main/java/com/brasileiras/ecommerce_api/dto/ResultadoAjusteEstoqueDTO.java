@@ -0,0 +1,28 @@
+package com.brasileiras.ecommerce_api.dto;
+
+/**
+ * Resultado de um ajuste de estoque do lote. Os ajustes do mesmo produto são aplicados ou recusados juntos.
+ *
+ * @param indice Posição do ajuste na lista enviada (começando em 0).
+ * @param produtoId ID do produto.
+ * @param quantidade Quantidade do ajuste.
+ * @param aplicado Se o ajuste foi gravado.
+ * @param estoque Estoque do produto após os ajustes do lote (null se recusado).
+ * @param motivo Motivo da recusa (null se aplicado).
+ */
+public record ResultadoAjusteEstoqueDTO(
+        int indice,
+        Long produtoId,
+        Integer quantidade,
+        boolean aplicado,
+        Integer estoque,
+        String motivo
+) {
+    public static ResultadoAjusteEstoqueDTO aplicado(int indice, AjusteEstoqueDTO ajuste, int estoque) {
+        return new ResultadoAjusteEstoqueDTO(indice, ajuste.produtoId(), ajuste.quantidade(), true, estoque, null);
+    }
+
+    public static ResultadoAjusteEstoqueDTO recusado(int indice, AjusteEstoqueDTO ajuste, String motivo) {
+        return new ResultadoAjusteEstoqueDTO(indice, ajuste.produtoId(), ajuste.quantidade(), false, null, motivo);
+    }
+}
@@ -0,0 +1,33 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import com.brasileiras.ecommerce_api.enums.SituacaoLinhaImportacao;
+
+/**
+ * Resultado de uma linha da importação CSV de produtos.
+ *
+ * @param linha Linha do arquivo em que o registro começa (o cabeçalho é a linha 1).
+ * @param codigoBarrasProduto SKU informado na linha (null se não foi possível ler).
+ * @param situacao O que aconteceu com a linha.
+ * @param produtoId ID do produto criado ou atualizado (null nos demais casos).
+ * @param erro Motivo da rejeição ou do descarte (null se a linha foi gravada).
+ */
+public record ResultadoImportacaoProdutoDTO(
+        long linha,
+        String codigoBarrasProduto,
+        SituacaoLinhaImportacao situacao,
+        Long produtoId,
+        String erro
+) {
+    public static ResultadoImportacaoProdutoDTO gravado(long linha, String codigoBarrasProduto,
+                                                        SituacaoLinhaImportacao situacao, Long produtoId) {
+        return new ResultadoImportacaoProdutoDTO(linha, codigoBarrasProduto, situacao, produtoId, null);
+    }
+
+    public static ResultadoImportacaoProdutoDTO ignorado(long linha, String codigoBarrasProduto, String motivo) {
+        return new ResultadoImportacaoProdutoDTO(linha, codigoBarrasProduto, SituacaoLinhaImportacao.IGNORADO, null, motivo);
+    }
+
+    public static ResultadoImportacaoProdutoDTO rejeitado(long linha, String codigoBarrasProduto, String erro) {
+        return new ResultadoImportacaoProdutoDTO(linha, codigoBarrasProduto, SituacaoLinhaImportacao.REJEITADO, null, erro);
+    }
+}
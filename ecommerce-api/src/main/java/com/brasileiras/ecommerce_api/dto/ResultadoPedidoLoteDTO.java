@@ -0,0 +1,26 @@
+package com.brasileiras.ecommerce_api.dto;
+
+/**
+ * Resultado da importação de um pedido do lote.
+ *
+ * @param indice Posição do pedido na lista enviada (começando em 0).
+ * @param sucesso true se o pedido foi criado.
+ * @param pedidoId ID do pedido criado (null em caso de erro).
+ * @param numeroPedido Número do pedido criado (null em caso de erro).
+ * @param erro Motivo da rejeição (null em caso de sucesso).
+ */
+public record ResultadoPedidoLoteDTO(
+        int indice,
+        boolean sucesso,
+        Long pedidoId,
+        String numeroPedido,
+        String erro
+) {
+    public static ResultadoPedidoLoteDTO criado(int indice, Long pedidoId, String numeroPedido) {
+        return new ResultadoPedidoLoteDTO(indice, true, pedidoId, numeroPedido, null);
+    }
+
+    public static ResultadoPedidoLoteDTO rejeitado(int indice, String erro) {
+        return new ResultadoPedidoLoteDTO(indice, false, null, null, erro);
+    }
+}
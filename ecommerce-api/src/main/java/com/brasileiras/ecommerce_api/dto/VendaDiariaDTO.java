@@ -0,0 +1,12 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Unidades vendidas de um produto em um dia.
+ */
+public record VendaDiariaDTO(
+        LocalDate dia,
+        long quantidade
+) {
+}
@@ -0,0 +1,19 @@
+package com.brasileiras.ecommerce_api.dto;
+
+import java.util.List;
+
+/**
+ * Unidades vendidas de um produto, lidas dos contadores de vendas.
+ *
+ * @param produtoId ID do produto.
+ * @param quantidadeVendida Total vendido desde sempre.
+ * @param quantidadeNoPeriodo Total vendido nos dias do período consultado.
+ * @param vendasPorDia Vendas de cada dia do período (dia do pedido), sem os dias sem venda.
+ */
+public record VendasProdutoResponseDTO(
+        Long produtoId,
+        long quantidadeVendida,
+        long quantidadeNoPeriodo,
+        List<VendaDiariaDTO> vendasPorDia
+) {
+}
@@ -0,0 +1,26 @@
+package com.brasileiras.ecommerce_api.enums;
+
+import lombok.Getter;
+
+/**
+ * Resultado de uma linha da importação CSV de produtos.
+ * <p>
+ * - CRIADO: Produto novo inserido.
+ * - ATUALIZADO: Já existia um produto com o SKU, e o catálogo dele foi atualizado.
+ * - IGNORADO: O mesmo SKU aparece de novo mais adiante no lote; vale a última ocorrência.
+ * - REJEITADO: Linha inválida ou em conflito com outro produto; nada foi gravado.
+ */
+
+@Getter
+public enum SituacaoLinhaImportacao {
+    CRIADO("Criado"),
+    ATUALIZADO("Atualizado"),
+    IGNORADO("Ignorado"),
+    REJEITADO("Rejeitado");
+
+    private final String descricao;
+
+    SituacaoLinhaImportacao(String descricao) {
+        this.descricao = descricao;
+    }
+}
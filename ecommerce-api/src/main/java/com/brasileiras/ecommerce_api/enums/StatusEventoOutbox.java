@@ -0,0 +1,24 @@
+package com.brasileiras.ecommerce_api.enums;
+
+import lombok.Getter;
+
+/**
+ * Situação de um evento da outbox.
+ * <p>
+ * - PENDENTE: Aguardando processamento (ou nova tentativa).
+ * - PROCESSADO: Todos os manipuladores do evento executaram com sucesso.
+ * - FALHOU: As tentativas se esgotaram; requer intervenção.
+ */
+
+@Getter
+public enum StatusEventoOutbox {
+    PENDENTE("Pendente"),
+    PROCESSADO("Processado"),
+    FALHOU("Falhou");
+
+    private final String descricao;
+
+    StatusEventoOutbox(String descricao) {
+        this.descricao = descricao;
+    }
+}
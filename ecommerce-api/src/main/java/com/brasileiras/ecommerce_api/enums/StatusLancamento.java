@@ -0,0 +1,22 @@
+package com.brasileiras.ecommerce_api.enums;
+
+import lombok.Getter;
+
+/**
+ * Situação de um lançamento em Contas a Receber.
+ * <p>
+ * - ABERTO: Aguardando recebimento.
+ * - CANCELADO: O pedido de origem foi cancelado.
+ */
+
+@Getter
+public enum StatusLancamento {
+    ABERTO("Aberto"),
+    CANCELADO("Cancelado");
+
+    private final String descricao;
+
+    StatusLancamento(String descricao) {
+        this.descricao = descricao;
+    }
+}
@@ -2,6 +2,12 @@ package com.brasileiras.ecommerce_api.enums;
 
 import lombok.Getter;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Enum que representa os diferentes status de um pedido em um sistema de 'e-commerce'.
  * Cada status tem uma descrição associada.
@@ -14,6 +20,8 @@ import lombok.Getter;
  * - ENTREGUE: O pedido foi entregue ao cliente.
  * - CANCELADO: O pedido foi cancelado.
  * - REEMBOLSADO: O pedido foi reembolsado.
+ * <p>
+ * As transições permitidas entre os status ficam na tabela declarativa {@link Transicoes}.
  */
 
 @Getter
@@ -39,4 +47,54 @@ public enum StatusPedido {
         }
         throw new IllegalArgumentException("Descrição de status inválida: " + descricao);
     }
+
+    /**
+     * @return true se um pedido neste status pode passar para o status de destino.
+     */
+    public boolean podeMudarPara(StatusPedido destino) {
+        return Transicoes.DESTINOS.get(this).contains(destino);
+    }
+
+    /**
+     * @return true se nenhuma transição sai deste status (ENTREGUE, CANCELADO, REEMBOLSADO):
+     *         o pedido não muda mais.
+     */
+    public boolean isFinal() {
+        return Transicoes.DESTINOS.get(this).isEmpty();
+    }
+
+    /**
+     * @return Status a partir dos quais um pedido pode chegar ao status informado.
+     */
+    public static Set<StatusPedido> origensPermitidas(StatusPedido destino) {
+        return Transicoes.ORIGENS.get(destino);
+    }
+
+    // Tabela de transições, inicializada depois das constantes do enum
+    private static final class Transicoes {
+        private static final Map<StatusPedido, Set<StatusPedido>> DESTINOS = new EnumMap<>(StatusPedido.class);
+        private static final Map<StatusPedido, Set<StatusPedido>> ORIGENS = new EnumMap<>(StatusPedido.class);
+
+        static {
+            permitir(AGUARDANDO_PAGAMENTO, PAGAMENTO_APROVADO, CANCELADO);
+            permitir(PAGAMENTO_APROVADO, EM_SEPARACAO, CANCELADO, REEMBOLSADO);
+            permitir(EM_SEPARACAO, ENVIADO, CANCELADO, REEMBOLSADO);
+            permitir(ENVIADO, ENTREGUE, REEMBOLSADO);
+            permitir(ENTREGUE);
+            permitir(CANCELADO);
+            permitir(REEMBOLSADO);
+
+            for (StatusPedido status : values()) {
+                ORIGENS.put(status, EnumSet.noneOf(StatusPedido.class));
+            }
+            DESTINOS.forEach((origem, destinos) -> destinos.forEach(destino -> ORIGENS.get(destino).add(origem)));
+            ORIGENS.replaceAll((destino, origens) -> Collections.unmodifiableSet(origens));
+        }
+
+        private static void permitir(StatusPedido origem, StatusPedido... destinos) {
+            Set<StatusPedido> permitidos = EnumSet.noneOf(StatusPedido.class);
+            Collections.addAll(permitidos, destinos);
+            DESTINOS.put(origem, Collections.unmodifiableSet(permitidos));
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package com.brasileiras.ecommerce_api.enums;
+
+import lombok.Getter;
+
+/**
+ * Mudanças de um produto em relação à lista de estoque baixo (estoque no ponto de reposição ou abaixo).
+ * <p>
+ * - ESTOQUE_BAIXO: O produto entrou na lista.
+ * - ESTOQUE_REGULARIZADO: O produto saiu da lista (estoque reposto, ponto de reposição alterado ou produto excluído).
+ */
+
+@Getter
+public enum TipoAlertaEstoque {
+    ESTOQUE_BAIXO("Estoque Baixo"),
+    ESTOQUE_REGULARIZADO("Estoque Regularizado");
+
+    private final String descricao;
+
+    TipoAlertaEstoque(String descricao) {
+        this.descricao = descricao;
+    }
+}
@@ -0,0 +1,27 @@
+package com.brasileiras.ecommerce_api.enums;
+
+import lombok.Getter;
+
+/**
+ * Tipos de evento gravados na tabela de outbox para processamento assíncrono após o commit.
+ * <p>
+ * Os tipos incluem:
+ * - PEDIDO_CRIADO: Um pedido foi criado (confirmação ao cliente).
+ * - PAGAMENTO_APROVADO: O pagamento do pedido foi aprovado (contas a receber, notificação).
+ * - PEDIDO_ENVIADO: O pedido foi enviado ao cliente.
+ * - PEDIDO_CANCELADO: O pedido foi cancelado, manualmente ou por expiração da reserva.
+ */
+
+@Getter
+public enum TipoEventoOutbox {
+    PEDIDO_CRIADO("Pedido Criado"),
+    PAGAMENTO_APROVADO("Pagamento Aprovado"),
+    PEDIDO_ENVIADO("Pedido Enviado"),
+    PEDIDO_CANCELADO("Pedido Cancelado");
+
+    private final String descricao;
+
+    TipoEventoOutbox(String descricao) {
+        this.descricao = descricao;
+    }
+}
@@ -0,0 +1,32 @@
+package com.brasileiras.ecommerce_api.enums;
+
+import lombok.Getter;
+
+/**
+ * Conjunto de campos devolvido pelos endpoints de leitura de pedidos (parâmetro {@code view}).
+ * <p>
+ * - RESUMO ("summary"): número, data, status e valor total, lidos de uma única projeção,
+ *   sem cliente, endereços, itens ou formas de pagamento.
+ * - COMPLETO ("full"): o {@code PedidoResponseDTO} com todas as associações (padrão).
+ */
+
+@Getter
+public enum VisaoPedido {
+    RESUMO("summary"),
+    COMPLETO("full");
+
+    private final String parametro;
+
+    VisaoPedido(String parametro) {
+        this.parametro = parametro;
+    }
+
+    public static VisaoPedido fromParametro(String parametro) {
+        for (VisaoPedido visao : values()) {
+            if (visao.getParametro().equalsIgnoreCase(parametro) || visao.name().equalsIgnoreCase(parametro)) {
+                return visao;
+            }
+        }
+        throw new IllegalArgumentException("Visão de pedido inválida: " + parametro + " (use summary ou full)");
+    }
+}
@@ -2,6 +2,7 @@ package com.brasileiras.ecommerce_api.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -35,6 +36,13 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return buildErrorResponse(ex, ex.getMessage(), HttpStatus.CONFLICT, request);
     }
 
+    // Handler para conflito de versão (@Version): outra transação alterou o registro depois da leitura
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex, WebRequest request) {
+        return buildErrorResponse(ex, "O registro foi alterado por outra operação. Consulte-o novamente e repita a alteração.",
+                HttpStatus.CONFLICT, request);
+    }
+
     // Handler para BusinessRuleException
     @ExceptionHandler(BusinessRuleException.class)
     public ResponseEntity<Object> handleBusinessRuleException(BusinessRuleException ex, WebRequest request) {
@@ -0,0 +1,69 @@
+package com.brasileiras.ecommerce_api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro persistente de uma Idempotency-Key recebida na criação de pedidos.
+ * A linha é inserida na mesma transação que cria o pedido, de modo que uma chave registrada
+ * sempre corresponde a um pedido confirmado, e guarda a resposta original para ser devolvida
+ * às repetições da requisição.
+ */
+@Entity
+@Table(name = "chaves_idempotencia", indexes = {
+        @Index(name = "idx_chave_idempotencia_criado_em", columnList = "criado_em")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChaveIdempotencia implements Persistable<String> {
+
+    public static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    @Id
+    @Column(length = TAMANHO_MAXIMO_CHAVE)
+    private String chave;
+
+    // SHA-256 do corpo da requisição, para recusar a mesma chave com outro conteúdo
+    @Column(name = "hash_requisicao", nullable = false, length = 64)
+    private String hashRequisicao;
+
+    @Column(name = "pedido_id")
+    private Long pedidoId;
+
+    // PedidoResponseDTO serializado em JSON
+    @Lob
+    @Column(name = "resposta")
+    private String resposta;
+
+    @Column(name = "criado_em", nullable = false)
+    @Builder.Default
+    private LocalDateTime criadoEm = LocalDateTime.now();
+
+    // A chave é atribuída pela aplicação; sem isto o save() faria um SELECT (merge) antes do INSERT
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean nova = true;
+
+    @Override
+    public String getId() {
+        return chave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nova;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarComoPersistida() {
+        this.nova = false;
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -60,6 +61,12 @@ public class Cliente {
     )
     private Set<Endereco> enderecos = new HashSet<>();
 
+    // Versão da linha: os dados do cliente fazem parte da resposta do pedido, então a versão entra no ETag do pedido
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long versao;
+
     /**
      * Define o CPF, removendo caracteres não numéricos antes de atribuir.
      * Este método será usado pelo Lombok para o 'setter' setCpf.
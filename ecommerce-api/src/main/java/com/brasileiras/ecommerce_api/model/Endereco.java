@@ -7,6 +7,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -21,7 +22,7 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder //útil para criar objetos com muitos campos de forma mais legível.
-@EqualsAndHashCode(exclude = {"id", "clientes", "fornecedor"}) // Evitar recursão no equals/hashCode
+@EqualsAndHashCode(exclude = {"id", "versao", "clientes", "fornecedor"}) // Evitar recursão no equals/hashCode
 @ToString(exclude = {"clientes", "fornecedor"}) // Adicionado para evitar recursão no toString
 public class Endereco {
     @Id
@@ -73,14 +74,25 @@ public class Endereco {
     @OneToOne(mappedBy = "endereco", fetch = FetchType.LAZY)
     private Fornecedor fornecedor;
 
+    // Versão da linha: o endereço faz parte da resposta do pedido (entrega e endereços do cliente),
+    // então a versão entra no ETag do pedido
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long versao;
+
     // Método para formatar o CEP com hífen (se necessário)
     public String getCepFormatado() {
-        if (this.cep == null || this.cep.length() != 8) {
-            return this.cep; // Retorna como está se for inválido ou nulo
+        return formatarCep(this.cep);
+    }
+
+    public static String formatarCep(String cep) {
+        if (cep == null || cep.length() != 8) {
+            return cep; // Retorna como está se for inválido ou nulo
         }
         return String.format("%s-%s",
-                this.cep.substring(0, 5),
-                this.cep.substring(5, 8));
+                cep.substring(0, 5),
+                cep.substring(5, 8));
     }
 
     public void setCep(String cep) {
@@ -0,0 +1,68 @@
+package com.brasileiras.ecommerce_api.model;
+
+import com.brasileiras.ecommerce_api.enums.StatusEventoOutbox;
+import com.brasileiras.ecommerce_api.enums.TipoEventoOutbox;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de pedido gravado na mesma transação da alteração que o originou (transactional outbox).
+ * Os efeitos colaterais (contas a receber, notificações) são executados depois do commit pelo
+ * OutboxDispatcher, fora do tempo de resposta da requisição.
+ */
+@Entity
+@Table(name = "eventos_outbox", indexes = {
+        @Index(name = "idx_outbox_status_proxima_tentativa", columnList = "status, proxima_tentativa_em")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventoOutbox {
+    @Id
+    // Sequência com alocação em blocos (pooled): o Hibernate obtém 50 IDs por ida ao banco
+    // e consegue agrupar os INSERTs em lotes JDBC, o que é impossível com IDENTITY.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evento_outbox_seq")
+    @SequenceGenerator(name = "evento_outbox_seq", sequenceName = "eventos_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull(message = "Tipo do evento não pode ser nulo")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoEventoOutbox tipo;
+
+    @NotNull(message = "Pedido não pode ser nulo")
+    @Column(name = "pedido_id", nullable = false)
+    private Long pedidoId;
+
+    @NotNull(message = "Status do evento não pode ser nulo")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private StatusEventoOutbox status = StatusEventoOutbox.PENDENTE;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int tentativas = 0;
+
+    @NotNull(message = "Data de criação não pode ser nula")
+    @Column(name = "criado_em", nullable = false)
+    @Builder.Default
+    private LocalDateTime criadoEm = LocalDateTime.now();
+
+    // Enquanto o evento está com um despachante, aponta para o fim do prazo de processamento;
+    // se a instância cair, o evento volta a ficar disponível quando o prazo vence.
+    @NotNull(message = "Data da próxima tentativa não pode ser nula")
+    @Column(name = "proxima_tentativa_em", nullable = false)
+    @Builder.Default
+    private LocalDateTime proximaTentativaEm = LocalDateTime.now();
+
+    @Column(name = "processado_em")
+    private LocalDateTime processadoEm;
+
+    @Column(name = "ultimo_erro", length = 1000)
+    private String ultimoErro;
+}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -60,6 +61,12 @@ public class Fornecedor {
     )
     private List<Produto> produtos = new ArrayList<>();
 
+    // Versão da linha: os dados do fornecedor fazem parte da resposta do produto, então a versão entra no ETag do produto
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long versao;
+
     /**
      * Retorna o CNPJ formatado (XX.XXX.XXX/XXXX-XX).
      * Assume que o CNPJ está armazenado apenas com dígitos.
@@ -29,7 +29,10 @@ import java.math.RoundingMode;
 @EqualsAndHashCode(exclude = {"pedido", "produto"}) //boa prática para coleções
 public class ItemPedido {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequência com alocação em blocos (pooled): o Hibernate obtém 50 IDs por ida ao banco
+    // e consegue agrupar os INSERTs em lotes JDBC, o que é impossível com IDENTITY.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_pedido_seq")
+    @SequenceGenerator(name = "item_pedido_seq", sequenceName = "item_pedido_seq", allocationSize = 50)
     private Long id;
 
     // Relacionamento com a entidade Pedido
@@ -84,6 +87,22 @@ public class ItemPedido {
 
     }
 
+    /**
+     * Construtor usado quando o preço de venda já é conhecido (ex: cache de catálogo), de modo que
+     * o produto pode ser apenas uma referência (proxy) sem ser carregado do banco.
+     */
+    public ItemPedido(Pedido pedido, Produto produto, int quantidade, BigDecimal valorVenda) {
+        if (pedido == null) throw new IllegalArgumentException("Pedido não pode ser nulo.");
+        if (produto == null) throw new IllegalArgumentException("Produto não pode ser nulo.");
+        if (quantidade < 1) throw new IllegalArgumentException("Quantidade deve ser no mínimo 1.");
+        if (valorVenda == null) throw new IllegalStateException("Produto " + produto.getId() + " não possui valor de venda definido.");
+
+        this.pedido = pedido;
+        this.produto = produto;
+        this.quantidade = quantidade;
+        this.precoUnitario = valorVenda.setScale(2, RoundingMode.HALF_UP);
+    }
+
     // --- Métodos auxiliares ---
 
     /**
@@ -92,10 +111,17 @@ public class ItemPedido {
      */
     @Transient // JPA não tente mapeá-lo para uma coluna no banco de dados, pois é um valor calculado.
     public BigDecimal getSubtotal() {
-        if (this.precoUnitario == null) {
+        return calcularSubtotal(this.precoUnitario, this.quantidade);
+    }
+
+    /**
+     * Subtotal de um item a partir do preço unitário e da quantidade (também usado nas projeções de leitura).
+     */
+    public static BigDecimal calcularSubtotal(BigDecimal precoUnitario, Integer quantidade) {
+        if (precoUnitario == null) {
             // Isso não deve acontecer devido às validações @NotNull e no construtor
             return BigDecimal.ZERO;
         }
-        return this.precoUnitario.multiply(new BigDecimal(this.quantidade)).setScale(2, RoundingMode.HALF_UP);
+        return precoUnitario.multiply(new BigDecimal(quantidade)).setScale(2, RoundingMode.HALF_UP);
     }
 }
@@ -0,0 +1,70 @@
+package com.brasileiras.ecommerce_api.model;
+
+import com.brasileiras.ecommerce_api.enums.FormaPagamento;
+import com.brasileiras.ecommerce_api.enums.StatusLancamento;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Lançamento em Contas a Receber gerado por uma venda: um único lançamento para pagamentos à vista
+ * ou um por parcela para vendas parceladas no cartão de crédito.
+ */
+@Entity
+@Table(name = "lancamentos_contas_receber",
+        uniqueConstraints = @UniqueConstraint(name = "uk_lancamento_pedido_parcela", columnNames = {"pedido_id", "numero_parcela"}),
+        indexes = @Index(name = "idx_lancamento_vencimento", columnList = "data_vencimento"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(exclude = "pedido")
+public class LancamentoContaReceber {
+    @Id
+    // Sequência com alocação em blocos (pooled): o Hibernate obtém 50 IDs por ida ao banco
+    // e consegue agrupar os INSERTs em lotes JDBC, o que é impossível com IDENTITY.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_conta_receber_seq")
+    @SequenceGenerator(name = "lancamento_conta_receber_seq", sequenceName = "lancamentos_contas_receber_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull(message = "Pedido não pode ser nulo")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pedido_id", nullable = false)
+    @ToString.Exclude
+    private Pedido pedido;
+
+    @Min(value = 1, message = "Número da parcela deve ser no mínimo 1")
+    @Column(name = "numero_parcela", nullable = false)
+    private int numeroParcela;
+
+    @Min(value = 1, message = "Total de parcelas deve ser no mínimo 1")
+    @Column(name = "total_parcelas", nullable = false)
+    private int totalParcelas;
+
+    @NotNull(message = "Forma de pagamento não pode ser nula")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "forma_pagamento", nullable = false, length = 30)
+    private FormaPagamento formaPagamento;
+
+    @NotNull(message = "Valor não pode ser nulo")
+    @PositiveOrZero(message = "Valor deve ser positivo ou zero")
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal valor;
+
+    @NotNull(message = "Data de lançamento não pode ser nula")
+    @Column(name = "data_lancamento", nullable = false)
+    private LocalDate dataLancamento;
+
+    @NotNull(message = "Data de vencimento não pode ser nula")
+    @Column(name = "data_vencimento", nullable = false)
+    private LocalDate dataVencimento;
+
+    @NotNull(message = "Status não pode ser nulo")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private StatusLancamento status = StatusLancamento.ABERTO;
+}
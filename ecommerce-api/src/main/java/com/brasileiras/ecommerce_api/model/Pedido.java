@@ -5,6 +5,8 @@ import com.brasileiras.ecommerce_api.enums.StatusPedido;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,15 +16,24 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "pedidos")
+@Table(name = "pedidos", indexes = {
+        // Listagem por cursor (keyset) sobre (dataPedido, id), geral e por cliente
+        @Index(name = "idx_pedido_data_id", columnList = "data_pedido, id"),
+        @Index(name = "idx_pedido_cliente_data_id", columnList = "cliente_id, data_pedido, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @EqualsAndHashCode(exclude = {"cliente", "enderecoEntrega", "itens"})
 public class Pedido {
+    public static final int MAXIMO_PARCELAS = 12;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequência com alocação em blocos (pooled): o Hibernate obtém 50 IDs por ida ao banco
+    // e consegue agrupar os INSERTs em lotes JDBC, o que é impossível com IDENTITY.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_seq")
+    @SequenceGenerator(name = "pedido_seq", sequenceName = "pedidos_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Número do pedido não pode estar em branco")
@@ -64,6 +75,14 @@ public class Pedido {
     @ToString.Exclude
     private List<ItemPedido> itens = new ArrayList<>();
 
+    // Parcelas no cartão de crédito; demais formas de pagamento geram um único lançamento
+    @Min(value = 1, message = "Número de parcelas deve ser no mínimo 1")
+    @Max(value = MAXIMO_PARCELAS, message = "Número de parcelas deve ser no máximo " + MAXIMO_PARCELAS)
+    @Column(name = "numero_parcelas", nullable = false)
+    @ColumnDefault("1")
+    @Builder.Default
+    private Integer numeroParcelas = 1;
+
     // Coleção de Enums para formas de pagamento
     @ElementCollection(targetClass = FormaPagamento.class, fetch = FetchType.LAZY) // coleção de enums
     @CollectionTable(name = "pedido_formas_pagamento", joinColumns = @JoinColumn(name = "pedido_id", referencedColumnName = "id") )// define a tabela de junção
@@ -73,6 +92,17 @@ public class Pedido {
     @Builder.Default
     private Set<FormaPagamento> formasPagamento = new HashSet<>(); // evitar duplicidade
 
+    // Versão da linha: controle de concorrência otimista e validador (ETag / Last-Modified) das leituras condicionais.
+    // Também incrementada pelos UPDATEs em lote, que não passam pelo contexto de persistência.
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long versao;
+
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
+
 //    public Pedido(Long id, String numeroPedido, LocalDateTime dataPedido, BigDecimal valorTotal, StatusPedido status, Cliente cliente, Endereco enderecoEntrega, List<ItemPedido> itens, Set<FormaPagamento> formasPagamento) {
 //        this.id = id;
 //        this.numeroPedido = numeroPedido;
@@ -113,7 +143,13 @@ public class Pedido {
      * Recalcula o valor total do pedido com base nos seus itens.
      */
     public void recalcularValorTotal() {
-
+        BigDecimal total = BigDecimal.ZERO;
+        if (this.itens != null) {
+            for (ItemPedido item : this.itens) {
+                total = total.add(item.getSubtotal());
+            }
+        }
+        this.valorTotal = total;
     }
 
     /**
@@ -1,10 +1,14 @@
 package com.brasileiras.ecommerce_api.model;
 
+import com.brasileiras.ecommerce_api.util.IndiceTextual;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /*
  * Classe que representa um produto no sistema de e-commerce BRASILEIRAS.
@@ -16,6 +20,12 @@ import java.math.BigDecimal;
 @Table(name = "produtos", uniqueConstraints = { // Adicionado para garantir unicidade no nível do BD
         @UniqueConstraint(name = "uk_produto_codigo_barras", columnNames = "produto_codigo_barras"),
         @UniqueConstraint(name = "uk_nf_codigo_barras", columnNames = "nf_codigo_barras")
+}, indexes = { // Filtros combináveis da listagem (ver ProdutoSpecifications)
+        @Index(name = "idx_produto_fornecedor_estoque", columnList = "fornecedor_id, estoque"),
+        @Index(name = "idx_produto_fornecedor_valor_venda", columnList = "fornecedor_id, valor_venda"),
+        @Index(name = "idx_produto_estoque_valor_venda", columnList = "estoque, valor_venda"),
+        @Index(name = "idx_produto_valor_venda", columnList = "valor_venda"),
+        @Index(name = "idx_produto_descricao", columnList = "descricao")
 })
 @Data
 @NoArgsConstructor
@@ -37,6 +47,12 @@ public class Produto {
     @Column(nullable = false, length = 255)
     private String descricao;
 
+    // Descrição normalizada como no índice de busca (IndiceTextual.normalizar): o filtro por descrição no banco,
+    // usado quando o índice não atende, tem o mesmo resultado que a busca no índice.
+    // A decomposição NFKD pode transformar um caractere em até 18.
+    @Column(name = "descricao_normalizada", length = 4590)
+    private String descricaoNormalizada;
+
     @NotBlank(message = "Código de barras não pode estar em branco")
     @Size(min = 8, max = 14, message = "Código de barras deve ter entre 8 e 14 caracteres.") // Para EAN-8, EAN-13, UPC-A, GTIN-14
     @Column(name = "nf_codigo_barras", length = 13, nullable = false)
@@ -60,6 +76,21 @@ public class Produto {
     @Builder.Default // Garante que o builder use O valor padrão
     private Integer estoque = 0;
 
+    // Quantidade do estoque retida por pedidos aguardando pagamento (ver ReservaEstoque).
+    // O estoque disponível para novas vendas é estoque - estoqueReservado.
+    @Min(value = 0, message = "Estoque reservado não pode ser negativo")
+    @Column(name = "estoque_reservado", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer estoqueReservado = 0;
+
+    // Ponto de reposição: com o estoque nesse nível ou abaixo, o produto entra na lista de estoque baixo
+    // (ver EstoqueBaixoService). Nulo ou zero quando o produto não é acompanhado: zero é o valor que desliga
+    // o acompanhamento, já que nas atualizações o nulo mantém o valor atual.
+    @Min(value = 0, message = "Ponto de reposição não pode ser negativo")
+    @Column(name = "ponto_reposicao")
+    private Integer pontoReposicao;
+
     // Relacionamento com a tabela de fornecedores
     // Um produto pode ter vários fornecedores
     @ManyToOne(fetch = FetchType.LAZY)
@@ -68,6 +99,30 @@ public class Produto {
     @ToString.Exclude
     private Fornecedor fornecedor;
 
+    // Versão da linha: controle de concorrência otimista e validador (ETag / Last-Modified) das leituras condicionais.
+    // Também incrementada pelos UPDATEs em lote, que não passam pelo contexto de persistência.
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long versao;
+
+    // Versão da descrição, único dado do produto na resposta do pedido: entra no ETag do pedido no lugar de versao,
+    // que também muda a cada operação de estoque. Incrementada só quando a descrição muda.
+    @Column(name = "versao_descricao", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Long versaoDescricao = 0L;
+
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
+
+
+    @PrePersist
+    @PreUpdate
+    void normalizarDescricao() {
+        this.descricaoNormalizada = IndiceTextual.normalizar(this.descricao);
+    }
 
     /**
      * Adiciona uma quantidade ao estoque.
@@ -98,6 +153,15 @@ public class Produto {
         this.estoque -= quantidade;
     }
 
+    /**
+     * Retorna o estoque que ainda pode ser vendido, descontando as reservas de pedidos em aberto.
+     */
+    @Transient
+    public int getEstoqueDisponivel() {
+        int reservado = this.estoqueReservado != null ? this.estoqueReservado : 0;
+        return this.estoque - reservado;
+    }
+
     /**
      * Verifica se há estoque disponível para uma determinada quantidade.
      * @param quantidadeDesejada A quantidade desejada.
@@ -107,6 +171,6 @@ public class Produto {
         if (quantidadeDesejada <= 0) { // Não faz sentido verificar estoque para 0 ou negativo
             return true; // Ou false, dependendo da interpretação. Se for para venda, quantidadeDesejada > 0.
         }
-        return this.estoque >= quantidadeDesejada;
+        return getEstoqueDisponivel() >= quantidadeDesejada;
     }
 }
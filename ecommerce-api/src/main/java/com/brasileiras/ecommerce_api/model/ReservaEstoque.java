@@ -0,0 +1,53 @@
+package com.brasileiras.ecommerce_api.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reserva de estoque feita na criação de um pedido.
+ * Retém a quantidade de um produto enquanto o pedido aguarda pagamento, para que vários pedidos
+ * em aberto não disputem as mesmas unidades. A reserva é consumida na aprovação do pagamento,
+ * liberada no cancelamento ou liberada automaticamente quando expira (ver ExpiracaoReservaScheduler).
+ */
+@Entity
+@Table(name = "reservas_estoque", indexes = {
+        @Index(name = "idx_reserva_pedido", columnList = "pedido_id"),
+        @Index(name = "idx_reserva_expira_em", columnList = "expira_em")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(exclude = {"pedido", "produto"})
+public class ReservaEstoque {
+    @Id
+    // Sequência com alocação em blocos (pooled): o Hibernate obtém 50 IDs por ida ao banco
+    // e consegue agrupar os INSERTs em lotes JDBC, o que é impossível com IDENTITY.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reserva_estoque_seq")
+    @SequenceGenerator(name = "reserva_estoque_seq", sequenceName = "reservas_estoque_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull(message = "Pedido não pode ser nulo")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pedido_id", nullable = false)
+    @ToString.Exclude
+    private Pedido pedido;
+
+    @NotNull(message = "Produto não pode ser nulo")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "produto_id", nullable = false)
+    @ToString.Exclude
+    private Produto produto;
+
+    @Min(value = 1, message = "Quantidade reservada deve ser no mínimo 1")
+    @Column(nullable = false)
+    private int quantidade;
+
+    @NotNull(message = "Data de expiração não pode ser nula")
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+}
@@ -0,0 +1,29 @@
+package com.brasileiras.ecommerce_api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Total de unidades vendidas de um produto, mantido a cada aprovação e cancelamento de pedido
+ * (ver ContadorVendasService), para que a consulta não precise somar todos os itens de pedido.
+ * Sem chave estrangeira para produtos: o contador é só uma soma derivada de item_pedido.
+ */
+@Entity
+@Table(name = "vendas_produto")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VendaProduto {
+    @Id
+    @Column(name = "produto_id")
+    private Long produtoId;
+
+    @Column(nullable = false)
+    private long quantidade;
+
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
+}
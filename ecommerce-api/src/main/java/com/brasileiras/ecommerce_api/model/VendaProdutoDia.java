@@ -0,0 +1,38 @@
+package com.brasileiras.ecommerce_api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Unidades vendidas de um produto em um dia (o dia do pedido), mantidas junto com {@link VendaProduto}.
+ */
+@Entity
+@Table(name = "vendas_produto_dia")
+@IdClass(VendaProdutoDia.Chave.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VendaProdutoDia {
+    @Id
+    @Column(name = "produto_id")
+    private Long produtoId;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Column(nullable = false)
+    private long quantidade;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+        private Long produtoId;
+        private LocalDate dia;
+    }
+}
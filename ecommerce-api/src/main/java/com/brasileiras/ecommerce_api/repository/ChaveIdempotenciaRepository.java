@@ -0,0 +1,18 @@
+package com.brasileiras.ecommerce_api.repository;
+
+import com.brasileiras.ecommerce_api.model.ChaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, String> {
+
+    @Modifying
+    @Query("DELETE FROM ChaveIdempotencia c WHERE c.criadoEm < :limite")
+    int deleteByCriadoEmBefore(@Param("limite") LocalDateTime limite);
+}
@@ -2,8 +2,11 @@ package com.brasileiras.ecommerce_api.repository;
 
 import com.brasileiras.ecommerce_api.model.Cliente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,4 +28,19 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     boolean existsByCpf(String cpf);
     boolean existsByEnderecos_Id(Long enderecoId);
     List<Cliente> findByNomeContainingIgnoreCase(String nome);
+
+    /**
+     * Retorna, entre os IDs informados, apenas os que existem (sem carregar as entidades).
+     * Usado para validar muitos pedidos com uma única consulta.
+     */
+    @Query("SELECT c.id FROM Cliente c WHERE c.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Endereços dos clientes informados, sem carregar as entidades (usado na leitura de pedidos).
+     * @return Linhas [clienteId, enderecoId, logradouro, numero, complemento, bairro, cidade, estado, cep].
+     */
+    @Query("SELECT c.id, e.id, e.logradouro, e.numero, e.complemento, e.bairro, e.cidade, e.estado, e.cep " +
+            "FROM Cliente c JOIN c.enderecos e WHERE c.id IN :ids ORDER BY c.id, e.id")
+    List<Object[]> findEnderecosByClienteIdIn(@Param("ids") Collection<Long> ids);
 }
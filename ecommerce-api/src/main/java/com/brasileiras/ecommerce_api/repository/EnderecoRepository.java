@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,4 +35,12 @@ public interface EnderecoRepository extends JpaRepository<Endereco, Long> {
 
     @Query("SELECT e FROM Endereco e JOIN e.clientes c WHERE c.id = :clienteId")
     List<Endereco> findAllByClienteId(@Param("clienteId") Long clienteId);
+
+    /**
+     * Retorna os pares {enderecoId, clienteId} dos endereços informados.
+     * Permite validar de uma só vez se cada endereço de entrega pertence ao cliente do pedido.
+     * @param enderecoIds IDs dos endereços.
+     */
+    @Query("SELECT e.id, c.id FROM Endereco e JOIN e.clientes c WHERE e.id IN :enderecoIds")
+    List<Object[]> findClienteIdsByEnderecoIdIn(@Param("enderecoIds") Collection<Long> enderecoIds);
 }
@@ -0,0 +1,34 @@
+package com.brasileiras.ecommerce_api.repository;
+
+import com.brasileiras.ecommerce_api.enums.StatusEventoOutbox;
+import com.brasileiras.ecommerce_api.model.EventoOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock.timeout = -2): instâncias concorrentes pegam lotes disjuntos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EventoOutbox e WHERE e.status = :status AND e.proximaTentativaEm <= :agora ORDER BY e.id")
+    List<EventoOutbox> findDisponiveis(@Param("status") StatusEventoOutbox status,
+                                       @Param("agora") LocalDateTime agora,
+                                       Pageable pageable);
+
+    long countByStatus(StatusEventoOutbox status);
+
+    @Query("SELECT MIN(e.criadoEm) FROM EventoOutbox e WHERE e.status = :status")
+    LocalDateTime findCriadoEmMaisAntigo(@Param("status") StatusEventoOutbox status);
+
+    @Modifying
+    @Query("DELETE FROM EventoOutbox e WHERE e.status = :status AND e.processadoEm < :limite")
+    int deleteProcessadosAntesDe(@Param("status") StatusEventoOutbox status, @Param("limite") LocalDateTime limite);
+}
@@ -1,9 +1,14 @@
 package com.brasileiras.ecommerce_api.repository;
 
 import com.brasileiras.ecommerce_api.model.Fornecedor;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +25,20 @@ public interface FornecedorRepository extends JpaRepository<Fornecedor, Long> {
     boolean existsByCnpj(String cnpj);
     boolean existsByEmail(String email);
     boolean existsByEndereco_Id(Long enderecoId);
+
+    /**
+     * @return IDs, entre os informados, dos fornecedores que existem.
+     */
+    @Query("SELECT f.id FROM Fornecedor f WHERE f.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Busca o fornecedor para alteração, incrementando a versão no commit mesmo quando só o endereço muda
+     * (o endereço é outra entidade e não alteraria a versão do fornecedor, que compõe o ETag do produto).
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT f FROM Fornecedor f WHERE f.id = :id")
+    Optional<Fornecedor> findParaAtualizacao(@Param("id") Long id);
     /**
      * Exemplo de método de consulta personalizado.
      * O Spring Data JPA irá gerar a implementação automaticamente
@@ -1,5 +1,7 @@
 package com.brasileiras.ecommerce_api.repository;
 
+import com.brasileiras.ecommerce_api.dto.ItemPedidoResponseDTO;
+import com.brasileiras.ecommerce_api.enums.StatusPedido;
 import com.brasileiras.ecommerce_api.model.ItemPedido;
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.brasileiras.ecommerce_api.model.Pedido;
@@ -8,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -64,7 +67,56 @@ public interface ItemPedidoRepository extends JpaRepository<ItemPedido, Long> {
      * Calcula a quantidade total de um produto específico vendida em todos os pedidos.
      * @param produtoId O ID do Produto.
      * @return A soma das quantidades, ou null se nenhum item for encontrado para o produto.
+     * @deprecated Percorre todos os itens do produto a cada chamada; use os contadores de ContadorVendasService.
      */
+    @Deprecated
     @Query("SELECT SUM(ip.quantidade) FROM ItemPedido ip WHERE ip.produto.id = :produtoId")
     Integer sumQuantidadeByProdutoId(@Param("produtoId") Long produtoId);
-}
\ No newline at end of file
+
+    /**
+     * Quantidades por pedido e produto de vários pedidos, somando linhas repetidas do mesmo produto.
+     * @param pedidoIds IDs dos pedidos.
+     * @return Linhas [pedidoId, produtoId, quantidade (Long)].
+     */
+    @Query("SELECT ip.pedido.id, ip.produto.id, SUM(ip.quantidade) FROM ItemPedido ip " +
+            "WHERE ip.pedido.id IN :pedidoIds GROUP BY ip.pedido.id, ip.produto.id")
+    List<Object[]> somarQuantidadesPorPedidoEProduto(@Param("pedidoIds") Collection<Long> pedidoIds);
+
+    /**
+     * Quantidades dos pedidos por produto e dia do pedido, para os contadores de vendas.
+     * @param pedidoIds IDs dos pedidos.
+     * @return Linhas [produtoId, dia (LocalDate), quantidade (Long)].
+     */
+    @Query("SELECT ip.produto.id, CAST(p.dataPedido AS LocalDate), SUM(ip.quantidade) FROM ItemPedido ip JOIN ip.pedido p " +
+            "WHERE p.id IN :pedidoIds GROUP BY ip.produto.id, CAST(p.dataPedido AS LocalDate)")
+    List<Object[]> somarVendasPorProdutoEDia(@Param("pedidoIds") Collection<Long> pedidoIds);
+
+    /**
+     * Mesma soma de {@link #somarVendasPorProdutoEDia} para os itens de uma faixa de IDs (reconstrução dos contadores).
+     * @param deId Primeiro ID da faixa.
+     * @param ateId Último ID da faixa, inclusive.
+     * @param status Status dos pedidos que contam como venda.
+     * @return Linhas [produtoId, dia (LocalDate), quantidade (Long)].
+     */
+    @Query("SELECT ip.produto.id, CAST(p.dataPedido AS LocalDate), SUM(ip.quantidade) FROM ItemPedido ip JOIN ip.pedido p " +
+            "WHERE ip.id BETWEEN :deId AND :ateId AND p.status IN :status " +
+            "GROUP BY ip.produto.id, CAST(p.dataPedido AS LocalDate)")
+    List<Object[]> somarVendasPorProdutoEDiaNaFaixa(@Param("deId") Long deId, @Param("ateId") Long ateId,
+                                                     @Param("status") Collection<StatusPedido> status);
+
+    /**
+     * @return Uma linha [menor ID, maior ID] dos itens de pedido (com nulls se não houver itens).
+     */
+    @Query("SELECT MIN(ip.id), MAX(ip.id) FROM ItemPedido ip")
+    List<Object[]> findFaixaDeIds();
+
+    /**
+     * Itens dos pedidos já como DTO (expressão de construtor), sem carregar ItemPedido e Produto.
+     * @param pedidoIds IDs dos pedidos.
+     * @return Itens em ordem de pedido e de inclusão.
+     */
+    @Query("SELECT new com.brasileiras.ecommerce_api.dto.ItemPedidoResponseDTO(" +
+            "ip.id, pr.id, ip.pedido.id, pr.descricao, ip.quantidade, ip.precoUnitario) " +
+            "FROM ItemPedido ip JOIN ip.produto pr WHERE ip.pedido.id IN :pedidoIds ORDER BY ip.pedido.id, ip.id")
+    List<ItemPedidoResponseDTO> findRespostasByPedidoIdIn(@Param("pedidoIds") Collection<Long> pedidoIds);
+}
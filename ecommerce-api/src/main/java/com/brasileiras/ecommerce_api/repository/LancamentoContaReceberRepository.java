@@ -0,0 +1,29 @@
+package com.brasileiras.ecommerce_api.repository;
+
+import com.brasileiras.ecommerce_api.enums.StatusLancamento;
+import com.brasileiras.ecommerce_api.model.LancamentoContaReceber;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LancamentoContaReceberRepository extends JpaRepository<LancamentoContaReceber, Long> {
+
+    List<LancamentoContaReceber> findByPedidoIdOrderByNumeroParcela(Long pedidoId);
+
+    // DELETE em conjunto, sem carregar as entidades (usado na regeração dos lançamentos)
+    @Modifying
+    @Query("DELETE FROM LancamentoContaReceber l WHERE l.pedido.id IN :pedidoIds")
+    int deleteByPedidoIdIn(@Param("pedidoIds") Collection<Long> pedidoIds);
+
+    @Modifying
+    @Query("UPDATE LancamentoContaReceber l SET l.status = :novoStatus WHERE l.pedido.id = :pedidoId AND l.status = :statusAtual")
+    int atualizarStatusPorPedido(@Param("pedidoId") Long pedidoId,
+                                 @Param("statusAtual") StatusLancamento statusAtual,
+                                 @Param("novoStatus") StatusLancamento novoStatus);
+}
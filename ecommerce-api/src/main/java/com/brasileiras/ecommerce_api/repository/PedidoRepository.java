@@ -1,17 +1,26 @@
 package com.brasileiras.ecommerce_api.repository;
 
+import com.brasileiras.ecommerce_api.dto.PedidoResumoDTO;
+import com.brasileiras.ecommerce_api.enums.StatusPedido;
 import com.brasileiras.ecommerce_api.model.Cliente;
 import com.brasileiras.ecommerce_api.model.Pedido;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PedidoRepository extends JpaRepository<Pedido, Long> {
+public interface PedidoRepository extends JpaRepository<Pedido, Long>, PedidoRepositoryCustom {
     List<Pedido> findByClienteId(Long clienteId);
     Optional<Pedido> findByNumeroPedido(String numeroPedido);
     /**
@@ -28,4 +37,138 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
      * @return Uma lista de pedidos para o cliente especificado.
      */
     List<Pedido> findByCliente(Cliente cliente);
-}
\ No newline at end of file
+
+    /**
+     * Dados usados na geração de Contas a Receber, sem carregar as entidades.
+     * @return Linhas [id, valorTotal, dataPedido, numeroParcelas] dos pedidos que estão em um dos status informados.
+     */
+    @Query("SELECT p.id, p.valorTotal, p.dataPedido, p.numeroParcelas FROM Pedido p WHERE p.id IN :ids AND p.status IN :status")
+    List<Object[]> findDadosFaturamento(@Param("ids") Collection<Long> ids, @Param("status") Collection<StatusPedido> status);
+
+    /**
+     * @return Pares [pedidoId, formaPagamento] dos pedidos informados.
+     */
+    @Query("SELECT p.id, f FROM Pedido p JOIN p.formasPagamento f WHERE p.id IN :ids")
+    List<Object[]> findFormasPagamentoByPedidoIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Próxima página de IDs de pedidos por status, em ordem de ID (paginação por chave, sem OFFSET).
+     * Os limites de data são opcionais; fim é exclusivo.
+     */
+    @Query("SELECT p.id FROM Pedido p WHERE p.status IN :status AND p.id > :aposId " +
+            "AND (:inicio IS NULL OR p.dataPedido >= :inicio) AND (:fim IS NULL OR p.dataPedido < :fim) ORDER BY p.id")
+    List<Long> findIdsPorStatusAposId(@Param("status") Collection<StatusPedido> status,
+                                      @Param("aposId") Long aposId,
+                                      @Param("inicio") LocalDateTime inicio,
+                                      @Param("fim") LocalDateTime fim,
+                                      Pageable pageable);
+
+    /**
+     * @return Pares [id, status] dos pedidos informados que existem.
+     */
+    @Query("SELECT p.id, p.status FROM Pedido p WHERE p.id IN :ids")
+    List<Object[]> findStatusByIdIn(@Param("ids") Collection<Long> ids);
+
+    /*
+     * Listagem em duas fases: primeiro só os IDs da página (ordenação e paginação no banco, sem
+     * multiplicar linhas por junções), depois os dados desses IDs em um número fixo de consultas de projeção.
+     */
+    @Query(value = "SELECT p.id FROM Pedido p", countQuery = "SELECT COUNT(p) FROM Pedido p")
+    Page<Long> findPaginaDeIds(Pageable pageable);
+
+    @Query(value = "SELECT p.id FROM Pedido p WHERE p.cliente.id = :clienteId",
+            countQuery = "SELECT COUNT(p) FROM Pedido p WHERE p.cliente.id = :clienteId")
+    Page<Long> findPaginaDeIdsByClienteId(@Param("clienteId") Long clienteId, Pageable pageable);
+
+    /**
+     * Cabeçalho dos pedidos para montar o {@code PedidoResponseDTO} sem carregar entidades (projeção).
+     * @return Linhas [id, numeroPedido, dataPedido, valorTotal, status, numeroParcelas,
+     *         clienteId, nome, cpf, email, telefone,
+     *         enderecoId, logradouro, numero, complemento, bairro, cidade, estado, cep].
+     */
+    @Query("SELECT p.id, p.numeroPedido, p.dataPedido, p.valorTotal, p.status, p.numeroParcelas, " +
+            "c.id, c.nome, c.cpf, c.email, c.telefone, " +
+            "ee.id, ee.logradouro, ee.numero, ee.complemento, ee.bairro, ee.cidade, ee.estado, ee.cep " +
+            "FROM Pedido p JOIN p.cliente c JOIN p.enderecoEntrega ee WHERE p.id IN :ids")
+    List<Object[]> findCabecalhosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Pedido p WHERE p.numeroPedido = :numeroPedido")
+    Optional<Long> findIdByNumeroPedido(@Param("numeroPedido") String numeroPedido);
+
+    /*
+     * Validadores do GET condicional, lidos sem carregar o pedido: a versão do pedido, a do cliente
+     * (nome, CPF etc. entram na resposta completa), a soma das versões de descrição dos produtos dos itens
+     * (operações de estoque não mudam a resposta do pedido), a versão do endereço de entrega e a soma das
+     * versões dos endereços do cliente. Versões só crescem, então cada soma muda a cada alteração.
+     * Linhas [versao, atualizadoEm, versaoCliente, somaVersoesDescricao, versaoEnderecoEntrega, somaVersoesEnderecos].
+     */
+    @Query("SELECT p.versao, p.atualizadoEm, c.versao, " +
+            "(SELECT SUM(pr.versaoDescricao) FROM ItemPedido ip JOIN ip.produto pr WHERE ip.pedido.id = p.id), ee.versao, " +
+            "(SELECT SUM(e.versao) FROM Cliente c2 JOIN c2.enderecos e WHERE c2.id = c.id) " +
+            "FROM Pedido p JOIN p.cliente c JOIN p.enderecoEntrega ee WHERE p.id = :id")
+    List<Object[]> findVersaoById(@Param("id") Long id);
+
+    @Query("SELECT p.versao, p.atualizadoEm, c.versao, " +
+            "(SELECT SUM(pr.versaoDescricao) FROM ItemPedido ip JOIN ip.produto pr WHERE ip.pedido.id = p.id), ee.versao, " +
+            "(SELECT SUM(e.versao) FROM Cliente c2 JOIN c2.enderecos e WHERE c2.id = c.id) " +
+            "FROM Pedido p JOIN p.cliente c JOIN p.enderecoEntrega ee WHERE p.numeroPedido = :numeroPedido")
+    List<Object[]> findVersaoByNumeroPedido(@Param("numeroPedido") String numeroPedido);
+
+    /*
+     * Listagem por cursor (keyset) em ordem de (dataPedido, id): a página seguinte começa estritamente depois
+     * da chave do último pedido entregue, então o banco desce pelo índice sem OFFSET, e o retorno em List
+     * dispensa o COUNT. Linhas [id, dataPedido].
+     */
+    @Query("SELECT p.id, p.dataPedido FROM Pedido p ORDER BY p.dataPedido, p.id")
+    List<Object[]> findChavesIniciais(Pageable limite);
+
+    @Query("SELECT p.id, p.dataPedido FROM Pedido p " +
+            "WHERE p.dataPedido > :dataPedido OR (p.dataPedido = :dataPedido AND p.id > :id) ORDER BY p.dataPedido, p.id")
+    List<Object[]> findChavesApos(@Param("dataPedido") LocalDateTime dataPedido, @Param("id") Long id, Pageable limite);
+
+    @Query("SELECT p.id, p.dataPedido FROM Pedido p WHERE p.cliente.id = :clienteId ORDER BY p.dataPedido, p.id")
+    List<Object[]> findChavesIniciaisByClienteId(@Param("clienteId") Long clienteId, Pageable limite);
+
+    @Query("SELECT p.id, p.dataPedido FROM Pedido p WHERE p.cliente.id = :clienteId " +
+            "AND (p.dataPedido > :dataPedido OR (p.dataPedido = :dataPedido AND p.id > :id)) ORDER BY p.dataPedido, p.id")
+    List<Object[]> findChavesAposByClienteId(@Param("clienteId") Long clienteId,
+                                             @Param("dataPedido") LocalDateTime dataPedido,
+                                             @Param("id") Long id,
+                                             Pageable limite);
+
+    /**
+     * IDs dos pedidos a exportar, em ordem de ID, lidos por um cursor JDBC somente-avanço (o Stream do Hibernate
+     * usa ScrollMode.FORWARD_ONLY): as linhas chegam do banco em lotes do fetch size, sem materializar o resultado.
+     * O Stream deve ser consumido dentro de uma transação e fechado ao final. Datas opcionais; fim é exclusivo.
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT p.id FROM Pedido p WHERE p.status IN :status " +
+            "AND (:inicio IS NULL OR p.dataPedido >= :inicio) AND (:fim IS NULL OR p.dataPedido < :fim) ORDER BY p.id")
+    Stream<Long> streamIdsParaExportacao(@Param("status") Collection<StatusPedido> status,
+                                         @Param("inicio") LocalDateTime inicio,
+                                         @Param("fim") LocalDateTime fim);
+
+    /*
+     * Visão resumida (view=summary): só colunas de pedidos, por expressão de construtor,
+     * sem junção com clientes, endereços, itens ou formas de pagamento.
+     */
+    @Query(value = "SELECT new com.brasileiras.ecommerce_api.dto.PedidoResumoDTO(p.id, p.numeroPedido, p.dataPedido, p.status, p.valorTotal) FROM Pedido p",
+            countQuery = "SELECT COUNT(p) FROM Pedido p")
+    Page<PedidoResumoDTO> findResumos(Pageable pageable);
+
+    @Query(value = "SELECT new com.brasileiras.ecommerce_api.dto.PedidoResumoDTO(p.id, p.numeroPedido, p.dataPedido, p.status, p.valorTotal) " +
+            "FROM Pedido p WHERE p.cliente.id = :clienteId",
+            countQuery = "SELECT COUNT(p) FROM Pedido p WHERE p.cliente.id = :clienteId")
+    Page<PedidoResumoDTO> findResumosByClienteId(@Param("clienteId") Long clienteId, Pageable pageable);
+
+    @Query("SELECT new com.brasileiras.ecommerce_api.dto.PedidoResumoDTO(p.id, p.numeroPedido, p.dataPedido, p.status, p.valorTotal) " +
+            "FROM Pedido p WHERE p.id IN :ids")
+    List<PedidoResumoDTO> findResumosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.brasileiras.ecommerce_api.dto.PedidoResumoDTO(p.id, p.numeroPedido, p.dataPedido, p.status, p.valorTotal) " +
+            "FROM Pedido p WHERE p.numeroPedido = :numeroPedido")
+    Optional<PedidoResumoDTO> findResumoByNumeroPedido(@Param("numeroPedido") String numeroPedido);
+}
@@ -0,0 +1,26 @@
+package com.brasileiras.ecommerce_api.repository;
+
+import com.brasileiras.ecommerce_api.enums.StatusPedido;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Operações de pedido em lote que não se encaixam em métodos derivados do Spring Data.
+ * Implementada por {@link PedidoRepositoryCustomImpl} com JDBC batch.
+ */
+public interface PedidoRepositoryCustom {
+
+    /**
+     * Altera o status de vários pedidos com um lote de UPDATEs condicionais
+     * ({@code status = ? WHERE id = ? AND status IN (...)}), sem carregar as entidades.
+     * Um pedido que já saiu dos status de origem (ex.: pago durante a expiração) não é alterado.
+     *
+     * @param pedidoIds IDs dos pedidos.
+     * @param statusOrigem Status a partir dos quais a transição é permitida.
+     * @param novoStatus Status de destino.
+     * @return IDs dos pedidos que não foram alterados (inexistentes ou fora dos status de origem).
+     */
+    List<Long> atualizarStatusEmLote(Collection<Long> pedidoIds, Set<StatusPedido> statusOrigem, StatusPedido novoStatus);
+}
@@ -0,0 +1,53 @@
+package com.brasileiras.ecommerce_api.repository;
+
+import com.brasileiras.ecommerce_api.enums.StatusPedido;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Implementação das operações em lote de {@link PedidoRepositoryCustom}.
+ * Usa o JdbcTemplate, que participa da mesma transação JPA aberta pelo serviço.
+ */
+public class PedidoRepositoryCustomImpl implements PedidoRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PedidoRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Long> atualizarStatusEmLote(Collection<Long> pedidoIds, Set<StatusPedido> statusOrigem, StatusPedido novoStatus) {
+        // TreeSet: ordem determinística de travamento das linhas
+        List<Long> ids = new ArrayList<>(new TreeSet<>(pedidoIds));
+        if (ids.isEmpty() || statusOrigem.isEmpty()) {
+            return ids;
+        }
+        String placeholders = statusOrigem.stream().map(s -> "?").collect(Collectors.joining(", "));
+        String sql = "UPDATE pedidos SET status = ?, versao = versao + 1, atualizado_em = LOCALTIMESTAMP WHERE id = ? AND status IN (" + placeholders + ")";
+
+        List<Object[]> parametros = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            List<Object> linha = new ArrayList<>(statusOrigem.size() + 2);
+            linha.add(novoStatus.name());
+            linha.add(id);
+            statusOrigem.forEach(s -> linha.add(s.name()));
+            parametros.add(linha.toArray());
+        }
+
+        int[] linhasAfetadas = jdbcTemplate.batchUpdate(sql, parametros);
+        List<Long> recusados = new ArrayList<>();
+        for (int i = 0; i < linhasAfetadas.length; i++) {
+            if (linhasAfetadas[i] == 0) {
+                recusados.add(ids.get(i));
+            }
+        }
+        return recusados;
+    }
+}
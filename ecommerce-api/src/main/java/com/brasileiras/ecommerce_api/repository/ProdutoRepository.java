@@ -1,41 +1,148 @@
 package com.brasileiras.ecommerce_api.repository;
 
 import com.brasileiras.ecommerce_api.model.Produto;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProdutoRepository extends JpaRepository<Produto, Long> {
+public interface ProdutoRepository extends JpaRepository<Produto, Long>, JpaSpecificationExecutor<Produto>,
+        ProdutoRepositoryCustom {
     Optional<Produto> findByCodigoBarrasProduto(String codigoBarrasProduto);
     Optional<Produto> findByCodigoBarras(String codigoBarras);
     boolean existsByCodigoBarrasProduto(String codigoBarrasProduto);
     boolean existsByCodigoBarras(String codigoBarras);
 
     /**
-     * Encontra produtos cuja descrição contenha a string fornecida (case-insensitive), com paginação e ordenação.
-     * @param descricao Termo de busca para a descrição.
-     * @param pageable Objeto contendo informações de paginação e ordenação.
-     * @return Uma página de produtos correspondentes.
+     * Produtos com o fornecedor e o endereço do fornecedor em uma única consulta (carga do cache de catálogo).
      */
-    Page<Produto> findByDescricaoContainingIgnoreCase(String descricao, Pageable pageable);
+    @Query("SELECT p FROM Produto p JOIN FETCH p.fornecedor f LEFT JOIN FETCH f.endereco WHERE p.id IN :ids")
+    List<Produto> findComFornecedorByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.estoque FROM Produto p WHERE p.id = :id")
+    Optional<Integer> findEstoqueById(@Param("id") Long id);
+
+    /**
+     * @return Pares [id, estoque] dos produtos informados que existem.
+     */
+    @Query("SELECT p.id, p.estoque FROM Produto p WHERE p.id IN :ids")
+    List<Object[]> findEstoqueByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return Linhas [id, estoque, estoqueReservado] dos produtos informados que existem.
+     */
+    @Query("SELECT p.id, p.estoque, p.estoqueReservado FROM Produto p WHERE p.id IN :ids")
+    List<Object[]> findSaldoByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Situação atual dos produtos informados que existem, relida após alterações (ver ReleituraProdutoService).
+     * @return Linhas [id, codigoBarrasProduto, codigoBarras, descricao, valorVenda, estoque, pontoReposicao].
+     */
+    @Query("SELECT p.id, p.codigoBarrasProduto, p.codigoBarras, p.descricao, p.valorVenda, p.estoque, p.pontoReposicao " +
+            "FROM Produto p WHERE p.id IN :ids")
+    List<Object[]> findSituacaoByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Próxima página da situação dos produtos, em ordem de ID (paginação por chave), para a carga do índice
+     * de códigos de barras.
+     * @return Linhas [id, codigoBarrasProduto, codigoBarras, descricao, valorVenda, estoque, pontoReposicao].
+     */
+    @Query("SELECT p.id, p.codigoBarrasProduto, p.codigoBarras, p.descricao, p.valorVenda, p.estoque, p.pontoReposicao " +
+            "FROM Produto p WHERE p.id > :aposId ORDER BY p.id")
+    List<Object[]> findSituacoesAposId(@Param("aposId") Long aposId, Pageable pageable);
+
+    /**
+     * Produtos acompanhados com estoque no ponto de reposição ou abaixo (carga inicial da lista de estoque baixo).
+     * @return Linhas [id, descricao, estoque, pontoReposicao].
+     */
+    @Query("SELECT p.id, p.descricao, p.estoque, p.pontoReposicao FROM Produto p " +
+            "WHERE p.pontoReposicao > 0 AND p.estoque <= p.pontoReposicao")
+    List<Object[]> findComEstoqueBaixo();
+
+    /**
+     * Próxima página de pares [id, descricao], em ordem de ID (paginação por chave, sem OFFSET).
+     * Usada na construção do índice de busca de produtos.
+     */
+    @Query("SELECT p.id, p.descricao FROM Produto p WHERE p.id > :aposId ORDER BY p.id")
+    List<Object[]> findDescricoesAposId(@Param("aposId") Long aposId, Pageable pageable);
+
+    /**
+     * Pares [id, descricao] dos produtos gravados antes da coluna descricao_normalizada existir, em ordem de ID.
+     */
+    @Query("SELECT p.id, p.descricao FROM Produto p WHERE p.descricaoNormalizada IS NULL ORDER BY p.id")
+    List<Object[]> findDescricoesSemNormalizacao(Pageable pageable);
+
+    /**
+     * Próxima página de linhas [id, codigoBarrasProduto, codigoBarras], em ordem de ID (paginação por chave).
+     * Usada para montar os filtros de Bloom da importação de produtos.
+     */
+    @Query("SELECT p.id, p.codigoBarrasProduto, p.codigoBarras FROM Produto p WHERE p.id > :aposId ORDER BY p.id")
+    List<Object[]> findCodigosAposId(@Param("aposId") Long aposId, Pageable pageable);
+
+    /**
+     * @return Linhas [id, codigoBarrasProduto] dos produtos com os SKUs informados.
+     */
+    @Query("SELECT p.id, p.codigoBarrasProduto FROM Produto p WHERE p.codigoBarrasProduto IN :codigos")
+    List<Object[]> findIdsByCodigoBarrasProdutoIn(@Param("codigos") Collection<String> codigos);
+
+    /**
+     * @return Linhas [id, codigoBarras] dos produtos com os códigos de barras da NF informados.
+     */
+    @Query("SELECT p.id, p.codigoBarras FROM Produto p WHERE p.codigoBarras IN :codigos")
+    List<Object[]> findIdsByCodigoBarrasIn(@Param("codigos") Collection<String> codigos);
+
+    /**
+     * Catálogo atual dos produtos informados, para as alterações em lote.
+     * @return Linhas [id, codigoBarrasProduto, descricao, valorCompra, valorVenda].
+     */
+    @Query("SELECT p.id, p.codigoBarrasProduto, p.descricao, p.valorCompra, p.valorVenda FROM Produto p WHERE p.id IN :ids")
+    List<Object[]> findCatalogoByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return Linhas [id, codigoBarrasProduto, descricao, valorCompra, valorVenda] dos produtos com os SKUs informados.
+     */
+    @Query("SELECT p.id, p.codigoBarrasProduto, p.descricao, p.valorCompra, p.valorVenda FROM Produto p " +
+            "WHERE p.codigoBarrasProduto IN :codigos")
+    List<Object[]> findCatalogoByCodigoBarrasProdutoIn(@Param("codigos") Collection<String> codigos);
+
+    /**
+     * Validadores do GET condicional, lidos sem carregar o produto nem o fornecedor
+     * (os dados do fornecedor fazem parte da resposta do produto).
+     * @return Linhas [versao, atualizadoEm, versaoFornecedor].
+     */
+    @Query("SELECT p.versao, p.atualizadoEm, f.versao FROM Produto p JOIN p.fornecedor f WHERE p.id = :id")
+    List<Object[]> findVersaoById(@Param("id") Long id);
 
     /**
-     * Encontra produtos com estoque abaixo de um certo limite, com paginação e ordenação.
-     * @param quantidadeMaxima Limite máximo de estoque.
-     * @param pageable Objeto contendo informações de paginação e ordenação.
-     * @return Uma página de produtos com estoque baixo.
+     * Debita o estoque de forma atômica, somente se houver saldo suficiente (descontadas as reservas).
+     * Substitui o ciclo ler-modificar-salvar, que permitia vender o mesmo estoque duas vezes
+     * quando duas transações concorrentes passavam pela verificação ao mesmo tempo.
+     * @param produtoId ID do produto.
+     * @param quantidade Quantidade a debitar (positiva).
+     * @return 1 se o débito foi aplicado, 0 se o produto não existe ou o estoque é insuficiente.
      */
-    Page<Produto> findByEstoqueLessThanEqual(int quantidadeMaxima, Pageable pageable);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Produto p SET p.estoque = p.estoque - :quantidade, " +
+            "p.versao = p.versao + 1, p.atualizadoEm = LOCAL DATETIME " +
+            "WHERE p.id = :produtoId AND p.estoque - p.estoqueReservado >= :quantidade")
+    int debitarEstoque(@Param("produtoId") Long produtoId, @Param("quantidade") int quantidade);
 
     /**
-     * Encontra produtos de um fornecedor específico, com paginação e ordenação.
-     * @param fornecedorId ID do fornecedor.
-     * @param pageable Objeto contendo informações de paginação e ordenação.
-     * @return Uma página de produtos do fornecedor.
+     * Credita o estoque de forma atômica (sem perder atualizações concorrentes).
+     * @param produtoId ID do produto.
+     * @param quantidade Quantidade a creditar (positiva).
+     * @return 1 se o crédito foi aplicado, 0 se o produto não existe.
      */
-    Page<Produto> findByFornecedorId(Long fornecedorId, Pageable pageable);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Produto p SET p.estoque = p.estoque + :quantidade, " +
+            "p.versao = p.versao + 1, p.atualizadoEm = LOCAL DATETIME WHERE p.id = :produtoId")
+    int creditarEstoque(@Param("produtoId") Long produtoId, @Param("quantidade") int quantidade);
 }
@@ -0,0 +1,114 @@
+package com.brasileiras.ecommerce_api.repository;
+
+import com.brasileiras.ecommerce_api.model.Produto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operações de estoque e de catálogo em lote que não se encaixam em métodos derivados do Spring Data.
+ * Implementada por {@link ProdutoRepositoryCustomImpl} com JDBC batch.
+ */
+public interface ProdutoRepositoryCustom {
+
+    /**
+     * Alteração de catálogo de um produto: os campos nulos ficam como estão.
+     */
+    record AlteracaoCatalogo(Long id, String descricao, BigDecimal valorCompra, BigDecimal valorVenda) {
+        public boolean vazia() {
+            return descricao == null && valorCompra == null && valorVenda == null;
+        }
+    }
+
+    /**
+     * Debita o estoque de vários produtos com um único lote de UPDATEs condicionais
+     * ({@code estoque = estoque - ? WHERE id = ? AND estoque - estoque_reservado >= ?}).
+     * Os produtos são processados em ordem crescente de ID para que transações concorrentes
+     * travem as linhas sempre na mesma ordem (evita deadlocks).
+     *
+     * @param quantidadesPorProduto Quantidade a debitar por ID de produto.
+     * @return IDs dos produtos cujo débito foi recusado (estoque insuficiente ou produto inexistente).
+     *         Lista vazia se todos os débitos foram aplicados.
+     */
+    List<Long> debitarEstoqueEmLote(Map<Long, Integer> quantidadesPorProduto);
+
+    /**
+     * Credita (devolve) o estoque de vários produtos com um único lote de UPDATEs atômicos.
+     *
+     * @param quantidadesPorProduto Quantidade a creditar por ID de produto.
+     * @return IDs dos produtos não encontrados.
+     */
+    List<Long> creditarEstoqueEmLote(Map<Long, Integer> quantidadesPorProduto);
+
+    /**
+     * Soma a cada produto o seu ajuste líquido (positivo ou negativo) com um único lote de UPDATEs condicionais
+     * ({@code estoque = estoque + ? WHERE id = ? AND estoque + ? >= estoque_reservado}), em ordem crescente de ID.
+     * Uma saída não pode consumir unidades reservadas por pedidos.
+     *
+     * @param quantidadesPorProduto Ajuste líquido por ID de produto.
+     * @return IDs dos produtos cujo ajuste foi recusado (saldo insuficiente, estoque acima do limite da
+     *         coluna ou produto inexistente).
+     */
+    List<Long> ajustarEstoqueEmLote(Map<Long, Integer> quantidadesPorProduto);
+
+    /**
+     * Reserva estoque para um pedido em aberto, somente se houver saldo disponível
+     * ({@code estoque - estoque_reservado >= quantidade}).
+     *
+     * @param quantidadesPorProduto Quantidade a reservar por ID de produto.
+     * @return IDs dos produtos sem saldo disponível (ou inexistentes).
+     */
+    List<Long> reservarEstoqueEmLote(Map<Long, Integer> quantidadesPorProduto);
+
+    /**
+     * Devolve ao saldo disponível quantidades reservadas (cancelamento ou expiração do pedido).
+     *
+     * @param quantidadesPorProduto Quantidade a liberar por ID de produto.
+     * @return IDs dos produtos cuja reserva não pôde ser liberada.
+     */
+    List<Long> liberarReservaEmLote(Map<Long, Integer> quantidadesPorProduto);
+
+    /**
+     * Converte reservas em venda: debita o estoque e a reserva na mesma instrução.
+     *
+     * @param quantidadesPorProduto Quantidade reservada por ID de produto.
+     * @return IDs dos produtos cuja reserva não pôde ser confirmada.
+     */
+    List<Long> confirmarReservaEmLote(Map<Long, Integer> quantidadesPorProduto);
+
+    /**
+     * Insere os produtos com um único lote de INSERTs, sem passar pelo contexto de persistência
+     * (importação de catálogo). Só o ID do fornecedor é lido de cada produto; os IDs gerados não são
+     * devolvidos e devem ser lidos pelos SKUs.
+     *
+     * @param produtos Produtos novos, sem ID.
+     */
+    void inserirEmLote(List<Produto> produtos);
+
+    /**
+     * Grava a descrição normalizada dos produtos com um único lote de UPDATEs, sem alterar a versão
+     * (é derivada da descrição, que não muda).
+     *
+     * @param descricoesPorProduto Descrição atual por ID de produto.
+     */
+    void normalizarDescricoesEmLote(Map<Long, String> descricoesPorProduto);
+
+    /**
+     * Atualiza o catálogo dos produtos com um único lote de UPDATEs por ID. Estoque e ponto de reposição
+     * nulos mantêm o valor atual; o estoque só é alterado se não ficar abaixo do reservado por pedidos em aberto.
+     *
+     * @param produtos Produtos com o ID da linha a atualizar.
+     * @return IDs dos produtos não atualizados (inexistentes ou com estoque menor que o reservado).
+     */
+    List<Long> atualizarCatalogoEmLote(List<Produto> produtos);
+
+    /**
+     * Altera preços e descrição com UPDATEs em lote que só gravam as colunas informadas: as alterações são
+     * agrupadas pelas colunas não nulas entre descricao, valorCompra e valorVenda, e cada grupo vira um lote JDBC.
+     *
+     * @param alteracoes Alterações com o ID e só as colunas a alterar preenchidas.
+     * @return IDs dos produtos não encontrados.
+     */
+    List<Long> alterarCatalogoEmLote(List<AlteracaoCatalogo> alteracoes);
+}
@@ -0,0 +1,198 @@
+package com.brasileiras.ecommerce_api.repository;
+
+import com.brasileiras.ecommerce_api.model.Produto;
+import com.brasileiras.ecommerce_api.util.IndiceTextual;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+
+/**
+ * Implementação das operações de estoque e de catálogo em lote de {@link ProdutoRepositoryCustom}.
+ * Usa o JdbcTemplate, que participa da mesma transação JPA aberta pelo serviço.
+ */
+public class ProdutoRepositoryCustomImpl implements ProdutoRepositoryCustom {
+
+    // Toda alteração de estoque incrementa a versão da linha: invalida os ETags do produto e faz
+    // uma gravação concorrente da entidade (com estoque lido antes) falhar em vez de sobrescrever o saldo
+    private static final String VERSIONAR = ", versao = versao + 1, atualizado_em = LOCALTIMESTAMP";
+
+    // O débito direto não pode consumir unidades reservadas por outros pedidos
+    private static final String SQL_DEBITAR_ESTOQUE =
+            "UPDATE produtos SET estoque = estoque - ?" + VERSIONAR + " WHERE id = ? AND estoque - estoque_reservado >= ?";
+    private static final String SQL_CREDITAR_ESTOQUE =
+            "UPDATE produtos SET estoque = estoque + ?" + VERSIONAR + " WHERE id = ?";
+    // Soma em BIGINT: um ajuste que estouraria a coluna só recusa o produto, sem derrubar o lote
+    private static final String SQL_AJUSTAR_ESTOQUE =
+            "UPDATE produtos SET estoque = estoque + ?" + VERSIONAR +
+                    " WHERE id = ? AND CAST(estoque AS BIGINT) + ? BETWEEN estoque_reservado AND " + Integer.MAX_VALUE;
+    private static final String SQL_RESERVAR_ESTOQUE =
+            "UPDATE produtos SET estoque_reservado = estoque_reservado + ?" + VERSIONAR +
+                    " WHERE id = ? AND estoque - estoque_reservado >= ?";
+    private static final String SQL_LIBERAR_RESERVA =
+            "UPDATE produtos SET estoque_reservado = estoque_reservado - ?" + VERSIONAR +
+                    " WHERE id = ? AND estoque_reservado >= ?";
+    private static final String SQL_CONFIRMAR_RESERVA =
+            "UPDATE produtos SET estoque = estoque - ?, estoque_reservado = estoque_reservado - ?" + VERSIONAR +
+                    " WHERE id = ? AND estoque_reservado >= ? AND estoque >= ?";
+
+    private static final String SQL_INSERIR_PRODUTO =
+            "INSERT INTO produtos (produto_codigo_barras, descricao, descricao_normalizada, nf_codigo_barras, valor_compra, " +
+                    "valor_venda, estoque, estoque_reservado, ponto_reposicao, fornecedor_id, versao, versao_descricao, atualizado_em) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?, 0, 0, LOCALTIMESTAMP)";
+    private static final String SQL_NORMALIZAR_DESCRICAO =
+            "UPDATE produtos SET descricao_normalizada = ? WHERE id = ?";
+    // A versão da descrição (ETag dos pedidos) só muda se o texto mudar; o lado direito vê os valores antigos
+    private static final String SQL_ATUALIZAR_CATALOGO =
+            "UPDATE produtos SET versao_descricao = CASE WHEN descricao = ? THEN versao_descricao ELSE versao_descricao + 1 END, " +
+                    "descricao = ?, descricao_normalizada = ?, nf_codigo_barras = ?, valor_compra = ?, valor_venda = ?, " +
+                    "estoque = COALESCE(?, estoque), ponto_reposicao = COALESCE(?, ponto_reposicao), fornecedor_id = ?" +
+                    VERSIONAR + " WHERE id = ? AND COALESCE(?, estoque) >= estoque_reservado";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProdutoRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Long> debitarEstoqueEmLote(Map<Long, Integer> quantidadesPorProduto) {
+        return executarEmLote(SQL_DEBITAR_ESTOQUE, quantidadesPorProduto, (id, quantidade) -> new Object[]{quantidade, id, quantidade});
+    }
+
+    @Override
+    public List<Long> creditarEstoqueEmLote(Map<Long, Integer> quantidadesPorProduto) {
+        return executarEmLote(SQL_CREDITAR_ESTOQUE, quantidadesPorProduto, (id, quantidade) -> new Object[]{quantidade, id});
+    }
+
+    @Override
+    public List<Long> ajustarEstoqueEmLote(Map<Long, Integer> quantidadesPorProduto) {
+        return executarEmLote(SQL_AJUSTAR_ESTOQUE, quantidadesPorProduto, (id, quantidade) -> new Object[]{quantidade, id, quantidade});
+    }
+
+    @Override
+    public List<Long> reservarEstoqueEmLote(Map<Long, Integer> quantidadesPorProduto) {
+        return executarEmLote(SQL_RESERVAR_ESTOQUE, quantidadesPorProduto, (id, quantidade) -> new Object[]{quantidade, id, quantidade});
+    }
+
+    @Override
+    public List<Long> liberarReservaEmLote(Map<Long, Integer> quantidadesPorProduto) {
+        return executarEmLote(SQL_LIBERAR_RESERVA, quantidadesPorProduto, (id, quantidade) -> new Object[]{quantidade, id, quantidade});
+    }
+
+    @Override
+    public List<Long> confirmarReservaEmLote(Map<Long, Integer> quantidadesPorProduto) {
+        return executarEmLote(SQL_CONFIRMAR_RESERVA, quantidadesPorProduto,
+                (id, quantidade) -> new Object[]{quantidade, quantidade, id, quantidade, quantidade});
+    }
+
+    @Override
+    public void inserirEmLote(List<Produto> produtos) {
+        List<Object[]> parametros = new ArrayList<>(produtos.size());
+        for (Produto produto : produtos) {
+            parametros.add(new Object[]{produto.getCodigoBarrasProduto(), produto.getDescricao(),
+                    IndiceTextual.normalizar(produto.getDescricao()), produto.getCodigoBarras(), produto.getValorCompra(),
+                    produto.getValorVenda(), produto.getEstoque(), produto.getPontoReposicao(), produto.getFornecedor().getId()});
+        }
+        if (!parametros.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERIR_PRODUTO, parametros);
+        }
+    }
+
+    @Override
+    public void normalizarDescricoesEmLote(Map<Long, String> descricoesPorProduto) {
+        List<Object[]> parametros = new ArrayList<>(descricoesPorProduto.size());
+        new TreeMap<>(descricoesPorProduto).forEach((id, descricao) ->
+                parametros.add(new Object[]{IndiceTextual.normalizar(descricao), id}));
+        if (!parametros.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_NORMALIZAR_DESCRICAO, parametros);
+        }
+    }
+
+    @Override
+    public List<Long> atualizarCatalogoEmLote(List<Produto> produtos) {
+        // Em ordem crescente de ID, como as operações de estoque
+        List<Produto> ordenados = produtos.stream().sorted(Comparator.comparing(Produto::getId)).toList();
+        if (ordenados.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> parametros = new ArrayList<>(ordenados.size());
+        for (Produto produto : ordenados) {
+            parametros.add(new Object[]{produto.getDescricao(), produto.getDescricao(), IndiceTextual.normalizar(produto.getDescricao()),
+                    produto.getCodigoBarras(), produto.getValorCompra(), produto.getValorVenda(), produto.getEstoque(),
+                    produto.getPontoReposicao(), produto.getFornecedor().getId(), produto.getId(), produto.getEstoque()});
+        }
+        return idsNaoAtualizados(ordenados.stream().map(Produto::getId).toList(),
+                jdbcTemplate.batchUpdate(SQL_ATUALIZAR_CATALOGO, parametros));
+    }
+
+    @Override
+    public List<Long> alterarCatalogoEmLote(List<AlteracaoCatalogo> alteracoes) {
+        // Um lote por combinação de colunas alteradas (no máximo 7), cada um em ordem crescente de ID
+        Map<List<String>, List<AlteracaoCatalogo>> porColunas = new TreeMap<>(Comparator.comparing(List::toString));
+        for (AlteracaoCatalogo alteracao : alteracoes) {
+            List<String> colunas = new ArrayList<>(3);
+            if (alteracao.descricao() != null) colunas.addAll(List.of("descricao", "descricao_normalizada"));
+            if (alteracao.valorCompra() != null) colunas.add("valor_compra");
+            if (alteracao.valorVenda() != null) colunas.add("valor_venda");
+            if (!colunas.isEmpty()) {
+                porColunas.computeIfAbsent(colunas, c -> new ArrayList<>()).add(alteracao);
+            }
+        }
+        List<Long> naoEncontrados = new ArrayList<>();
+        porColunas.forEach((colunas, grupo) -> {
+            grupo.sort(Comparator.comparing(AlteracaoCatalogo::id));
+            // Só chegam descrições diferentes da atual (ver ProdutoService.alterarBlocoCatalogo)
+            String versaoDescricao = colunas.contains("descricao") ? ", versao_descricao = versao_descricao + 1" : "";
+            String sql = "UPDATE produtos SET " + String.join(" = ?, ", colunas) + " = ?" + versaoDescricao + VERSIONAR +
+                    " WHERE id = ?";
+            List<Object[]> parametros = new ArrayList<>(grupo.size());
+            for (AlteracaoCatalogo alteracao : grupo) {
+                List<Object> valores = new ArrayList<>(4);
+                if (alteracao.descricao() != null) {
+                    valores.add(alteracao.descricao());
+                    valores.add(IndiceTextual.normalizar(alteracao.descricao()));
+                }
+                if (alteracao.valorCompra() != null) valores.add(alteracao.valorCompra());
+                if (alteracao.valorVenda() != null) valores.add(alteracao.valorVenda());
+                valores.add(alteracao.id());
+                parametros.add(valores.toArray());
+            }
+            naoEncontrados.addAll(idsNaoAtualizados(grupo.stream().map(AlteracaoCatalogo::id).toList(),
+                    jdbcTemplate.batchUpdate(sql, parametros)));
+        });
+        return naoEncontrados;
+    }
+
+    /**
+     * Executa o mesmo UPDATE para cada produto em um único lote JDBC.
+     * TreeMap: os produtos são sempre travados em ordem crescente de ID.
+     */
+    private List<Long> executarEmLote(String sql, Map<Long, Integer> quantidadesPorProduto,
+                                      BiFunction<Long, Integer, Object[]> parametrosDaLinha) {
+        List<Long> ids = new ArrayList<>(new TreeMap<>(quantidadesPorProduto).keySet());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> parametros = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            parametros.add(parametrosDaLinha.apply(id, quantidadesPorProduto.get(id)));
+        }
+        return idsNaoAtualizados(ids, jdbcTemplate.batchUpdate(sql, parametros));
+    }
+
+    // Cada posição do array de retorno do batch corresponde a um ID; 0 linhas = condição não atendida
+    private static List<Long> idsNaoAtualizados(List<Long> ids, int[] linhasAfetadas) {
+        List<Long> recusados = new ArrayList<>();
+        for (int i = 0; i < linhasAfetadas.length; i++) {
+            if (linhasAfetadas[i] == 0) {
+                recusados.add(ids.get(i));
+            }
+        }
+        return recusados;
+    }
+}
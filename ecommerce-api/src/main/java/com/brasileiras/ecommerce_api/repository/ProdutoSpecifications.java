@@ -0,0 +1,80 @@
+package com.brasileiras.ecommerce_api.repository;
+
+import com.brasileiras.ecommerce_api.model.Produto;
+import com.brasileiras.ecommerce_api.util.IndiceTextual;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Critérios da listagem de produtos, combináveis com {@link Specification#and}.
+ * Cada método devolve null quando o filtro não foi informado, o que {@code and} ignora.
+ * Os filtros por fornecedor, estoque e valor de venda são atendidos pelos índices da tabela produtos
+ * (ver {@link Produto}).
+ */
+public final class ProdutoSpecifications {
+
+    private ProdutoSpecifications() {
+    }
+
+    // Compara a coluna fornecedor_id, sem join com fornecedores
+    public static Specification<Produto> doFornecedor(Long fornecedorId) {
+        return fornecedorId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("fornecedor").get("id"), fornecedorId);
+    }
+
+    public static Specification<Produto> comEstoqueAte(Integer estoqueMaximo) {
+        return estoqueMaximo == null ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("estoque"), estoqueMaximo);
+    }
+
+    public static Specification<Produto> comValorVendaEntre(BigDecimal minimo, BigDecimal maximo) {
+        if (minimo == null && maximo == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (minimo == null) {
+                return cb.lessThanOrEqualTo(root.get("valorVenda"), maximo);
+            }
+            if (maximo == null) {
+                return cb.greaterThanOrEqualTo(root.get("valorVenda"), minimo);
+            }
+            return cb.between(root.get("valorVenda"), minimo, maximo);
+        };
+    }
+
+    public static Specification<Produto> comIdEm(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Descrição contendo todas as palavras do texto, sem diferenciar maiúsculas e acentos, com o mesmo resultado
+     * da busca no índice ({@link IndiceTextual#buscar}): cada palavra normalizada da consulta com três ou mais
+     * caracteres deve aparecer na descrição normalizada; as de uma ou duas letras, como no índice, só no início
+     * de uma palavra. Percorre a tabela; usado só quando o índice de busca não pode atender o filtro.
+     */
+    public static Specification<Produto> comDescricaoContendo(String texto) {
+        List<String> termos = Arrays.stream(IndiceTextual.normalizar(texto).split(" "))
+                .filter(termo -> !termo.isEmpty())
+                .distinct()
+                .toList();
+        return (root, query, cb) -> {
+            if (termos.isEmpty()) {
+                return cb.disjunction();
+            }
+            // Só letras e dígitos: nada a escapar no LIKE. As palavras da descrição normalizada são separadas
+            // por um espaço, então "% termo%" é um início de palavra que não é o da descrição
+            Predicate[] condicoes = termos.stream()
+                    .map(termo -> termo.length() < 3
+                            ? cb.or(cb.like(root.get("descricaoNormalizada"), termo + "%"),
+                                    cb.like(root.get("descricaoNormalizada"), "% " + termo + "%"))
+                            : cb.like(root.get("descricaoNormalizada"), "%" + termo + "%"))
+                    .toArray(Predicate[]::new);
+            return cb.and(condicoes);
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.brasileiras.ecommerce_api.repository;
+
+import com.brasileiras.ecommerce_api.model.ReservaEstoque;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReservaEstoqueRepository extends JpaRepository<ReservaEstoque, Long> {
+
+    /**
+     * Busca e trava (SELECT ... FOR UPDATE) as reservas dos pedidos informados.
+     * A trava impede que a aprovação e a expiração do mesmo pedido consumam a reserva duas vezes.
+     * @param pedidoIds IDs dos pedidos.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReservaEstoque r WHERE r.pedido.id IN :pedidoIds")
+    List<ReservaEstoque> findParaConsumoByPedidoIdIn(@Param("pedidoIds") Collection<Long> pedidoIds);
+
+    /**
+     * Remove as reservas dos pedidos informados (após consumidas ou liberadas).
+     * @return Quantidade de reservas removidas.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ReservaEstoque r WHERE r.pedido.id IN :pedidoIds")
+    int deleteByPedidoIdIn(@Param("pedidoIds") Collection<Long> pedidoIds);
+
+    /**
+     * Retorna o instante de expiração de cada pedido que ainda possui reservas.
+     * Usado para recarregar o agendador de expiração na inicialização, lendo apenas
+     * a tabela de reservas (pequena) em vez de varrer a tabela de pedidos.
+     * Cada linha é {pedidoId, expiraEm}.
+     */
+    @Query("SELECT r.pedido.id, MIN(r.expiraEm) FROM ReservaEstoque r GROUP BY r.pedido.id")
+    List<Object[]> findExpiracaoPorPedido();
+}
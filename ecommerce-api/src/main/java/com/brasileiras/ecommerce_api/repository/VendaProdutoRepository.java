@@ -0,0 +1,25 @@
+package com.brasileiras.ecommerce_api.repository;
+
+import com.brasileiras.ecommerce_api.model.VendaProduto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface VendaProdutoRepository extends JpaRepository<VendaProduto, Long>, VendaProdutoRepositoryCustom {
+
+    /**
+     * Vendas diárias do produto no período (datas opcionais), sem os dias zerados por cancelamentos.
+     * @return Linhas [dia, quantidade] em ordem de dia.
+     */
+    @Query("SELECT v.dia, v.quantidade FROM VendaProdutoDia v WHERE v.produtoId = :produtoId AND v.quantidade <> 0 " +
+            "AND (:dataInicio IS NULL OR v.dia >= :dataInicio) " +
+            "AND (:dataFim IS NULL OR v.dia <= :dataFim) ORDER BY v.dia")
+    List<Object[]> findVendasPorDia(@Param("produtoId") Long produtoId,
+                                    @Param("dataInicio") LocalDate dataInicio,
+                                    @Param("dataFim") LocalDate dataFim);
+}
@@ -0,0 +1,39 @@
+package com.brasileiras.ecommerce_api.repository;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Gravação em lote dos contadores de vendas (vendas_produto e vendas_produto_dia).
+ * Implementada por {@link VendaProdutoRepositoryCustomImpl} com JDBC batch.
+ */
+public interface VendaProdutoRepositoryCustom {
+
+    /**
+     * Produto e dia de um contador diário.
+     */
+    record ChaveVendaDia(Long produtoId, LocalDate dia) implements Comparable<ChaveVendaDia> {
+        @Override
+        public int compareTo(ChaveVendaDia outra) {
+            int porProduto = produtoId.compareTo(outra.produtoId);
+            return porProduto != 0 ? porProduto : dia.compareTo(outra.dia);
+        }
+    }
+
+    /**
+     * Soma as quantidades (negativas no estorno) aos contadores, criando os que não existem, com um MERGE
+     * em lote por tabela, em ordem crescente de produto (e de dia).
+     *
+     * @param porProduto Quantidade a somar ao total de cada produto.
+     * @param porDia Quantidade a somar a cada produto e dia.
+     */
+    void somarEmLote(Map<Long, Long> porProduto, Map<ChaveVendaDia, Long> porDia);
+
+    /**
+     * Apaga todos os contadores e grava os informados, na transação corrente (reconstrução).
+     *
+     * @param porProduto Total de cada produto.
+     * @param porDia Quantidade de cada produto e dia.
+     */
+    void substituirTodos(Map<Long, Long> porProduto, Map<ChaveVendaDia, Long> porDia);
+}
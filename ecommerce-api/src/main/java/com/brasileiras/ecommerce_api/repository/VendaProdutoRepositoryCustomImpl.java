@@ -0,0 +1,71 @@
+package com.brasileiras.ecommerce_api.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class VendaProdutoRepositoryCustomImpl implements VendaProdutoRepositoryCustom {
+
+    private static final String SQL_SOMAR_TOTAL =
+            "MERGE INTO vendas_produto v USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT))) AS d (produto_id, quantidade) " +
+                    "ON v.produto_id = d.produto_id " +
+                    "WHEN MATCHED THEN UPDATE SET quantidade = v.quantidade + d.quantidade, atualizado_em = LOCALTIMESTAMP " +
+                    "WHEN NOT MATCHED THEN INSERT (produto_id, quantidade, atualizado_em) " +
+                    "VALUES (d.produto_id, d.quantidade, LOCALTIMESTAMP)";
+    private static final String SQL_SOMAR_DIA =
+            "MERGE INTO vendas_produto_dia v USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS BIGINT))) " +
+                    "AS d (produto_id, dia, quantidade) ON v.produto_id = d.produto_id AND v.dia = d.dia " +
+                    "WHEN MATCHED THEN UPDATE SET quantidade = v.quantidade + d.quantidade " +
+                    "WHEN NOT MATCHED THEN INSERT (produto_id, dia, quantidade) VALUES (d.produto_id, d.dia, d.quantidade)";
+    private static final String SQL_INSERIR_TOTAL =
+            "INSERT INTO vendas_produto (produto_id, quantidade, atualizado_em) VALUES (?, ?, LOCALTIMESTAMP)";
+    private static final String SQL_INSERIR_DIA =
+            "INSERT INTO vendas_produto_dia (produto_id, dia, quantidade) VALUES (?, ?, ?)";
+    // Lotes JDBC de tamanho limitado na reconstrução, que grava todos os contadores de uma vez
+    private static final int TAMANHO_LOTE_JDBC = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VendaProdutoRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void somarEmLote(Map<Long, Long> porProduto, Map<ChaveVendaDia, Long> porDia) {
+        // TreeMap: as linhas são sempre travadas na mesma ordem (evita deadlocks entre aprovações concorrentes)
+        executar(SQL_SOMAR_TOTAL, linhasDosTotais(new TreeMap<>(porProduto)));
+        executar(SQL_SOMAR_DIA, linhasDosDias(new TreeMap<>(porDia)));
+    }
+
+    @Override
+    public void substituirTodos(Map<Long, Long> porProduto, Map<ChaveVendaDia, Long> porDia) {
+        jdbcTemplate.update("DELETE FROM vendas_produto_dia");
+        jdbcTemplate.update("DELETE FROM vendas_produto");
+        executar(SQL_INSERIR_TOTAL, linhasDosTotais(porProduto));
+        executar(SQL_INSERIR_DIA, linhasDosDias(porDia));
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private static List<Object[]> linhasDosTotais(Map<Long, Long> porProduto) {
+        List<Object[]> linhas = new ArrayList<>(porProduto.size());
+        porProduto.forEach((produtoId, quantidade) -> linhas.add(new Object[]{produtoId, quantidade}));
+        return linhas;
+    }
+
+    private static List<Object[]> linhasDosDias(Map<ChaveVendaDia, Long> porDia) {
+        List<Object[]> linhas = new ArrayList<>(porDia.size());
+        porDia.forEach((chave, quantidade) -> linhas.add(new Object[]{chave.produtoId(), Date.valueOf(chave.dia()), quantidade}));
+        return linhas;
+    }
+
+    private void executar(String sql, List<Object[]> linhas) {
+        for (int inicio = 0; inicio < linhas.size(); inicio += TAMANHO_LOTE_JDBC) {
+            jdbcTemplate.batchUpdate(sql, linhas.subList(inicio, Math.min(inicio + TAMANHO_LOTE_JDBC, linhas.size())));
+        }
+    }
+}
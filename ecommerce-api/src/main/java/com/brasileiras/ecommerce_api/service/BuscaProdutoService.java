@@ -0,0 +1,211 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.repository.ProdutoRepository;
+import com.brasileiras.ecommerce_api.util.IndiceTextual;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Busca de produtos por descrição em um índice invertido mantido em memória (ver {@link IndiceTextual}).
+ * <p>
+ * O índice é construído na inicialização, em segundo plano, e até ficar pronto a busca continua sendo feita
+ * no banco. Depois disso, criações, alterações e exclusões de produto são aplicadas ao índice após o commit;
+ * as que acontecem durante uma construção são reaplicadas sobre o índice novo antes de ele ser publicado.
+ */
+@Service
+public class BuscaProdutoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuscaProdutoService.class);
+
+    private final ProdutoRepository produtoRepository;
+    private final int tamanhoBlocoCarga;
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    // Protegidos pela trava
+    private IndiceTextual indice = new IndiceTextual();
+    private List<Consumer<IndiceTextual>> alteracoesDuranteConstrucao;
+    private volatile boolean pronto;
+
+    public BuscaProdutoService(ProdutoRepository produtoRepository,
+                               @Value("${ecommerce.busca-produtos.tamanho-bloco-carga:10000}") int tamanhoBlocoCarga) {
+        this.produtoRepository = produtoRepository;
+        this.tamanhoBlocoCarga = tamanhoBlocoCarga;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirNaInicializacao() {
+        Thread.ofVirtual().name("indice-produtos").start(() -> {
+            normalizarDescricoesPendentes();
+            reconstruir();
+        });
+    }
+
+    /**
+     * Preenche a descrição normalizada dos produtos gravados antes de a coluna existir, em blocos, para que o
+     * filtro por descrição no banco encontre os mesmos produtos que o índice.
+     */
+    public void normalizarDescricoesPendentes() {
+        int total = 0;
+        List<Object[]> bloco;
+        do {
+            bloco = produtoRepository.findDescricoesSemNormalizacao(PageRequest.ofSize(tamanhoBlocoCarga));
+            Map<Long, String> descricoes = new HashMap<>();
+            for (Object[] linha : bloco) { // Linhas [id, descricao]
+                descricoes.put((Long) linha[0], (String) linha[1]);
+            }
+            produtoRepository.normalizarDescricoesEmLote(descricoes);
+            total += bloco.size();
+        } while (bloco.size() == tamanhoBlocoCarga);
+        if (total > 0) {
+            logger.info("Descrição normalizada preenchida em {} produto(s).", total);
+        }
+    }
+
+    /**
+     * Lê as descrições de todos os produtos e troca o índice atual por um novo, construído em paralelo.
+     * Construções simultâneas são feitas uma de cada vez.
+     */
+    public synchronized void reconstruir() {
+        long comeco = System.nanoTime();
+        comTravaDeEscrita(() -> alteracoesDuranteConstrucao = new ArrayList<>());
+        try {
+            IndiceTextual novo = construirIndice();
+            comTravaDeEscrita(() -> {
+                alteracoesDuranteConstrucao.forEach(alteracao -> alteracao.accept(novo));
+                indice = novo;
+                alteracoesDuranteConstrucao = null;
+                pronto = true;
+            });
+            logger.info("Índice de busca de produtos construído: {} produto(s) em {} ms.",
+                    novo.tamanho(), (System.nanoTime() - comeco) / 1_000_000);
+        } catch (RuntimeException e) {
+            comTravaDeEscrita(() -> alteracoesDuranteConstrucao = null);
+            logger.error("Falha ao construir o índice de busca de produtos: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Busca os produtos cuja descrição contém todas as palavras informadas, ordenados por relevância
+     * (a ordenação do Pageable não se aplica).
+     *
+     * @return Página de IDs de produto, ou vazio enquanto o índice não estiver pronto.
+     */
+    public Optional<Page<Long>> buscar(String descricao, Pageable pageable) {
+        if (!pronto) {
+            return Optional.empty();
+        }
+        IndiceTextual.Resultado resultado;
+        trava.readLock().lock();
+        try {
+            resultado = indice.buscar(descricao, pageable.getOffset(), pageable.getPageSize());
+        } finally {
+            trava.readLock().unlock();
+        }
+        return Optional.of(new PageImpl<>(resultado.ids(), pageable, resultado.total()));
+    }
+
+    /**
+     * IDs de todos os produtos encontrados pela descrição, para combinar com outros filtros no banco.
+     *
+     * @return IDs encontrados, ou vazio se o índice não estiver pronto ou se forem mais que o limite.
+     */
+    public Optional<List<Long>> buscarIds(String descricao, int limite) {
+        if (!pronto) {
+            return Optional.empty();
+        }
+        IndiceTextual.Resultado resultado;
+        trava.readLock().lock();
+        try {
+            resultado = indice.buscar(descricao, 0, limite);
+        } finally {
+            trava.readLock().unlock();
+        }
+        return resultado.total() > limite ? Optional.empty() : Optional.of(resultado.ids());
+    }
+
+    public void indexar(Long produtoId, String descricao) {
+        aposCommit(indice -> indice.indexar(produtoId, descricao));
+    }
+
+    // Vários produtos com uma única troca de trava (importação de catálogo)
+    public void indexar(Map<Long, String> descricoesPorProduto) {
+        Map<Long, String> descricoes = Map.copyOf(descricoesPorProduto);
+        aposCommit(indice -> descricoes.forEach(indice::indexar));
+    }
+
+    public void remover(Long produtoId) {
+        aposCommit(indice -> indice.remover(produtoId));
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private IndiceTextual construirIndice() {
+        List<Long> ids = new ArrayList<>();
+        List<String> descricoes = new ArrayList<>();
+        Long aposId = 0L;
+        List<Object[]> bloco;
+        do {
+            bloco = produtoRepository.findDescricoesAposId(aposId, PageRequest.ofSize(tamanhoBlocoCarga));
+            for (Object[] linha : bloco) { // Linhas [id, descricao]
+                ids.add((Long) linha[0]);
+                descricoes.add((String) linha[1]);
+            }
+            if (!bloco.isEmpty()) {
+                aposId = ids.get(ids.size() - 1);
+            }
+        } while (bloco.size() == tamanhoBlocoCarga);
+        return IndiceTextual.construir(ids.stream().mapToLong(Long::longValue).toArray(), descricoes.toArray(String[]::new));
+    }
+
+    // O índice só reflete o que foi confirmado: sem transação, aplica na hora
+    private void aposCommit(Consumer<IndiceTextual> alteracao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(alteracao);
+                }
+            });
+        } else {
+            aplicar(alteracao);
+        }
+    }
+
+    private void aplicar(Consumer<IndiceTextual> alteracao) {
+        comTravaDeEscrita(() -> {
+            alteracao.accept(indice);
+            if (alteracoesDuranteConstrucao != null) {
+                alteracoesDuranteConstrucao.add(alteracao);
+            }
+            if (indice.precisaCompactar()) {
+                indice = indice.compactar();
+            }
+        });
+    }
+
+    private void comTravaDeEscrita(Runnable acao) {
+        trava.writeLock().lock();
+        try {
+            acao.run();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.PedidoResponseDTO;
+import com.brasileiras.ecommerce_api.enums.VisaoPedido;
+import com.brasileiras.ecommerce_api.util.VersaoRecurso;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Cache de leitura das respostas de pedido, por ID e por número.
+ * <p>
+ * Um pedido em status final (ver {@link com.brasileiras.ecommerce_api.enums.StatusPedido#isFinal()}) não muda
+ * mais, então sua resposta fica em memória até ser despejada pelo limite de tamanho; os demais pedidos ficam
+ * só pela validade curta configurada. As respostas são records imutáveis, compartilhados entre requisições.
+ * <p>
+ * A resposta também traz dados do cliente, dos endereços e a descrição dos produtos, por isso os serviços que
+ * alteram esses registros invalidam as entradas afetadas. Toda invalidação é feita na hora e repetida após o
+ * commit; uma leitura que começou antes de uma invalidação não guarda o que leu (ver {@link #guardar}).
+ */
+@Service
+public class CachePedidoService {
+
+    private final Cache<Long, Entrada> pedidosPorId;
+    // Número -> ID não muda depois da criação do pedido
+    private final Cache<String, Long> idsPorNumero;
+    private final InvalidadorCache invalidador = new InvalidadorCache();
+
+    public CachePedidoService(@Value("${ecommerce.cache-pedidos.max-pedidos:10000}") long maxPedidos,
+                              @Value("${ecommerce.cache-pedidos.validade-nao-finais-segundos:30}") long validadeNaoFinaisSegundos) {
+        long validadeNaoFinais = Duration.ofSeconds(validadeNaoFinaisSegundos).toNanos();
+        this.pedidosPorId = Caffeine.newBuilder()
+                .maximumSize(maxPedidos)
+                .expireAfter(new Expiry<Long, Entrada>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Entrada entrada, long agora) {
+                        return entrada.pedido().status().isFinal() ? Long.MAX_VALUE : validadeNaoFinais;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Entrada entrada, long agora, long restante) {
+                        return expireAfterCreate(id, entrada, agora);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Entrada entrada, long agora, long restante) {
+                        return restante;
+                    }
+                })
+                .build();
+        this.idsPorNumero = Caffeine.newBuilder()
+                .maximumSize(maxPedidos)
+                .build();
+    }
+
+    /**
+     * Resposta completa do pedido com os validadores (ETag) de cada visão, lidos junto com ela.
+     */
+    public record Entrada(PedidoResponseDTO pedido, VersaoRecurso versaoCompleta, VersaoRecurso versaoResumo) {
+
+        public VersaoRecurso versao(VisaoPedido visao) {
+            return visao == VisaoPedido.RESUMO ? versaoResumo : versaoCompleta;
+        }
+    }
+
+    public Optional<Entrada> buscar(Long pedidoId) {
+        return Optional.ofNullable(pedidosPorId.getIfPresent(pedidoId));
+    }
+
+    public Optional<Long> buscarIdPorNumero(String numeroPedido) {
+        return Optional.ofNullable(idsPorNumero.getIfPresent(numeroPedido));
+    }
+
+    public void guardarIdPorNumero(String numeroPedido, Long pedidoId) {
+        idsPorNumero.put(numeroPedido, pedidoId);
+    }
+
+    /**
+     * @return Marca a ser obtida antes de ler o pedido do banco e passada a {@link #guardar}.
+     */
+    public long geracaoAtual() {
+        return invalidador.geracaoAtual();
+    }
+
+    /**
+     * Guarda a resposta lida do banco, a menos que alguma invalidação tenha ocorrido desde o início da leitura
+     * (o que foi lido pode ser anterior a ela). A conferência depois do put cobre a invalidação concorrente.
+     *
+     * @param geracaoDaLeitura Valor de {@link #geracaoAtual()} obtido antes da leitura.
+     */
+    public void guardar(Entrada entrada, long geracaoDaLeitura) {
+        Long id = entrada.pedido().id();
+        pedidosPorId.put(id, entrada);
+        idsPorNumero.put(entrada.pedido().numeroPedido(), id);
+        if (invalidador.houveInvalidacaoDesde(geracaoDaLeitura)) {
+            pedidosPorId.asMap().remove(id, entrada);
+        }
+    }
+
+    public void invalidarPedidos(Collection<Long> pedidoIds) {
+        List<Long> ids = List.copyOf(pedidoIds);
+        invalidador.agoraEAposCommit(() -> pedidosPorId.invalidateAll(ids));
+    }
+
+    public void invalidarPorCliente(Long clienteId) {
+        invalidarSe(entrada -> entrada.pedido().cliente() != null && clienteId.equals(entrada.pedido().cliente().id()));
+    }
+
+    public void invalidarPorProduto(Long produtoId) {
+        invalidarSe(entrada -> entrada.pedido().itens().stream().anyMatch(item -> produtoId.equals(item.produtoId())));
+    }
+
+    // Uma única varredura para vários produtos (importação de catálogo)
+    public void invalidarPorProdutos(Collection<Long> produtoIds) {
+        Set<Long> ids = Set.copyOf(produtoIds);
+        invalidarSe(entrada -> entrada.pedido().itens().stream().anyMatch(item -> ids.contains(item.produtoId())));
+    }
+
+    // Endereços são compartilhados (o de um fornecedor pode ser o de entrega de um pedido)
+    public void invalidarPorEndereco(Long enderecoId) {
+        invalidarSe(entrada -> {
+            PedidoResponseDTO pedido = entrada.pedido();
+            return (pedido.enderecoEntrega() != null && enderecoId.equals(pedido.enderecoEntrega().id()))
+                    || (pedido.cliente() != null && pedido.cliente().enderecos() != null && pedido.cliente().enderecos().stream()
+                    .anyMatch(endereco -> enderecoId.equals(endereco.id())));
+        });
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    // Varre as entradas: usado só em alterações de cadastro, bem menos frequentes que as leituras
+    private void invalidarSe(Predicate<Entrada> criterio) {
+        invalidador.agoraEAposCommit(() -> pedidosPorId.asMap().values().removeIf(criterio));
+    }
+}
@@ -0,0 +1,117 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.EstatisticasCacheDTO;
+import com.brasileiras.ecommerce_api.dto.FornecedorResponseDTO;
+import com.brasileiras.ecommerce_api.dto.ProdutoResponseDTO;
+import com.brasileiras.ecommerce_api.model.Produto;
+import com.brasileiras.ecommerce_api.repository.ProdutoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Cache em memória dos dados de catálogo dos produtos (códigos, descrição, preços e fornecedor).
+ * <p>
+ * O estoque não fica no cache: ele muda a cada venda por UPDATEs condicionais no banco, que continua sendo
+ * a fonte da verdade; quem precisa do saldo o lê junto com a página ou com o ID consultado.
+ * As entradas faltantes são carregadas em conjunto, com uma consulta por lote de IDs. Alterações de produto
+ * e de fornecedor invalidam as entradas na hora e de novo após o commit, e uma carga que começou antes de
+ * uma invalidação não guarda o que leu (ver {@link InvalidadorCache}).
+ */
+@Service
+public class CacheProdutoService {
+
+    private final ProdutoRepository produtoRepository;
+    private final Cache<Long, CatalogoProduto> catalogo;
+    private final InvalidadorCache invalidador = new InvalidadorCache();
+
+    public CacheProdutoService(ProdutoRepository produtoRepository,
+                               @Value("${ecommerce.cache-produtos.max-produtos:20000}") long maxProdutos) {
+        this.produtoRepository = produtoRepository;
+        this.catalogo = Caffeine.newBuilder()
+                .maximumSize(maxProdutos)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Dados de catálogo do produto, sem o estoque.
+     */
+    public record CatalogoProduto(Long id, String codigoBarrasProduto, String descricao, String codigoBarras,
+                                  BigDecimal valorCompra, BigDecimal valorVenda, Integer pontoReposicao,
+                                  FornecedorResponseDTO fornecedor) {
+
+        static CatalogoProduto fromEntity(Produto produto) {
+            return new CatalogoProduto(produto.getId(), produto.getCodigoBarrasProduto(), produto.getDescricao(),
+                    produto.getCodigoBarras(), produto.getValorCompra(), produto.getValorVenda(),
+                    produto.getPontoReposicao(), FornecedorResponseDTO.fromEntity(produto.getFornecedor()));
+        }
+
+        public ProdutoResponseDTO comEstoque(Integer estoque) {
+            return new ProdutoResponseDTO(id, codigoBarrasProduto, descricao, codigoBarras,
+                    valorCompra, valorVenda, estoque, pontoReposicao, fornecedor);
+        }
+    }
+
+    /**
+     * @return Catálogo do produto, ou vazio se o produto não existir.
+     */
+    public Optional<CatalogoProduto> buscar(Long produtoId) {
+        return Optional.ofNullable(buscarTodos(List.of(produtoId)).get(produtoId));
+    }
+
+    /**
+     * Catálogo dos produtos informados; os que não estão em cache são lidos com uma única consulta.
+     *
+     * @return Catálogo por ID de produto. IDs inexistentes ficam fora do mapa.
+     */
+    public Map<Long, CatalogoProduto> buscarTodos(Collection<Long> produtoIds) {
+        Map<Long, CatalogoProduto> encontrados = new HashMap<>(catalogo.getAllPresent(produtoIds));
+        if (encontrados.size() == produtoIds.size()) {
+            return encontrados;
+        }
+        Set<Long> faltantes = new HashSet<>(produtoIds);
+        faltantes.removeAll(encontrados.keySet());
+
+        long geracaoDaLeitura = invalidador.geracaoAtual();
+        Map<Long, CatalogoProduto> carregados = new HashMap<>();
+        for (Produto produto : produtoRepository.findComFornecedorByIdIn(faltantes)) {
+            carregados.put(produto.getId(), CatalogoProduto.fromEntity(produto));
+        }
+        catalogo.putAll(carregados);
+        // Uma invalidação durante a leitura pode ter sido anterior ao que foi lido: descarta
+        if (invalidador.houveInvalidacaoDesde(geracaoDaLeitura)) {
+            carregados.forEach((id, lido) -> catalogo.asMap().remove(id, lido));
+        }
+        encontrados.putAll(carregados);
+        return encontrados;
+    }
+
+    public void invalidar(Long produtoId) {
+        invalidador.agoraEAposCommit(() -> catalogo.invalidate(produtoId));
+    }
+
+    public void invalidar(Collection<Long> produtoIds) {
+        List<Long> ids = List.copyOf(produtoIds);
+        invalidador.agoraEAposCommit(() -> catalogo.invalidateAll(ids));
+    }
+
+    // Os dados do fornecedor fazem parte do catálogo dos seus produtos
+    public void invalidarPorFornecedor(Long fornecedorId) {
+        Predicate<CatalogoProduto> doFornecedor =
+                produto -> produto.fornecedor() != null && fornecedorId.equals(produto.fornecedor().id());
+        invalidador.agoraEAposCommit(() -> catalogo.asMap().values().removeIf(doFornecedor));
+    }
+
+    public EstatisticasCacheDTO estatisticas() {
+        CacheStats stats = catalogo.stats();
+        return new EstatisticasCacheDTO(catalogo.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+}
@@ -23,10 +23,12 @@ public class ClienteService {
 
     private final ClienteRepository clienteRepository;
     private final EnderecoService enderecoService; // INJETADO
+    private final CachePedidoService cachePedidoService; // Os dados do cliente fazem parte da resposta do pedido
 
-    public ClienteService(ClienteRepository clienteRepository, EnderecoService enderecoService) {
+    public ClienteService(ClienteRepository clienteRepository, EnderecoService enderecoService, CachePedidoService cachePedidoService) {
         this.clienteRepository = clienteRepository;
         this.enderecoService = enderecoService;
+        this.cachePedidoService = cachePedidoService;
     }
 
     @Transactional
@@ -72,6 +74,7 @@ public class ClienteService {
 
         cliente.addEndereco(endereco);
         Cliente clienteAtualizado = clienteRepository.save(cliente);
+        cachePedidoService.invalidarPorCliente(clienteId);
         return ClienteResponseDTO.fromEntity(clienteAtualizado);
     }
 
@@ -92,6 +95,7 @@ public class ClienteService {
 
         cliente.removeEndereco(enderecoParaRemover); // Usa o método utilitário
         clienteRepository.save(cliente);
+        cachePedidoService.invalidarPorCliente(clienteId);
 
     }
 
@@ -117,6 +121,7 @@ public class ClienteService {
 
 
         Cliente clienteAtualizado = clienteRepository.save(cliente);
+        cachePedidoService.invalidarPorCliente(id);
         return ClienteResponseDTO.fromEntity(clienteAtualizado);
     }
 
@@ -0,0 +1,130 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.LeituraCodigoBarrasDTO;
+import com.brasileiras.ecommerce_api.model.Produto;
+import com.brasileiras.ecommerce_api.repository.ProdutoRepository;
+import com.brasileiras.ecommerce_api.util.IndiceCodigoBarras;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Leitura de produtos por código de barras da NF ou SKU, para o caixa, atendida por um {@link IndiceCodigoBarras}
+ * em memória: preço e estoque sem consulta ao banco.
+ * <p>
+ * O índice é carregado na inicialização e atualizado com a situação dos produtos relida após cada alteração
+ * (ver {@link ReleituraProdutoService}). Até a carga terminar, a leitura é feita no banco.
+ */
+@Service
+public class CodigoBarrasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CodigoBarrasService.class);
+
+    private final ProdutoRepository produtoRepository;
+    private final int tamanhoBlocoCarga;
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    // Protegido pela trava
+    private IndiceCodigoBarras indice = new IndiceCodigoBarras();
+    private volatile boolean pronto;
+
+    public CodigoBarrasService(ProdutoRepository produtoRepository,
+                               @Value("${ecommerce.codigo-barras.tamanho-bloco-carga:10000}") int tamanhoBlocoCarga) {
+        this.produtoRepository = produtoRepository;
+        this.tamanhoBlocoCarga = tamanhoBlocoCarga;
+    }
+
+    /**
+     * Busca o produto pelo código de barras da NF e, se nenhum tiver esse código, pelo SKU.
+     *
+     * @return O produto, ou vazio se nenhum tiver o código.
+     */
+    public Optional<LeituraCodigoBarrasDTO> buscar(String codigo) {
+        if (!pronto) {
+            return produtoRepository.findByCodigoBarras(codigo)
+                    .or(() -> produtoRepository.findByCodigoBarrasProduto(codigo))
+                    .map(CodigoBarrasService::leitura);
+        }
+        IndiceCodigoBarras.Item item;
+        trava.readLock().lock();
+        try {
+            item = indice.buscar(codigo);
+        } finally {
+            trava.readLock().unlock();
+        }
+        return Optional.ofNullable(item).map(CodigoBarrasService::leitura);
+    }
+
+    /**
+     * Carrega todos os produtos, em páginas por ID, e troca o índice atual pelo novo.
+     */
+    public void carregar() {
+        long comeco = System.nanoTime();
+        IndiceCodigoBarras novo = new IndiceCodigoBarras((int) Math.min(Integer.MAX_VALUE / 4, produtoRepository.count()));
+        Long aposId = 0L;
+        List<Object[]> bloco;
+        do {
+            bloco = produtoRepository.findSituacoesAposId(aposId, PageRequest.ofSize(tamanhoBlocoCarga));
+            for (Object[] linha : bloco) {
+                novo.gravar(item(ReleituraProdutoService.SituacaoProduto.de(linha)));
+            }
+            if (!bloco.isEmpty()) {
+                aposId = (Long) bloco.get(bloco.size() - 1)[0];
+            }
+        } while (bloco.size() == tamanhoBlocoCarga);
+        trava.writeLock().lock();
+        try {
+            indice = novo;
+            pronto = true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+        logger.info("Índice de códigos de barras carregado: {} produto(s) em {} ms.",
+                novo.tamanho(), (System.nanoTime() - comeco) / 1_000_000);
+    }
+
+    /**
+     * Atualiza o índice com a situação relida dos produtos; os ausentes de {@code atuais} foram excluídos.
+     */
+    public void aplicar(List<Long> produtoIds, Map<Long, ReleituraProdutoService.SituacaoProduto> atuais) {
+        trava.writeLock().lock();
+        try {
+            for (Long produtoId : produtoIds) {
+                ReleituraProdutoService.SituacaoProduto situacao = atuais.get(produtoId);
+                if (situacao == null) {
+                    indice.remover(produtoId);
+                } else {
+                    indice.gravar(item(situacao));
+                }
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private static IndiceCodigoBarras.Item item(ReleituraProdutoService.SituacaoProduto situacao) {
+        long centavos = situacao.valorVenda().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        return new IndiceCodigoBarras.Item(situacao.id(), situacao.codigoBarrasProduto(), situacao.codigoBarras(),
+                situacao.descricao(), centavos, situacao.estoque());
+    }
+
+    private static LeituraCodigoBarrasDTO leitura(IndiceCodigoBarras.Item item) {
+        return new LeituraCodigoBarrasDTO(item.id(), item.codigoBarrasProduto(), item.codigoBarras(), item.descricao(),
+                BigDecimal.valueOf(item.valorVendaCentavos(), 2), item.estoque());
+    }
+
+    private static LeituraCodigoBarrasDTO leitura(Produto produto) {
+        return new LeituraCodigoBarrasDTO(produto.getId(), produto.getCodigoBarrasProduto(), produto.getCodigoBarras(),
+                produto.getDescricao(), produto.getValorVenda(), produto.getEstoque());
+    }
+}
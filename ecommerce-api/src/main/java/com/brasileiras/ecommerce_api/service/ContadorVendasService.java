@@ -0,0 +1,254 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.ReconstrucaoVendasResponseDTO;
+import com.brasileiras.ecommerce_api.dto.VendaDiariaDTO;
+import com.brasileiras.ecommerce_api.dto.VendasProdutoResponseDTO;
+import com.brasileiras.ecommerce_api.exception.BusinessRuleException;
+import com.brasileiras.ecommerce_api.exception.DataConflictException;
+import com.brasileiras.ecommerce_api.exception.ResourceNotFoundException;
+import com.brasileiras.ecommerce_api.model.VendaProduto;
+import com.brasileiras.ecommerce_api.repository.ItemPedidoRepository;
+import com.brasileiras.ecommerce_api.repository.ProdutoRepository;
+import com.brasileiras.ecommerce_api.repository.VendaProdutoRepository;
+import com.brasileiras.ecommerce_api.repository.VendaProdutoRepositoryCustom.ChaveVendaDia;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Contadores de unidades vendidas por produto, no total e por dia do pedido.
+ * <p>
+ * Uma venda conta enquanto o pedido está em um status com estoque debitado
+ * ({@link PedidoService#STATUS_COM_ESTOQUE_DEBITADO}): os contadores são somados na mesma transação que debita o
+ * estoque na aprovação e subtraídos na que o devolve no cancelamento (ou na exclusão do pedido). Como isso
+ * acontece depois do UPDATE de estoque dos mesmos produtos, a trava da linha do produto já ordena aprovações
+ * concorrentes, e os contadores ficam sempre iguais à soma dos itens desses pedidos.
+ * <p>
+ * A reconstrução recalcula tudo a partir de item_pedido, somando faixas de IDs em paralelo, e substitui
+ * os contadores em uma única transação. Para que nenhuma venda fique de fora nem conte em dobro, ela exclui as
+ * transações que alteram contadores: cada uma segura a parte compartilhada de uma trava de leitura e escrita
+ * até terminar (commit ou rollback), e a reconstrução segura a parte exclusiva da primeira leitura das faixas
+ * até o commit da substituição. Aprovações e cancelamentos aguardam a reconstrução terminar; as esperas dos
+ * dois lados são limitadas e, esgotadas, falham com {@link DataConflictException} sem alterar nada.
+ * A trava vale para esta instância da aplicação, como as demais visões mantidas em memória.
+ */
+@Service
+public class ContadorVendasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContadorVendasService.class);
+
+    private final VendaProdutoRepository vendaProdutoRepository;
+    private final ItemPedidoRepository itemPedidoRepository;
+    private final ProdutoRepository produtoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate transacaoLeitura;
+    private final int tamanhoFaixa;
+    private final int paralelismo;
+    private final long esperaReconstrucaoMillis;
+    private final AtomicBoolean emReconstrucao = new AtomicBoolean();
+    // Compartilhada: transações que alteram contadores; exclusiva: a reconstrução
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    public ContadorVendasService(VendaProdutoRepository vendaProdutoRepository,
+                                 ItemPedidoRepository itemPedidoRepository,
+                                 ProdutoRepository produtoRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${ecommerce.vendas.tamanho-faixa-reconstrucao:50000}") int tamanhoFaixa,
+                                 @Value("${ecommerce.vendas.paralelismo-reconstrucao:4}") int paralelismo,
+                                 @Value("${ecommerce.vendas.espera-reconstrucao-segundos:30}") long esperaReconstrucaoSegundos) {
+        this.vendaProdutoRepository = vendaProdutoRepository;
+        this.itemPedidoRepository = itemPedidoRepository;
+        this.produtoRepository = produtoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.tamanhoFaixa = tamanhoFaixa;
+        this.paralelismo = paralelismo;
+        this.esperaReconstrucaoMillis = esperaReconstrucaoSegundos * 1000;
+    }
+
+    /**
+     * Soma aos contadores os itens dos pedidos cujo estoque acabou de ser debitado.
+     * Deve ser chamado na mesma transação do débito.
+     */
+    public void registrarVendas(Collection<Long> pedidoIds) {
+        somar(pedidoIds, 1);
+    }
+
+    /**
+     * Subtrai dos contadores os itens dos pedidos que deixaram de contar como venda (estoque devolvido ou
+     * pedido excluído). Deve ser chamado na mesma transação, antes de os itens serem excluídos.
+     */
+    public void registrarEstornos(Collection<Long> pedidoIds) {
+        somar(pedidoIds, -1);
+    }
+
+    /**
+     * Unidades vendidas do produto, com as vendas por dia no período (datas opcionais, inclusive).
+     *
+     * @throws ResourceNotFoundException se o produto não existir.
+     * @throws BusinessRuleException se a data final for anterior à inicial.
+     */
+    @Transactional(readOnly = true)
+    public VendasProdutoResponseDTO consultar(Long produtoId, LocalDate dataInicio, LocalDate dataFim) {
+        if (dataInicio != null && dataFim != null && dataFim.isBefore(dataInicio)) {
+            throw new BusinessRuleException("A data final não pode ser anterior à data inicial.");
+        }
+        if (!produtoRepository.existsById(produtoId)) {
+            throw new ResourceNotFoundException("Produto não encontrado com ID: " + produtoId);
+        }
+        long total = vendaProdutoRepository.findById(produtoId).map(VendaProduto::getQuantidade).orElse(0L);
+        List<VendaDiariaDTO> porDia = new ArrayList<>();
+        long noPeriodo = 0;
+        for (Object[] linha : vendaProdutoRepository.findVendasPorDia(produtoId, dataInicio, dataFim)) { // Linhas [dia, quantidade]
+            VendaDiariaDTO venda = new VendaDiariaDTO((LocalDate) linha[0], (Long) linha[1]);
+            porDia.add(venda);
+            noPeriodo += venda.quantidade();
+        }
+        return new VendasProdutoResponseDTO(produtoId, total, noPeriodo, porDia);
+    }
+
+    /**
+     * Recalcula todos os contadores a partir dos itens de pedido. Os itens são divididos em faixas de
+     * {@code ecommerce.vendas.tamanho-faixa-reconstrucao} IDs, somadas em paralelo (até
+     * {@code ecommerce.vendas.paralelismo-reconstrucao} consultas ao mesmo tempo) com uma consulta agregada
+     * cada; o resultado substitui os contadores em uma única transação. Enquanto isso, nenhuma transação
+     * altera contadores: as em andamento terminam antes da leitura e as novas aguardam a substituição.
+     *
+     * @throws DataConflictException se já houver uma reconstrução em andamento ou se as transações em
+     *                               andamento não terminarem dentro da espera configurada.
+     */
+    public ReconstrucaoVendasResponseDTO reconstruir() {
+        if (!emReconstrucao.compareAndSet(false, true)) {
+            throw new DataConflictException("Já existe uma reconstrução dos contadores de vendas em andamento.");
+        }
+        try {
+            travarExclusivo();
+        } catch (RuntimeException e) {
+            emReconstrucao.set(false);
+            throw e;
+        }
+        try {
+            long comeco = System.nanoTime();
+            List<Object[]> faixa = transacaoLeitura.execute(status -> itemPedidoRepository.findFaixaDeIds());
+            Object[] limites = faixa == null || faixa.isEmpty() ? new Object[2] : faixa.get(0); // Linha [menor ID, maior ID]
+
+            List<Callable<Map<ChaveVendaDia, Long>>> tarefas = new ArrayList<>();
+            if (limites[0] != null) {
+                long maiorId = (Long) limites[1];
+                for (long de = (Long) limites[0]; de <= maiorId; de += tamanhoFaixa) {
+                    long deId = de;
+                    long ateId = Math.min(de + tamanhoFaixa - 1, maiorId);
+                    tarefas.add(() -> somarFaixa(deId, ateId));
+                }
+            }
+            logger.info("Reconstruindo os contadores de vendas: {} faixa(s) de até {} item(ns), {} em paralelo.",
+                    tarefas.size(), tamanhoFaixa, paralelismo);
+
+            Map<ChaveVendaDia, Long> porDia = new TreeMap<>();
+            for (Map<ChaveVendaDia, Long> parcial : executarEmParalelo(tarefas)) {
+                parcial.forEach((chave, quantidade) -> porDia.merge(chave, quantidade, Long::sum));
+            }
+            Map<Long, Long> porProduto = new TreeMap<>();
+            porDia.forEach((chave, quantidade) -> porProduto.merge(chave.produtoId(), quantidade, Long::sum));
+            transactionTemplate.executeWithoutResult(status -> vendaProdutoRepository.substituirTodos(porProduto, porDia));
+
+            long duracaoMs = (System.nanoTime() - comeco) / 1_000_000;
+            logger.info("Contadores de vendas reconstruídos: {} produto(s), {} contador(es) diário(s) em {} ms.",
+                    porProduto.size(), porDia.size(), duracaoMs);
+            return new ReconstrucaoVendasResponseDTO(tarefas.size(), porProduto.size(), porDia.size(), duracaoMs);
+        } finally {
+            trava.writeLock().unlock();
+            emReconstrucao.set(false);
+        }
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private void somar(Collection<Long> pedidoIds, int sinal) {
+        if (pedidoIds.isEmpty()) {
+            return;
+        }
+        travarCompartilhado();
+        Map<Long, Long> porProduto = new HashMap<>();
+        Map<ChaveVendaDia, Long> porDia = new HashMap<>();
+        // Linhas [produtoId, dia, quantidade]
+        for (Object[] linha : itemPedidoRepository.somarVendasPorProdutoEDia(pedidoIds)) {
+            Long produtoId = (Long) linha[0];
+            long quantidade = sinal * (Long) linha[2];
+            porProduto.merge(produtoId, quantidade, Long::sum);
+            porDia.merge(new ChaveVendaDia(produtoId, (LocalDate) linha[1]), quantidade, Long::sum);
+        }
+        vendaProdutoRepository.somarEmLote(porProduto, porDia);
+    }
+
+    // Segura a parte compartilhada até o fim da transação: a reconstrução só lê as faixas depois que os
+    // contadores alterados por ela estiverem confirmados ou desfeitos
+    private void travarCompartilhado() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Os contadores de vendas só podem ser alterados dentro de uma transação.");
+        }
+        aguardar(trava.readLock(), "Os contadores de vendas estão sendo reconstruídos. Tente novamente.");
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                trava.readLock().unlock();
+            }
+        });
+    }
+
+    private void travarExclusivo() {
+        aguardar(trava.writeLock(), "Há vendas em processamento; a reconstrução dos contadores não pôde começar. Tente novamente.");
+    }
+
+    private void aguardar(Lock parte, String mensagem) {
+        try {
+            if (!parte.tryLock(esperaReconstrucaoMillis, TimeUnit.MILLISECONDS)) {
+                throw new DataConflictException(mensagem);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataConflictException(mensagem);
+        }
+    }
+
+    private Map<ChaveVendaDia, Long> somarFaixa(long deId, long ateId) {
+        List<Object[]> linhas = transacaoLeitura.execute(status -> itemPedidoRepository.somarVendasPorProdutoEDiaNaFaixa(
+                deId, ateId, PedidoService.STATUS_COM_ESTOQUE_DEBITADO));
+        Map<ChaveVendaDia, Long> parcial = new HashMap<>();
+        for (Object[] linha : linhas == null ? List.<Object[]>of() : linhas) { // Linhas [produtoId, dia, quantidade]
+            parcial.merge(new ChaveVendaDia((Long) linha[0], (LocalDate) linha[1]), (Long) linha[2], Long::sum);
+        }
+        return parcial;
+    }
+
+    // Threads virtuais, no máximo "paralelismo" ao mesmo tempo (cada uma ocupa uma conexão do pool)
+    private List<Map<ChaveVendaDia, Long>> executarEmParalelo(List<Callable<Map<ChaveVendaDia, Long>>> tarefas) {
+        List<Map<ChaveVendaDia, Long>> parciais = new ArrayList<>(tarefas.size());
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, paralelismo),
+                Thread.ofVirtual().name("reconstrucao-vendas-", 0).factory())) {
+            for (Future<Map<ChaveVendaDia, Long>> futuro : executor.invokeAll(tarefas)) {
+                parciais.add(futuro.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconstrução dos contadores de vendas interrompida.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao somar as vendas de uma faixa de itens: " + e.getCause().getMessage(), e.getCause());
+        }
+        return parciais;
+    }
+}
@@ -0,0 +1,205 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.LancamentoContaReceberResponseDTO;
+import com.brasileiras.ecommerce_api.dto.RegeneracaoContasReceberResponseDTO;
+import com.brasileiras.ecommerce_api.enums.FormaPagamento;
+import com.brasileiras.ecommerce_api.enums.StatusLancamento;
+import com.brasileiras.ecommerce_api.enums.StatusPedido;
+import com.brasileiras.ecommerce_api.enums.TipoEventoOutbox;
+import com.brasileiras.ecommerce_api.exception.BusinessRuleException;
+import com.brasileiras.ecommerce_api.exception.ResourceNotFoundException;
+import com.brasileiras.ecommerce_api.model.EventoOutbox;
+import com.brasileiras.ecommerce_api.model.LancamentoContaReceber;
+import com.brasileiras.ecommerce_api.repository.LancamentoContaReceberRepository;
+import com.brasileiras.ecommerce_api.repository.PedidoRepository;
+import com.brasileiras.ecommerce_api.util.CalculadoraParcelas;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Lançamentos em Contas a Receber gerados a partir das vendas.
+ * <p>
+ * Pagamentos à vista (boleto, pix, cartão de débito etc.) geram um único lançamento com a data da venda
+ * e o valor total; vendas no cartão de crédito geram um lançamento por parcela, com vencimentos mensais.
+ * A geração trabalha sempre sobre conjuntos de pedidos: os dados são lidos com duas consultas (IN) e os
+ * lançamentos gravados com INSERTs em lote JDBC. Gerar de novo para o mesmo pedido substitui os
+ * lançamentos anteriores, o que torna a geração idempotente para a outbox e para a regeração.
+ */
+@Service
+public class ContasAReceberService implements ManipuladorEventoOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContasAReceberService.class);
+
+    // Pedidos que representam uma venda aprovada
+    private static final Set<StatusPedido> STATUS_VENDA_APROVADA = EnumSet.of(
+            StatusPedido.PAGAMENTO_APROVADO, StatusPedido.EM_SEPARACAO, StatusPedido.ENVIADO, StatusPedido.ENTREGUE);
+
+    private final LancamentoContaReceberRepository lancamentoRepository;
+    private final PedidoRepository pedidoRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoBlocoRegeracao;
+
+    public ContasAReceberService(LancamentoContaReceberRepository lancamentoRepository,
+                                 PedidoRepository pedidoRepository,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${ecommerce.contas-receber.tamanho-bloco-regeracao:1000}") int tamanhoBlocoRegeracao) {
+        this.lancamentoRepository = lancamentoRepository;
+        this.pedidoRepository = pedidoRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoBlocoRegeracao = tamanhoBlocoRegeracao;
+    }
+
+    @Override
+    public Set<TipoEventoOutbox> tiposAtendidos() {
+        return EnumSet.of(TipoEventoOutbox.PAGAMENTO_APROVADO, TipoEventoOutbox.PEDIDO_CANCELADO);
+    }
+
+    @Override
+    @Transactional
+    public void processar(EventoOutbox evento) {
+        if (evento.getTipo() == TipoEventoOutbox.PAGAMENTO_APROVADO) {
+            gerarLancamentos(List.of(evento.getPedidoId()));
+        } else {
+            int cancelados = lancamentoRepository.atualizarStatusPorPedido(
+                    evento.getPedidoId(), StatusLancamento.ABERTO, StatusLancamento.CANCELADO);
+            logger.info("{} lançamento(s) em Contas a Receber cancelado(s) para o pedido ID: {}", cancelados, evento.getPedidoId());
+        }
+    }
+
+    /**
+     * Gera (ou gera novamente) os lançamentos de um conjunto de pedidos.
+     * Pedidos que não estão em um status de venda aprovada são ignorados.
+     *
+     * @param pedidoIds IDs dos pedidos.
+     * @return Quantidade de lançamentos gravados.
+     */
+    @Transactional
+    public int gerarLancamentos(Collection<Long> pedidoIds) {
+        if (pedidoIds.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> dados = pedidoRepository.findDadosFaturamento(pedidoIds, STATUS_VENDA_APROVADA);
+        if (dados.isEmpty()) {
+            return 0;
+        }
+        List<Long> faturados = dados.stream().map(linha -> (Long) linha[0]).toList();
+        Map<Long, Set<FormaPagamento>> formasPorPedido = new HashMap<>();
+        for (Object[] par : pedidoRepository.findFormasPagamentoByPedidoIdIn(faturados)) {
+            formasPorPedido.computeIfAbsent((Long) par[0], id -> EnumSet.noneOf(FormaPagamento.class)).add((FormaPagamento) par[1]);
+        }
+
+        lancamentoRepository.deleteByPedidoIdIn(faturados);
+        List<LancamentoContaReceber> lancamentos = new ArrayList<>();
+        for (Object[] linha : dados) {
+            Long pedidoId = (Long) linha[0];
+            adicionarLancamentos(lancamentos, pedidoId, (BigDecimal) linha[1], ((LocalDateTime) linha[2]).toLocalDate(),
+                    (Integer) linha[3], formasPorPedido.getOrDefault(pedidoId, Set.of()));
+        }
+        // IDs por sequência (pooled) + hibernate.jdbc.batch_size: INSERTs em lotes JDBC
+        lancamentoRepository.saveAll(lancamentos);
+        logger.info("{} lançamento(s) em Contas a Receber gerado(s) para {} pedido(s).", lancamentos.size(), faturados.size());
+        return lancamentos.size();
+    }
+
+    /**
+     * Regera os lançamentos de todas as vendas aprovadas no período (ex.: reprocessamento do fechamento mensal).
+     * Os pedidos são percorridos por faixa de ID, cada bloco em sua própria transação, e o contexto de
+     * persistência é limpo a cada bloco para que a memória não cresça com o volume.
+     *
+     * @param dataInicio Primeiro dia do período (opcional).
+     * @param dataFim Último dia do período, inclusive (opcional).
+     */
+    public RegeneracaoContasReceberResponseDTO regenerarLancamentos(LocalDate dataInicio, LocalDate dataFim) {
+        if (dataInicio != null && dataFim != null && dataFim.isBefore(dataInicio)) {
+            throw new BusinessRuleException("A data final não pode ser anterior à data inicial.");
+        }
+        LocalDateTime inicio = dataInicio == null ? null : dataInicio.atStartOfDay();
+        LocalDateTime fim = dataFim == null ? null : dataFim.plusDays(1).atStartOfDay();
+        long comeco = System.nanoTime();
+        logger.info("Iniciando regeração de Contas a Receber (período {} a {}).", dataInicio, dataFim);
+
+        long pedidos = 0;
+        long lancamentos = 0;
+        Long aposId = 0L;
+        while (true) {
+            Long cursor = aposId;
+            List<Long> bloco = pedidoRepository.findIdsPorStatusAposId(
+                    STATUS_VENDA_APROVADA, cursor, inicio, fim, PageRequest.ofSize(tamanhoBlocoRegeracao));
+            if (bloco.isEmpty()) {
+                break;
+            }
+            Integer gerados = transactionTemplate.execute(status -> {
+                int quantidade = gerarLancamentos(bloco);
+                entityManager.flush();
+                entityManager.clear();
+                return quantidade;
+            });
+            pedidos += bloco.size();
+            lancamentos += gerados == null ? 0 : gerados;
+            aposId = bloco.get(bloco.size() - 1);
+        }
+
+        long duracaoMs = (System.nanoTime() - comeco) / 1_000_000;
+        logger.info("Regeração de Contas a Receber concluída: {} pedido(s), {} lançamento(s) em {} ms.", pedidos, lancamentos, duracaoMs);
+        return new RegeneracaoContasReceberResponseDTO(pedidos, lancamentos, duracaoMs);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LancamentoContaReceberResponseDTO> listarPorPedido(Long pedidoId) {
+        if (!pedidoRepository.existsById(pedidoId)) {
+            throw new ResourceNotFoundException("Pedido não encontrado com ID: " + pedidoId);
+        }
+        return lancamentoRepository.findByPedidoIdOrderByNumeroParcela(pedidoId).stream()
+                .map(LancamentoContaReceberResponseDTO::fromEntity)
+                .toList();
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    // "Caso boleto, pix, cartão de débito o lançamento deve ser único, com data de lançamento do dia da venda e valor total da venda."
+    // "Caso seja cartão de crédito, crediário etc, o sistema deve considerar a quantidade de vezes que o cliente optou em dividir
+    // a compra e fazer os respectivos lançamentos..."
+    private void adicionarLancamentos(List<LancamentoContaReceber> destino, Long pedidoId, BigDecimal valorTotal,
+                                      LocalDate dataVenda, Integer numeroParcelas, Set<FormaPagamento> formas) {
+        boolean parcelado = formas.contains(FormaPagamento.CARTAO_CREDITO) && numeroParcelas != null && numeroParcelas > 1;
+        int parcelas = parcelado ? numeroParcelas : 1;
+        long[] valores = CalculadoraParcelas.dividir(CalculadoraParcelas.paraCentavos(valorTotal), parcelas);
+        FormaPagamento forma = formaDoLancamento(formas, parcelado);
+        for (int i = 0; i < parcelas; i++) {
+            destino.add(LancamentoContaReceber.builder()
+                    .pedido(pedidoRepository.getReferenceById(pedidoId)) // referência sem SELECT
+                    .numeroParcela(i + 1)
+                    .totalParcelas(parcelas)
+                    .formaPagamento(forma)
+                    .valor(CalculadoraParcelas.deCentavos(valores[i]))
+                    .dataLancamento(dataVenda)
+                    // À vista vence no dia da venda; parcelas vencem mês a mês a partir do mês seguinte
+                    .dataVencimento(parcelado ? dataVenda.plusMonths(i + 1) : dataVenda)
+                    .build());
+        }
+    }
+
+    // Sem divisão de valores entre formas no pedido: usa o cartão de crédito se parcelado,
+    // senão a primeira forma na ordem do enum (determinístico entre regerações)
+    private static FormaPagamento formaDoLancamento(Set<FormaPagamento> formas, boolean parcelado) {
+        if (parcelado) {
+            return FormaPagamento.CARTAO_CREDITO;
+        }
+        return formas.isEmpty() ? FormaPagamento.PIX : EnumSet.copyOf(formas).iterator().next();
+    }
+}
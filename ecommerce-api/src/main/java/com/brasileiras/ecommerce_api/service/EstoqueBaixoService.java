@@ -0,0 +1,179 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.AlertaEstoqueDTO;
+import com.brasileiras.ecommerce_api.dto.ProdutoEstoqueBaixoDTO;
+import com.brasileiras.ecommerce_api.enums.TipoAlertaEstoque;
+import com.brasileiras.ecommerce_api.repository.ProdutoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lista de produtos com estoque no ponto de reposição ou abaixo, mantida em memória.
+ * <p>
+ * A lista é carregada uma vez na inicialização e depois só muda pelos produtos alterados, relidos após o commit
+ * por {@link ReleituraProdutoService}, que também chama a carga e as atualizações desta classe, uma de cada vez.
+ * <p>
+ * Cada entrada ou saída da lista é enviada aos inscritos por Server-Sent Events ({@link #inscrever()}).
+ * A publicação só enfileira o evento na fila limitada de cada inscrito; o envio acontece em outra thread,
+ * uma por inscrito com eventos pendentes, então um cliente lento não atrasa a releitura dos produtos.
+ * O inscrito cuja fila enche é desconectado e deve se reinscrever.
+ */
+@Service
+public class EstoqueBaixoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstoqueBaixoService.class);
+
+    private static final String NOME_EVENTO = "estoque-baixo";
+
+    private final ProdutoRepository produtoRepository;
+    private final long validadeInscricaoMillis;
+    // Em ordem de ID: a listagem percorre só os produtos da lista
+    private final ConcurrentSkipListMap<Long, ProdutoEstoqueBaixoDTO> estoqueBaixo = new ConcurrentSkipListMap<>();
+    private final int eventosPendentesPorInscrito;
+    private final List<Inscrito> inscritos = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequenciaEventos = new AtomicLong();
+    // Threads de plataforma: SseEmitter.send é synchronized e prenderia a thread portadora de uma thread virtual
+    // enquanto a escrita para um cliente lento estiver bloqueada
+    private final ExecutorService envios = Executors.newCachedThreadPool(
+            Thread.ofPlatform().name("estoque-baixo-sse-", 0).daemon().factory());
+
+    public EstoqueBaixoService(ProdutoRepository produtoRepository,
+                               @Value("${ecommerce.estoque-baixo.validade-inscricao-minutos:30}") long validadeInscricaoMinutos,
+                               @Value("${ecommerce.estoque-baixo.eventos-pendentes-por-inscrito:10000}") int eventosPendentesPorInscrito) {
+        this.produtoRepository = produtoRepository;
+        this.validadeInscricaoMillis = validadeInscricaoMinutos * 60_000;
+        this.eventosPendentesPorInscrito = eventosPendentesPorInscrito;
+    }
+
+    /**
+     * Carga inicial, com uma única consulta.
+     */
+    public void carregar() {
+        for (Object[] linha : produtoRepository.findComEstoqueBaixo()) { // Linhas [id, descricao, estoque, pontoReposicao]
+            ProdutoEstoqueBaixoDTO produto = new ProdutoEstoqueBaixoDTO((Long) linha[0], (String) linha[1],
+                    (Integer) linha[2], (Integer) linha[3]);
+            estoqueBaixo.put(produto.produtoId(), produto);
+        }
+        logger.info("{} produto(s) com estoque baixo carregado(s).", estoqueBaixo.size());
+    }
+
+    /**
+     * @return Produtos com estoque baixo em ordem de ID, sem consultar o banco.
+     */
+    public List<ProdutoEstoqueBaixoDTO> listar() {
+        return List.copyOf(estoqueBaixo.values());
+    }
+
+    /**
+     * Inscreve o chamador nos eventos de entrada e saída da lista. A conexão expira após a validade
+     * configurada e o cliente deve se reinscrever (o EventSource do navegador faz isso sozinho).
+     */
+    public SseEmitter inscrever() {
+        SseEmitter emissor = new SseEmitter(validadeInscricaoMillis);
+        Inscrito inscrito = new Inscrito(emissor, new ArrayBlockingQueue<>(eventosPendentesPorInscrito));
+        emissor.onCompletion(() -> inscritos.remove(inscrito));
+        emissor.onTimeout(() -> inscritos.remove(inscrito));
+        emissor.onError(erro -> inscritos.remove(inscrito));
+        inscritos.add(inscrito);
+        return emissor;
+    }
+
+    /**
+     * Atualiza a lista com a situação relida dos produtos; os ausentes de {@code atuais} foram excluídos.
+     */
+    public void aplicar(List<Long> produtoIds, Map<Long, ReleituraProdutoService.SituacaoProduto> atuais) {
+        for (Long produtoId : produtoIds) {
+            ReleituraProdutoService.SituacaoProduto situacao = atuais.get(produtoId);
+            atualizar(produtoId, situacao == null ? null : new ProdutoEstoqueBaixoDTO(situacao.id(),
+                    situacao.descricao(), situacao.estoque(), situacao.pontoReposicao()));
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        envios.shutdownNow();
+        inscritos.forEach(inscrito -> inscrito.emissor().complete());
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    // Produto inexistente (excluído) ou não acompanhado (ponto de reposição nulo ou zero) sai da lista
+    private void atualizar(Long produtoId, ProdutoEstoqueBaixoDTO atual) {
+        boolean baixo = atual != null && atual.pontoReposicao() != null && atual.pontoReposicao() > 0
+                && atual.estoque() <= atual.pontoReposicao();
+        if (baixo) {
+            if (estoqueBaixo.put(produtoId, atual) == null) {
+                publicar(new AlertaEstoqueDTO(TipoAlertaEstoque.ESTOQUE_BAIXO, atual, LocalDateTime.now()));
+            }
+            return;
+        }
+        ProdutoEstoqueBaixoDTO anterior = estoqueBaixo.remove(produtoId);
+        if (anterior != null) {
+            publicar(new AlertaEstoqueDTO(TipoAlertaEstoque.ESTOQUE_REGULARIZADO, atual != null ? atual : anterior,
+                    LocalDateTime.now()));
+        }
+    }
+
+    private void publicar(AlertaEstoqueDTO alerta) {
+        Evento evento = new Evento(String.valueOf(sequenciaEventos.incrementAndGet()), alerta);
+        for (Inscrito inscrito : inscritos) {
+            if (inscrito.pendentes().offer(evento)) {
+                agendarEnvio(inscrito);
+            } else {
+                // Fila cheia: o cliente não acompanha os eventos e é desconectado (fora desta thread,
+                // porque complete() espera o envio em andamento terminar)
+                logger.warn("Inscrito nos alertas de estoque baixo desconectado: {} evento(s) pendente(s) sem envio.",
+                        eventosPendentesPorInscrito);
+                inscritos.remove(inscrito);
+                inscrito.pendentes().clear();
+                envios.execute(() -> inscrito.emissor().complete());
+            }
+        }
+    }
+
+    // No máximo um envio em andamento por inscrito, que esvazia a fila em ordem
+    private void agendarEnvio(Inscrito inscrito) {
+        if (inscrito.enviando().compareAndSet(false, true)) {
+            envios.execute(() -> enviarPendentes(inscrito));
+        }
+    }
+
+    private void enviarPendentes(Inscrito inscrito) {
+        Evento evento;
+        while ((evento = inscrito.pendentes().poll()) != null) {
+            try {
+                // Um builder por envio: ele acumula o texto do evento ao ser montado
+                inscrito.emissor().send(SseEmitter.event().id(evento.id()).name(NOME_EVENTO).data(evento.alerta()));
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado: deixa de receber
+                inscritos.remove(inscrito);
+                inscrito.pendentes().clear();
+            }
+        }
+        inscrito.enviando().set(false);
+        // Evento enfileirado depois do último poll e antes de liberar o envio
+        if (!inscrito.pendentes().isEmpty()) {
+            agendarEnvio(inscrito);
+        }
+    }
+
+    private record Evento(String id, AlertaEstoqueDTO alerta) {
+    }
+
+    private record Inscrito(SseEmitter emissor, BlockingQueue<Evento> pendentes, AtomicBoolean enviando) {
+        Inscrito(SseEmitter emissor, BlockingQueue<Evento> pendentes) {
+            this(emissor, pendentes, new AtomicBoolean());
+        }
+    }
+}
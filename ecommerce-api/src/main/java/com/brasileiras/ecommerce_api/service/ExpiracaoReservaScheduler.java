@@ -0,0 +1,55 @@
+package com.brasileiras.ecommerce_api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Agendador que cancela os pedidos não pagos cuja reserva de estoque expirou.
+ * A cada execução avança a roda de expiração e cancela os pedidos vencidos em lotes.
+ */
+@Component
+public class ExpiracaoReservaScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiracaoReservaScheduler.class);
+
+    private static final Duration ESPERA_NOVA_TENTATIVA = Duration.ofMinutes(1);
+
+    private final ReservaEstoqueService reservaEstoqueService;
+    private final int tamanhoLote;
+
+    public ExpiracaoReservaScheduler(ReservaEstoqueService reservaEstoqueService,
+                                     @Value("${ecommerce.reserva.tamanho-lote-expiracao:500}") int tamanhoLote) {
+        this.reservaEstoqueService = reservaEstoqueService;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reagendarNaInicializacao() {
+        int pendentes = reservaEstoqueService.reagendarReservasPendentes();
+        logger.info("{} pedido(s) com reserva de estoque pendente reagendado(s) para expiração.", pendentes);
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.reserva.intervalo-verificacao-ms:10000}")
+    public void expirarReservasVencidas() {
+        List<Long> vencidos = reservaEstoqueService.pedidosComReservaVencida(Instant.now());
+        for (int inicio = 0; inicio < vencidos.size(); inicio += tamanhoLote) {
+            List<Long> lote = vencidos.subList(inicio, Math.min(inicio + tamanhoLote, vencidos.size()));
+            try {
+                reservaEstoqueService.expirarPedidos(lote);
+            } catch (RuntimeException e) {
+                // Um lote com falha não impede os próximos; os pedidos voltam para a roda e são tentados novamente
+                logger.error("Falha ao expirar lote de {} pedido(s): {}", lote.size(), e.getMessage(), e);
+                reservaEstoqueService.reagendar(lote, Instant.now().plus(ESPERA_NOVA_TENTATIVA));
+            }
+        }
+    }
+}
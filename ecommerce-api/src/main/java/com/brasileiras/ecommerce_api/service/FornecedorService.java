@@ -20,10 +20,15 @@ public class FornecedorService {
 
     private final FornecedorRepository fornecedorRepository;
     public final EnderecoService enderecoService;
+    private final CacheProdutoService cacheProdutoService;
+    private final CachePedidoService cachePedidoService;
 
-    public FornecedorService(FornecedorRepository fornecedorRepository, EnderecoService enderecoService) {
+    public FornecedorService(FornecedorRepository fornecedorRepository, EnderecoService enderecoService,
+                             CacheProdutoService cacheProdutoService, CachePedidoService cachePedidoService) {
         this.fornecedorRepository = fornecedorRepository;
         this.enderecoService = enderecoService;
+        this.cacheProdutoService = cacheProdutoService;
+        this.cachePedidoService = cachePedidoService;
     }
 
     @Transactional
@@ -75,7 +80,7 @@ public class FornecedorService {
 
     @Transactional
     public FornecedorResponseDTO atualizarFornecedor(Long id, FornecedorUpdateRequestDTO requestDTO) {
-        Fornecedor fornecedor = fornecedorRepository.findById(id)
+        Fornecedor fornecedor = fornecedorRepository.findParaAtualizacao(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Fornecedor não encontrado com o ID: " + id + " para atualização."));
 
         if (requestDTO.getEmail() != null && !requestDTO.getEmail().equalsIgnoreCase(fornecedor.getEmail())) {
@@ -101,6 +106,9 @@ public class FornecedorService {
 
         // Mapeia os dados do DTO para a entidade Endereco existente
         mapEnderecoRequestDTOToEntity(requestDTO.getEndereco(), enderecoExistente);
+        // O endereço é alterado no próprio registro e pode ser também o de clientes e de entregas de pedidos
+        cachePedidoService.invalidarPorEndereco(enderecoExistente.getId());
+        cacheProdutoService.invalidarPorFornecedor(id);
 
 
         Fornecedor fornecedorAtualizado = fornecedorRepository.save(fornecedor); // Salva o fornecedor com o endereço atualizado/associado
@@ -0,0 +1,233 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.ItemPedidoRequestDTO;
+import com.brasileiras.ecommerce_api.dto.PedidoRequestDTO;
+import com.brasileiras.ecommerce_api.dto.PedidoResponseDTO;
+import com.brasileiras.ecommerce_api.enums.FormaPagamento;
+import com.brasileiras.ecommerce_api.exception.BusinessRuleException;
+import com.brasileiras.ecommerce_api.exception.DataConflictException;
+import com.brasileiras.ecommerce_api.model.ChaveIdempotencia;
+import com.brasileiras.ecommerce_api.repository.ChaveIdempotenciaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Criação de pedidos com suporte ao cabeçalho Idempotency-Key.
+ * <p>
+ * As chaves ficam em dois níveis: um cache em memória limitado (Caffeine, com expiração por tempo)
+ * que guarda o resultado em andamento ou concluído de cada chave, e a tabela {@code chaves_idempotencia},
+ * gravada na mesma transação do pedido, que sobrevive a reinícios e vale entre instâncias.
+ * Uma repetição que chega enquanto a primeira chamada ainda executa aguarda o mesmo resultado;
+ * uma repetição posterior recebe a resposta armazenada sem executar o pedido de novo.
+ */
+@Service
+public class IdempotenciaPedidoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotenciaPedidoService.class);
+
+    private final PedidoService pedidoService;
+    private final ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, CompletableFuture<Registro>> chavesRecentes;
+    private final Duration esperaMaxima;
+    private final Duration retencao;
+
+    public IdempotenciaPedidoService(PedidoService pedidoService,
+                                     ChaveIdempotenciaRepository chaveIdempotenciaRepository,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${ecommerce.idempotencia.max-chaves-memoria:10000}") long maxChavesMemoria,
+                                     @Value("${ecommerce.idempotencia.validade-memoria-minutos:10}") long validadeMemoriaMinutos,
+                                     @Value("${ecommerce.idempotencia.espera-maxima-segundos:30}") long esperaMaximaSegundos,
+                                     @Value("${ecommerce.idempotencia.retencao-horas:24}") long retencaoHoras) {
+        this.pedidoService = pedidoService;
+        this.chaveIdempotenciaRepository = chaveIdempotenciaRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chavesRecentes = Caffeine.newBuilder()
+                .maximumSize(maxChavesMemoria)
+                .expireAfterWrite(Duration.ofMinutes(validadeMemoriaMinutos))
+                .build();
+        this.esperaMaxima = Duration.ofSeconds(esperaMaximaSegundos);
+        this.retencao = Duration.ofHours(retencaoHoras);
+    }
+
+    /**
+     * Resultado da criação idempotente.
+     *
+     * @param pedido Resposta do pedido (a original, no caso de repetição).
+     * @param repetida true se a resposta veio de uma execução anterior com a mesma chave.
+     */
+    public record Resultado(PedidoResponseDTO pedido, boolean repetida) {
+    }
+
+    // Conteúdo guardado por chave: o hash da requisição original e a resposta produzida
+    private record Registro(String hashRequisicao, PedidoResponseDTO resposta) {
+    }
+
+    private record Execucao(Registro registro, boolean repetida) {
+    }
+
+    // Forma canônica do corpo para o hash: as formas de pagamento são um conjunto, cuja ordem de
+    // iteração (e portanto a da serialização) depende da implementação e da JVM, então vão ordenadas
+    private record ConteudoRequisicao(Long clienteId, Long enderecoEntregaId, List<ItemPedidoRequestDTO> itens,
+                                      List<FormaPagamento> formasPagamento, Integer numeroParcelas) {
+    }
+
+    /**
+     * Cria o pedido uma única vez por Idempotency-Key.
+     *
+     * @param chave Valor do cabeçalho Idempotency-Key.
+     * @param pedidoRequestDTO Corpo da requisição.
+     * @throws BusinessRuleException se a chave for inválida ou já tiver sido usada com outro conteúdo.
+     * @throws DataConflictException se a execução original não terminar dentro da espera máxima.
+     */
+    public Resultado criarPedido(String chave, PedidoRequestDTO pedidoRequestDTO) {
+        validarChave(chave);
+        String hashRequisicao = calcularHash(pedidoRequestDTO);
+
+        CompletableFuture<Registro> novaExecucao = new CompletableFuture<>();
+        CompletableFuture<Registro> existente = chavesRecentes.asMap().putIfAbsent(chave, novaExecucao);
+        if (existente != null) {
+            return new Resultado(aguardar(chave, existente, hashRequisicao), true);
+        }
+
+        try {
+            Execucao execucao = executarUmaVez(chave, hashRequisicao, pedidoRequestDTO);
+            novaExecucao.complete(execucao.registro());
+            return new Resultado(conferirHash(chave, execucao.registro(), hashRequisicao), execucao.repetida());
+        } catch (RuntimeException e) {
+            // Nada foi gravado: quem aguardava recebe o mesmo erro e uma nova tentativa executa de novo
+            chavesRecentes.asMap().remove(chave, novaExecucao);
+            novaExecucao.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Remove as chaves persistidas mais antigas que o período de retenção.
+     */
+    @Scheduled(fixedDelayString = "${ecommerce.idempotencia.intervalo-limpeza-ms:3600000}")
+    @Transactional
+    public void removerChavesVencidas() {
+        int removidas = chaveIdempotenciaRepository.deleteByCriadoEmBefore(LocalDateTime.now().minus(retencao));
+        if (removidas > 0) {
+            logger.info("{} chave(s) de idempotência vencida(s) removida(s).", removidas);
+        }
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private Execucao executarUmaVez(String chave, String hashRequisicao, PedidoRequestDTO pedidoRequestDTO) {
+        Optional<ChaveIdempotencia> gravada = chaveIdempotenciaRepository.findById(chave);
+        if (gravada.isPresent()) {
+            return new Execucao(lerRegistro(gravada.get()), true);
+        }
+        try {
+            PedidoResponseDTO criado = transactionTemplate.execute(status -> {
+                // A chave é gravada antes do pedido: outra instância com a mesma chave para aqui,
+                // sem repetir a verificação de estoque, e falha ao encontrar a linha confirmada
+                ChaveIdempotencia registro = chaveIdempotenciaRepository.saveAndFlush(ChaveIdempotencia.builder()
+                        .chave(chave)
+                        .hashRequisicao(hashRequisicao)
+                        .build());
+                PedidoResponseDTO resposta = pedidoService.criarPedido(pedidoRequestDTO);
+                registro.setPedidoId(resposta.id());
+                registro.setResposta(serializar(resposta));
+                return resposta;
+            });
+            return new Execucao(new Registro(hashRequisicao, criado), false);
+        } catch (DataIntegrityViolationException e) {
+            ChaveIdempotencia concorrente = chaveIdempotenciaRepository.findById(chave).orElseThrow(() -> e);
+            return new Execucao(lerRegistro(concorrente), true);
+        }
+    }
+
+    private PedidoResponseDTO aguardar(String chave, CompletableFuture<Registro> execucao, String hashRequisicao) {
+        try {
+            Registro registro = execucao.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+            return conferirHash(chave, registro, hashRequisicao);
+        } catch (TimeoutException e) {
+            throw new DataConflictException("A requisição com esta Idempotency-Key ainda está em processamento. Tente novamente.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataConflictException("A requisição com esta Idempotency-Key ainda está em processamento. Tente novamente.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private PedidoResponseDTO conferirHash(String chave, Registro registro, String hashRequisicao) {
+        if (!registro.hashRequisicao().equals(hashRequisicao)) {
+            throw new BusinessRuleException("A Idempotency-Key '" + chave + "' já foi utilizada com outro conteúdo de requisição.");
+        }
+        return registro.resposta();
+    }
+
+    private Registro lerRegistro(ChaveIdempotencia gravada) {
+        if (gravada.getResposta() == null) {
+            throw new DataConflictException("A requisição com esta Idempotency-Key ainda está em processamento. Tente novamente.");
+        }
+        try {
+            return new Registro(gravada.getHashRequisicao(),
+                    objectMapper.readValue(gravada.getResposta(), PedidoResponseDTO.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta armazenada inválida para a Idempotency-Key " + gravada.getChave(), e);
+        }
+    }
+
+    private String serializar(PedidoResponseDTO resposta) {
+        try {
+            return objectMapper.writeValueAsString(resposta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a resposta do pedido " + resposta.numeroPedido(), e);
+        }
+    }
+
+    private String calcularHash(PedidoRequestDTO pedidoRequestDTO) {
+        try {
+            List<FormaPagamento> formasPagamento = pedidoRequestDTO.getFormasPagamento() == null ? null
+                    : pedidoRequestDTO.getFormasPagamento().stream().sorted().toList();
+            byte[] corpo = objectMapper.writeValueAsBytes(new ConteudoRequisicao(pedidoRequestDTO.getClienteId(),
+                    pedidoRequestDTO.getEnderecoEntregaId(), pedidoRequestDTO.getItens(), formasPagamento,
+                    pedidoRequestDTO.getNumeroParcelas()));
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(corpo));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Falha ao calcular o hash da requisição", e);
+        }
+    }
+
+    private static void validarChave(String chave) {
+        if (chave.isBlank() || chave.length() > ChaveIdempotencia.TAMANHO_MAXIMO_CHAVE) {
+            throw new BusinessRuleException("Idempotency-Key deve ter entre 1 e " +
+                    ChaveIdempotencia.TAMANHO_MAXIMO_CHAVE + " caracteres.");
+        }
+    }
+}
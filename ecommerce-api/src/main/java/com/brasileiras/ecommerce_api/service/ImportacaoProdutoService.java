@@ -0,0 +1,452 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.ProdutoRequestDTO;
+import com.brasileiras.ecommerce_api.dto.ResultadoImportacaoProdutoDTO;
+import com.brasileiras.ecommerce_api.enums.SituacaoLinhaImportacao;
+import com.brasileiras.ecommerce_api.exception.BusinessRuleException;
+import com.brasileiras.ecommerce_api.model.Produto;
+import com.brasileiras.ecommerce_api.repository.FornecedorRepository;
+import com.brasileiras.ecommerce_api.repository.ProdutoRepository;
+import com.brasileiras.ecommerce_api.util.FiltroBloom;
+import com.brasileiras.ecommerce_api.util.LeitorCsv;
+import com.brasileiras.ecommerce_api.util.MensagensValidacao;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de produtos a partir de um CSV, lido e gravado em lotes, com o resultado de cada linha
+ * devolvido à medida que os lotes são gravados.
+ * <p>
+ * O arquivo precisa de um cabeçalho com os nomes dos campos de {@link ProdutoRequestDTO}, em qualquer ordem
+ * (estoque e pontoReposicao são opcionais), separados por vírgula ou ponto e vírgula. O SKU é a chave:
+ * um SKU novo cria o produto e um existente atualiza o catálogo dele (estoque e ponto de reposição em branco
+ * mantêm os valores atuais; ponto de reposição 0 desliga o acompanhamento do estoque baixo). Se o SKU se repete
+ * no mesmo lote, vale a última ocorrência.
+ * <p>
+ * Em vez de três consultas por linha, cada lote de {@code ecommerce.importacao-produtos.tamanho-lote} linhas faz
+ * uma consulta para os fornecedores e, no máximo, uma para os SKUs e uma para os códigos de barras da NF que
+ * talvez já existam, segundo os filtros de Bloom montados no começo da importação; os códigos que o filtro
+ * descarta com certeza nem vão ao banco. INSERTs e UPDATEs vão em lotes JDBC, uma transação por lote.
+ * A memória usada depende do tamanho do lote e dos filtros, não do tamanho do arquivo.
+ */
+@Service
+public class ImportacaoProdutoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoProdutoService.class);
+
+    private static final List<String> COLUNAS_OBRIGATORIAS =
+            List.of("codigoBarrasProduto", "descricao", "codigoBarras", "valorCompra", "valorVenda", "fornecedorId");
+    private static final int MAX_CARACTERES_REGISTRO = 10_000;
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    // Produtos lidos por consulta na montagem dos filtros
+    private static final int TAMANHO_BLOCO_CODIGOS = 10_000;
+    private static final double TAXA_FALSOS_POSITIVOS = 0.01;
+
+    private final ProdutoRepository produtoRepository;
+    private final FornecedorRepository fornecedorRepository;
+    private final CacheProdutoService cacheProdutoService;
+    private final CachePedidoService cachePedidoService;
+    private final BuscaProdutoService buscaProdutoService;
+    private final ReleituraProdutoService releituraProdutoService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectWriter escritorResultados;
+    private final int tamanhoLote;
+    private final long capacidadeAdicionalFiltros;
+
+    public ImportacaoProdutoService(ProdutoRepository produtoRepository,
+                                    FornecedorRepository fornecedorRepository,
+                                    CacheProdutoService cacheProdutoService,
+                                    CachePedidoService cachePedidoService,
+                                    BuscaProdutoService buscaProdutoService,
+                                    ReleituraProdutoService releituraProdutoService,
+                                    PlatformTransactionManager transactionManager,
+                                    Validator validator,
+                                    ObjectMapper objectMapper,
+                                    @Value("${ecommerce.importacao-produtos.tamanho-lote:1000}") int tamanhoLote,
+                                    @Value("${ecommerce.importacao-produtos.capacidade-adicional-filtro:500000}") long capacidadeAdicionalFiltros) {
+        this.produtoRepository = produtoRepository;
+        this.fornecedorRepository = fornecedorRepository;
+        this.cacheProdutoService = cacheProdutoService;
+        this.cachePedidoService = cachePedidoService;
+        this.buscaProdutoService = buscaProdutoService;
+        this.releituraProdutoService = releituraProdutoService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        // Várias linhas no mesmo destino: não fechar nem esvaziar o buffer a cada resultado
+        this.escritorResultados = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.tamanhoLote = tamanhoLote;
+        this.capacidadeAdicionalFiltros = capacidadeAdicionalFiltros;
+    }
+
+    /**
+     * Arquivo com o cabeçalho já lido e validado, pronto para {@link #importar}.
+     *
+     * @param leitor Leitor posicionado na primeira linha de dados.
+     * @param colunas Posição de cada coluna do cabeçalho.
+     */
+    public record ArquivoImportacao(LeitorCsv leitor, Map<String, Integer> colunas) {
+    }
+
+    /**
+     * Lê o cabeçalho do CSV (UTF-8). Separado de {@link #importar} para que um arquivo inválido seja recusado
+     * antes de a resposta começar a ser escrita.
+     *
+     * @throws BusinessRuleException se o arquivo estiver vazio ou faltar alguma coluna obrigatória.
+     */
+    public ArquivoImportacao abrir(InputStream origem) throws IOException {
+        BufferedReader texto = new BufferedReader(new InputStreamReader(origem, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        LeitorCsv leitor = new LeitorCsv(texto, detectarSeparador(texto), MAX_CARACTERES_REGISTRO);
+        List<String> cabecalho;
+        try {
+            cabecalho = leitor.proximoRegistro();
+        } catch (IllegalStateException e) {
+            throw new BusinessRuleException("Cabeçalho do CSV inválido: " + e.getMessage());
+        }
+        if (cabecalho == null) {
+            throw new BusinessRuleException("O arquivo está vazio: a primeira linha deve ser o cabeçalho com as colunas "
+                    + String.join(", ", COLUNAS_OBRIGATORIAS) + ".");
+        }
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            colunas.putIfAbsent(cabecalho.get(i).trim(), i);
+        }
+        List<String> faltantes = COLUNAS_OBRIGATORIAS.stream().filter(coluna -> !colunas.containsKey(coluna)).toList();
+        if (!faltantes.isEmpty()) {
+            throw new BusinessRuleException("Colunas obrigatórias ausentes no cabeçalho do CSV: " + String.join(", ", faltantes) + ".");
+        }
+        return new ArquivoImportacao(leitor, colunas);
+    }
+
+    /**
+     * Importa as linhas do arquivo e escreve o resultado de cada uma como NDJSON
+     * ({@link ResultadoImportacaoProdutoDTO} por linha, na ordem do arquivo), um lote por vez.
+     * Os lotes gravados continuam gravados se um lote seguinte falhar.
+     *
+     * @param destino Destino dos resultados (não é fechado).
+     * @return Quantidade de linhas de dados lidas.
+     */
+    public long importar(ArquivoImportacao arquivo, OutputStream destino) throws IOException {
+        long comeco = System.nanoTime();
+        FiltrosCodigos filtros = montarFiltros();
+        OutputStream saida = new BufferedOutputStream(destino, TAMANHO_BUFFER);
+        Map<SituacaoLinhaImportacao, Long> totais = new EnumMap<>(SituacaoLinhaImportacao.class);
+        List<LinhaImportacao> lote = new ArrayList<>(tamanhoLote);
+        long lidas = 0;
+        boolean fim = false;
+        while (!fim) {
+            LinhaImportacao linha = lerLinha(arquivo);
+            // Registro malformado: o restante do arquivo não pode ser lido com segurança
+            fim = linha == null || linha.interrompe();
+            if (linha != null) {
+                lote.add(linha);
+                lidas++;
+            }
+            if (lote.size() == tamanhoLote || (fim && !lote.isEmpty())) {
+                for (ResultadoImportacaoProdutoDTO resultado : processarLote(lote, filtros)) {
+                    escritorResultados.writeValue(saida, resultado);
+                    saida.write('\n');
+                    totais.merge(resultado.situacao(), 1L, Long::sum);
+                }
+                saida.flush();
+                lote.clear();
+            }
+        }
+        logger.info("Importação de produtos concluída: {} linha(s) em {} ms {}.", lidas,
+                (System.nanoTime() - comeco) / 1_000_000, totais);
+        return lidas;
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    /**
+     * Linha lida do arquivo: os dados já validados ou o erro encontrado.
+     * {@code interrompe} indica que o registro estava malformado e a leitura não pode continuar.
+     */
+    private record LinhaImportacao(long linha, String codigoBarrasProduto, ProdutoRequestDTO dados,
+                                   String erro, boolean interrompe) {
+    }
+
+    // Códigos já cadastrados (e os gravados pela importação): "não está" é certo, "talvez esteja" vai ao banco
+    private record FiltrosCodigos(FiltroBloom codigosProduto, FiltroBloom codigosBarras) {
+    }
+
+    private FiltrosCodigos montarFiltros() {
+        long comeco = System.nanoTime();
+        long capacidade = produtoRepository.count() + capacidadeAdicionalFiltros;
+        FiltrosCodigos filtros = new FiltrosCodigos(new FiltroBloom(capacidade, TAXA_FALSOS_POSITIVOS),
+                new FiltroBloom(capacidade, TAXA_FALSOS_POSITIVOS));
+        Long aposId = 0L;
+        List<Object[]> bloco;
+        do {
+            bloco = produtoRepository.findCodigosAposId(aposId, PageRequest.ofSize(TAMANHO_BLOCO_CODIGOS));
+            for (Object[] linha : bloco) { // Linhas [id, codigoBarrasProduto, codigoBarras]
+                filtros.codigosProduto().adicionar((String) linha[1]);
+                filtros.codigosBarras().adicionar((String) linha[2]);
+            }
+            if (!bloco.isEmpty()) {
+                aposId = (Long) bloco.get(bloco.size() - 1)[0];
+            }
+        } while (bloco.size() == TAMANHO_BLOCO_CODIGOS);
+        logger.info("Filtros da importação de produtos montados: {} KB em {} ms.",
+                2 * filtros.codigosProduto().tamanhoEmBytes() / 1024, (System.nanoTime() - comeco) / 1_000_000);
+        return filtros;
+    }
+
+    private List<ResultadoImportacaoProdutoDTO> processarLote(List<LinhaImportacao> lote, FiltrosCodigos filtros) {
+        ResultadoImportacaoProdutoDTO[] resultados = new ResultadoImportacaoProdutoDTO[lote.size()];
+        // Posição da última ocorrência de cada SKU válido do lote
+        Map<String, Integer> ultimaPorCodigo = new HashMap<>();
+        for (int i = 0; i < lote.size(); i++) {
+            LinhaImportacao linha = lote.get(i);
+            if (linha.erro() != null) {
+                resultados[i] = ResultadoImportacaoProdutoDTO.rejeitado(linha.linha(), linha.codigoBarrasProduto(), linha.erro());
+                continue;
+            }
+            Integer anterior = ultimaPorCodigo.put(linha.codigoBarrasProduto(), i);
+            if (anterior != null) {
+                resultados[anterior] = ResultadoImportacaoProdutoDTO.ignorado(lote.get(anterior).linha(),
+                        linha.codigoBarrasProduto(), "SKU repetido na linha " + linha.linha() + "; vale a última ocorrência.");
+            }
+        }
+        List<Integer> aGravar = ultimaPorCodigo.values().stream().sorted().toList();
+        if (!aGravar.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> gravarLote(lote, aGravar, resultados, filtros, false));
+            } catch (DataIntegrityViolationException e) {
+                // Outro cadastro usou um código que o filtro não conhecia: confere todos no banco e tenta de novo
+                logger.warn("Conflito de código ao gravar lote da importação de produtos; conferindo todos os códigos: {}", e.getMessage());
+                try {
+                    transactionTemplate.executeWithoutResult(status -> gravarLote(lote, aGravar, resultados, filtros, true));
+                } catch (DataIntegrityViolationException novamente) {
+                    for (int i : aGravar) {
+                        resultados[i] = ResultadoImportacaoProdutoDTO.rejeitado(lote.get(i).linha(), lote.get(i).codigoBarrasProduto(),
+                                "Lote não gravado: conflito de SKU ou código de barras da NF com outro produto.");
+                    }
+                }
+            }
+        }
+        return Arrays.asList(resultados);
+    }
+
+    private void gravarLote(List<LinhaImportacao> lote, List<Integer> aGravar, ResultadoImportacaoProdutoDTO[] resultados,
+                            FiltrosCodigos filtros, boolean conferirTodos) {
+        List<ProdutoRequestDTO> dados = aGravar.stream().map(i -> lote.get(i).dados()).toList();
+        Set<Long> fornecedores = new HashSet<>(fornecedorRepository.findIdsExistentes(
+                dados.stream().map(ProdutoRequestDTO::getFornecedorId).collect(Collectors.toSet())));
+        Map<String, Long> idPorCodigoProduto = conferir(dados, ProdutoRequestDTO::getCodigoBarrasProduto,
+                filtros.codigosProduto(), conferirTodos, produtoRepository::findIdsByCodigoBarrasProdutoIn);
+        Map<String, Long> idPorCodigoBarras = conferir(dados, ProdutoRequestDTO::getCodigoBarras,
+                filtros.codigosBarras(), conferirTodos, produtoRepository::findIdsByCodigoBarrasIn);
+
+        Map<String, Integer> codigosBarrasDoLote = new HashMap<>();
+        List<Produto> novos = new ArrayList<>();
+        List<Integer> posicoesNovos = new ArrayList<>();
+        List<Produto> existentes = new ArrayList<>();
+        List<Integer> posicoesExistentes = new ArrayList<>();
+        for (int i : aGravar) {
+            LinhaImportacao linha = lote.get(i);
+            ProdutoRequestDTO produto = linha.dados();
+            Long produtoId = idPorCodigoProduto.get(produto.getCodigoBarrasProduto());
+            Long donoCodigoBarras = idPorCodigoBarras.get(produto.getCodigoBarras());
+            Integer outraLinha = codigosBarrasDoLote.putIfAbsent(produto.getCodigoBarras(), i);
+            String erro = null;
+            if (!fornecedores.contains(produto.getFornecedorId())) {
+                erro = "Fornecedor não encontrado com ID: " + produto.getFornecedorId();
+            } else if (donoCodigoBarras != null && !donoCodigoBarras.equals(produtoId)) {
+                erro = "Já existe outro produto com o código de barras da NF: " + produto.getCodigoBarras();
+            } else if (outraLinha != null) {
+                erro = "Código de barras da NF repetido na linha " + lote.get(outraLinha).linha() + ".";
+            }
+            if (erro != null) {
+                resultados[i] = ResultadoImportacaoProdutoDTO.rejeitado(linha.linha(), linha.codigoBarrasProduto(), erro);
+                continue;
+            }
+            // Só o ID do fornecedor é usado: referência sem consulta
+            Produto entidade = produto.toEntity(fornecedorRepository.getReferenceById(produto.getFornecedorId()));
+            if (produtoId == null) {
+                novos.add(entidade);
+                posicoesNovos.add(i);
+            } else {
+                entidade.setId(produtoId);
+                entidade.setEstoque(produto.getEstoque()); // Em branco: mantém o estoque atual
+                existentes.add(entidade);
+                posicoesExistentes.add(i);
+            }
+        }
+
+        Set<Long> recusados = new HashSet<>(produtoRepository.atualizarCatalogoEmLote(existentes));
+        produtoRepository.inserirEmLote(novos);
+        Map<String, Long> idsNovos = novos.isEmpty() ? Map.of() : paraMapa(produtoRepository.findIdsByCodigoBarrasProdutoIn(
+                novos.stream().map(Produto::getCodigoBarrasProduto).toList()));
+
+        Map<Long, String> descricoesGravadas = new HashMap<>();
+        List<Long> atualizados = new ArrayList<>();
+        for (int j = 0; j < existentes.size(); j++) {
+            Produto produto = existentes.get(j);
+            LinhaImportacao linha = lote.get(posicoesExistentes.get(j));
+            if (recusados.contains(produto.getId())) {
+                resultados[posicoesExistentes.get(j)] = ResultadoImportacaoProdutoDTO.rejeitado(linha.linha(),
+                        linha.codigoBarrasProduto(), "O estoque informado é menor que o reservado por pedidos em aberto.");
+                continue;
+            }
+            resultados[posicoesExistentes.get(j)] = ResultadoImportacaoProdutoDTO.gravado(linha.linha(),
+                    linha.codigoBarrasProduto(), SituacaoLinhaImportacao.ATUALIZADO, produto.getId());
+            descricoesGravadas.put(produto.getId(), produto.getDescricao());
+            atualizados.add(produto.getId());
+            filtros.codigosBarras().adicionar(produto.getCodigoBarras());
+        }
+        for (int j = 0; j < novos.size(); j++) {
+            Produto produto = novos.get(j);
+            LinhaImportacao linha = lote.get(posicoesNovos.get(j));
+            Long produtoId = idsNovos.get(produto.getCodigoBarrasProduto());
+            resultados[posicoesNovos.get(j)] = ResultadoImportacaoProdutoDTO.gravado(linha.linha(),
+                    linha.codigoBarrasProduto(), SituacaoLinhaImportacao.CRIADO, produtoId);
+            descricoesGravadas.put(produtoId, produto.getDescricao());
+            filtros.codigosProduto().adicionar(produto.getCodigoBarrasProduto());
+            filtros.codigosBarras().adicionar(produto.getCodigoBarras());
+        }
+
+        if (!atualizados.isEmpty()) {
+            cacheProdutoService.invalidar(atualizados);
+            cachePedidoService.invalidarPorProdutos(atualizados);
+        }
+        buscaProdutoService.indexar(descricoesGravadas);
+        releituraProdutoService.registrarAlteracao(descricoesGravadas.keySet());
+    }
+
+    /**
+     * Confirma no banco, com uma única consulta, os códigos que o filtro indica que talvez existam.
+     *
+     * @return ID do produto por código encontrado.
+     */
+    private static Map<String, Long> conferir(List<ProdutoRequestDTO> dados, Function<ProdutoRequestDTO, String> codigo,
+                                              FiltroBloom filtro, boolean conferirTodos,
+                                              Function<Collection<String>, List<Object[]>> consulta) {
+        Set<String> candidatos = dados.stream().map(codigo)
+                .filter(valor -> conferirTodos || filtro.talvezContenha(valor))
+                .collect(Collectors.toSet());
+        return candidatos.isEmpty() ? Map.of() : paraMapa(consulta.apply(candidatos));
+    }
+
+    private static Map<String, Long> paraMapa(List<Object[]> linhas) { // Linhas [id, codigo]
+        Map<String, Long> idPorCodigo = new HashMap<>();
+        for (Object[] linha : linhas) {
+            idPorCodigo.put((String) linha[1], (Long) linha[0]);
+        }
+        return idPorCodigo;
+    }
+
+    private LinhaImportacao lerLinha(ArquivoImportacao arquivo) throws IOException {
+        LeitorCsv leitor = arquivo.leitor();
+        List<String> campos;
+        try {
+            campos = leitor.proximoRegistro();
+        } catch (IllegalStateException e) {
+            return new LinhaImportacao(leitor.linhaDoRegistro(), null, null,
+                    e.getMessage() + " Importação interrompida nesta linha.", true);
+        }
+        if (campos == null) {
+            return null;
+        }
+        Map<String, Integer> colunas = arquivo.colunas();
+        String codigoBarrasProduto = campo(campos, colunas, "codigoBarrasProduto");
+        ProdutoRequestDTO dados;
+        try {
+            dados = ProdutoRequestDTO.builder()
+                    .codigoBarrasProduto(codigoBarrasProduto)
+                    .descricao(campo(campos, colunas, "descricao"))
+                    .codigoBarras(campo(campos, colunas, "codigoBarras"))
+                    .valorCompra(decimal(campos, colunas, "valorCompra"))
+                    .valorVenda(decimal(campos, colunas, "valorVenda"))
+                    .estoque(inteiro(campos, colunas, "estoque"))
+                    .pontoReposicao(inteiro(campos, colunas, "pontoReposicao"))
+                    .fornecedorId(inteiroLongo(campos, colunas, "fornecedorId"))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return new LinhaImportacao(leitor.linhaDoRegistro(), codigoBarrasProduto, null, e.getMessage(), false);
+        }
+        String erro = MensagensValidacao.validar(validator, dados);
+        if (erro != null) {
+            return new LinhaImportacao(leitor.linhaDoRegistro(), codigoBarrasProduto, null, erro, false);
+        }
+        return new LinhaImportacao(leitor.linhaDoRegistro(), codigoBarrasProduto, dados, null, false);
+    }
+
+    // Coluna ausente, além do fim da linha ou em branco: null
+    private static String campo(List<String> campos, Map<String, Integer> colunas, String coluna) {
+        Integer posicao = colunas.get(coluna);
+        if (posicao == null || posicao >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(posicao).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    // Aceita vírgula decimal ("12,90"), comum em planilhas exportadas com ponto e vírgula
+    private static BigDecimal decimal(List<String> campos, Map<String, Integer> colunas, String coluna) {
+        String valor = campo(campos, colunas, coluna);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(valor.indexOf(',') >= 0 && valor.indexOf('.') < 0 ? valor.replace(',', '.') : valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(coluna + ": valor inválido '" + valor + "'.");
+        }
+    }
+
+    private static Integer inteiro(List<String> campos, Map<String, Integer> colunas, String coluna) {
+        String valor = campo(campos, colunas, coluna);
+        try {
+            return valor == null ? null : Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(coluna + ": valor inválido '" + valor + "'.");
+        }
+    }
+
+    private static Long inteiroLongo(List<String> campos, Map<String, Integer> colunas, String coluna) {
+        String valor = campo(campos, colunas, coluna);
+        try {
+            return valor == null ? null : Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(coluna + ": valor inválido '" + valor + "'.");
+        }
+    }
+
+    // Ponto e vírgula se aparecer mais que a vírgula na primeira linha (cabeçalho)
+    private static char detectarSeparador(BufferedReader texto) throws IOException {
+        texto.mark(MAX_CARACTERES_REGISTRO + 1);
+        int pontoEVirgula = 0;
+        int virgula = 0;
+        for (int i = 0, c = texto.read(); i < MAX_CARACTERES_REGISTRO && c != -1 && c != '\n'; i++, c = texto.read()) {
+            if (c == ';') {
+                pontoEVirgula++;
+            } else if (c == ',') {
+                virgula++;
+            }
+        }
+        texto.reset();
+        return pontoEVirgula > virgula ? ';' : ',';
+    }
+}
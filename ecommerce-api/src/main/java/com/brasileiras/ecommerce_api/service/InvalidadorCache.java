@@ -0,0 +1,44 @@
+package com.brasileiras.ecommerce_api.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Invalidação dos caches em memória ({@link CachePedidoService}, {@link CacheProdutoService}).
+ * <p>
+ * Toda remoção é feita na hora, para que a própria transação não leia o dado antigo, e repetida após o commit,
+ * para descartar o que uma leitura concorrente tenha guardado com os dados anteriores à alteração. A geração,
+ * incrementada a cada remoção, permite a quem carrega o cache saber se houve invalidação desde o início da
+ * leitura: nesse caso o que foi lido pode ser anterior a ela e não deve ficar guardado.
+ */
+class InvalidadorCache {
+
+    private final AtomicLong geracao = new AtomicLong();
+
+    /**
+     * @return Marca a ser obtida antes de ler do banco e passada a {@link #houveInvalidacaoDesde}.
+     */
+    long geracaoAtual() {
+        return geracao.get();
+    }
+
+    boolean houveInvalidacaoDesde(long geracaoDaLeitura) {
+        return geracao.get() != geracaoDaLeitura;
+    }
+
+    void agoraEAposCommit(Runnable remocao) {
+        geracao.incrementAndGet();
+        remocao.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    geracao.incrementAndGet();
+                    remocao.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.enums.TipoEventoOutbox;
+import com.brasileiras.ecommerce_api.model.EventoOutbox;
+
+import java.util.Set;
+
+/**
+ * Efeito colateral executado pelo {@link OutboxDispatcher} após o commit da transação que gravou o evento.
+ * <p>
+ * Em caso de exceção o evento é tentado novamente, com todos os manipuladores do seu tipo;
+ * por isso cada implementação deve ser idempotente (processar o mesmo evento duas vezes não pode
+ * duplicar o efeito).
+ */
+public interface ManipuladorEventoOutbox {
+
+    Set<TipoEventoOutbox> tiposAtendidos();
+
+    void processar(EventoOutbox evento);
+}
@@ -0,0 +1,47 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.enums.TipoEventoOutbox;
+import com.brasileiras.ecommerce_api.model.EventoOutbox;
+import com.brasileiras.ecommerce_api.model.Pedido;
+import com.brasileiras.ecommerce_api.repository.PedidoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Notifica o cliente sobre as mudanças do seu pedido, a partir dos eventos da outbox.
+ * Ainda não há integração com provedor de e-mail: a notificação é registrada em log.
+ */
+@Service
+public class NotificacaoPedidoService implements ManipuladorEventoOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificacaoPedidoService.class);
+
+    private final PedidoRepository pedidoRepository;
+
+    public NotificacaoPedidoService(PedidoRepository pedidoRepository) {
+        this.pedidoRepository = pedidoRepository;
+    }
+
+    @Override
+    public Set<TipoEventoOutbox> tiposAtendidos() {
+        return EnumSet.allOf(TipoEventoOutbox.class);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void processar(EventoOutbox evento) {
+        Optional<Pedido> pedido = pedidoRepository.findById(evento.getPedidoId());
+        if (pedido.isEmpty()) {
+            logger.warn("Pedido ID {} não existe mais; notificação '{}' descartada.", evento.getPedidoId(), evento.getTipo().getDescricao());
+            return;
+        }
+        logger.info("Notificação '{}' do pedido {} enviada para {}.", evento.getTipo().getDescricao(),
+                pedido.get().getNumeroPedido(), pedido.get().getCliente().getEmail());
+    }
+}
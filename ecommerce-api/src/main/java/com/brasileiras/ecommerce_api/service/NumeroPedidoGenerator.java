@@ -0,0 +1,14 @@
+package com.brasileiras.ecommerce_api.service;
+
+/**
+ * Estratégia de geração do número público do pedido (coluna {@code numero_pedido}, até 30 caracteres).
+ * A implementação ativa é escolhida pela propriedade {@code ecommerce.pedido.gerador-numero}.
+ */
+public interface NumeroPedidoGenerator {
+
+    /**
+     * Gera um novo número de pedido, único entre todas as instâncias da aplicação.
+     * Deve ser seguro para chamadas concorrentes.
+     */
+    String gerar();
+}
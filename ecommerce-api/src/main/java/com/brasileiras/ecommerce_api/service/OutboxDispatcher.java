@@ -0,0 +1,250 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.OutboxMetricasDTO;
+import com.brasileiras.ecommerce_api.enums.StatusEventoOutbox;
+import com.brasileiras.ecommerce_api.enums.TipoEventoOutbox;
+import com.brasileiras.ecommerce_api.model.EventoOutbox;
+import com.brasileiras.ecommerce_api.repository.EventoOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Despacha os eventos da outbox para os {@link ManipuladorEventoOutbox} registrados.
+ * <p>
+ * A cada execução reserva um lote de eventos vencidos (SELECT ... FOR UPDATE SKIP LOCKED, empurrando
+ * {@code proxima_tentativa_em} para o fim do prazo de processamento), executa os manipuladores em
+ * threads virtuais e grava o desfecho de todo o lote em uma única transação. Eventos do mesmo pedido
+ * são processados em ordem na mesma thread; pedidos diferentes, em paralelo. Falhas são tentadas
+ * novamente com espera exponencial até o limite de tentativas.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final Duration ESPERA_INICIAL = Duration.ofSeconds(5);
+    private static final Duration ESPERA_MAXIMA = Duration.ofMinutes(10);
+    private static final int TAMANHO_MAXIMO_ERRO = 1000;
+
+    private enum Situacao { SUCESSO, FALHA, ADIADO }
+
+    private record Desfecho(EventoOutbox evento, Situacao situacao, String erro) {
+    }
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final Map<TipoEventoOutbox, List<ManipuladorEventoOutbox>> manipuladoresPorTipo = new EnumMap<>(TipoEventoOutbox.class);
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbox-", 0).factory());
+    // Limita as threads virtuais simultâneas ao que o pool de conexões comporta
+    private final Semaphore permissoes;
+    private final int tamanhoLote;
+    private final int maxTentativas;
+    private final Duration prazoProcessamento;
+    private final Duration retencao;
+
+    private final LongAdder processados = new LongAdder();
+    private final LongAdder tentativasComFalha = new LongAdder();
+    private final LongAdder somaAtrasoMillis = new LongAdder();
+    private final AtomicLong atrasoUltimoLoteMillis = new AtomicLong();
+
+    public OutboxDispatcher(EventoOutboxRepository eventoOutboxRepository,
+                            List<ManipuladorEventoOutbox> manipuladores,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${ecommerce.outbox.tamanho-lote:100}") int tamanhoLote,
+                            @Value("${ecommerce.outbox.paralelismo:8}") int paralelismo,
+                            @Value("${ecommerce.outbox.max-tentativas:10}") int maxTentativas,
+                            @Value("${ecommerce.outbox.prazo-processamento-segundos:300}") long prazoProcessamentoSegundos,
+                            @Value("${ecommerce.outbox.retencao-horas:24}") long retencaoHoras) {
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        for (ManipuladorEventoOutbox manipulador : manipuladores) {
+            manipulador.tiposAtendidos().forEach(tipo ->
+                    manipuladoresPorTipo.computeIfAbsent(tipo, t -> new ArrayList<>()).add(manipulador));
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.permissoes = new Semaphore(paralelismo);
+        this.tamanhoLote = tamanhoLote;
+        this.maxTentativas = maxTentativas;
+        this.prazoProcessamento = Duration.ofSeconds(prazoProcessamentoSegundos);
+        this.retencao = Duration.ofHours(retencaoHoras);
+    }
+
+    /**
+     * Drena a outbox: processa lotes até não restarem eventos vencidos.
+     */
+    @Scheduled(fixedDelayString = "${ecommerce.outbox.intervalo-ms:1000}")
+    public void drenar() {
+        List<EventoOutbox> lote;
+        do {
+            lote = reservarLote();
+            if (lote.isEmpty()) {
+                return;
+            }
+            List<Desfecho> desfechos = processar(lote);
+            registrarDesfechos(desfechos);
+        } while (lote.size() == tamanhoLote);
+    }
+
+    /**
+     * Remove os eventos já processados há mais tempo que o período de retenção.
+     */
+    @Scheduled(fixedDelayString = "${ecommerce.outbox.intervalo-limpeza-ms:3600000}")
+    public void removerProcessados() {
+        Integer removidos = transactionTemplate.execute(status -> eventoOutboxRepository.deleteProcessadosAntesDe(
+                StatusEventoOutbox.PROCESSADO, LocalDateTime.now().minus(retencao)));
+        if (removidos != null && removidos > 0) {
+            logger.info("{} evento(s) processado(s) removido(s) da outbox.", removidos);
+        }
+    }
+
+    public OutboxMetricasDTO metricas() {
+        long pendentes = eventoOutboxRepository.countByStatus(StatusEventoOutbox.PENDENTE);
+        long falhados = eventoOutboxRepository.countByStatus(StatusEventoOutbox.FALHOU);
+        LocalDateTime maisAntigo = eventoOutboxRepository.findCriadoEmMaisAntigo(StatusEventoOutbox.PENDENTE);
+        long atrasoPendente = maisAntigo == null ? 0 : Math.max(0, Duration.between(maisAntigo, LocalDateTime.now()).toMillis());
+        long totalProcessados = processados.sum();
+        long atrasoMedio = totalProcessados == 0 ? 0 : somaAtrasoMillis.sum() / totalProcessados;
+        return new OutboxMetricasDTO(pendentes, falhados, atrasoPendente, totalProcessados,
+                tentativasComFalha.sum(), atrasoMedio, atrasoUltimoLoteMillis.get());
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private List<EventoOutbox> reservarLote() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime agora = LocalDateTime.now();
+            List<EventoOutbox> eventos = eventoOutboxRepository.findDisponiveis(
+                    StatusEventoOutbox.PENDENTE, agora, PageRequest.of(0, tamanhoLote));
+            for (EventoOutbox evento : eventos) {
+                evento.setTentativas(evento.getTentativas() + 1);
+                evento.setProximaTentativaEm(agora.plus(prazoProcessamento));
+            }
+            return eventos;
+        });
+    }
+
+    private List<Desfecho> processar(List<EventoOutbox> lote) {
+        Map<Long, List<EventoOutbox>> porPedido = new LinkedHashMap<>();
+        lote.forEach(evento -> porPedido.computeIfAbsent(evento.getPedidoId(), id -> new ArrayList<>()).add(evento));
+
+        List<Callable<List<Desfecho>>> tarefas = new ArrayList<>(porPedido.size());
+        porPedido.values().forEach(eventos -> tarefas.add(() -> processarEmOrdem(eventos)));
+
+        List<Desfecho> desfechos = new ArrayList<>(lote.size());
+        try {
+            for (Future<List<Desfecho>> futuro : executor.invokeAll(tarefas)) {
+                desfechos.addAll(futuro.get());
+            }
+        } catch (InterruptedException e) {
+            // Os eventos sem desfecho voltam a ficar disponíveis quando o prazo de processamento vencer
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Falha inesperada no despacho da outbox: {}", e.getCause().getMessage(), e.getCause());
+        }
+        return desfechos;
+    }
+
+    // Um evento com falha adia os seguintes do mesmo pedido, preservando a ordem
+    private List<Desfecho> processarEmOrdem(List<EventoOutbox> eventos) throws InterruptedException {
+        List<Desfecho> desfechos = new ArrayList<>(eventos.size());
+        permissoes.acquire();
+        try {
+            boolean falhou = false;
+            for (EventoOutbox evento : eventos) {
+                if (falhou) {
+                    desfechos.add(new Desfecho(evento, Situacao.ADIADO, null));
+                    continue;
+                }
+                try {
+                    for (ManipuladorEventoOutbox manipulador : manipuladoresPorTipo.getOrDefault(evento.getTipo(), List.of())) {
+                        manipulador.processar(evento);
+                    }
+                    desfechos.add(new Desfecho(evento, Situacao.SUCESSO, null));
+                } catch (RuntimeException e) {
+                    logger.warn("Falha ao processar evento {} ({}) do pedido {} na tentativa {}: {}", evento.getId(),
+                            evento.getTipo(), evento.getPedidoId(), evento.getTentativas(), e.getMessage());
+                    desfechos.add(new Desfecho(evento, Situacao.FALHA, String.valueOf(e.getMessage())));
+                    falhou = true;
+                }
+            }
+        } finally {
+            permissoes.release();
+        }
+        return desfechos;
+    }
+
+    private void registrarDesfechos(List<Desfecho> desfechos) {
+        if (desfechos.isEmpty()) {
+            return;
+        }
+        Map<Long, Desfecho> porId = new HashMap<>();
+        desfechos.forEach(desfecho -> porId.put(desfecho.evento().getId(), desfecho));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime agora = LocalDateTime.now();
+            long maiorAtraso = 0;
+            Map<Long, LocalDateTime> proximaTentativaPorPedido = new HashMap<>();
+            List<EventoOutbox> eventos = eventoOutboxRepository.findAllById(porId.keySet());
+            eventos.sort(Comparator.comparing(EventoOutbox::getId));
+            for (EventoOutbox evento : eventos) {
+                Desfecho desfecho = porId.get(evento.getId());
+                switch (desfecho.situacao()) {
+                    case SUCESSO -> {
+                        evento.setStatus(StatusEventoOutbox.PROCESSADO);
+                        evento.setProcessadoEm(agora);
+                        evento.setUltimoErro(null);
+                        long atraso = Duration.between(evento.getCriadoEm(), agora).toMillis();
+                        somaAtrasoMillis.add(atraso);
+                        maiorAtraso = Math.max(maiorAtraso, atraso);
+                        processados.increment();
+                    }
+                    case FALHA -> {
+                        tentativasComFalha.increment();
+                        evento.setUltimoErro(truncar(desfecho.erro()));
+                        if (evento.getTentativas() >= maxTentativas) {
+                            evento.setStatus(StatusEventoOutbox.FALHOU);
+                            logger.error("Evento {} ({}) do pedido {} falhou após {} tentativa(s): {}", evento.getId(),
+                                    evento.getTipo(), evento.getPedidoId(), evento.getTentativas(), desfecho.erro());
+                        } else {
+                            evento.setProximaTentativaEm(agora.plus(espera(evento.getTentativas())));
+                        }
+                        proximaTentativaPorPedido.put(evento.getPedidoId(), evento.getProximaTentativaEm());
+                    }
+                    case ADIADO -> {
+                        // Não conta como tentativa: volta junto com o evento anterior do mesmo pedido
+                        evento.setTentativas(evento.getTentativas() - 1);
+                        evento.setProximaTentativaEm(proximaTentativaPorPedido.getOrDefault(evento.getPedidoId(), agora));
+                    }
+                }
+            }
+            atrasoUltimoLoteMillis.set(maiorAtraso);
+        });
+    }
+
+    private static Duration espera(int tentativas) {
+        Duration espera = ESPERA_INICIAL.multipliedBy(1L << Math.min(tentativas - 1, 20));
+        return espera.compareTo(ESPERA_MAXIMA) > 0 ? ESPERA_MAXIMA : espera;
+    }
+
+    private static String truncar(String erro) {
+        return erro != null && erro.length() > TAMANHO_MAXIMO_ERRO ? erro.substring(0, TAMANHO_MAXIMO_ERRO) : erro;
+    }
+}
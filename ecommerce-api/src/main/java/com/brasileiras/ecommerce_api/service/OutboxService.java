@@ -0,0 +1,41 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.enums.TipoEventoOutbox;
+import com.brasileiras.ecommerce_api.model.EventoOutbox;
+import com.brasileiras.ecommerce_api.repository.EventoOutboxRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Grava eventos de pedido na outbox. Só pode ser chamado dentro da transação que altera o pedido,
+ * para que o evento exista se, e somente se, a alteração for confirmada.
+ */
+@Service
+public class OutboxService {
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+
+    public OutboxService(EventoOutboxRepository eventoOutboxRepository) {
+        this.eventoOutboxRepository = eventoOutboxRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TipoEventoOutbox tipo, Long pedidoId) {
+        eventoOutboxRepository.save(EventoOutbox.builder().tipo(tipo).pedidoId(pedidoId).build());
+    }
+
+    /**
+     * Grava um evento do mesmo tipo para cada pedido, com INSERTs em lote JDBC.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarEmLote(TipoEventoOutbox tipo, Collection<Long> pedidoIds) {
+        List<EventoOutbox> eventos = pedidoIds.stream()
+                .map(pedidoId -> EventoOutbox.builder().tipo(tipo).pedidoId(pedidoId).build())
+                .toList();
+        eventoOutboxRepository.saveAll(eventos);
+    }
+}
@@ -1,48 +1,131 @@
 package com.brasileiras.ecommerce_api.service;
 
-import com.brasileiras.ecommerce_api.dto.ItemPedidoRequestDTO;
+import com.brasileiras.ecommerce_api.dto.ClienteResponseDTO;
+import com.brasileiras.ecommerce_api.dto.EnderecoResponseDTO;
+import com.brasileiras.ecommerce_api.dto.FiltroExportacaoPedidosDTO;
+import com.brasileiras.ecommerce_api.dto.ItemPedidoResponseDTO;
+import com.brasileiras.ecommerce_api.dto.PedidoLoteResponseDTO;
+import com.brasileiras.ecommerce_api.dto.PedidoPaginaCursorDTO;
 import com.brasileiras.ecommerce_api.dto.PedidoRequestDTO;
 import com.brasileiras.ecommerce_api.dto.PedidoResponseDTO;
+import com.brasileiras.ecommerce_api.dto.PedidoResumoDTO;
+import com.brasileiras.ecommerce_api.dto.PedidoStatusLoteResponseDTO;
+import com.brasileiras.ecommerce_api.dto.RecusaStatusPedidoDTO;
+import com.brasileiras.ecommerce_api.dto.ResultadoPedidoLoteDTO;
+import com.brasileiras.ecommerce_api.enums.EstadoBrasileiro;
+import com.brasileiras.ecommerce_api.enums.FormaPagamento;
 import com.brasileiras.ecommerce_api.enums.StatusPedido;
+import com.brasileiras.ecommerce_api.enums.TipoEventoOutbox;
+import com.brasileiras.ecommerce_api.enums.VisaoPedido;
 import com.brasileiras.ecommerce_api.exception.BusinessRuleException;
 import com.brasileiras.ecommerce_api.exception.ResourceNotFoundException;
 import com.brasileiras.ecommerce_api.model.*;
 import com.brasileiras.ecommerce_api.repository.*;
-import org.hibernate.Hibernate;
+import com.brasileiras.ecommerce_api.util.CursorPedido;
+import com.brasileiras.ecommerce_api.util.MensagensValidacao;
+import com.brasileiras.ecommerce_api.util.VersaoRecurso;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class PedidoService {
 
     private static final Logger logger = LoggerFactory.getLogger(PedidoService.class);
 
+    // Status em que o estoque do pedido já foi debitado (pagamento aprovado em diante); também os que contam como venda
+    static final Set<StatusPedido> STATUS_COM_ESTOQUE_DEBITADO = EnumSet.of(
+            StatusPedido.PAGAMENTO_APROVADO, StatusPedido.EM_SEPARACAO, StatusPedido.ENVIADO,
+            StatusPedido.ENTREGUE, StatusPedido.REEMBOLSADO);
+
+    // Pedidos gravados por transação na importação em lote
+    private static final int TAMANHO_BLOCO_IMPORTACAO = 500;
+    // Pedidos por transação na mudança de status em lote (também limita o tamanho das listas IN)
+    private static final int TAMANHO_BLOCO_STATUS = 1000;
+    // Limite de pedidos por página na listagem por cursor
+    public static final int TAMANHO_MAXIMO_PAGINA_CURSOR = 500;
+    private static final int TAMANHO_BUFFER_EXPORTACAO = 64 * 1024;
+
     private final PedidoRepository pedidoRepository;
     private final ClienteRepository clienteRepository;
     private final EnderecoRepository enderecoRepository;
     private final ProdutoRepository produtoRepository;
-    // ItemPedidoRepository não estritamente pois em Pedido.itens = CascadeType.ALL
-    // Outros serviços para serem injetados futuramente ex: ContasAPagarService, ContasAReceberService, NotificacaoService
+    private final ItemPedidoRepository itemPedidoRepository;
+    private final ReservaEstoqueService reservaEstoqueService;
+    private final NumeroPedidoGenerator numeroPedidoGenerator;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate transacaoLeitura;
+    private final CachePedidoService cachePedidoService;
+    private final CacheProdutoService cacheProdutoService;
+    private final ReleituraProdutoService releituraProdutoService;
+    private final ContadorVendasService contadorVendasService;
+    private final Validator validator;
+    private final ObjectWriter escritorExportacao;
+    private final int tamanhoBlocoExportacao;
+    // ItemPedidoRepository não é usado para gravar (Pedido.itens = CascadeType.ALL), apenas para consultas em lote
+    // Contas a receber e notificações são executadas após o commit, a partir dos eventos gravados no OutboxService
 
     @Autowired
     public PedidoService(PedidoRepository pedidoRepository,
                          ClienteRepository clienteRepository,
                          EnderecoRepository enderecoRepository,
-                         ProdutoRepository produtoRepository) {
+                         ProdutoRepository produtoRepository,
+                         ItemPedidoRepository itemPedidoRepository,
+                         ReservaEstoqueService reservaEstoqueService,
+                         NumeroPedidoGenerator numeroPedidoGenerator,
+                         OutboxService outboxService,
+                         CachePedidoService cachePedidoService,
+                         CacheProdutoService cacheProdutoService,
+                         ReleituraProdutoService releituraProdutoService,
+                         ContadorVendasService contadorVendasService,
+                         PlatformTransactionManager transactionManager,
+                         Validator validator,
+                         ObjectMapper objectMapper,
+                         @Value("${ecommerce.exportacao.tamanho-bloco:500}") int tamanhoBlocoExportacao) {
         this.pedidoRepository = pedidoRepository;
         this.clienteRepository = clienteRepository;
         this.enderecoRepository = enderecoRepository;
         this.produtoRepository = produtoRepository;
+        this.itemPedidoRepository = itemPedidoRepository;
+        this.reservaEstoqueService = reservaEstoqueService;
+        this.numeroPedidoGenerator = numeroPedidoGenerator;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.cachePedidoService = cachePedidoService;
+        this.cacheProdutoService = cacheProdutoService;
+        this.releituraProdutoService = releituraProdutoService;
+        this.contadorVendasService = contadorVendasService;
+        this.validator = validator;
+        // Várias linhas no mesmo destino: não fechar nem esvaziar o buffer a cada pedido
+        this.escritorExportacao = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.tamanhoBlocoExportacao = tamanhoBlocoExportacao;
     }
 
     @Transactional
@@ -56,80 +139,191 @@ public class PedidoService {
         Endereco enderecoEntrega = enderecoRepository.findByIdAndClienteId(pedidoRequestDTO.getEnderecoEntregaId(), cliente.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Endereço de entrega não encontrado com ID: " + pedidoRequestDTO.getEnderecoEntregaId() + " para o cliente especificado."));
 
-        Pedido novoPedido = new Pedido();
-        novoPedido.setCliente(cliente);
-        novoPedido.setEnderecoEntrega(enderecoEntrega);
-        novoPedido.setFormasPagamento(pedidoRequestDTO.getFormasPagamento());
-        novoPedido.setStatus(StatusPedido.AGUARDANDO_PAGAMENTO); // Status inicial
-        novoPedido.setDataPedido(LocalDateTime.now());
-        novoPedido.setNumeroPedido(gerarNumeroPedidoUnico());
-
-        List<ItemPedido> itensDoPedido = new ArrayList<>();
-        for (ItemPedidoRequestDTO itemReq : pedidoRequestDTO.getItens()) {
-            Produto produto = produtoRepository.findById(itemReq.getProdutoId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + itemReq.getProdutoId()));
-
-            if (!produto.temEstoqueSuficiente(itemReq.getQuantidade())) {
-                throw new BusinessRuleException("Estoque insuficiente para o produto: " + produto.getDescricao() +
-                        ". Solicitado: " + itemReq.getQuantidade() +
-                        ", Disponível: " + produto.getEstoque());
-            }
-
-            // O construtor de ItemPedido já "congela" o preço do produto no momento da compra
-            ItemPedido itemPedido = new ItemPedido(novoPedido, produto, itemReq.getQuantidade());
-            itensDoPedido.add(itemPedido);
+        String erroParcelamento = validarParcelamento(pedidoRequestDTO);
+        if (erroParcelamento != null) {
+            throw new BusinessRuleException(erroParcelamento);
+        }
 
+        Pedido novoPedido = novoPedido(cliente, enderecoEntrega, pedidoRequestDTO);
+
+        // Etapa de precificação em lote: consolida linhas repetidas e lê preço e descrição do cache de catálogo.
+        // Os produtos entram no pedido como referências, sem SELECT; o saldo é verificado pela reserva abaixo,
+        // cujo UPDATE condicional é o que decide no banco se há estoque disponível.
+        Map<Long, Integer> quantidadesPorProduto = pedidoRequestDTO.quantidadesPorProduto();
+        Map<Long, CacheProdutoService.CatalogoProduto> catalogo = carregarCatalogo(quantidadesPorProduto.keySet());
+
+        Map<Long, Produto> produtos = new HashMap<>();
+        List<ItemPedido> itensDoPedido = new ArrayList<>(quantidadesPorProduto.size());
+        for (Map.Entry<Long, Integer> linha : quantidadesPorProduto.entrySet()) {
+            Produto produto = produtoRepository.getReferenceById(linha.getKey());
+            produtos.put(linha.getKey(), produto);
+            // O ItemPedido "congela" o preço do produto no momento da compra
+            itensDoPedido.add(new ItemPedido(novoPedido, produto, linha.getValue(), catalogo.get(linha.getKey()).valorVenda()));
         }
 
         novoPedido.setItens(itensDoPedido); // Isso também recalcula o valorTotal
         // novoPedido.recalcularValorTotal(); // Chamado dentro de setItens ou adicionarItem
 
         Pedido pedidoSalvo = pedidoRepository.save(novoPedido);
+        // Retém as quantidades enquanto o pedido aguarda pagamento; o UPDATE condicional
+        // garante que pedidos concorrentes não reservem as mesmas unidades.
+        reservaEstoqueService.reservar(pedidoSalvo, produtos, quantidadesPorProduto);
+        // Confirmação ao cliente: gravada na outbox e enviada depois do commit
+        outboxService.registrar(TipoEventoOutbox.PEDIDO_CRIADO, pedidoSalvo.getId());
         logger.info("Pedido {} criado com sucesso para o cliente {}.", pedidoSalvo.getNumeroPedido(), cliente.getNome());
 
-        // Lógica Pós-Criação
-        // processarAtualizacaoEstoque(pedidoSalvo);
-        // gerarLancamentosContasAReceber(pedidoSalvo);
-        // enviarNotificacaoConfirmacaoPedido(pedidoSalvo);
+        return respostaDoPedidoCriado(pedidoSalvo, catalogo);
+    }
 
-        return PedidoResponseDTO.fromEntity(pedidoSalvo);
+    /**
+     * Importa pedidos em massa (ex.: pedidos de marketplace).
+     * <p>
+     * Os pedidos são processados em blocos, cada bloco em sua própria transação: clientes, endereços e
+     * produtos do bloco são resolvidos com consultas em conjunto (IN), cada pedido é validado em memória
+     * e os válidos são gravados com INSERTs em lote JDBC. Um pedido inválido é rejeitado individualmente
+     * sem afetar os demais.
+     *
+     * @param pedidos Pedidos a importar.
+     * @return Resultado de cada pedido, na ordem de envio.
+     */
+    public PedidoLoteResponseDTO criarPedidosEmLote(List<PedidoRequestDTO> pedidos) {
+        logger.info("Iniciando importação em lote de {} pedido(s).", pedidos.size());
+        List<ResultadoPedidoLoteDTO> resultados = new ArrayList<>(pedidos.size());
+        for (int inicio = 0; inicio < pedidos.size(); inicio += TAMANHO_BLOCO_IMPORTACAO) {
+            List<PedidoRequestDTO> bloco = pedidos.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_IMPORTACAO, pedidos.size()));
+            int deslocamento = inicio;
+            try {
+                resultados.addAll(transactionTemplate.execute(status -> importarBloco(bloco, deslocamento)));
+            } catch (RuntimeException e) {
+                // Falha ao gravar (ex.: estoque consumido por outra transação): o bloco inteiro foi desfeito
+                logger.warn("Bloco de pedidos {}-{} não importado: {}", deslocamento, deslocamento + bloco.size() - 1, e.getMessage());
+                for (int i = 0; i < bloco.size(); i++) {
+                    resultados.add(ResultadoPedidoLoteDTO.rejeitado(deslocamento + i,
+                            "Bloco não importado, reenvie o pedido. Motivo: " + e.getMessage()));
+                }
+            }
+        }
+        PedidoLoteResponseDTO resposta = PedidoLoteResponseDTO.fromResultados(resultados);
+        logger.info("Importação em lote concluída: {} criado(s), {} rejeitado(s).", resposta.criados(), resposta.rejeitados());
+        return resposta;
     }
 
     @Transactional(readOnly = true)
     public Page<PedidoResponseDTO> listarPedidos(Pageable pageable) {
-        Page<Pedido> pedidosPage = pedidoRepository.findAll(pageable);
-        // Itera sobre os pedidos para inicializar as coleções ANTES de mapear para DTO
-        // páginas grandes com muitos itens, o que fazer para evitar a LazyInitializationException?
-        pedidosPage.getContent().forEach(pedido -> {
-            Hibernate.initialize(pedido.getFormasPagamento());
-            Hibernate.initialize(pedido.getItens()); // E para os itens também, se forem lazy e usados no DTO
-        });
-        return pedidosPage.map(PedidoResponseDTO::fromEntity);
+        return carregarPagina(pedidoRepository.findPaginaDeIds(pageable));
+    }
+
+    /**
+     * Listagem na visão resumida (view=summary): uma consulta de projeção sobre a tabela de pedidos
+     * (mais o COUNT da página), sem ler cliente, endereços, itens ou formas de pagamento.
+     */
+    @Transactional(readOnly = true)
+    public Page<PedidoResumoDTO> listarResumos(Pageable pageable) {
+        return pedidoRepository.findResumos(pageable);
     }
 
     @Transactional(readOnly = true)
     public Page<PedidoResponseDTO> listarPedidosPorCliente(Long clienteId, Pageable pageable) {
-        if (!clienteRepository.existsById(clienteId)) {
-            throw new ResourceNotFoundException("Cliente não encontrado com ID: " + clienteId);
-        }
-        Page<Pedido> pedidosPage = pedidoRepository.findByClienteId(clienteId, pageable);
-        pedidosPage.getContent().forEach(pedido -> {
-            Hibernate.initialize(pedido.getFormasPagamento());
-            Hibernate.initialize(pedido.getItens());
-        });
-        return pedidosPage.map(PedidoResponseDTO::fromEntity);
+        validarClienteExiste(clienteId);
+        return carregarPagina(pedidoRepository.findPaginaDeIdsByClienteId(clienteId, pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<PedidoResumoDTO> listarResumosPorCliente(Long clienteId, Pageable pageable) {
+        validarClienteExiste(clienteId);
+        return pedidoRepository.findResumosByClienteId(clienteId, pageable);
+    }
+
+    /**
+     * Lista todos os pedidos em ordem de (dataPedido, id) usando paginação por cursor (keyset), sem OFFSET e sem COUNT:
+     * o custo de cada página não cresce com a sua posição, o que atende exportações que percorrem a base inteira.
+     *
+     * @param cursor {@code proximoCursor} da página anterior, ou nulo para a primeira página.
+     * @param tamanho Quantidade de pedidos por página (1 a {@value #TAMANHO_MAXIMO_PAGINA_CURSOR}).
+     * @throws BusinessRuleException se o cursor for inválido ou o tamanho estiver fora do limite.
+     */
+    @Transactional(readOnly = true)
+    public PedidoPaginaCursorDTO<PedidoResponseDTO> listarPedidosPorCursor(String cursor, int tamanho) {
+        return carregarPaginaCursor(chavesDaPaginaCursor(null, cursor, tamanho), tamanho, this::montarRespostas);
+    }
+
+    /**
+     * Mesma listagem por cursor de {@link #listarPedidosPorCursor}, na visão resumida.
+     */
+    @Transactional(readOnly = true)
+    public PedidoPaginaCursorDTO<PedidoResumoDTO> listarResumosPorCursor(String cursor, int tamanho) {
+        return carregarPaginaCursor(chavesDaPaginaCursor(null, cursor, tamanho), tamanho, this::montarResumos);
     }
 
+    /**
+     * Mesma listagem por cursor de {@link #listarPedidosPorCursor}, restrita aos pedidos de um cliente.
+     */
     @Transactional(readOnly = true)
+    public PedidoPaginaCursorDTO<PedidoResponseDTO> listarPedidosPorClientePorCursor(Long clienteId, String cursor, int tamanho) {
+        validarClienteExiste(clienteId);
+        return carregarPaginaCursor(chavesDaPaginaCursor(clienteId, cursor, tamanho), tamanho, this::montarRespostas);
+    }
+
+    @Transactional(readOnly = true)
+    public PedidoPaginaCursorDTO<PedidoResumoDTO> listarResumosPorClientePorCursor(Long clienteId, String cursor, int tamanho) {
+        validarClienteExiste(clienteId);
+        return carregarPaginaCursor(chavesDaPaginaCursor(clienteId, cursor, tamanho), tamanho, this::montarResumos);
+    }
+
+    /**
+     * Exporta os pedidos filtrados como NDJSON (um pedido JSON por linha, na visão escolhida), em ordem de ID.
+     * <p>
+     * Os IDs vêm de um cursor somente-avanço; a cada bloco de {@code ecommerce.exportacao.tamanho-bloco} pedidos
+     * os DTOs são montados com as mesmas consultas de projeção da listagem e as linhas são escritas. Nenhuma
+     * entidade é carregada, então a memória usada depende do tamanho do bloco, não da quantidade exportada.
+     *
+     * @param filtro Período e status a exportar.
+     * @param visao {@link PedidoResponseDTO} completo ou {@link PedidoResumoDTO} por linha.
+     * @param destino Destino das linhas (não é fechado).
+     * @return Quantidade de pedidos exportados.
+     */
+    @Transactional(readOnly = true)
+    public long exportarPedidos(FiltroExportacaoPedidosDTO filtro, VisaoPedido visao, OutputStream destino) throws IOException {
+        long comeco = System.nanoTime();
+        long exportados = 0;
+        OutputStream saida = new BufferedOutputStream(destino, TAMANHO_BUFFER_EXPORTACAO);
+        List<Long> bloco = new ArrayList<>(tamanhoBlocoExportacao);
+        try (Stream<Long> ids = pedidoRepository.streamIdsParaExportacao(filtro.status(), filtro.inicio(), filtro.fim())) {
+            Iterator<Long> cursor = ids.iterator();
+            while (cursor.hasNext()) {
+                bloco.add(cursor.next());
+                if (bloco.size() == tamanhoBlocoExportacao || !cursor.hasNext()) {
+                    exportados += escreverBlocoExportacao(bloco, visao, saida);
+                    bloco.clear();
+                }
+            }
+        }
+        saida.flush();
+        logger.info("Exportação de pedidos concluída: {} pedido(s) em {} ms.", exportados, (System.nanoTime() - comeco) / 1_000_000);
+        return exportados;
+    }
+
+    /*
+     * Leituras individuais com cache (CachePedidoService): um acerto não abre transação nem consulta o banco.
+     * Na falta, a versão e a resposta são lidas juntas em uma transação somente leitura e guardadas.
+     */
     public PedidoResponseDTO buscarPedidoPorId(Long id) {
-        Pedido pedido = pedidoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com ID: " + id));
+        return carregarEmCache(id).pedido();
+    }
 
-        // INICIALIZAÇÃO EXPLÍCITA da coleção LAZY
-        Hibernate.initialize(pedido.getFormasPagamento()); // Para @ElementCollection
-        Hibernate.initialize(pedido.getItens());           // Também para os itens, se forem LAZY e necessários
+    public PedidoResumoDTO buscarResumoPorId(Long id) {
+        return cachePedidoService.buscar(id)
+                .map(entrada -> PedidoResumoDTO.fromResposta(entrada.pedido()))
+                .orElseGet(() -> pedidoRepository.findResumosByIdIn(List.of(id)).stream().findFirst()
+                        .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com ID: " + id)));
+    }
 
-        return PedidoResponseDTO.fromEntity(pedido);
+    public PedidoResumoDTO buscarResumoPorNumero(String numeroPedido) {
+        return cachePedidoService.buscarIdPorNumero(numeroPedido)
+                .flatMap(cachePedidoService::buscar)
+                .map(entrada -> PedidoResumoDTO.fromResposta(entrada.pedido()))
+                .orElseGet(() -> pedidoRepository.findResumoByNumeroPedido(numeroPedido)
+                        .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com número: " + numeroPedido)));
     }
 
 //    @Transactional(readOnly = true)
@@ -139,17 +333,36 @@ public class PedidoService {
 //        return PedidoResponseDTO.fromEntity(pedido);
 //    }
 
-    @Transactional(readOnly = true)
     public PedidoResponseDTO buscarPedidoPorNumero(String numeroPedido) {
-        Pedido pedido = pedidoRepository.findByNumeroPedido(numeroPedido)
-                .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com número: " + numeroPedido));
-
-        Hibernate.initialize(pedido.getFormasPagamento());
-        Hibernate.initialize(pedido.getItens());
+        return buscarPedidoPorId(idPorNumero(numeroPedido));
+    }
 
-        return PedidoResponseDTO.fromEntity(pedido);
+    /**
+     * Validadores (ETag / Last-Modified) da representação do pedido, lidos com uma consulta de versões,
+     * sem montar a resposta: é o que permite responder 304 Not Modified sem carregar o pedido.
+     * Com o pedido em cache, vêm da entrada do cache, sem consulta.
+     * <p>
+     * A versão é lida antes da resposta e em outra transação; se o pedido mudar entre as duas leituras,
+     * o ETag enviado é o anterior e a próxima requisição condicional simplesmente recebe 200 de novo.
+     *
+     * @throws ResourceNotFoundException se o pedido não existir.
+     */
+    public VersaoRecurso buscarVersaoPorId(Long id, VisaoPedido visao) {
+        return cachePedidoService.buscar(id)
+                .map(entrada -> entrada.versao(visao))
+                .orElseGet(() -> pedidoRepository.findVersaoById(id).stream().findFirst()
+                        .map(linha -> versaoDaLinha(linha, visao))
+                        .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com ID: " + id)));
     }
 
+    public VersaoRecurso buscarVersaoPorNumero(String numeroPedido, VisaoPedido visao) {
+        return cachePedidoService.buscarIdPorNumero(numeroPedido)
+                .flatMap(cachePedidoService::buscar)
+                .map(entrada -> entrada.versao(visao))
+                .orElseGet(() -> pedidoRepository.findVersaoByNumeroPedido(numeroPedido).stream().findFirst()
+                        .map(linha -> versaoDaLinha(linha, visao))
+                        .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com número: " + numeroPedido)));
+    }
 
     @Transactional
     public PedidoResponseDTO atualizarStatusPedido(Long pedidoId, StatusPedido novoStatus) {
@@ -157,39 +370,79 @@ public class PedidoService {
         Pedido pedido = pedidoRepository.findById(pedidoId)
                 .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com ID: " + pedidoId));
 
-        // Adiciona validações de transição de status (ex: não pode ir de CANCELADO para ENVIADO)
-        // Exemplo simples:
-        if (pedido.getStatus() == StatusPedido.CANCELADO || pedido.getStatus() == StatusPedido.ENTREGUE) {
-            if (novoStatus != pedido.getStatus()) { // Permite "reatualizar" para o mesmo status
-                throw new BusinessRuleException("Não é possível alterar o status de um pedido " + pedido.getStatus().getDescricao());
-            }
+        if (novoStatus == pedido.getStatus()) {
+            return PedidoResponseDTO.fromEntity(pedido); // "Reatualizar" para o mesmo status não tem efeito
+        }
+        // Transições permitidas pela tabela de StatusPedido (ex: não pode ir de CANCELADO para ENVIADO)
+        if (!pedido.getStatus().podeMudarPara(novoStatus)) {
+            throw new BusinessRuleException(mensagemTransicaoNaoPermitida(pedido.getStatus(), novoStatus));
         }
 
+        StatusPedido statusAnterior = pedido.getStatus();
         pedido.setStatus(novoStatus);
+        cachePedidoService.invalidarPedidos(List.of(pedidoId));
         Pedido pedidoAtualizado = pedidoRepository.save(pedido);
         logger.info("Status do pedido ID: {} atualizado para {}", pedidoId, novoStatus);
 
         // Lógica Pós-Atualização de Status
+        // O estoque é atualizado aqui, na transação, porque o UPDATE condicional é o que decide se a aprovação é válida.
+        // Os demais efeitos (contas a receber, notificações) vão para a outbox e rodam depois do commit.
         if (novoStatus == StatusPedido.PAGAMENTO_APROVADO) {
-            processarAtualizacaoEstoque(pedidoAtualizado); // Com a venda finalizada, o sistema deve realizar a atualização de estoque
-            // Gerar lançamentos em Contas a Receber
-            gerarLancamentosContasAReceber(pedidoAtualizado); //Cada venda deve gerar, pelo menos um lançamento no contas a receber
-        } else if (novoStatus == StatusPedido.ENVIADO) {
-            // Iniciar processo de entrega, notificar cliente, etc.
+            if (!STATUS_COM_ESTOQUE_DEBITADO.contains(statusAnterior)) {
+                processarAtualizacaoEstoque(pedidoAtualizado); // Com a venda finalizada, o sistema deve realizar a atualização de estoque
+                contadorVendasService.registrarVendas(List.of(pedidoId));
+            }
         } else if (novoStatus == StatusPedido.CANCELADO) {
-            // Reverter estoque (se já havia sido debitado), cancelar contas a receber, etc.
-            reverterAtualizacaoEstoque(pedidoAtualizado);
+            // Libera a reserva (pedido não pago) ou reverte o estoque (se já havia sido debitado)
+            if (!reservaEstoqueService.liberar(pedidoAtualizado) && STATUS_COM_ESTOQUE_DEBITADO.contains(statusAnterior)) {
+                reverterAtualizacaoEstoque(pedidoAtualizado);
+                contadorVendasService.registrarEstornos(List.of(pedidoId));
+            }
         }
+        eventoDoStatus(novoStatus).ifPresent(tipo -> outboxService.registrar(tipo, pedidoAtualizado.getId()));
 
         return PedidoResponseDTO.fromEntity(pedidoAtualizado);
     }
 
+    /**
+     * Aplica a mesma mudança de status a vários pedidos (ex.: lote do parceiro logístico).
+     * <p>
+     * Em cada bloco os status atuais são lidos com uma consulta, as transições são validadas pela tabela
+     * de StatusPedido e os pedidos válidos são atualizados com UPDATEs em lote condicionados ao status
+     * de origem lido, de modo que um pedido alterado por outra operação no meio do caminho é recusado
+     * em vez de sobrescrito. Os efeitos de estoque e os eventos da outbox também são aplicados em conjunto.
+     *
+     * @return Quantidade de pedidos atualizados e o motivo de cada recusa.
+     */
+    public PedidoStatusLoteResponseDTO atualizarStatusEmLote(List<Long> pedidoIds, StatusPedido novoStatus) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(pedidoIds)); // IDs repetidos contam uma vez
+        logger.info("Atualizando status de {} pedido(s) para {} em lote.", ids.size(), novoStatus);
+        List<RecusaStatusPedidoDTO> recusas = new ArrayList<>();
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_BLOCO_STATUS) {
+            List<Long> bloco = ids.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_STATUS, ids.size()));
+            try {
+                recusas.addAll(transactionTemplate.execute(status -> transicionarBloco(bloco, novoStatus)));
+            } catch (RuntimeException e) {
+                logger.warn("Bloco de {} pedido(s) não atualizado para {}: {}", bloco.size(), novoStatus, e.getMessage());
+                bloco.forEach(id -> recusas.add(new RecusaStatusPedidoDTO(id,
+                        "Bloco não atualizado, reenvie o pedido. Motivo: " + e.getMessage())));
+            }
+        }
+        PedidoStatusLoteResponseDTO resposta = PedidoStatusLoteResponseDTO.fromRecusas(ids.size(), recusas);
+        logger.info("Status em lote concluído: {} atualizado(s), {} recusado(s).", resposta.atualizados(), resposta.recusados());
+        return resposta;
+    }
+
     @Transactional
     public String deletarPedido(Long id) {
-        if (!pedidoRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Pedido não encontrado com ID: " + id);
+        Pedido pedido = pedidoRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com ID: " + id));
+        reservaEstoqueService.liberar(pedido); // Devolve ao saldo disponível o que o pedido ainda retinha
+        if (STATUS_COM_ESTOQUE_DEBITADO.contains(pedido.getStatus())) {
+            contadorVendasService.registrarEstornos(List.of(id)); // Os itens da venda deixam de existir
         }
-        pedidoRepository.deleteById(id);
+        pedidoRepository.delete(pedido);
+        cachePedidoService.invalidarPedidos(List.of(id));
         String mensagem = "Pedido ID: " + id + " deletado com sucesso.";
         logger.info(mensagem);
         return mensagem;
@@ -197,56 +450,538 @@ public class PedidoService {
 
     // -- Métodos privados auxiliares ---
 
-    private String gerarNumeroPedidoUnico() {
-        // timestamp + parte de UUID
-        return "PED-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private CachePedidoService.Entrada carregarEmCache(Long id) {
+        Optional<CachePedidoService.Entrada> emCache = cachePedidoService.buscar(id);
+        if (emCache.isPresent()) {
+            return emCache.get();
+        }
+        long geracao = cachePedidoService.geracaoAtual();
+        CachePedidoService.Entrada entrada = transacaoLeitura.execute(status -> {
+            Object[] versoes = pedidoRepository.findVersaoById(id).stream().findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com ID: " + id));
+            // Leitura por projeção: o DTO é montado direto das colunas, sem hidratar Pedido e suas associações
+            PedidoResponseDTO pedido = montarRespostas(List.of(id)).get(id);
+            if (pedido == null) {
+                throw new ResourceNotFoundException("Pedido não encontrado com ID: " + id);
+            }
+            return new CachePedidoService.Entrada(pedido,
+                    versaoDaLinha(versoes, VisaoPedido.COMPLETO), versaoDaLinha(versoes, VisaoPedido.RESUMO));
+        });
+        cachePedidoService.guardar(entrada, geracao);
+        return entrada;
+    }
+
+    private Long idPorNumero(String numeroPedido) {
+        Optional<Long> emCache = cachePedidoService.buscarIdPorNumero(numeroPedido);
+        if (emCache.isPresent()) {
+            return emCache.get();
+        }
+        Long id = pedidoRepository.findIdByNumeroPedido(numeroPedido)
+                .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com número: " + numeroPedido));
+        cachePedidoService.guardarIdPorNumero(numeroPedido, id);
+        return id;
+    }
+
+    // O resumo só tem colunas do próprio pedido; a resposta completa também depende do cliente, dos endereços
+    // e das descrições dos produtos.
+    // Cada visão tem seu próprio ETag, já que são representações diferentes do mesmo recurso.
+    private static VersaoRecurso versaoDaLinha(Object[] linha, VisaoPedido visao) {
+        String etag = visao == VisaoPedido.RESUMO
+                ? "s" + linha[0]
+                : "f" + linha[0] + "." + linha[2] + "." + linha[3] + "." + linha[4] + "." + linha[5];
+        return new VersaoRecurso(etag, (LocalDateTime) linha[1]);
+    }
+
+    private Pedido novoPedido(Cliente cliente, Endereco enderecoEntrega, PedidoRequestDTO pedidoRequestDTO) {
+        Pedido novoPedido = new Pedido();
+        novoPedido.setCliente(cliente);
+        novoPedido.setEnderecoEntrega(enderecoEntrega);
+        novoPedido.setFormasPagamento(pedidoRequestDTO.getFormasPagamento());
+        novoPedido.setNumeroParcelas(pedidoRequestDTO.parcelas());
+        novoPedido.setStatus(StatusPedido.AGUARDANDO_PAGAMENTO); // Status inicial
+        novoPedido.setDataPedido(LocalDateTime.now());
+        novoPedido.setNumeroPedido(numeroPedidoGenerator.gerar());
+        return novoPedido;
+    }
+
+    /**
+     * Importa um bloco de pedidos dentro da transação corrente.
+     * @param deslocamento Posição do primeiro pedido do bloco no lote original.
+     */
+    private List<ResultadoPedidoLoteDTO> importarBloco(List<PedidoRequestDTO> bloco, int deslocamento) {
+        // Resolve todas as referências do bloco com consultas em conjunto
+        Set<Long> clienteIds = new HashSet<>();
+        Set<Long> enderecoIds = new HashSet<>();
+        Set<Long> produtoIds = new HashSet<>();
+        for (PedidoRequestDTO dto : bloco) {
+            if (dto == null) continue;
+            if (dto.getClienteId() != null) clienteIds.add(dto.getClienteId());
+            if (dto.getEnderecoEntregaId() != null) enderecoIds.add(dto.getEnderecoEntregaId());
+            if (dto.getItens() != null) {
+                dto.getItens().stream()
+                        .filter(item -> item != null && item.getProdutoId() != null)
+                        .forEach(item -> produtoIds.add(item.getProdutoId()));
+            }
+        }
+        Set<Long> clientesExistentes = clienteIds.isEmpty() ? Set.of() : new HashSet<>(clienteRepository.findIdsExistentes(clienteIds));
+        Map<Long, Set<Long>> clientesPorEndereco = new HashMap<>();
+        if (!enderecoIds.isEmpty()) {
+            for (Object[] par : enderecoRepository.findClienteIdsByEnderecoIdIn(enderecoIds)) {
+                clientesPorEndereco.computeIfAbsent((Long) par[0], id -> new HashSet<>()).add((Long) par[1]);
+            }
+        }
+        Map<Long, Produto> produtos = new HashMap<>();
+        produtoRepository.findAllById(produtoIds).forEach(produto -> produtos.put(produto.getId(), produto));
+
+        // Saldo disponível corrente, descontado a cada pedido aceito no bloco
+        Map<Long, Integer> saldoDisponivel = new HashMap<>();
+        produtos.values().forEach(produto -> saldoDisponivel.put(produto.getId(), produto.getEstoqueDisponivel()));
+
+        List<ResultadoPedidoLoteDTO> resultados = new ArrayList<>(bloco.size());
+        Map<Integer, Pedido> pedidosAceitos = new LinkedHashMap<>();
+        Map<Integer, Map<Long, Integer>> quantidadesAceitas = new HashMap<>();
+        for (int i = 0; i < bloco.size(); i++) {
+            PedidoRequestDTO dto = bloco.get(i);
+            String erro = validarPedidoDoLote(dto, clientesExistentes, clientesPorEndereco, produtos, saldoDisponivel);
+            if (erro != null) {
+                resultados.add(ResultadoPedidoLoteDTO.rejeitado(deslocamento + i, erro));
+                continue;
+            }
+            Map<Long, Integer> quantidades = dto.quantidadesPorProduto();
+            quantidades.forEach((produtoId, quantidade) -> saldoDisponivel.merge(produtoId, -quantidade, Integer::sum));
+
+            // Referências sem SELECT: cliente e endereço já foram validados acima
+            Pedido pedido = novoPedido(clienteRepository.getReferenceById(dto.getClienteId()),
+                    enderecoRepository.getReferenceById(dto.getEnderecoEntregaId()), dto);
+            List<ItemPedido> itens = new ArrayList<>(quantidades.size());
+            quantidades.forEach((produtoId, quantidade) -> itens.add(new ItemPedido(pedido, produtos.get(produtoId), quantidade)));
+            pedido.setItens(itens);
+
+            pedidosAceitos.put(deslocamento + i, pedido);
+            quantidadesAceitas.put(deslocamento + i, quantidades);
+        }
+
+        if (!pedidosAceitos.isEmpty()) {
+            // IDs por sequência (pooled) + hibernate.jdbc.batch_size: pedidos, itens e formas de pagamento em lotes JDBC
+            pedidoRepository.saveAll(pedidosAceitos.values());
+            Map<Long, Map<Long, Integer>> quantidadesPorPedido = new HashMap<>();
+            pedidosAceitos.forEach((indice, pedido) -> quantidadesPorPedido.put(pedido.getId(), quantidadesAceitas.get(indice)));
+            reservaEstoqueService.reservarEmLote(quantidadesPorPedido, produtos);
+            outboxService.registrarEmLote(TipoEventoOutbox.PEDIDO_CRIADO, quantidadesPorPedido.keySet());
+            pedidoRepository.flush();
+            pedidosAceitos.forEach((indice, pedido) ->
+                    resultados.add(ResultadoPedidoLoteDTO.criado(indice, pedido.getId(), pedido.getNumeroPedido())));
+        }
+        resultados.sort(Comparator.comparingInt(ResultadoPedidoLoteDTO::indice));
+        return resultados;
+    }
+
+    /**
+     * Segunda fase da listagem: monta os DTOs dos pedidos da página com as consultas de projeção de {@link #montarRespostas}.
+     */
+    private Page<PedidoResponseDTO> carregarPagina(Page<Long> paginaDeIds) {
+        if (paginaDeIds.isEmpty()) {
+            return paginaDeIds.map(id -> null);
+        }
+        Map<Long, PedidoResponseDTO> respostas = montarRespostas(paginaDeIds.getContent());
+        // Mantém a ordem da primeira fase
+        return paginaDeIds.map(respostas::get);
+    }
+
+    /**
+     * Monta os {@link PedidoResponseDTO} dos pedidos informados direto das colunas, sem carregar entidades:
+     * cabeçalho (pedido, cliente e endereço de entrega), itens, formas de pagamento e endereços dos clientes,
+     * quatro consultas independentemente da quantidade de pedidos. Nada entra no contexto de persistência,
+     * então não há snapshots para dirty checking nem proxies a inicializar.
+     *
+     * @return DTOs por ID; pedidos inexistentes ficam de fora.
+     */
+    private Map<Long, PedidoResponseDTO> montarRespostas(Collection<Long> ids) {
+        List<Object[]> cabecalhos = pedidoRepository.findCabecalhosByIdIn(ids);
+        if (cabecalhos.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<ItemPedidoResponseDTO>> itensPorPedido = new HashMap<>();
+        for (ItemPedidoResponseDTO item : itemPedidoRepository.findRespostasByPedidoIdIn(ids)) {
+            itensPorPedido.computeIfAbsent(item.pedidoId(), id -> new ArrayList<>()).add(item);
+        }
+        Map<Long, Set<FormaPagamento>> formasPorPedido = new HashMap<>();
+        for (Object[] par : pedidoRepository.findFormasPagamentoByPedidoIdIn(ids)) {
+            formasPorPedido.computeIfAbsent((Long) par[0], id -> EnumSet.noneOf(FormaPagamento.class)).add((FormaPagamento) par[1]);
+        }
+        Set<Long> clienteIds = new HashSet<>();
+        cabecalhos.forEach(linha -> clienteIds.add((Long) linha[6]));
+        Map<Long, List<EnderecoResponseDTO>> enderecosPorCliente = new HashMap<>();
+        for (Object[] linha : clienteRepository.findEnderecosByClienteIdIn(clienteIds)) {
+            enderecosPorCliente.computeIfAbsent((Long) linha[0], id -> new ArrayList<>()).add(enderecoDaLinha(linha, 1));
+        }
+
+        Map<Long, ClienteResponseDTO> clientes = new HashMap<>();
+        Map<Long, PedidoResponseDTO> respostas = new HashMap<>();
+        for (Object[] linha : cabecalhos) {
+            Long id = (Long) linha[0];
+            ClienteResponseDTO cliente = clientes.computeIfAbsent((Long) linha[6], clienteId -> new ClienteResponseDTO(
+                    clienteId, (String) linha[7], (String) linha[8], (String) linha[9], (String) linha[10],
+                    enderecosPorCliente.getOrDefault(clienteId, List.of())));
+            respostas.put(id, new PedidoResponseDTO(
+                    id, (String) linha[1], (LocalDateTime) linha[2], (BigDecimal) linha[3], (StatusPedido) linha[4],
+                    cliente,
+                    enderecoDaLinha(linha, 11),
+                    itensPorPedido.getOrDefault(id, List.of()),
+                    formasPorPedido.getOrDefault(id, Set.of()),
+                    (Integer) linha[5]));
+        }
+        return respostas;
+    }
+
+    // Colunas [id, logradouro, numero, complemento, bairro, cidade, estado, cep] a partir da posição informada
+    private static EnderecoResponseDTO enderecoDaLinha(Object[] linha, int inicio) {
+        return EnderecoResponseDTO.builder()
+                .id((Long) linha[inicio])
+                .logradouro((String) linha[inicio + 1])
+                .numero((String) linha[inicio + 2])
+                .complemento((String) linha[inicio + 3])
+                .bairro((String) linha[inicio + 4])
+                .cidade((String) linha[inicio + 5])
+                .estado((EstadoBrasileiro) linha[inicio + 6])
+                .cep(Endereco.formatarCep((String) linha[inicio + 7]))
+                .build();
+    }
+
+    private Map<Long, PedidoResumoDTO> montarResumos(Collection<Long> ids) {
+        Map<Long, PedidoResumoDTO> resumos = new HashMap<>();
+        pedidoRepository.findResumosByIdIn(ids).forEach(resumo -> resumos.put(resumo.id(), resumo));
+        return resumos;
+    }
+
+    /**
+     * Chaves [id, dataPedido] da página por cursor, com um registro a mais que o tamanho
+     * (a linha excedente só indica que existe próxima página).
+     *
+     * @param clienteId Cliente dos pedidos, ou nulo para todos.
+     */
+    private List<Object[]> chavesDaPaginaCursor(Long clienteId, String cursor, int tamanho) {
+        validarTamanhoPaginaCursor(tamanho);
+        Pageable limite = PageRequest.ofSize(tamanho + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return clienteId == null
+                    ? pedidoRepository.findChavesIniciais(limite)
+                    : pedidoRepository.findChavesIniciaisByClienteId(clienteId, limite);
+        }
+        CursorPedido posicao = CursorPedido.decodificar(cursor);
+        return clienteId == null
+                ? pedidoRepository.findChavesApos(posicao.dataPedido(), posicao.id(), limite)
+                : pedidoRepository.findChavesAposByClienteId(clienteId, posicao.dataPedido(), posicao.id(), limite);
+    }
+
+    private <T> PedidoPaginaCursorDTO<T> carregarPaginaCursor(List<Object[]> chaves, int tamanho,
+                                                              Function<List<Long>, Map<Long, T>> montar) {
+        boolean possuiMais = chaves.size() > tamanho;
+        List<Object[]> daPagina = possuiMais ? chaves.subList(0, tamanho) : chaves;
+        if (daPagina.isEmpty()) {
+            return new PedidoPaginaCursorDTO<>(List.of(), null, false);
+        }
+        List<Long> ids = daPagina.stream().map(linha -> (Long) linha[0]).toList();
+        Map<Long, T> pedidos = montar.apply(ids);
+        List<T> conteudo = ids.stream().map(pedidos::get).toList();
+
+        Object[] ultima = daPagina.get(daPagina.size() - 1);
+        String proximoCursor = possuiMais
+                ? new CursorPedido((LocalDateTime) ultima[1], (Long) ultima[0]).codificar()
+                : null;
+        return new PedidoPaginaCursorDTO<>(conteudo, proximoCursor, possuiMais);
+    }
+
+    private int escreverBlocoExportacao(List<Long> bloco, VisaoPedido visao, OutputStream saida) throws IOException {
+        // Projeções: nenhuma entidade fica no contexto de persistência entre um bloco e outro
+        Map<Long, ?> pedidos = visao == VisaoPedido.RESUMO ? montarResumos(bloco) : montarRespostas(bloco);
+        int escritos = 0;
+        for (Long id : bloco) {
+            Object pedido = pedidos.get(id);
+            if (pedido != null) { // removido depois de lido pelo cursor
+                escritorExportacao.writeValue(saida, pedido);
+                saida.write('\n');
+                escritos++;
+            }
+        }
+        saida.flush();
+        return escritos;
+    }
+
+    private void validarClienteExiste(Long clienteId) {
+        if (!clienteRepository.existsById(clienteId)) {
+            throw new ResourceNotFoundException("Cliente não encontrado com ID: " + clienteId);
+        }
+    }
+
+    private static void validarTamanhoPaginaCursor(int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA_CURSOR) {
+            throw new BusinessRuleException("O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA_CURSOR + ".");
+        }
+    }
+
+    /**
+     * Muda o status de um bloco de pedidos dentro da transação corrente.
+     * @return As recusas do bloco.
+     */
+    private List<RecusaStatusPedidoDTO> transicionarBloco(List<Long> bloco, StatusPedido novoStatus) {
+        Map<Long, StatusPedido> statusAtual = new HashMap<>();
+        for (Object[] linha : pedidoRepository.findStatusByIdIn(bloco)) {
+            statusAtual.put((Long) linha[0], (StatusPedido) linha[1]);
+        }
+
+        List<RecusaStatusPedidoDTO> recusas = new ArrayList<>();
+        Map<StatusPedido, List<Long>> porOrigem = new EnumMap<>(StatusPedido.class);
+        for (Long id : bloco) {
+            StatusPedido atual = statusAtual.get(id);
+            if (atual == null) {
+                recusas.add(new RecusaStatusPedidoDTO(id, "Pedido não encontrado."));
+            } else if (atual == novoStatus) {
+                recusas.add(new RecusaStatusPedidoDTO(id, "Pedido já está com status " + atual.getDescricao() + "."));
+            } else if (!atual.podeMudarPara(novoStatus)) {
+                recusas.add(new RecusaStatusPedidoDTO(id, mensagemTransicaoNaoPermitida(atual, novoStatus)));
+            } else {
+                porOrigem.computeIfAbsent(atual, status -> new ArrayList<>()).add(id);
+            }
+        }
+
+        // Um UPDATE em lote por status de origem, condicionado a ele
+        Map<Long, StatusPedido> atualizados = new TreeMap<>();
+        porOrigem.forEach((origem, ids) -> {
+            Set<Long> naoAtualizados = new HashSet<>(pedidoRepository.atualizarStatusEmLote(ids, EnumSet.of(origem), novoStatus));
+            for (Long id : ids) {
+                if (naoAtualizados.contains(id)) {
+                    recusas.add(new RecusaStatusPedidoDTO(id, "Status do pedido foi alterado por outra operação. Tente novamente."));
+                } else {
+                    atualizados.put(id, origem);
+                }
+            }
+        });
+        cachePedidoService.invalidarPedidos(atualizados.keySet());
+
+        if (novoStatus == StatusPedido.PAGAMENTO_APROVADO) {
+            recusas.addAll(debitarEstoqueDosAprovados(atualizados));
+            // Os recusados por falta de estoque já saíram do mapa
+            contadorVendasService.registrarVendas(atualizados.entrySet().stream()
+                    .filter(e -> !STATUS_COM_ESTOQUE_DEBITADO.contains(e.getValue()))
+                    .map(Map.Entry::getKey)
+                    .toList());
+        } else if (novoStatus == StatusPedido.CANCELADO) {
+            reverterEstoqueDosCancelados(atualizados);
+        }
+        Optional<TipoEventoOutbox> evento = eventoDoStatus(novoStatus);
+        if (evento.isPresent() && !atualizados.isEmpty()) {
+            outboxService.registrarEmLote(evento.get(), atualizados.keySet());
+        }
+        return recusas;
+    }
+
+    /**
+     * Confirma as reservas dos pedidos aprovados no lote e debita diretamente o estoque dos que não têm reserva.
+     * Um pedido sem saldo volta ao status de origem e é recusado; os demais seguem aprovados.
+     * @param aprovados Status de origem por ID de pedido; os pedidos recusados são removidos do mapa.
+     */
+    private List<RecusaStatusPedidoDTO> debitarEstoqueDosAprovados(Map<Long, StatusPedido> aprovados) {
+        List<Long> semDebito = aprovados.entrySet().stream()
+                .filter(e -> !STATUS_COM_ESTOQUE_DEBITADO.contains(e.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (semDebito.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> semReserva = new TreeSet<>(semDebito);
+        semReserva.removeAll(reservaEstoqueService.confirmarEmLote(semDebito));
+        if (semReserva.isEmpty()) {
+            return List.of();
+        }
+
+        // Pedidos sem reserva (antigos ou com reserva expirada): débito condicional por pedido
+        List<RecusaStatusPedidoDTO> recusas = new ArrayList<>();
+        quantidadesPorPedido(semReserva).forEach((pedidoId, quantidades) -> {
+            List<Long> recusados = produtoRepository.debitarEstoqueEmLote(quantidades);
+            if (recusados.isEmpty()) {
+                releituraProdutoService.registrarAlteracao(quantidades.keySet());
+                return;
+            }
+            Map<Long, Integer> aplicados = new HashMap<>(quantidades);
+            recusados.forEach(aplicados::remove);
+            produtoRepository.creditarEstoqueEmLote(aplicados);
+            StatusPedido origem = aprovados.remove(pedidoId);
+            pedidoRepository.atualizarStatusEmLote(List.of(pedidoId), EnumSet.of(StatusPedido.PAGAMENTO_APROVADO), origem);
+            recusas.add(new RecusaStatusPedidoDTO(pedidoId, "Estoque insuficiente para o(s) produto(s) com ID: " + recusados));
+        });
+        return recusas;
+    }
+
+    /**
+     * Libera as reservas dos pedidos cancelados no lote e devolve ao estoque o que já havia sido debitado.
+     */
+    private void reverterEstoqueDosCancelados(Map<Long, StatusPedido> cancelados) {
+        if (cancelados.isEmpty()) {
+            return;
+        }
+        Set<Long> liberados = reservaEstoqueService.liberarEmLote(cancelados.keySet());
+        List<Long> debitados = cancelados.entrySet().stream()
+                .filter(e -> STATUS_COM_ESTOQUE_DEBITADO.contains(e.getValue()) && !liberados.contains(e.getKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (debitados.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> totalPorProduto = new HashMap<>();
+        quantidadesPorPedido(debitados).values().forEach(quantidades ->
+                quantidades.forEach((produtoId, quantidade) -> totalPorProduto.merge(produtoId, quantidade, Integer::sum)));
+        List<Long> naoEncontrados = produtoRepository.creditarEstoqueEmLote(totalPorProduto);
+        if (!naoEncontrados.isEmpty()) {
+            logger.warn("Produtos não encontrados ao reverter o estoque de pedidos cancelados em lote: {}", naoEncontrados);
+        }
+        releituraProdutoService.registrarAlteracao(totalPorProduto.keySet());
+        contadorVendasService.registrarEstornos(debitados);
+    }
+
+    // Quantidades por produto de cada pedido, com uma única consulta agregada
+    private Map<Long, Map<Long, Integer>> quantidadesPorPedido(Collection<Long> pedidoIds) {
+        Map<Long, Map<Long, Integer>> quantidades = new TreeMap<>();
+        for (Object[] linha : itemPedidoRepository.somarQuantidadesPorPedidoEProduto(pedidoIds)) {
+            quantidades.computeIfAbsent((Long) linha[0], id -> new HashMap<>())
+                    .put((Long) linha[1], ((Long) linha[2]).intValue());
+        }
+        return quantidades;
+    }
+
+    /**
+     * Valida um pedido do lote sem lançar exceção.
+     * @return A mensagem de erro, ou null se o pedido for válido.
+     */
+    private String validarPedidoDoLote(PedidoRequestDTO dto,
+                                       Set<Long> clientesExistentes,
+                                       Map<Long, Set<Long>> clientesPorEndereco,
+                                       Map<Long, Produto> produtos,
+                                       Map<Long, Integer> saldoDisponivel) {
+        if (dto == null) {
+            return "Pedido não pode ser nulo.";
+        }
+        String erroValidacao = MensagensValidacao.validar(validator, dto);
+        if (erroValidacao != null) {
+            return erroValidacao;
+        }
+        String erroParcelamento = validarParcelamento(dto);
+        if (erroParcelamento != null) {
+            return erroParcelamento;
+        }
+        if (!clientesExistentes.contains(dto.getClienteId())) {
+            return "Cliente não encontrado com ID: " + dto.getClienteId();
+        }
+        if (!clientesPorEndereco.getOrDefault(dto.getEnderecoEntregaId(), Set.of()).contains(dto.getClienteId())) {
+            return "Endereço de entrega não encontrado com ID: " + dto.getEnderecoEntregaId() + " para o cliente especificado.";
+        }
+        Map<Long, Integer> quantidades = dto.quantidadesPorProduto();
+        List<Long> idsNaoEncontrados = quantidades.keySet().stream().filter(id -> !produtos.containsKey(id)).toList();
+        if (!idsNaoEncontrados.isEmpty()) {
+            return "Produto(s) não encontrado(s) com ID: " + idsNaoEncontrados;
+        }
+        for (Map.Entry<Long, Integer> linha : quantidades.entrySet()) {
+            int disponivel = saldoDisponivel.getOrDefault(linha.getKey(), 0);
+            if (disponivel < linha.getValue()) {
+                return "Estoque insuficiente para o produto: " + produtos.get(linha.getKey()).getDescricao() +
+                        ". Solicitado: " + linha.getValue() + ", Disponível: " + disponivel;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Só compras no cartão de crédito podem ser parceladas.
+     * @return A mensagem de erro, ou null se o parcelamento for válido.
+     */
+    private static String validarParcelamento(PedidoRequestDTO dto) {
+        if (dto.parcelas() > 1 && !dto.getFormasPagamento().contains(FormaPagamento.CARTAO_CREDITO)) {
+            return "Parcelamento disponível apenas para pagamento com " + FormaPagamento.CARTAO_CREDITO.getDescricao() + ".";
+        }
+        return null;
+    }
+
+    /**
+     * Catálogo de todos os produtos do pedido: do cache, com uma única consulta (IN) para os que faltarem.
+     * @throws ResourceNotFoundException listando todos os IDs que não existem.
+     */
+    private Map<Long, CacheProdutoService.CatalogoProduto> carregarCatalogo(Collection<Long> produtoIds) {
+        Map<Long, CacheProdutoService.CatalogoProduto> produtos = cacheProdutoService.buscarTodos(produtoIds);
+        if (produtos.size() < produtoIds.size()) {
+            List<Long> idsNaoEncontrados = produtoIds.stream()
+                    .filter(id -> !produtos.containsKey(id))
+                    .toList();
+            throw new ResourceNotFoundException("Produto(s) não encontrado(s) com ID: " + idsNaoEncontrados);
+        }
+        return produtos;
+    }
+
+    // Resposta do pedido recém-criado com a descrição dos produtos vinda do catálogo (os produtos não foram carregados)
+    private static PedidoResponseDTO respostaDoPedidoCriado(Pedido pedido, Map<Long, CacheProdutoService.CatalogoProduto> catalogo) {
+        List<ItemPedidoResponseDTO> itens = pedido.getItens().stream()
+                .map(item -> {
+                    Long produtoId = item.getProduto().getId(); // ID do proxy, sem inicializá-lo
+                    return new ItemPedidoResponseDTO(item.getId(), produtoId, pedido.getId(),
+                            catalogo.get(produtoId).descricao(), item.getQuantidade(), item.getPrecoUnitario());
+                })
+                .toList();
+        return new PedidoResponseDTO(pedido.getId(), pedido.getNumeroPedido(), pedido.getDataPedido(),
+                pedido.getValorTotal(), pedido.getStatus(), ClienteResponseDTO.fromEntity(pedido.getCliente()),
+                EnderecoResponseDTO.fromEntity(pedido.getEnderecoEntrega()), itens,
+                pedido.getFormasPagamento(), pedido.getNumeroParcelas());
     }
 
     private void processarAtualizacaoEstoque(Pedido pedido) {
         logger.info("Processando atualização de estoque para o pedido: {}", pedido.getNumeroPedido());
-        for (ItemPedido item : pedido.getItens()) {
-            Produto produto = item.getProduto();
-            try {
-                produto.removerEstoque(item.getQuantidade());
-                produtoRepository.save(produto); // Salva o produto com estoque atualizado
-                logger.info("Estoque do produto ID {} ({}) atualizado. Removido: {}. Novo estoque: {}",
-                        produto.getId(), produto.getDescricao(), item.getQuantidade(), produto.getEstoque());
-            } catch (IllegalStateException e) {
-                // Lida com a situação de estoque ficar insuficiente DEPOIS da criação do pedido.
-                // Isso não deveria acontecer se a verificação na criação do pedido for robusta e transacional.
-                // Pode ser necessário cancelar o item, notificar, ou até mesmo o pedido.
-                logger.error("Erro ao atualizar estoque para produto ID {}: {}", produto.getId(), e.getMessage());
-                // Lançar uma exceção customizada
-                throw new BusinessRuleException("Falha crítica ao atualizar estoque para o produto " + produto.getDescricao() +
-                        ". Pedido pode precisar de revisão manual. Detalhe: " + e.getMessage());
-            }
+        if (reservaEstoqueService.confirmar(pedido)) {
+            return; // A reserva feita na criação foi convertida em débito de estoque
+        }
+        // Pedido sem reserva (criado antes das reservas ou com reserva expirada): débito direto
+        // Débito condicional de todas as linhas em um único lote; a ordenação por ID é feita no repositório
+        Map<Long, Integer> quantidades = quantidadesPorProduto(pedido);
+        List<Long> recusados = produtoRepository.debitarEstoqueEmLote(quantidades);
+        if (!recusados.isEmpty()) {
+            // Lida com a situação de estoque ficar insuficiente DEPOIS da criação do pedido.
+            // A exceção desfaz a transação inteira, inclusive os débitos já aplicados no lote.
+            logger.error("Estoque insuficiente ao aprovar o pedido {}. Produtos recusados: {}", pedido.getNumeroPedido(), recusados);
+            throw new BusinessRuleException("Falha ao atualizar estoque do pedido " + pedido.getNumeroPedido() +
+                    ". Estoque insuficiente para o(s) produto(s) com ID: " + recusados);
         }
+        releituraProdutoService.registrarAlteracao(quantidades.keySet());
+        logger.info("Estoque debitado para {} produto(s) do pedido {}.", pedido.getItens().size(), pedido.getNumeroPedido());
     }
 
     private void reverterAtualizacaoEstoque(Pedido pedido) {
         logger.info("Revertendo atualização de estoque para o pedido cancelado: {}", pedido.getNumeroPedido());
+        Map<Long, Integer> quantidades = quantidadesPorProduto(pedido);
+        List<Long> naoEncontrados = produtoRepository.creditarEstoqueEmLote(quantidades);
+        if (!naoEncontrados.isEmpty()) {
+            logger.warn("Produtos não encontrados ao reverter o estoque do pedido {}: {}", pedido.getNumeroPedido(), naoEncontrados);
+        }
+        releituraProdutoService.registrarAlteracao(quantidades.keySet());
+    }
+
+    // Soma as quantidades por produto (um pedido antigo pode ter linhas repetidas do mesmo produto)
+    private Map<Long, Integer> quantidadesPorProduto(Pedido pedido) {
+        Map<Long, Integer> quantidades = new HashMap<>();
         for (ItemPedido item : pedido.getItens()) {
-            Produto produto = item.getProduto();
-            produto.adicionarEstoque(item.getQuantidade());
-            produtoRepository.save(produto);
-            logger.info("Estoque do produto ID {} ({}) revertido. Adicionado: {}. Novo estoque: {}",
-                    produto.getId(), produto.getDescricao(), item.getQuantidade(), produto.getEstoque());
-        }
-    }
-
-    private void gerarLancamentosContasAReceber(Pedido pedido) {
-        // "Caso boleto, pix, cartão de débito o lançamento deve ser único, com data de lançamento do dia da venda e valor total da venda."
-        // "Caso seja cartão de crédito, crediário etc, o sistema deve considerar a quantidade de vezes que o cliente optou em dividir
-        // a compra e fazer os respectivos lançamentos..."
-        logger.info("Gerando lançamentos em Contas a Receber para o pedido: {}", pedido.getNumeroPedido());
-        // Lógica para interagir com um possível ContasAReceberService
-        // Exemplo muito simplificado:
-        // if (pedido.getFormasPagamento().contains(FormaPagamento.BOLETO) || ...) {
-        //     // Criar lançamento único
-        // } else if (pedido.getFormasPagamento().contains(FormaPagamento.CARTAO_CREDITO)) {
-        //     // Criar lançamentos parcelados (precisaria de info de parcelas no Pedido ou FormaPagamento)
-        // }
-        logger.warn("Implementação de gerarLancamentosContasAReceber pendente.");
+            quantidades.merge(item.getProduto().getId(), item.getQuantidade(), Integer::sum);
+        }
+        return quantidades;
+    }
+
+    // Evento da outbox disparado ao entrar em cada status
+    private static Optional<TipoEventoOutbox> eventoDoStatus(StatusPedido novoStatus) {
+        return switch (novoStatus) {
+            case PAGAMENTO_APROVADO -> Optional.of(TipoEventoOutbox.PAGAMENTO_APROVADO); //Cada venda deve gerar, pelo menos um lançamento no contas a receber
+            case ENVIADO -> Optional.of(TipoEventoOutbox.PEDIDO_ENVIADO);
+            case CANCELADO -> Optional.of(TipoEventoOutbox.PEDIDO_CANCELADO);
+            default -> Optional.empty();
+        };
+    }
+
+    private static String mensagemTransicaoNaoPermitida(StatusPedido atual, StatusPedido novoStatus) {
+        return "Não é possível alterar o status de um pedido " + atual.getDescricao() + " para " + novoStatus.getDescricao() + ".";
     }
 
 }
\ No newline at end of file
@@ -1,30 +1,98 @@
 package com.brasileiras.ecommerce_api.service;
 
+import com.brasileiras.ecommerce_api.dto.AjusteEstoqueDTO;
+import com.brasileiras.ecommerce_api.dto.AjusteEstoqueLoteResponseDTO;
+import com.brasileiras.ecommerce_api.dto.AlteracaoCatalogoDTO;
+import com.brasileiras.ecommerce_api.dto.AlteracaoCatalogoLoteResponseDTO;
+import com.brasileiras.ecommerce_api.dto.EstatisticasCacheDTO;
+import com.brasileiras.ecommerce_api.dto.FiltroProdutosDTO;
 import com.brasileiras.ecommerce_api.dto.ProdutoRequestDTO;
 import com.brasileiras.ecommerce_api.dto.ProdutoResponseDTO;
+import com.brasileiras.ecommerce_api.dto.RecusaAlteracaoCatalogoDTO;
+import com.brasileiras.ecommerce_api.dto.ResultadoAjusteEstoqueDTO;
+import com.brasileiras.ecommerce_api.exception.BusinessRuleException;
 import com.brasileiras.ecommerce_api.exception.DataConflictException;
 import com.brasileiras.ecommerce_api.exception.ResourceNotFoundException;
 import com.brasileiras.ecommerce_api.model.Fornecedor;
 import com.brasileiras.ecommerce_api.model.Produto;
 import com.brasileiras.ecommerce_api.repository.FornecedorRepository;
 import com.brasileiras.ecommerce_api.repository.ProdutoRepository;
+import com.brasileiras.ecommerce_api.repository.ProdutoRepositoryCustom.AlteracaoCatalogo;
+import com.brasileiras.ecommerce_api.repository.ProdutoSpecifications;
+import com.brasileiras.ecommerce_api.util.MensagensValidacao;
+import com.brasileiras.ecommerce_api.util.VersaoRecurso;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @Service
 public class ProdutoService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProdutoService.class);
+
+    // Campos de ordenação da listagem, todos cobertos por índice (ver Produto)
+    private static final Set<String> CAMPOS_ORDENACAO = Set.of("id", "descricao", "valorVenda", "estoque");
+    private static final Sort ORDENACAO_PADRAO = Sort.by("descricao");
+    // Alterações por transação no catálogo em lote (também limita o tamanho das listas IN)
+    private static final int TAMANHO_BLOCO_CATALOGO = 1000;
+    // Produtos por transação nos ajustes de estoque em lote
+    private static final int TAMANHO_BLOCO_AJUSTE_ESTOQUE = 1000;
+
     private final ProdutoRepository produtoRepository;
     private final FornecedorRepository fornecedorRepository;
+    private final CacheProdutoService cacheProdutoService;
+    private final CachePedidoService cachePedidoService; // A descrição do produto faz parte da resposta do pedido
+    private final BuscaProdutoService buscaProdutoService;
+    private final ReleituraProdutoService releituraProdutoService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int maxIdsFiltroDescricao;
 
     @Autowired
-    public ProdutoService(ProdutoRepository produtoRepository, FornecedorRepository fornecedorRepository) {
+    public ProdutoService(ProdutoRepository produtoRepository, FornecedorRepository fornecedorRepository,
+                          CacheProdutoService cacheProdutoService, CachePedidoService cachePedidoService,
+                          BuscaProdutoService buscaProdutoService,
+                          ReleituraProdutoService releituraProdutoService,
+                          PlatformTransactionManager transactionManager,
+                          Validator validator,
+                          @Value("${ecommerce.busca-produtos.max-ids-filtro:1000}") int maxIdsFiltroDescricao) {
         this.produtoRepository = produtoRepository;
         this.fornecedorRepository = fornecedorRepository;
+        this.cacheProdutoService = cacheProdutoService;
+        this.cachePedidoService = cachePedidoService;
+        this.buscaProdutoService = buscaProdutoService;
+        this.releituraProdutoService = releituraProdutoService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.maxIdsFiltroDescricao = maxIdsFiltroDescricao;
     }
 
     @Transactional
@@ -41,44 +109,88 @@ public class ProdutoService {
 
         Produto produto = produtoRequestDTO.toEntity(fornecedor);
         Produto produtoSalvo = produtoRepository.save(produto);
+        buscaProdutoService.indexar(produtoSalvo.getId(), produtoSalvo.getDescricao());
+        releituraProdutoService.registrarAlteracao(List.of(produtoSalvo.getId()));
         return ProdutoResponseDTO.fromEntity(produtoSalvo);
     }
 
     /**
-     * Lista produtos com filtros opcionais.
+     * Lista produtos com qualquer combinação dos filtros, aplicados juntos na mesma consulta.
+     * <p>
+     * Só com a descrição e sem ordenação informada, os produtos vêm do índice de busca em ordem de relevância.
+     * Combinada com outros filtros ou com uma ordenação, a descrição vira a lista de IDs encontrados pelo índice
+     * (ou, acima de {@code ecommerce.busca-produtos.max-ids-filtro} produtos, um LIKE por palavra na descrição
+     * normalizada, que encontra os mesmos produtos que o índice).
+     * Sem ordenação informada, ordena pela descrição; o ID desempata para a paginação ser estável.
      *
-     * @param descricaoFiltro      Filtro por descrição (opcional).
-     * @param fornecedorIdFiltro   Filtro por ID do fornecedor (opcional).
-     * @param estoqueMaximoFiltro  Filtro por estoque máximo (opcional).
-     * @param pageable             Objeto Pageable para paginação.
+     * @param filtro   Filtros informados (ver {@link FiltroProdutosDTO}).
+     * @param pageable Paginação e ordenação, por um dos campos de {@link #CAMPOS_ORDENACAO}.
      * @return Page de ProdutoResponseDTO com os produtos filtrados.
+     * @throws BusinessRuleException se a ordenação usar outro campo.
      */
-
     @Transactional(readOnly = true)
-    public Page<ProdutoResponseDTO> listarProdutosComFiltros(
-            String descricaoFiltro,
-            Long fornecedorIdFiltro,
-            Integer estoqueMaximoFiltro,
-            Pageable pageable) {
+    public Page<ProdutoResponseDTO> listarProdutosComFiltros(FiltroProdutosDTO filtro, Pageable pageable) {
+        validarOrdenacao(pageable.getSort());
+        if (filtro.somenteDescricao() && pageable.getSort().isUnsorted()) {
+            Optional<Page<Long>> encontrados = buscaProdutoService.buscar(filtro.descricao(), pageable);
+            if (encontrados.isPresent()) {
+                return montarPagina(encontrados.get());
+            }
+        }
 
-        Page<Produto> produtosPage;
-        if (StringUtils.hasText(descricaoFiltro)) {
-            produtosPage = produtoRepository.findByDescricaoContainingIgnoreCase(descricaoFiltro, pageable);
-        } else if (fornecedorIdFiltro != null) {
-            produtosPage = produtoRepository.findByFornecedorId(fornecedorIdFiltro, pageable);
-        } else if (estoqueMaximoFiltro != null) {
-            produtosPage = produtoRepository.findByEstoqueLessThanEqual(estoqueMaximoFiltro, pageable);
-        } else {
-            produtosPage = produtoRepository.findAll(pageable);
+        Specification<Produto> criterios = Specification.where(ProdutoSpecifications.doFornecedor(filtro.fornecedorId()))
+                .and(ProdutoSpecifications.comEstoqueAte(filtro.estoqueMaximo()))
+                .and(ProdutoSpecifications.comValorVendaEntre(filtro.valorVendaMinimo(), filtro.valorVendaMaximo()));
+        if (filtro.descricao() != null) {
+            Optional<List<Long>> ids = buscaProdutoService.buscarIds(filtro.descricao(), maxIdsFiltroDescricao);
+            if (ids.isPresent() && ids.get().isEmpty()) {
+                return Page.empty(pageable);
+            }
+            criterios = criterios.and(ids.map(ProdutoSpecifications::comIdEm)
+                    .orElseGet(() -> ProdutoSpecifications.comDescricaoContendo(filtro.descricao())));
+        }
+        Sort ordenacao = pageable.getSort().isSorted() ? pageable.getSort() : ORDENACAO_PADRAO;
+        if (ordenacao.getOrderFor("id") == null) {
+            ordenacao = ordenacao.and(Sort.by("id"));
         }
-        return produtosPage.map(ProdutoResponseDTO::fromEntity); // Method reference para conversão
+        Page<Produto> produtosPage = produtoRepository.findAll(criterios,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), ordenacao));
+
+        // Estoque da própria página; catálogo e fornecedor do cache, sem carregar o fornecedor de cada produto
+        Map<Long, CacheProdutoService.CatalogoProduto> catalogo = cacheProdutoService.buscarTodos(
+                produtosPage.getContent().stream().map(Produto::getId).toList());
+        return produtosPage.map(produto -> Optional.ofNullable(catalogo.get(produto.getId()))
+                .map(dados -> dados.comEstoque(produto.getEstoque()))
+                .orElseGet(() -> ProdutoResponseDTO.fromEntity(produto)));
     }
 
     @Transactional(readOnly = true)
     public ProdutoResponseDTO buscarProdutoPorId(Long id) {
-        Produto produto = produtoRepository.findById(id)
+        // Estoque sempre do banco; descrição, preços e fornecedor do cache de catálogo
+        Integer estoque = produtoRepository.findEstoqueById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
+        return cacheProdutoService.buscar(id)
+                .map(dados -> dados.comEstoque(estoque))
                 .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
-        return ProdutoResponseDTO.fromEntity(produto);
+    }
+
+    /**
+     * Validadores (ETag / Last-Modified) do produto, lidos sem carregar a entidade: a versão do produto
+     * (incrementada também pelas operações de estoque em lote) e a do fornecedor embutido na resposta.
+     * @throws ResourceNotFoundException se o produto não existir.
+     */
+    @Transactional(readOnly = true)
+    public VersaoRecurso buscarVersaoProduto(Long id) {
+        Object[] linha = produtoRepository.findVersaoById(id).stream().findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
+        return new VersaoRecurso(linha[0] + "." + linha[2], (LocalDateTime) linha[1]);
+    }
+
+    /**
+     * Tamanho, acertos, faltas e despejos do cache de catálogo de produtos.
+     */
+    public EstatisticasCacheDTO estatisticasCacheCatalogo() {
+        return cacheProdutoService.estatisticas();
     }
 
     @Transactional
@@ -104,17 +216,76 @@ public class ProdutoService {
                     .orElseThrow(() -> new ResourceNotFoundException("Novo fornecedor não encontrado com ID: " + produtoRequestDTO.getFornecedorId()));
         }
 
+        // Como no upsert da importação: o estoque não pode ficar abaixo do reservado por pedidos aguardando
+        // pagamento, senão a aprovação deles seria recusada. Uma reserva feita depois desta leitura incrementa a
+        // versão do produto e faz o save falhar
+        if (produtoRequestDTO.getEstoque() != null && produtoRequestDTO.getEstoque() < produtoExistente.getEstoqueReservado()) {
+            throw new BusinessRuleException("Estoque não pode ficar abaixo do reservado por pedidos aguardando pagamento. " +
+                    "Informado: " + produtoRequestDTO.getEstoque() + ", Reservado: " + produtoExistente.getEstoqueReservado());
+        }
+
+        String descricaoAnterior = produtoExistente.getDescricao();
         produtoRequestDTO.updateEntity(produtoExistente, fornecedorParaAtualizacao);
+        // Só a descrição do produto aparece na resposta do pedido (ETag do pedido)
+        if (!produtoExistente.getDescricao().equals(descricaoAnterior)) {
+            produtoExistente.setVersaoDescricao(produtoExistente.getVersaoDescricao() + 1);
+        }
         Produto produtoAtualizado = produtoRepository.save(produtoExistente);
+        cacheProdutoService.invalidar(id);
+        buscaProdutoService.indexar(id, produtoAtualizado.getDescricao());
+        releituraProdutoService.registrarAlteracao(List.of(id));
+        cachePedidoService.invalidarPorProduto(id);
         return ProdutoResponseDTO.fromEntity(produtoAtualizado);
     }
 
+    /**
+     * Altera preços e descrições de vários produtos (ex.: remarcação noturna), em blocos de
+     * {@value #TAMANHO_BLOCO_CATALOGO} alterações por transação.
+     * <p>
+     * Cada bloco lê os valores atuais com uma consulta pelos IDs e outra pelos SKUs, descarta o que não muda e
+     * grava só as colunas alteradas, com UPDATEs em lote JDBC. Alterações inválidas são recusadas sem afetar as
+     * demais; várias alterações do mesmo produto no bloco são combinadas, valendo a última para cada campo.
+     * Caches, índice de busca e visões em memória dos produtos alterados são atualizados uma vez por bloco.
+     *
+     * @param alteracoes Alterações na ordem enviada.
+     * @return Totais e o motivo de cada recusa, pela posição da alteração na lista.
+     */
+    public AlteracaoCatalogoLoteResponseDTO atualizarCatalogoEmLote(List<AlteracaoCatalogoDTO> alteracoes) {
+        logger.info("Alterando o catálogo de produtos em lote: {} alteração(ões).", alteracoes.size());
+        int atualizados = 0;
+        int inalterados = 0;
+        List<RecusaAlteracaoCatalogoDTO> recusas = new ArrayList<>();
+        for (int inicio = 0; inicio < alteracoes.size(); inicio += TAMANHO_BLOCO_CATALOGO) {
+            int deslocamento = inicio;
+            List<AlteracaoCatalogoDTO> bloco = alteracoes.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_CATALOGO, alteracoes.size()));
+            try {
+                ResultadoBlocoCatalogo resultado = transactionTemplate.execute(status -> alterarBlocoCatalogo(bloco, deslocamento));
+                atualizados += resultado.atualizados();
+                inalterados += resultado.inalterados();
+                recusas.addAll(resultado.recusas());
+            } catch (RuntimeException e) {
+                logger.warn("Bloco de {} alteração(ões) de catálogo não gravado: {}", bloco.size(), e.getMessage());
+                for (int i = 0; i < bloco.size(); i++) {
+                    recusas.add(recusaCatalogo(deslocamento + i, bloco.get(i),
+                            "Bloco não atualizado, reenvie a alteração. Motivo: " + e.getMessage()));
+                }
+            }
+        }
+        recusas.sort(Comparator.comparingInt(RecusaAlteracaoCatalogoDTO::indice));
+        logger.info("Catálogo em lote concluído: {} atualizado(s), {} inalterado(s), {} recusado(s).",
+                atualizados, inalterados, recusas.size());
+        return new AlteracaoCatalogoLoteResponseDTO(alteracoes.size(), atualizados, inalterados, recusas.size(), recusas);
+    }
+
     @Transactional
     public void deletarProduto(Long id) {
         if (!produtoRepository.existsById(id)) {
             throw new ResourceNotFoundException("Produto não encontrado com ID: " + id);
         }
         produtoRepository.deleteById(id);
+        cacheProdutoService.invalidar(id);
+        buscaProdutoService.remover(id);
+        releituraProdutoService.registrarAlteracao(List.of(id));
     }
 
     @Transactional
@@ -122,11 +293,12 @@ public class ProdutoService {
         if (quantidade <= 0) {
             throw new IllegalArgumentException("Quantidade para adicionar ao estoque deve ser positiva.");
         }
-        Produto produto = produtoRepository.findById(produtoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + produtoId));
-        produto.adicionarEstoque(quantidade);
-        Produto produtoSalvo = produtoRepository.save(produto);
-        return ProdutoResponseDTO.fromEntity(produtoSalvo);
+        // Incremento atômico no banco: não perde entradas concorrentes
+        if (produtoRepository.creditarEstoque(produtoId, quantidade) == 0) {
+            throw new ResourceNotFoundException("Produto não encontrado com ID: " + produtoId);
+        }
+        releituraProdutoService.registrarAlteracao(List.of(produtoId));
+        return buscarProdutoPorId(produtoId);
     }
 
     @Transactional
@@ -134,17 +306,306 @@ public class ProdutoService {
         if (quantidade <= 0) {
             throw new IllegalArgumentException("Quantidade para remover do estoque deve ser positiva.");
         }
-        Produto produto = produtoRepository.findById(produtoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + produtoId));
-        produto.removerEstoque(quantidade);
-        Produto produtoSalvo = produtoRepository.save(produto);
-        return ProdutoResponseDTO.fromEntity(produtoSalvo);
+        // Débito condicional atômico: o próprio UPDATE garante estoque >= quantidade
+        if (produtoRepository.debitarEstoque(produtoId, quantidade) == 0) {
+            Produto produto = produtoRepository.findById(produtoId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + produtoId));
+            throw new BusinessRuleException("Estoque insuficiente para o produto " + produto.getDescricao() +
+                    ". Solicitado: " + quantidade + ", Disponível: " + produto.getEstoqueDisponivel());
+        }
+        releituraProdutoService.registrarAlteracao(List.of(produtoId));
+        return buscarProdutoPorId(produtoId);
     }
 
+    @Transactional
     public void atualizarEstoque(Long id, int quantidade) {
-        Produto produto = produtoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
-        produto.adicionarEstoque(quantidade);
-        produtoRepository.save(produto);
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("Quantidade para adicionar ao estoque deve ser positiva.");
+        }
+        if (produtoRepository.creditarEstoque(id, quantidade) == 0) {
+            throw new ResourceNotFoundException("Produto não encontrado com ID: " + id);
+        }
+        releituraProdutoService.registrarAlteracao(List.of(id));
+    }
+
+    /**
+     * Aplica ajustes de estoque (entradas positivas, saídas negativas) de vários produtos de uma vez.
+     * <p>
+     * Os ajustes do mesmo produto são somados antes de gravar, então cada produto recebe um único UPDATE
+     * condicional com o ajuste líquido, em lotes JDBC de até {@value #TAMANHO_BLOCO_AJUSTE_ESTOQUE} produtos
+     * por transação, em ordem crescente de ID. Se o saldo não comportar o ajuste líquido (uma saída não pode
+     * consumir unidades reservadas), todos os ajustes do produto são recusados e o estoque dele fica como estava.
+     *
+     * @param ajustes Ajustes na ordem enviada.
+     * @return Totais e o resultado de cada ajuste, com o estoque resultante dos aplicados.
+     */
+    public AjusteEstoqueLoteResponseDTO ajustarEstoqueEmLote(List<AjusteEstoqueDTO> ajustes) {
+        ResultadoAjusteEstoqueDTO[] resultados = new ResultadoAjusteEstoqueDTO[ajustes.size()];
+        Map<Long, Long> liquidoPorProduto = new TreeMap<>();
+        Map<Long, List<Integer>> indicesPorProduto = new HashMap<>();
+        for (int i = 0; i < ajustes.size(); i++) {
+            AjusteEstoqueDTO ajuste = ajustes.get(i);
+            String erro = validarAjusteEstoque(ajuste);
+            if (erro != null) {
+                resultados[i] = ResultadoAjusteEstoqueDTO.recusado(i, ajuste, erro);
+                continue;
+            }
+            liquidoPorProduto.merge(ajuste.produtoId(), (long) ajuste.quantidade(), Long::sum);
+            indicesPorProduto.computeIfAbsent(ajuste.produtoId(), id -> new ArrayList<>()).add(i);
+        }
+        NavigableMap<Long, Integer> ajustaveis = new TreeMap<>();
+        liquidoPorProduto.forEach((id, liquido) -> {
+            if (liquido < Integer.MIN_VALUE || liquido > Integer.MAX_VALUE) {
+                recusarAjustes(ajustes, indicesPorProduto.get(id), resultados, "Ajuste líquido do produto fora do limite: " + liquido);
+            } else {
+                ajustaveis.put(id, liquido.intValue());
+            }
+        });
+        logger.info("Ajustando estoque em lote: {} ajuste(s) em {} produto(s).", ajustes.size(), ajustaveis.size());
+
+        int produtosAjustados = 0;
+        List<Long> ids = new ArrayList<>(ajustaveis.keySet());
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_BLOCO_AJUSTE_ESTOQUE) {
+            Map<Long, Integer> bloco = new TreeMap<>(ajustaveis.subMap(ids.get(inicio), true,
+                    ids.get(Math.min(inicio + TAMANHO_BLOCO_AJUSTE_ESTOQUE, ids.size()) - 1), true));
+            try {
+                produtosAjustados += transactionTemplate.execute(
+                        status -> ajustarBlocoEstoque(bloco, ajustes, indicesPorProduto, resultados));
+            } catch (RuntimeException e) {
+                logger.warn("Bloco de {} produto(s) sem ajuste de estoque: {}", bloco.size(), e.getMessage());
+                bloco.keySet().forEach(id -> recusarAjustes(ajustes, indicesPorProduto.get(id), resultados,
+                        "Bloco não aplicado, reenvie o ajuste. Motivo: " + e.getMessage()));
+            }
+        }
+        int aplicados = (int) Arrays.stream(resultados).filter(ResultadoAjusteEstoqueDTO::aplicado).count();
+        logger.info("Ajuste de estoque em lote concluído: {} aplicado(s), {} recusado(s), {} produto(s) alterado(s).",
+                aplicados, ajustes.size() - aplicados, produtosAjustados);
+        return new AjusteEstoqueLoteResponseDTO(ajustes.size(), aplicados, ajustes.size() - aplicados,
+                produtosAjustados, Arrays.asList(resultados));
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    /**
+     * Grava o ajuste líquido dos produtos do bloco e preenche o resultado dos ajustes deles.
+     * Se a transação falhar depois daqui, o chamador sobrescreve esses resultados com a recusa.
+     * @return Quantidade de produtos ajustados.
+     */
+    private int ajustarBlocoEstoque(Map<Long, Integer> liquidoPorProduto, List<AjusteEstoqueDTO> ajustes,
+                                    Map<Long, List<Integer>> indicesPorProduto, ResultadoAjusteEstoqueDTO[] resultados) {
+        Set<Long> recusados = new HashSet<>(produtoRepository.ajustarEstoqueEmLote(liquidoPorProduto));
+        // Linhas [id, estoque, estoqueReservado], lidas depois do UPDATE: estoque resultante ou motivo da recusa
+        Map<Long, Object[]> saldos = new HashMap<>();
+        produtoRepository.findSaldoByIdIn(liquidoPorProduto.keySet()).forEach(linha -> saldos.put((Long) linha[0], linha));
+        List<Long> ajustados = new ArrayList<>();
+        liquidoPorProduto.forEach((id, liquido) -> {
+            Object[] saldo = saldos.get(id);
+            List<Integer> indices = indicesPorProduto.get(id);
+            if (saldo == null) {
+                recusarAjustes(ajustes, indices, resultados, "Produto não encontrado com ID: " + id);
+            } else if (recusados.contains(id) && liquido > 0) {
+                recusarAjustes(ajustes, indices, resultados, "O ajuste líquido de " + liquido
+                        + " do produto no lote ultrapassa o estoque máximo. Estoque atual: " + saldo[1]);
+            } else if (recusados.contains(id)) {
+                int disponivel = (Integer) saldo[1] - (Integer) saldo[2];
+                recusarAjustes(ajustes, indices, resultados, "Estoque insuficiente para o ajuste líquido de " + liquido
+                        + " do produto no lote. Disponível: " + disponivel);
+            } else {
+                indices.forEach(i -> resultados[i] = ResultadoAjusteEstoqueDTO.aplicado(i, ajustes.get(i), (Integer) saldo[1]));
+                ajustados.add(id);
+            }
+        });
+        releituraProdutoService.registrarAlteracao(ajustados);
+        return ajustados.size();
+    }
+
+    private static void recusarAjustes(List<AjusteEstoqueDTO> ajustes, List<Integer> indices,
+                                       ResultadoAjusteEstoqueDTO[] resultados, String motivo) {
+        indices.forEach(i -> resultados[i] = ResultadoAjusteEstoqueDTO.recusado(i, ajustes.get(i), motivo));
+    }
+
+    /**
+     * @return A mensagem de erro, ou null se o ajuste for válido.
+     */
+    private String validarAjusteEstoque(AjusteEstoqueDTO ajuste) {
+        String erroValidacao = MensagensValidacao.validar(validator, ajuste);
+        if (erroValidacao != null) {
+            return erroValidacao;
+        }
+        if (ajuste.quantidade() == 0) {
+            return "A quantidade do ajuste não pode ser zero.";
+        }
+        return null;
+    }
+
+    private record ResultadoBlocoCatalogo(int atualizados, int inalterados, List<RecusaAlteracaoCatalogoDTO> recusas) {
+    }
+
+    private ResultadoBlocoCatalogo alterarBlocoCatalogo(List<AlteracaoCatalogoDTO> bloco, int deslocamento) {
+        List<RecusaAlteracaoCatalogoDTO> recusas = new ArrayList<>();
+        boolean[] validas = new boolean[bloco.size()];
+        Set<Long> ids = new HashSet<>();
+        Set<String> skus = new HashSet<>();
+        for (int i = 0; i < bloco.size(); i++) {
+            AlteracaoCatalogoDTO dto = bloco.get(i);
+            String erro = validarAlteracaoCatalogo(dto);
+            validas[i] = erro == null;
+            if (erro != null) {
+                recusas.add(recusaCatalogo(deslocamento + i, dto, erro));
+            } else if (dto.id() != null) {
+                ids.add(dto.id());
+            } else {
+                skus.add(dto.codigoBarrasProduto());
+            }
+        }
+        // Linhas [id, codigoBarrasProduto, descricao, valorCompra, valorVenda]
+        Map<Long, Object[]> atuaisPorId = new HashMap<>();
+        Map<String, Object[]> atuaisPorSku = new HashMap<>();
+        if (!ids.isEmpty()) {
+            produtoRepository.findCatalogoByIdIn(ids).forEach(linha -> atuaisPorId.put((Long) linha[0], linha));
+        }
+        if (!skus.isEmpty()) {
+            for (Object[] linha : produtoRepository.findCatalogoByCodigoBarrasProdutoIn(skus)) {
+                atuaisPorSku.put((String) linha[1], linha);
+                atuaisPorId.put((Long) linha[0], linha);
+            }
+        }
+
+        // Valores solicitados por produto, na ordem de chegada; cada alteração sobrescreve os campos que informa
+        Map<Long, AlteracaoCatalogo> solicitadas = new LinkedHashMap<>();
+        Map<Long, List<Integer>> indicesPorProduto = new HashMap<>();
+        for (int i = 0; i < bloco.size(); i++) {
+            if (!validas[i]) {
+                continue;
+            }
+            AlteracaoCatalogoDTO dto = bloco.get(i);
+            Object[] atual = dto.id() != null ? atuaisPorId.get(dto.id()) : atuaisPorSku.get(dto.codigoBarrasProduto());
+            if (atual == null) {
+                recusas.add(recusaCatalogo(deslocamento + i, dto, dto.id() != null
+                        ? "Produto não encontrado com ID: " + dto.id()
+                        : "Produto não encontrado com SKU: " + dto.codigoBarrasProduto()));
+                continue;
+            }
+            if (dto.id() != null && dto.codigoBarrasProduto() != null && !dto.codigoBarrasProduto().equals(atual[1])) {
+                recusas.add(recusaCatalogo(deslocamento + i, dto, "O SKU " + dto.codigoBarrasProduto()
+                        + " não pertence ao produto ID: " + dto.id()));
+                continue;
+            }
+            Long id = (Long) atual[0];
+            solicitadas.merge(id, new AlteracaoCatalogo(id, dto.descricao(), dto.valorCompra(), dto.valorVenda()),
+                    ProdutoService::sobrepor);
+            indicesPorProduto.computeIfAbsent(id, chave -> new ArrayList<>()).add(deslocamento + i);
+        }
+
+        // Só as colunas com valor diferente do gravado vão para o UPDATE
+        Map<Long, AlteracaoCatalogo> efetivas = new LinkedHashMap<>();
+        for (AlteracaoCatalogo solicitada : solicitadas.values()) {
+            Object[] atual = atuaisPorId.get(solicitada.id());
+            AlteracaoCatalogo efetiva = new AlteracaoCatalogo(solicitada.id(),
+                    solicitada.descricao() != null && solicitada.descricao().equals(atual[2]) ? null : solicitada.descricao(),
+                    mesmoValor(solicitada.valorCompra(), (BigDecimal) atual[3]) ? null : solicitada.valorCompra(),
+                    mesmoValor(solicitada.valorVenda(), (BigDecimal) atual[4]) ? null : solicitada.valorVenda());
+            if (!efetiva.vazia()) {
+                efetivas.put(efetiva.id(), efetiva);
+            }
+        }
+        // Excluídos por outra operação entre a leitura e o UPDATE
+        Set<Long> excluidos = new HashSet<>(produtoRepository.alterarCatalogoEmLote(new ArrayList<>(efetivas.values())));
+
+        int atualizados = 0;
+        int inalterados = 0;
+        List<Long> idsAlterados = new ArrayList<>();
+        Map<Long, String> descricoesAlteradas = new HashMap<>();
+        for (Long id : solicitadas.keySet()) {
+            List<Integer> indices = indicesPorProduto.get(id);
+            AlteracaoCatalogo efetiva = efetivas.get(id);
+            if (excluidos.contains(id)) {
+                indices.forEach(indice -> recusas.add(recusaCatalogo(indice, bloco.get(indice - deslocamento),
+                        "Produto não encontrado com ID: " + id)));
+            } else if (efetiva != null) {
+                atualizados += indices.size();
+                idsAlterados.add(id);
+                if (efetiva.descricao() != null) {
+                    descricoesAlteradas.put(id, efetiva.descricao());
+                }
+            } else {
+                inalterados += indices.size();
+            }
+        }
+        if (!idsAlterados.isEmpty()) {
+            cacheProdutoService.invalidar(idsAlterados);
+            releituraProdutoService.registrarAlteracao(idsAlterados);
+        }
+        if (!descricoesAlteradas.isEmpty()) {
+            buscaProdutoService.indexar(descricoesAlteradas);
+            cachePedidoService.invalidarPorProdutos(descricoesAlteradas.keySet());
+        }
+        return new ResultadoBlocoCatalogo(atualizados, inalterados, recusas);
+    }
+
+    /**
+     * @return A mensagem de erro, ou null se a alteração for válida.
+     */
+    private String validarAlteracaoCatalogo(AlteracaoCatalogoDTO dto) {
+        if (dto == null) {
+            return "Alteração não pode ser nula.";
+        }
+        String erroValidacao = MensagensValidacao.validar(validator, dto);
+        if (erroValidacao != null) {
+            return erroValidacao;
+        }
+        if (dto.id() == null && (dto.codigoBarrasProduto() == null || dto.codigoBarrasProduto().isBlank())) {
+            return "Informe o ID ou o código de barras interno (SKU) do produto.";
+        }
+        if (dto.descricao() == null && dto.valorCompra() == null && dto.valorVenda() == null) {
+            return "Informe pelo menos um campo a alterar: descricao, valorCompra ou valorVenda.";
+        }
+        return null;
+    }
+
+    // A alteração mais recente prevalece nos campos que informa
+    private static AlteracaoCatalogo sobrepor(AlteracaoCatalogo anterior, AlteracaoCatalogo nova) {
+        return new AlteracaoCatalogo(anterior.id(),
+                nova.descricao() != null ? nova.descricao() : anterior.descricao(),
+                nova.valorCompra() != null ? nova.valorCompra() : anterior.valorCompra(),
+                nova.valorVenda() != null ? nova.valorVenda() : anterior.valorVenda());
+    }
+
+    private static RecusaAlteracaoCatalogoDTO recusaCatalogo(int indice, AlteracaoCatalogoDTO dto, String motivo) {
+        return dto == null
+                ? new RecusaAlteracaoCatalogoDTO(indice, null, null, motivo)
+                : new RecusaAlteracaoCatalogoDTO(indice, dto.id(), dto.codigoBarrasProduto(), motivo);
+    }
+
+    // Compara pelo valor numérico: 10.5 e 10.50 são o mesmo preço
+    private static boolean mesmoValor(BigDecimal pedido, BigDecimal atual) {
+        return pedido != null && atual != null && pedido.compareTo(atual) == 0;
+    }
+
+    private void validarOrdenacao(Sort ordenacao) {
+        for (Sort.Order ordem : ordenacao) {
+            if (!CAMPOS_ORDENACAO.contains(ordem.getProperty())) {
+                throw new BusinessRuleException("Ordenação não suportada pelo campo '" + ordem.getProperty()
+                        + "'. Campos permitidos: " + String.join(", ", new TreeSet<>(CAMPOS_ORDENACAO)) + ".");
+            }
+        }
+    }
+
+    // Página de IDs em ordem de relevância: estoque lido em uma consulta, catálogo do cache
+    private Page<ProdutoResponseDTO> montarPagina(Page<Long> ids) {
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        Map<Long, Integer> estoques = new HashMap<>();
+        for (Object[] linha : produtoRepository.findEstoqueByIdIn(ids.getContent())) { // Linhas [id, estoque]
+            estoques.put((Long) linha[0], (Integer) linha[1]);
+        }
+        Map<Long, CacheProdutoService.CatalogoProduto> catalogo = cacheProdutoService.buscarTodos(estoques.keySet());
+        // Um produto excluído depois da busca fica fora da página
+        List<ProdutoResponseDTO> conteudo = ids.getContent().stream()
+                .filter(catalogo::containsKey)
+                .map(id -> catalogo.get(id).comEstoque(estoques.get(id)))
+                .toList();
+        return new PageImpl<>(conteudo, ids.getPageable(), ids.getTotalElements());
     }
-}
\ No newline at end of file
+}
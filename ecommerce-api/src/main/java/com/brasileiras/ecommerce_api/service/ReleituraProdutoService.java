@@ -0,0 +1,123 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.repository.ProdutoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Releitura dos produtos alterados para as visões mantidas em memória: a lista de estoque baixo
+ * ({@link EstoqueBaixoService}) e o índice de códigos de barras ({@link CodigoBarrasService}).
+ * <p>
+ * Quem altera estoque, preço, códigos, descrição ou ponto de reposição, ou exclui produtos, chama
+ * {@link #registrarAlteracao}; após o commit esses produtos são relidos pelo ID, com uma única consulta para
+ * as duas visões. As cargas iniciais, as releituras e a aplicação nas visões acontecem em uma única thread,
+ * na ordem dos commits, e cada releitura vê o estado confirmado mais recente, então as visões convergem mesmo
+ * com alterações concorrentes do mesmo produto (inclusive durante a carga inicial).
+ */
+@Service
+public class ReleituraProdutoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReleituraProdutoService.class);
+
+    private final ProdutoRepository produtoRepository;
+    private final EstoqueBaixoService estoqueBaixoService;
+    private final CodigoBarrasService codigoBarrasService;
+    private final TransactionTemplate transacaoLeitura;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("releitura-produtos").factory());
+
+    public ReleituraProdutoService(ProdutoRepository produtoRepository, EstoqueBaixoService estoqueBaixoService,
+                                   CodigoBarrasService codigoBarrasService, PlatformTransactionManager transactionManager) {
+        this.produtoRepository = produtoRepository;
+        this.estoqueBaixoService = estoqueBaixoService;
+        this.codigoBarrasService = codigoBarrasService;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+    }
+
+    /**
+     * Situação atual de um produto, como relida do banco.
+     */
+    public record SituacaoProduto(Long id, String codigoBarrasProduto, String codigoBarras, String descricao,
+                                  BigDecimal valorVenda, Integer estoque, Integer pontoReposicao) {
+
+        // Linha [id, codigoBarrasProduto, codigoBarras, descricao, valorVenda, estoque, pontoReposicao]
+        static SituacaoProduto de(Object[] linha) {
+            return new SituacaoProduto((Long) linha[0], (String) linha[1], (String) linha[2], (String) linha[3],
+                    (BigDecimal) linha[4], (Integer) linha[5], (Integer) linha[6]);
+        }
+    }
+
+    // Na mesma thread das releituras: o que mudar durante a carga é relido e aplicado depois dela
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarNaInicializacao() {
+        executor.execute(() -> executar("carregar a lista de estoque baixo", estoqueBaixoService::carregar));
+        executor.execute(() -> executar("carregar o índice de códigos de barras", codigoBarrasService::carregar));
+    }
+
+    /**
+     * Registra que os produtos podem ter mudado (ou sido excluídos). Após o commit (ou na hora, fora de
+     * transação), eles são relidos e as visões em memória são atualizadas.
+     */
+    public void registrarAlteracao(Collection<Long> produtoIds) {
+        if (produtoIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(new TreeSet<>(produtoIds));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(() -> reler(ids));
+                }
+            });
+        } else {
+            executor.execute(() -> reler(ids));
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private void reler(List<Long> produtoIds) {
+        Map<Long, SituacaoProduto> atuais = new HashMap<>();
+        try {
+            List<Object[]> linhas = transacaoLeitura.execute(status -> produtoRepository.findSituacaoByIdIn(produtoIds));
+            for (Object[] linha : linhas == null ? List.<Object[]>of() : linhas) {
+                SituacaoProduto situacao = SituacaoProduto.de(linha);
+                atuais.put(situacao.id(), situacao);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Falha ao reler os produtos {}: {}", produtoIds, e.getMessage(), e);
+            return;
+        }
+        // Produto ausente em atuais foi excluído
+        executar("atualizar a lista de estoque baixo", () -> estoqueBaixoService.aplicar(produtoIds, atuais));
+        executar("atualizar o índice de códigos de barras", () -> codigoBarrasService.aplicar(produtoIds, atuais));
+    }
+
+    // Uma visão com falha não impede a atualização da outra
+    private static void executar(String descricao, Runnable acao) {
+        try {
+            acao.run();
+        } catch (RuntimeException e) {
+            logger.error("Falha ao {}: {}", descricao, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.enums.StatusPedido;
+import com.brasileiras.ecommerce_api.enums.TipoEventoOutbox;
+import com.brasileiras.ecommerce_api.exception.BusinessRuleException;
+import com.brasileiras.ecommerce_api.model.Pedido;
+import com.brasileiras.ecommerce_api.model.Produto;
+import com.brasileiras.ecommerce_api.model.ReservaEstoque;
+import com.brasileiras.ecommerce_api.repository.PedidoRepository;
+import com.brasileiras.ecommerce_api.repository.ProdutoRepository;
+import com.brasileiras.ecommerce_api.repository.ReservaEstoqueRepository;
+import com.brasileiras.ecommerce_api.util.RodaDeTempo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Reserva de estoque para pedidos aguardando pagamento.
+ * <p>
+ * Na criação do pedido a quantidade é retida em {@code produtos.estoque_reservado}; na aprovação do
+ * pagamento a reserva é convertida em débito de estoque; no cancelamento ou na expiração ela é liberada.
+ * Os prazos de expiração ficam em uma {@link RodaDeTempo} em memória, de modo que o agendador
+ * só toca nos pedidos que realmente venceram, sem varrer a tabela de pedidos.
+ */
+@Service
+public class ReservaEstoqueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservaEstoqueService.class);
+
+    private static final int SLOTS_RODA_EXPIRACAO = 512;
+    private static final long DURACAO_TICK_MILLIS = 1_000L;
+
+    private final ProdutoRepository produtoRepository;
+    private final ReservaEstoqueRepository reservaEstoqueRepository;
+    private final PedidoRepository pedidoRepository;
+    private final OutboxService outboxService;
+    private final CachePedidoService cachePedidoService;
+    private final ReleituraProdutoService releituraProdutoService;
+    private final Duration validadeReserva;
+    private final RodaDeTempo<Long> rodaDeExpiracao;
+
+    public ReservaEstoqueService(ProdutoRepository produtoRepository,
+                                 ReservaEstoqueRepository reservaEstoqueRepository,
+                                 PedidoRepository pedidoRepository,
+                                 OutboxService outboxService,
+                                 CachePedidoService cachePedidoService,
+                                 ReleituraProdutoService releituraProdutoService,
+                                 @Value("${ecommerce.reserva.validade-minutos:30}") long validadeMinutos) {
+        this.produtoRepository = produtoRepository;
+        this.reservaEstoqueRepository = reservaEstoqueRepository;
+        this.pedidoRepository = pedidoRepository;
+        this.outboxService = outboxService;
+        this.cachePedidoService = cachePedidoService;
+        this.releituraProdutoService = releituraProdutoService;
+        this.validadeReserva = Duration.ofMinutes(validadeMinutos);
+        this.rodaDeExpiracao = new RodaDeTempo<>(SLOTS_RODA_EXPIRACAO, DURACAO_TICK_MILLIS, Instant.now());
+    }
+
+    /**
+     * Reserva as quantidades do pedido recém-criado e agenda sua expiração.
+     *
+     * @param pedido Pedido já persistido (com ID).
+     * @param produtos Produtos do pedido, indexados por ID.
+     * @param quantidadesPorProduto Quantidade a reservar por ID de produto.
+     * @throws BusinessRuleException se algum produto não tiver saldo disponível.
+     */
+    @Transactional
+    public void reservar(Pedido pedido, Map<Long, Produto> produtos, Map<Long, Integer> quantidadesPorProduto) {
+        reservarEmLote(Map.of(pedido.getId(), quantidadesPorProduto), produtos);
+    }
+
+    /**
+     * Reserva as quantidades de vários pedidos recém-criados com um único lote de UPDATEs,
+     * somando as quantidades de todos os pedidos por produto.
+     *
+     * @param quantidadesPorPedido Quantidade a reservar por ID de produto, para cada ID de pedido já persistido.
+     * @param produtos Produtos dos pedidos, indexados por ID.
+     * @throws BusinessRuleException se algum produto não tiver saldo para o total do lote.
+     */
+    @Transactional
+    public void reservarEmLote(Map<Long, Map<Long, Integer>> quantidadesPorPedido, Map<Long, Produto> produtos) {
+        Map<Long, Integer> totalPorProduto = new HashMap<>();
+        quantidadesPorPedido.values().forEach(quantidades ->
+                quantidades.forEach((produtoId, quantidade) -> totalPorProduto.merge(produtoId, quantidade, Integer::sum)));
+
+        List<Long> recusados = produtoRepository.reservarEstoqueEmLote(totalPorProduto);
+        if (!recusados.isEmpty()) {
+            List<String> descricoes = recusados.stream().map(id -> produtos.get(id).getDescricao()).toList();
+            throw new BusinessRuleException("Estoque insuficiente para o(s) produto(s): " + descricoes);
+        }
+
+        LocalDateTime expiraEm = LocalDateTime.now().plus(validadeReserva);
+        List<ReservaEstoque> reservas = new ArrayList<>();
+        quantidadesPorPedido.forEach((pedidoId, quantidades) ->
+                quantidades.forEach((produtoId, quantidade) -> reservas.add(ReservaEstoque.builder()
+                        .pedido(pedidoRepository.getReferenceById(pedidoId)) // instância já gerenciada, sem SELECT
+                        .produto(produtos.get(produtoId))
+                        .quantidade(quantidade)
+                        .expiraEm(expiraEm)
+                        .build())));
+        reservaEstoqueRepository.saveAll(reservas);
+
+        agendarExpiracaoAposCommit(List.copyOf(quantidadesPorPedido.keySet()), expiraEm);
+    }
+
+    /**
+     * Converte a reserva do pedido em débito definitivo de estoque (aprovação do pagamento).
+     *
+     * @return true se havia reserva e ela foi confirmada; false se o pedido não possui reserva
+     *         (pedido antigo ou reserva já expirada), cabendo ao chamador debitar o estoque diretamente.
+     * @throws BusinessRuleException se a reserva não puder ser confirmada.
+     */
+    @Transactional
+    public boolean confirmar(Pedido pedido) {
+        if (confirmarEmLote(List.of(pedido.getId())).isEmpty()) {
+            return false;
+        }
+        logger.info("Reserva de estoque do pedido {} confirmada.", pedido.getNumeroPedido());
+        return true;
+    }
+
+    /**
+     * Converte em débito de estoque as reservas de vários pedidos, com um único lote de UPDATEs.
+     *
+     * @return IDs dos pedidos que tinham reserva; os demais cabem ao chamador debitar diretamente.
+     * @throws BusinessRuleException se alguma reserva não puder ser confirmada.
+     */
+    @Transactional
+    public Set<Long> confirmarEmLote(Collection<Long> pedidoIds) {
+        List<ReservaEstoque> reservas = consumirReservas(pedidoIds);
+        if (reservas.isEmpty()) {
+            return Set.of();
+        }
+        Map<Long, Integer> quantidadesPorProduto = somarPorProduto(reservas);
+        List<Long> recusados = produtoRepository.confirmarReservaEmLote(quantidadesPorProduto);
+        if (!recusados.isEmpty()) {
+            throw new BusinessRuleException("Falha ao confirmar a reserva de estoque para o(s) produto(s) com ID: " + recusados);
+        }
+        releituraProdutoService.registrarAlteracao(quantidadesPorProduto.keySet());
+        return pedidosDasReservas(reservas);
+    }
+
+    /**
+     * Libera a reserva do pedido, devolvendo as quantidades ao saldo disponível.
+     *
+     * @return true se havia reserva para liberar.
+     */
+    @Transactional
+    public boolean liberar(Pedido pedido) {
+        if (liberarEmLote(List.of(pedido.getId())).isEmpty()) {
+            return false;
+        }
+        logger.info("Reserva de estoque do pedido {} liberada.", pedido.getNumeroPedido());
+        return true;
+    }
+
+    /**
+     * Libera as reservas de vários pedidos com um único lote de UPDATEs.
+     *
+     * @return IDs dos pedidos que tinham reserva.
+     */
+    @Transactional
+    public Set<Long> liberarEmLote(Collection<Long> pedidoIds) {
+        List<ReservaEstoque> reservas = consumirReservas(pedidoIds);
+        if (reservas.isEmpty()) {
+            return Set.of();
+        }
+        liberarQuantidades(somarPorProduto(reservas));
+        return pedidosDasReservas(reservas);
+    }
+
+    /**
+     * Cancela em lote os pedidos cuja reserva expirou e libera suas reservas.
+     * Somente pedidos ainda em AGUARDANDO_PAGAMENTO são cancelados; os demais são ignorados.
+     *
+     * @param pedidoIds IDs dos pedidos vencidos.
+     * @return IDs dos pedidos efetivamente cancelados.
+     */
+    @Transactional
+    public List<Long> expirarPedidos(Collection<Long> pedidoIds) {
+        List<Long> ignorados = pedidoRepository.atualizarStatusEmLote(
+                pedidoIds, EnumSet.of(StatusPedido.AGUARDANDO_PAGAMENTO), StatusPedido.CANCELADO);
+        Set<Long> cancelados = new TreeSet<>(pedidoIds);
+        ignorados.forEach(cancelados::remove);
+        if (cancelados.isEmpty()) {
+            return List.of();
+        }
+        cachePedidoService.invalidarPedidos(cancelados);
+        liberarEmLote(cancelados);
+        outboxService.registrarEmLote(TipoEventoOutbox.PEDIDO_CANCELADO, cancelados);
+        logger.info("{} pedido(s) cancelado(s) por expiração da reserva de estoque: {}", cancelados.size(), cancelados);
+        return new ArrayList<>(cancelados);
+    }
+
+    /**
+     * Avança a roda de expiração e devolve os pedidos cujo prazo de reserva venceu.
+     */
+    public List<Long> pedidosComReservaVencida(Instant agora) {
+        return rodaDeExpiracao.avancar(agora);
+    }
+
+    /**
+     * Agenda novamente a expiração de pedidos (ex.: após falha ao processar um lote).
+     */
+    public void reagendar(Collection<Long> pedidoIds, Instant expiraEm) {
+        pedidoIds.forEach(id -> rodaDeExpiracao.agendar(id, expiraEm));
+    }
+
+    /**
+     * Recarrega na roda de expiração os pedidos que ainda possuem reservas (ex.: após reinício da aplicação).
+     * Lê apenas a tabela de reservas, agrupada por pedido.
+     */
+    @Transactional(readOnly = true)
+    public int reagendarReservasPendentes() {
+        List<Object[]> pendentes = reservaEstoqueRepository.findExpiracaoPorPedido();
+        for (Object[] linha : pendentes) {
+            rodaDeExpiracao.agendar((Long) linha[0], paraInstant((LocalDateTime) linha[1]));
+        }
+        return pendentes.size();
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    /**
+     * Trava e remove as reservas dos pedidos informados.
+     */
+    private List<ReservaEstoque> consumirReservas(Collection<Long> pedidoIds) {
+        List<ReservaEstoque> reservas = reservaEstoqueRepository.findParaConsumoByPedidoIdIn(pedidoIds);
+        if (!reservas.isEmpty()) {
+            reservaEstoqueRepository.deleteByPedidoIdIn(pedidoIds);
+        }
+        return reservas;
+    }
+
+    private static Map<Long, Integer> somarPorProduto(List<ReservaEstoque> reservas) {
+        Map<Long, Integer> quantidadesPorProduto = new HashMap<>();
+        for (ReservaEstoque reserva : reservas) {
+            quantidadesPorProduto.merge(reserva.getProduto().getId(), reserva.getQuantidade(), Integer::sum);
+        }
+        return quantidadesPorProduto;
+    }
+
+    // getId() do proxy LAZY não dispara SELECT
+    private static Set<Long> pedidosDasReservas(List<ReservaEstoque> reservas) {
+        Set<Long> pedidoIds = new TreeSet<>();
+        reservas.forEach(reserva -> pedidoIds.add(reserva.getPedido().getId()));
+        return pedidoIds;
+    }
+
+    private void liberarQuantidades(Map<Long, Integer> quantidadesPorProduto) {
+        List<Long> recusados = produtoRepository.liberarReservaEmLote(quantidadesPorProduto);
+        if (!recusados.isEmpty()) {
+            // Não deveria acontecer: indica estoque_reservado alterado fora deste serviço
+            logger.warn("Reserva inconsistente ao liberar estoque dos produtos: {}", recusados);
+        }
+    }
+
+    // Só agenda se a transação que criou a reserva for confirmada
+    private void agendarExpiracaoAposCommit(List<Long> pedidoIds, LocalDateTime expiraEm) {
+        Instant instante = paraInstant(expiraEm);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reagendar(pedidoIds, instante);
+                }
+            });
+        } else {
+            reagendar(pedidoIds, instante);
+        }
+    }
+
+    private static Instant paraInstant(LocalDateTime dataHora) {
+        return dataHora.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
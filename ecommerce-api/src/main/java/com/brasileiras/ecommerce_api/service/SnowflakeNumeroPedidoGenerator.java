@@ -0,0 +1,98 @@
+package com.brasileiras.ecommerce_api.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Gerador de números de pedido no estilo Snowflake (padrão).
+ * <p>
+ * O número é um long de 63 bits composto por:
+ * <ul>
+ *     <li>41 bits: milissegundos desde {@link #EPOCA} (~69 anos);</li>
+ *     <li>10 bits: ID do nó ({@code ecommerce.pedido.node-id}, 0 a 1023), distinto por instância;</li>
+ *     <li>12 bits: sequência dentro do mesmo milissegundo (4096 números/ms por nó).</li>
+ * </ul>
+ * O par (timestamp, sequência) fica em um único AtomicLong atualizado por CAS, sem locks nem SecureRandom.
+ * O resultado é formatado com largura fixa ("PED-" + 19 dígitos), o que mantém a ordem textual igual
+ * à ordem de criação e faz o índice único de {@code numero_pedido} crescer sempre pelo final.
+ */
+@Component
+@ConditionalOnProperty(name = "ecommerce.pedido.gerador-numero", havingValue = "snowflake", matchIfMissing = true)
+public class SnowflakeNumeroPedidoGenerator implements NumeroPedidoGenerator {
+
+    static final long EPOCA = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int BITS_NO = 10;
+    private static final int BITS_SEQUENCIA = 12;
+    private static final long MAX_NO = (1L << BITS_NO) - 1;
+    private static final long MASCARA_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+
+    private static final String PREFIXO = "PED-";
+    private static final int DIGITOS = 19; // Long.MAX_VALUE tem 19 dígitos
+
+    private final long noDeslocado;
+    private final LongSupplier relogio;
+    // (timestamp relativo à época << BITS_SEQUENCIA) | sequência do último número gerado
+    private final AtomicLong ultimoEstado = new AtomicLong();
+
+    @Autowired
+    public SnowflakeNumeroPedidoGenerator(@Value("${ecommerce.pedido.node-id:0}") long noId) {
+        this(noId, System::currentTimeMillis);
+    }
+
+    SnowflakeNumeroPedidoGenerator(long noId, LongSupplier relogio) {
+        if (noId < 0 || noId > MAX_NO) {
+            throw new IllegalArgumentException("ecommerce.pedido.node-id deve estar entre 0 e " + MAX_NO + ": " + noId);
+        }
+        this.noDeslocado = noId << BITS_SEQUENCIA;
+        this.relogio = relogio;
+    }
+
+    @Override
+    public String gerar() {
+        return formatar(proximoId());
+    }
+
+    /**
+     * Gera o próximo ID numérico. Lock-free: em caso de disputa apenas repete o CAS.
+     * Se a sequência do milissegundo se esgotar, ou se o relógio voltar no tempo, o gerador
+     * "empresta" o milissegundo seguinte em vez de esperar, mantendo os IDs estritamente crescentes.
+     */
+    long proximoId() {
+        long agora = relogio.getAsLong() - EPOCA;
+        while (true) {
+            long atual = ultimoEstado.get();
+            long timestampAtual = atual >>> BITS_SEQUENCIA;
+            long proximo;
+            if (agora > timestampAtual) {
+                proximo = agora << BITS_SEQUENCIA;
+            } else if ((atual & MASCARA_SEQUENCIA) < MASCARA_SEQUENCIA) {
+                proximo = atual + 1;
+            } else {
+                proximo = (timestampAtual + 1) << BITS_SEQUENCIA;
+            }
+            if (ultimoEstado.compareAndSet(atual, proximo)) {
+                long timestamp = proximo >>> BITS_SEQUENCIA;
+                long sequencia = proximo & MASCARA_SEQUENCIA;
+                return (timestamp << (BITS_NO + BITS_SEQUENCIA)) | noDeslocado | sequencia;
+            }
+        }
+    }
+
+    // Formata com zeros à esquerda sem String.format nem concatenações intermediárias
+    static String formatar(long id) {
+        char[] buffer = new char[PREFIXO.length() + DIGITOS];
+        PREFIXO.getChars(0, PREFIXO.length(), buffer, 0);
+        for (int i = buffer.length - 1; i >= PREFIXO.length(); i--) {
+            buffer[i] = (char) ('0' + (id % 10));
+            id /= 10;
+        }
+        return new String(buffer);
+    }
+}
@@ -0,0 +1,23 @@
+package com.brasileiras.ecommerce_api.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Gerador original: timestamp + 8 caracteres de um UUID aleatório.
+ * Mantido como alternativa ({@code ecommerce.pedido.gerador-numero=uuid}) e como base de comparação
+ * no benchmark. Usa SecureRandom a cada chamada e pode colidir, o que só aparece como violação
+ * da restrição única de {@code numero_pedido}.
+ */
+@Component
+@ConditionalOnProperty(name = "ecommerce.pedido.gerador-numero", havingValue = "uuid")
+public class UuidNumeroPedidoGenerator implements NumeroPedidoGenerator {
+
+    @Override
+    public String gerar() {
+        // timestamp + parte de UUID
+        return "PED-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
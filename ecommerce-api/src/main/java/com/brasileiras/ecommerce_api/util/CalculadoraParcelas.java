@@ -0,0 +1,46 @@
+package com.brasileiras.ecommerce_api.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Divisão de valores monetários em parcelas usando aritmética exata em centavos.
+ * A soma das parcelas é sempre igual ao total: o resto da divisão é distribuído, um centavo
+ * por parcela, a partir da primeira.
+ */
+public final class CalculadoraParcelas {
+
+    private CalculadoraParcelas() {
+    }
+
+    /**
+     * Divide o total em parcelas.
+     *
+     * @param totalCentavos Valor total, em centavos (não negativo).
+     * @param parcelas Quantidade de parcelas (no mínimo 1).
+     * @return Valor de cada parcela, em centavos, na ordem das parcelas.
+     */
+    public static long[] dividir(long totalCentavos, int parcelas) {
+        if (parcelas < 1) {
+            throw new IllegalArgumentException("Quantidade de parcelas deve ser no mínimo 1: " + parcelas);
+        }
+        if (totalCentavos < 0) {
+            throw new IllegalArgumentException("Valor total não pode ser negativo: " + totalCentavos);
+        }
+        long base = totalCentavos / parcelas;
+        long resto = totalCentavos % parcelas;
+        long[] valores = new long[parcelas];
+        for (int i = 0; i < parcelas; i++) {
+            valores[i] = i < resto ? base + 1 : base;
+        }
+        return valores;
+    }
+
+    public static long paraCentavos(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.HALF_EVEN).movePointRight(2).longValueExact();
+    }
+
+    public static BigDecimal deCentavos(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+}
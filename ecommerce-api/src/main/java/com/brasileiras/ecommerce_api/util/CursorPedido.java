@@ -0,0 +1,42 @@
+package com.brasileiras.ecommerce_api.util;
+
+import com.brasileiras.ecommerce_api.exception.BusinessRuleException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição na listagem de pedidos por cursor: a chave (dataPedido, id) do último pedido entregue.
+ * <p>
+ * Para o cliente da API o cursor é opaco (Base64 URL-safe); ele só deve ser devolvido como veio.
+ * O ID desempata pedidos com a mesma data, então a ordem é total e nenhum pedido se repete ou some
+ * entre páginas, mesmo com inserções concorrentes.
+ */
+public record CursorPedido(LocalDateTime dataPedido, Long id) {
+
+    private static final char SEPARADOR = '|';
+
+    public String codificar() {
+        String chave = dataPedido.toString() + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws BusinessRuleException se o cursor não tiver sido gerado por {@link #codificar()}.
+     */
+    public static CursorPedido decodificar(String cursor) {
+        try {
+            String chave = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = chave.lastIndexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new BusinessRuleException("Cursor de paginação inválido.");
+            }
+            return new CursorPedido(LocalDateTime.parse(chave.substring(0, separador)),
+                    Long.valueOf(chave.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessRuleException("Cursor de paginação inválido.");
+        }
+    }
+}
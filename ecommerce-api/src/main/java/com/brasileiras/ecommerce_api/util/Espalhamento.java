@@ -0,0 +1,23 @@
+package com.brasileiras.ecommerce_api.util;
+
+/**
+ * Mistura de bits para hashes das estruturas em memória (tabelas de endereçamento aberto, filtros de Bloom):
+ * chaves parecidas, como IDs sequenciais, passam a diferir em todos os bits.
+ */
+public final class Espalhamento {
+
+    private Espalhamento() {
+    }
+
+    /**
+     * Finalizador do MurmurHash3 (fmix64): cada bit da entrada afeta todos os bits do resultado.
+     */
+    public static long fmix64(long valor) {
+        valor ^= valor >>> 33;
+        valor *= 0xFF51AFD7ED558CCDL;
+        valor ^= valor >>> 33;
+        valor *= 0xC4CEB93FE1A85A53L;
+        valor ^= valor >>> 33;
+        return valor;
+    }
+}
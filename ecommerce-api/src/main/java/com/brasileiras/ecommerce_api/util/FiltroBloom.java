@@ -0,0 +1,69 @@
+package com.brasileiras.ecommerce_api.util;
+
+/**
+ * Filtro de Bloom para textos: responde "com certeza não contém" ou "talvez contenha" usando um array de bits
+ * de tamanho fixo, sem guardar os textos.
+ * <p>
+ * O tamanho é calculado na criação para a capacidade e a taxa de falsos positivos desejadas. Inserir mais
+ * textos que a capacidade não aumenta a memória, só a taxa de falsos positivos. As posições dos bits vêm de
+ * dois hashes de 64 bits combinados (double hashing), então cada operação percorre o texto uma única vez.
+ * A classe não é thread-safe.
+ */
+public class FiltroBloom {
+
+    private final long[] bits;
+    private final long quantidadeBits;
+    private final int quantidadeHashes;
+
+    /**
+     * @param capacidade Quantidade de textos esperada.
+     * @param taxaFalsosPositivos Taxa de falsos positivos com a capacidade preenchida (ex.: 0.01).
+     */
+    public FiltroBloom(long capacidade, double taxaFalsosPositivos) {
+        long esperados = Math.max(1, capacidade);
+        long bitsNecessarios = (long) Math.ceil(-esperados * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[(int) Math.max(1, (bitsNecessarios + 63) / 64)];
+        this.quantidadeBits = bits.length * 64L;
+        this.quantidadeHashes = (int) Math.max(1, Math.round((double) quantidadeBits / esperados * Math.log(2)));
+    }
+
+    public void adicionar(String texto) {
+        long hash = hash(texto);
+        long h1 = hash;
+        long h2 = Espalhamento.fmix64(hash ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, quantidadeBits);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * @return false se o texto com certeza nunca foi adicionado; true se talvez tenha sido.
+     */
+    public boolean talvezContenha(String texto) {
+        long hash = hash(texto);
+        long h1 = hash;
+        long h2 = Espalhamento.fmix64(hash ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, quantidadeBits);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long tamanhoEmBytes() {
+        return bits.length * 8L;
+    }
+
+    // FNV-1a de 64 bits sobre os caracteres, com mistura final para espalhar os bits
+    private static long hash(String texto) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < texto.length(); i++) {
+            hash ^= texto.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return Espalhamento.fmix64(hash);
+    }
+}
@@ -0,0 +1,326 @@
+package com.brasileiras.ecommerce_api.util;
+
+import java.util.Arrays;
+
+/**
+ * Índice em memória de produtos por código de barras da NF e por código interno (SKU), para leituras no caixa.
+ * <p>
+ * Cada produto ocupa uma posição em arrays paralelos (ID, códigos, descrição, preço em centavos e estoque).
+ * As buscas usam tabelas de endereçamento aberto com sondagem linear que guardam só a posição do produto;
+ * a chave é lida do próprio produto. Códigos da NF só com dígitos (EAN-8, EAN-13, UPC-A, GTIN-14) são
+ * guardados como long, com o número de dígitos junto para que zeros à esquerda não se confundam; os demais
+ * ficam em uma tabela de textos, como os SKUs. As tabelas ficam no máximo meio cheias, então uma busca
+ * costuma olhar uma ou duas posições, sem objetos intermediários.
+ * <p>
+ * Remoções usam deslocamento para trás (sem marcas de removido) e a posição liberada é reaproveitada.
+ * A classe não é thread-safe: o chamador sincroniza leituras e alterações.
+ */
+public class IndiceCodigoBarras {
+
+    private static final int VAZIO = -1;
+    private static final int CAPACIDADE_MINIMA = 16;
+    private static final int MAX_DIGITOS_NUMERICO = 15;
+
+    /**
+     * Dados do produto guardados no índice.
+     */
+    public record Item(long id, String codigoBarrasProduto, String codigoBarras, String descricao,
+                       long valorVendaCentavos, int estoque) {
+    }
+
+    // Arrays paralelos, indexados pela posição do produto
+    private long[] ids;
+    private long[] codigosNumericos; // 0: código da NF não numérico
+    private String[] codigosProduto;
+    private String[] codigosBarras;
+    private String[] descricoes;
+    private long[] valoresVendaCentavos;
+    private int[] estoques;
+    private int posicoesUsadas;
+    private int[] livres = new int[CAPACIDADE_MINIMA];
+    private int totalLivres;
+
+    private final TabelaNumerica porId = new TabelaNumerica(false);
+    private final TabelaNumerica porCodigoNumerico = new TabelaNumerica(true);
+    private final TabelaTexto porCodigoProduto = new TabelaTexto(true);
+    private final TabelaTexto porCodigoBarrasTexto = new TabelaTexto(false);
+
+    public IndiceCodigoBarras() {
+        this(CAPACIDADE_MINIMA);
+    }
+
+    /**
+     * @param capacidade Quantidade de produtos esperada (as tabelas crescem se for ultrapassada).
+     */
+    public IndiceCodigoBarras(int capacidade) {
+        int tamanho = Math.max(CAPACIDADE_MINIMA, capacidade);
+        ids = new long[tamanho];
+        codigosNumericos = new long[tamanho];
+        codigosProduto = new String[tamanho];
+        codigosBarras = new String[tamanho];
+        descricoes = new String[tamanho];
+        valoresVendaCentavos = new long[tamanho];
+        estoques = new int[tamanho];
+        porId.iniciar(tamanho);
+        porCodigoNumerico.iniciar(tamanho);
+        porCodigoProduto.iniciar(tamanho);
+        porCodigoBarrasTexto.iniciar(tamanho);
+    }
+
+    /**
+     * Inclui o produto ou substitui os dados dele, se o ID já estiver no índice.
+     */
+    public void gravar(Item item) {
+        int posicao = porId.buscar(item.id());
+        if (posicao != VAZIO) {
+            desindexarCodigos(posicao);
+        } else {
+            posicao = novaPosicao();
+            ids[posicao] = item.id();
+            porId.inserir(posicao);
+        }
+        codigosProduto[posicao] = item.codigoBarrasProduto();
+        codigosBarras[posicao] = item.codigoBarras();
+        codigosNumericos[posicao] = codificarNumerico(item.codigoBarras());
+        descricoes[posicao] = item.descricao();
+        valoresVendaCentavos[posicao] = item.valorVendaCentavos();
+        estoques[posicao] = item.estoque();
+        indexarCodigos(posicao);
+    }
+
+    public void remover(long id) {
+        int posicao = porId.buscar(id);
+        if (posicao == VAZIO) {
+            return;
+        }
+        desindexarCodigos(posicao);
+        porId.remover(posicao);
+        codigosProduto[posicao] = null;
+        codigosBarras[posicao] = null;
+        descricoes[posicao] = null;
+        if (totalLivres == livres.length) {
+            livres = Arrays.copyOf(livres, livres.length * 2);
+        }
+        livres[totalLivres++] = posicao;
+    }
+
+    /**
+     * Busca pelo código de barras da NF e, se não houver, pelo SKU.
+     *
+     * @return O produto, ou null se nenhum tiver o código.
+     */
+    public Item buscar(String codigo) {
+        long numerico = codificarNumerico(codigo);
+        int posicao = numerico != 0 ? porCodigoNumerico.buscar(numerico) : porCodigoBarrasTexto.buscar(codigo);
+        if (posicao == VAZIO) {
+            posicao = porCodigoProduto.buscar(codigo);
+        }
+        return posicao == VAZIO ? null : new Item(ids[posicao], codigosProduto[posicao], codigosBarras[posicao],
+                descricoes[posicao], valoresVendaCentavos[posicao], estoques[posicao]);
+    }
+
+    public int tamanho() {
+        return porId.ocupadas;
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private void indexarCodigos(int posicao) {
+        if (codigosProduto[posicao] != null) {
+            porCodigoProduto.inserir(posicao);
+        }
+        if (codigosNumericos[posicao] != 0) {
+            porCodigoNumerico.inserir(posicao);
+        } else if (codigosBarras[posicao] != null) {
+            porCodigoBarrasTexto.inserir(posicao);
+        }
+    }
+
+    // Antes de trocar os códigos: as tabelas localizam a posição pelo código atual
+    private void desindexarCodigos(int posicao) {
+        if (codigosProduto[posicao] != null) {
+            porCodigoProduto.remover(posicao);
+        }
+        if (codigosNumericos[posicao] != 0) {
+            porCodigoNumerico.remover(posicao);
+        } else if (codigosBarras[posicao] != null) {
+            porCodigoBarrasTexto.remover(posicao);
+        }
+    }
+
+    private int novaPosicao() {
+        if (totalLivres > 0) {
+            return livres[--totalLivres];
+        }
+        if (posicoesUsadas == ids.length) {
+            int tamanho = ids.length * 2;
+            ids = Arrays.copyOf(ids, tamanho);
+            codigosNumericos = Arrays.copyOf(codigosNumericos, tamanho);
+            codigosProduto = Arrays.copyOf(codigosProduto, tamanho);
+            codigosBarras = Arrays.copyOf(codigosBarras, tamanho);
+            descricoes = Arrays.copyOf(descricoes, tamanho);
+            valoresVendaCentavos = Arrays.copyOf(valoresVendaCentavos, tamanho);
+            estoques = Arrays.copyOf(estoques, tamanho);
+        }
+        return posicoesUsadas++;
+    }
+
+    /**
+     * Código só com dígitos como long: valor * 16 + quantidade de dígitos (até 15 dígitos).
+     * @return O código codificado, ou 0 se não for numérico.
+     */
+    private static long codificarNumerico(String codigo) {
+        if (codigo == null || codigo.isEmpty() || codigo.length() > MAX_DIGITOS_NUMERICO) {
+            return 0;
+        }
+        long valor = 0;
+        for (int i = 0; i < codigo.length(); i++) {
+            char c = codigo.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor * 16 + codigo.length();
+    }
+
+    private static int espalhar(long valor) {
+        return (int) Espalhamento.fmix64(valor);
+    }
+
+    private static int capacidadeDaTabela(int elementos) {
+        return Math.max(CAPACIDADE_MINIMA, Integer.highestOneBit(Math.max(1, elementos * 2 - 1)) << 1);
+    }
+
+    /**
+     * Tabela de endereçamento aberto com as posições dos produtos (VAZIO nas entradas livres).
+     * Mantida no máximo meio cheia.
+     */
+    private abstract static class Tabela {
+        int[] entradas;
+        int ocupadas;
+
+        void iniciar(int elementos) {
+            entradas = new int[capacidadeDaTabela(elementos)];
+            Arrays.fill(entradas, VAZIO);
+            ocupadas = 0;
+        }
+
+        abstract int hashDaPosicao(int posicao);
+
+        void inserir(int posicao) {
+            if ((ocupadas + 1) * 2 > entradas.length) {
+                redimensionar();
+            }
+            colocar(entradas, posicao);
+            ocupadas++;
+        }
+
+        /**
+         * Remove a posição e puxa para trás as entradas seguintes que estavam fora do lugar ideal,
+         * para que nenhuma busca pare antes de encontrá-las.
+         */
+        void remover(int posicao) {
+            int mascara = entradas.length - 1;
+            int i = hashDaPosicao(posicao) & mascara;
+            while (entradas[i] != posicao) {
+                if (entradas[i] == VAZIO) {
+                    return;
+                }
+                i = (i + 1) & mascara;
+            }
+            int j = i;
+            while (true) {
+                j = (j + 1) & mascara;
+                if (entradas[j] == VAZIO) {
+                    break;
+                }
+                int ideal = hashDaPosicao(entradas[j]) & mascara;
+                // A entrada em j pode ir para i se o lugar ideal dela não estiver entre i (exclusive) e j
+                boolean entreIeJ = i <= j ? (ideal > i && ideal <= j) : (ideal > i || ideal <= j);
+                if (!entreIeJ) {
+                    entradas[i] = entradas[j];
+                    i = j;
+                }
+            }
+            entradas[i] = VAZIO;
+            ocupadas--;
+        }
+
+        private void redimensionar() {
+            int[] novas = new int[entradas.length * 2];
+            Arrays.fill(novas, VAZIO);
+            for (int posicao : entradas) {
+                if (posicao != VAZIO) {
+                    colocar(novas, posicao);
+                }
+            }
+            entradas = novas;
+        }
+
+        private void colocar(int[] tabela, int posicao) {
+            int mascara = tabela.length - 1;
+            int i = hashDaPosicao(posicao) & mascara;
+            while (tabela[i] != VAZIO) {
+                i = (i + 1) & mascara;
+            }
+            tabela[i] = posicao;
+        }
+    }
+
+    // Chave long: o ID do produto ou o código da NF codificado
+    private final class TabelaNumerica extends Tabela {
+        private final boolean porCodigo;
+
+        TabelaNumerica(boolean porCodigo) {
+            this.porCodigo = porCodigo;
+        }
+
+        private long chave(int posicao) {
+            return porCodigo ? codigosNumericos[posicao] : ids[posicao];
+        }
+
+        @Override
+        int hashDaPosicao(int posicao) {
+            return espalhar(chave(posicao));
+        }
+
+        int buscar(long chave) {
+            int mascara = entradas.length - 1;
+            for (int i = espalhar(chave) & mascara; entradas[i] != VAZIO; i = (i + 1) & mascara) {
+                if (chave(entradas[i]) == chave) {
+                    return entradas[i];
+                }
+            }
+            return VAZIO;
+        }
+    }
+
+    // Chave texto: o SKU ou o código da NF não numérico
+    private final class TabelaTexto extends Tabela {
+        private final boolean porCodigoProduto;
+
+        TabelaTexto(boolean porCodigoProduto) {
+            this.porCodigoProduto = porCodigoProduto;
+        }
+
+        private String chave(int posicao) {
+            return porCodigoProduto ? codigosProduto[posicao] : codigosBarras[posicao];
+        }
+
+        @Override
+        int hashDaPosicao(int posicao) {
+            return espalhar(chave(posicao).hashCode());
+        }
+
+        int buscar(String chave) {
+            int mascara = entradas.length - 1;
+            for (int i = espalhar(chave.hashCode()) & mascara; entradas[i] != VAZIO; i = (i + 1) & mascara) {
+                if (chave.equals(chave(entradas[i]))) {
+                    return entradas[i];
+                }
+            }
+            return VAZIO;
+        }
+    }
+}
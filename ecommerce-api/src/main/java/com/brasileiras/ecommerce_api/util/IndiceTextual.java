@@ -0,0 +1,422 @@
+package com.brasileiras.ecommerce_api.util;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Índice invertido em memória para busca por palavras e trechos de palavras, sem diferenciar maiúsculas e acentos.
+ * <p>
+ * Os textos são normalizados ("Café Pilão" vira "cafe pilao") e quebrados em palavras. Cada palavra gera o
+ * início de palavra ("^c") e os trigramas com marcador de início ("^ca", "caf", "afe"), e cada grama aponta para
+ * uma lista crescente de números de documento em um array de int. Como o texto normalizado só tem letras e
+ * dígitos, o grama é codificado em um int e as listas ficam em um array indexado por esse código, sem mapa nem
+ * strings. Consultas de uma ou duas letras usam o início de palavra; as mais longas intersectam as listas dos
+ * seus trigramas, a partir da mais curta, e conferem os candidatos no texto normalizado.
+ * <p>
+ * Os resultados são ordenados por relevância: palavra igual ao termo, depois palavra começando pelo termo, depois
+ * termo no meio da palavra; no empate, o texto mais curto e então a ordem de indexação.
+ * <p>
+ * Reindexar ou remover um documento apenas o marca como removido; quando os removidos passam da metade,
+ * {@link #precisaCompactar()} indica que o índice deve ser reconstruído com {@link #compactar()}.
+ * A classe não é thread-safe: o chamador sincroniza leituras e alterações.
+ */
+public class IndiceTextual {
+
+    private static final String[] SEM_PALAVRAS = new String[0];
+    // Símbolos dos gramas: 0 completa o início de palavra de uma letra, 1-36 são dígitos e letras
+    private static final int SIMBOLOS = 38;
+    private static final int INICIO_PALAVRA = SIMBOLOS - 1;
+    private static final int TOTAL_GRAMAS = SIMBOLOS * SIMBOLOS * SIMBOLOS;
+    private static final int MINIMO_REMOVIDOS_PARA_COMPACTAR = 1024;
+
+    // Pontuação de um termo em um documento
+    private static final int EXATA = 3;
+    private static final int PREFIXO = 2;
+    private static final int TRECHO = 1;
+
+    private final Ocorrencias[] ocorrenciasPorGrama;
+    private final Map<Long, Integer> documentoPorId;
+    private long[] idPorDocumento;
+    private String[][] palavrasPorDocumento;
+    private int totalDocumentos;
+    private final BitSet removidos = new BitSet();
+    private int totalRemovidos;
+
+    public IndiceTextual() {
+        this(new Ocorrencias[TOTAL_GRAMAS], new HashMap<>(), new long[16], new String[16][], 0);
+    }
+
+    private IndiceTextual(Ocorrencias[] ocorrenciasPorGrama, Map<Long, Integer> documentoPorId,
+                          long[] idPorDocumento, String[][] palavrasPorDocumento, int totalDocumentos) {
+        this.ocorrenciasPorGrama = ocorrenciasPorGrama;
+        this.documentoPorId = documentoPorId;
+        this.idPorDocumento = idPorDocumento;
+        this.palavrasPorDocumento = palavrasPorDocumento;
+        this.totalDocumentos = totalDocumentos;
+    }
+
+    /**
+     * Página de resultados de uma busca.
+     *
+     * @param ids IDs dos documentos da página, em ordem de relevância.
+     * @param total Total de documentos encontrados.
+     */
+    public record Resultado(List<Long> ids, long total) {
+    }
+
+    /**
+     * Constrói o índice de uma vez, normalizando e gerando as listas em paralelo por blocos de documentos.
+     * Os blocos recebem faixas consecutivas de números de documento, então juntar as listas parciais na ordem
+     * dos blocos mantém cada lista crescente.
+     *
+     * @param ids IDs dos documentos (sem repetição).
+     * @param textos Texto de cada documento, na mesma posição do seu ID.
+     */
+    public static IndiceTextual construir(long[] ids, String[] textos) {
+        if (ids.length != textos.length) {
+            throw new IllegalArgumentException("Quantidade de IDs e de textos deve ser a mesma.");
+        }
+        int total = ids.length;
+        String[][] palavrasPorDocumento = new String[Math.max(total, 16)][];
+        int tamanhoBloco = Math.max(1024, total / (Runtime.getRuntime().availableProcessors() * 4) + 1);
+        int blocos = (total + tamanhoBloco - 1) / tamanhoBloco;
+
+        List<Ocorrencias[]> parciais = IntStream.range(0, blocos).parallel()
+                .mapToObj(bloco -> {
+                    Ocorrencias[] parcial = new Ocorrencias[TOTAL_GRAMAS];
+                    int fim = Math.min(total, (bloco + 1) * tamanhoBloco);
+                    for (int documento = bloco * tamanhoBloco; documento < fim; documento++) {
+                        String[] palavras = palavras(textos[documento]);
+                        palavrasPorDocumento[documento] = palavras;
+                        adicionarGramas(parcial, documento, palavras);
+                    }
+                    return parcial;
+                })
+                .toList();
+
+        Ocorrencias[] ocorrenciasPorGrama = new Ocorrencias[TOTAL_GRAMAS];
+        for (Ocorrencias[] parcial : parciais) {
+            for (int grama = 0; grama < TOTAL_GRAMAS; grama++) {
+                if (parcial[grama] == null) {
+                    continue;
+                }
+                if (ocorrenciasPorGrama[grama] == null) {
+                    ocorrenciasPorGrama[grama] = parcial[grama];
+                } else {
+                    ocorrenciasPorGrama[grama].adicionarTodas(parcial[grama]);
+                }
+            }
+        }
+        Map<Long, Integer> documentoPorId = new HashMap<>(Math.max(16, (int) (total / 0.75f) + 1));
+        for (int documento = 0; documento < total; documento++) {
+            documentoPorId.put(ids[documento], documento);
+        }
+        return new IndiceTextual(ocorrenciasPorGrama, documentoPorId,
+                Arrays.copyOf(ids, Math.max(total, 16)), palavrasPorDocumento, total);
+    }
+
+    /**
+     * Indexa o documento, substituindo o texto anterior se ele já estiver no índice.
+     */
+    public void indexar(long id, String texto) {
+        remover(id);
+        if (totalDocumentos == idPorDocumento.length) {
+            int novoTamanho = totalDocumentos * 2;
+            idPorDocumento = Arrays.copyOf(idPorDocumento, novoTamanho);
+            palavrasPorDocumento = Arrays.copyOf(palavrasPorDocumento, novoTamanho);
+        }
+        int documento = totalDocumentos++;
+        String[] palavras = palavras(texto);
+        idPorDocumento[documento] = id;
+        palavrasPorDocumento[documento] = palavras;
+        documentoPorId.put(id, documento);
+        adicionarGramas(ocorrenciasPorGrama, documento, palavras);
+    }
+
+    public void remover(long id) {
+        Integer documento = documentoPorId.remove(id);
+        if (documento != null) {
+            removidos.set(documento);
+            palavrasPorDocumento[documento] = SEM_PALAVRAS;
+            totalRemovidos++;
+        }
+    }
+
+    public int tamanho() {
+        return documentoPorId.size();
+    }
+
+    public boolean precisaCompactar() {
+        return totalRemovidos >= MINIMO_REMOVIDOS_PARA_COMPACTAR && totalRemovidos * 2 > totalDocumentos;
+    }
+
+    /**
+     * @return Novo índice só com os documentos vigentes (as listas não guardam os removidos).
+     */
+    public IndiceTextual compactar() {
+        long[] ids = new long[documentoPorId.size()];
+        String[] textos = new String[ids.length];
+        int posicao = 0;
+        for (int documento = 0; documento < totalDocumentos; documento++) {
+            if (!removidos.get(documento)) {
+                ids[posicao] = idPorDocumento[documento];
+                textos[posicao++] = String.join(" ", palavrasPorDocumento[documento]);
+            }
+        }
+        return construir(ids, textos);
+    }
+
+    /**
+     * Busca os documentos que contêm todas as palavras da consulta (como palavra inteira, início ou trecho).
+     *
+     * @param inicio Posição do primeiro resultado da página.
+     * @param quantidade Tamanho da página.
+     */
+    public Resultado buscar(String consulta, long inicio, int quantidade) {
+        String[] termos = Arrays.stream(palavras(consulta)).distinct().toArray(String[]::new);
+        if (termos.length == 0) {
+            return new Resultado(List.of(), 0);
+        }
+        int[] candidatos = candidatos(termos);
+        if (candidatos.length == 0) {
+            return new Resultado(List.of(), 0);
+        }
+
+        // Mantém só os melhores (inicio + quantidade); a chave ordena por pontuação, tamanho do texto e documento
+        long limite = Math.min(inicio + quantidade, Integer.MAX_VALUE);
+        PriorityQueue<Long> melhores = new PriorityQueue<>(Comparator.reverseOrder());
+        long total = 0;
+        for (int documento : candidatos) {
+            if (removidos.get(documento)) {
+                continue;
+            }
+            String[] palavras = palavrasPorDocumento[documento];
+            int pontuacao = 0;
+            for (String termo : termos) {
+                int pontuacaoTermo = pontuacao(palavras, termo);
+                if (pontuacaoTermo == 0) {
+                    pontuacao = 0;
+                    break;
+                }
+                pontuacao += pontuacaoTermo;
+            }
+            if (pontuacao == 0) {
+                continue;
+            }
+            total++;
+            if (limite == 0) {
+                continue;
+            }
+            long chave = chaveOrdenacao(documento, pontuacao, palavras);
+            if (melhores.size() < limite) {
+                melhores.add(chave);
+            } else if (chave < melhores.peek()) {
+                melhores.poll();
+                melhores.add(chave);
+            }
+        }
+
+        long[] ordenados = melhores.stream().mapToLong(Long::longValue).sorted().toArray();
+        List<Long> ids = new ArrayList<>();
+        for (long i = inicio; i < ordenados.length; i++) {
+            ids.add(idPorDocumento[(int) ordenados[(int) i]]); // Os 32 bits baixos da chave são o documento
+        }
+        return new Resultado(ids, total);
+    }
+
+    /**
+     * Texto em minúsculas, sem acentos (inclusive cedilha), com as palavras (letras e dígitos) separadas por um espaço.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        StringBuilder normalizado = new StringBuilder(texto.length());
+        boolean separar = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char caractere = texto.charAt(i);
+            if (caractere < 0x80) {
+                separar = anexar(normalizado, caractere, separar);
+                continue;
+            }
+            // Fora do ASCII decompõe o caractere ("ã" em "a" + til, "ª" em "a") e descarta as marcas
+            String decomposto = Normalizer.normalize(String.valueOf(caractere), Normalizer.Form.NFKD);
+            for (int j = 0; j < decomposto.length(); j++) {
+                char parte = decomposto.charAt(j);
+                int tipo = Character.getType(parte);
+                if (tipo != Character.NON_SPACING_MARK && tipo != Character.COMBINING_SPACING_MARK
+                        && tipo != Character.ENCLOSING_MARK) {
+                    separar = anexar(normalizado, parte, separar);
+                }
+            }
+        }
+        return normalizado.toString();
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    // Anexa letra ou dígito ASCII em minúscula; qualquer outro caractere só marca o fim da palavra
+    private static boolean anexar(StringBuilder normalizado, char caractere, boolean separar) {
+        char minuscula = caractere >= 'A' && caractere <= 'Z' ? (char) (caractere + ('a' - 'A')) : caractere;
+        if ((minuscula < 'a' || minuscula > 'z') && (minuscula < '0' || minuscula > '9')) {
+            return true;
+        }
+        if (separar && !normalizado.isEmpty()) {
+            normalizado.append(' ');
+        }
+        normalizado.append(minuscula);
+        return false;
+    }
+
+    private static String[] palavras(String texto) {
+        String normalizado = normalizar(texto);
+        return normalizado.isEmpty() ? SEM_PALAVRAS : normalizado.split(" ");
+    }
+
+    private static void adicionarGramas(Ocorrencias[] destino, int documento, String[] palavras) {
+        for (String palavra : palavras) {
+            int anterior = INICIO_PALAVRA;
+            int atual = simbolo(palavra.charAt(0));
+            adicionar(destino, grama(anterior, atual, 0), documento);
+            for (int i = 1; i < palavra.length(); i++) {
+                int proximo = simbolo(palavra.charAt(i));
+                adicionar(destino, grama(anterior, atual, proximo), documento);
+                anterior = atual;
+                atual = proximo;
+            }
+        }
+    }
+
+    private static void adicionar(Ocorrencias[] destino, int grama, int documento) {
+        Ocorrencias ocorrencias = destino[grama];
+        if (ocorrencias == null) {
+            ocorrencias = new Ocorrencias();
+            destino[grama] = ocorrencias;
+        }
+        ocorrencias.adicionar(documento);
+    }
+
+    private static int grama(int primeiro, int segundo, int terceiro) {
+        return (primeiro * SIMBOLOS + segundo) * SIMBOLOS + terceiro;
+    }
+
+    // Texto já normalizado: só dígitos e letras minúsculas sem acento
+    private static int simbolo(char caractere) {
+        return caractere <= '9' ? caractere - '0' + 1 : caractere - 'a' + 11;
+    }
+
+    // Documentos que têm todos os gramas de todos os termos (ainda sem conferir a posição dos trigramas)
+    private int[] candidatos(String[] termos) {
+        Set<Integer> gramas = new HashSet<>();
+        for (String termo : termos) {
+            if (termo.length() < 3) {
+                int segundo = termo.length() == 2 ? simbolo(termo.charAt(1)) : 0;
+                gramas.add(grama(INICIO_PALAVRA, simbolo(termo.charAt(0)), segundo));
+            } else {
+                for (int i = 0; i + 3 <= termo.length(); i++) {
+                    gramas.add(grama(simbolo(termo.charAt(i)), simbolo(termo.charAt(i + 1)), simbolo(termo.charAt(i + 2))));
+                }
+            }
+        }
+        List<Ocorrencias> listas = new ArrayList<>(gramas.size());
+        for (int grama : gramas) {
+            Ocorrencias ocorrencias = ocorrenciasPorGrama[grama];
+            if (ocorrencias == null) {
+                return new int[0];
+            }
+            listas.add(ocorrencias);
+        }
+        listas.sort(Comparator.comparingInt(ocorrencias -> ocorrencias.tamanho));
+
+        Ocorrencias menor = listas.get(0);
+        int[] resultado = Arrays.copyOf(menor.documentos, menor.tamanho);
+        int tamanho = resultado.length;
+        for (int i = 1; i < listas.size() && tamanho > 0; i++) {
+            tamanho = intersectar(resultado, tamanho, listas.get(i));
+        }
+        return Arrays.copyOf(resultado, tamanho);
+    }
+
+    // Intersecta no próprio array; com a outra lista muito maior, salta por busca binária em vez de percorrê-la
+    private static int intersectar(int[] documentos, int tamanho, Ocorrencias outra) {
+        int[] outros = outra.documentos;
+        int tamanhoOutros = outra.tamanho;
+        boolean saltar = tamanhoOutros > tamanho * 8L;
+        int escrita = 0;
+        int j = 0;
+        for (int i = 0; i < tamanho && j < tamanhoOutros; i++) {
+            int documento = documentos[i];
+            if (saltar) {
+                int posicao = Arrays.binarySearch(outros, j, tamanhoOutros, documento);
+                if (posicao >= 0) {
+                    documentos[escrita++] = documento;
+                    j = posicao + 1;
+                } else {
+                    j = -posicao - 1;
+                }
+            } else {
+                while (j < tamanhoOutros && outros[j] < documento) {
+                    j++;
+                }
+                if (j < tamanhoOutros && outros[j] == documento) {
+                    documentos[escrita++] = documento;
+                    j++;
+                }
+            }
+        }
+        return escrita;
+    }
+
+    private static int pontuacao(String[] palavras, String termo) {
+        int melhor = 0;
+        for (String palavra : palavras) {
+            if (palavra.equals(termo)) {
+                return EXATA;
+            }
+            if (palavra.startsWith(termo)) {
+                melhor = PREFIXO;
+            } else if (melhor == 0 && palavra.contains(termo)) {
+                melhor = TRECHO;
+            }
+        }
+        return melhor;
+    }
+
+    // Menor chave = mais relevante: pontuação (invertida), tamanho do texto e número do documento
+    private static long chaveOrdenacao(int documento, int pontuacao, String[] palavras) {
+        int tamanhoTexto = palavras.length - 1;
+        for (String palavra : palavras) {
+            tamanhoTexto += palavra.length();
+        }
+        long pontuacaoInvertida = 0xFFFF - Math.min(pontuacao, 0xFFFF);
+        return (pontuacaoInvertida << 47) | ((long) Math.min(tamanhoTexto, 0x7FFF) << 32) | documento;
+    }
+
+    /**
+     * Lista crescente de números de documento de um grama.
+     */
+    private static final class Ocorrencias {
+        private int[] documentos = new int[2];
+        private int tamanho;
+
+        void adicionar(int documento) {
+            // Os documentos chegam em ordem; o mesmo grama repetido no documento entra uma vez
+            if (tamanho > 0 && documentos[tamanho - 1] == documento) {
+                return;
+            }
+            if (tamanho == documentos.length) {
+                documentos = Arrays.copyOf(documentos, tamanho * 2);
+            }
+            documentos[tamanho++] = documento;
+        }
+
+        void adicionarTodas(Ocorrencias outras) {
+            if (tamanho + outras.tamanho > documentos.length) {
+                documentos = Arrays.copyOf(documentos, Math.max(tamanho + outras.tamanho, tamanho * 2));
+            }
+            System.arraycopy(outras.documentos, 0, documentos, tamanho, outras.tamanho);
+            tamanho += outras.tamanho;
+        }
+    }
+}
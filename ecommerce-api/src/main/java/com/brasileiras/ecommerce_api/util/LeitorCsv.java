@@ -0,0 +1,135 @@
+package com.brasileiras.ecommerce_api.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180) que devolve um registro por vez, sem carregar o arquivo.
+ * <p>
+ * Campos entre aspas podem conter o separador, quebras de linha e aspas duplicadas ({@code ""}).
+ * Aceita fim de linha {@code \n} ou {@code \r\n}, ignora linhas em branco e o BOM do UTF-8 no início.
+ * Um registro maior que o limite de caracteres (sem contar o fim de linha) é recusado, para que um arquivo
+ * malformado (aspas sem fechamento, por exemplo) não faça o leitor acumular o resto do arquivo em memória.
+ * Lê um caractere por vez: o chamador deve passar um {@link java.io.BufferedReader}.
+ * A classe não é thread-safe e não fecha o {@link Reader}.
+ */
+public class LeitorCsv {
+
+    private static final int FIM = -1;
+
+    private final Reader origem;
+    private final char separador;
+    private final int maxCaracteresRegistro;
+    private final StringBuilder campo = new StringBuilder();
+    private int proximo = -2; // Caractere lido antecipadamente (-2: nenhum)
+    private long linhaAtual = 1;
+    private long linhaDoRegistro;
+    private int caracteresDoRegistro;
+    private boolean inicio = true;
+
+    public LeitorCsv(Reader origem, char separador, int maxCaracteresRegistro) {
+        this.origem = origem;
+        this.separador = separador;
+        this.maxCaracteresRegistro = maxCaracteresRegistro;
+    }
+
+    /**
+     * Lê o próximo registro.
+     *
+     * @return Campos do registro, ou null no fim do arquivo.
+     * @throws IOException se a leitura falhar.
+     * @throws IllegalStateException se o registro passar do limite de caracteres.
+     */
+    public List<String> proximoRegistro() throws IOException {
+        int c = ler();
+        while (c == '\r' || c == '\n') { // Linhas em branco
+            c = ler();
+        }
+        if (c == FIM) {
+            return null;
+        }
+        linhaDoRegistro = linhaAtual;
+        List<String> campos = new ArrayList<>();
+        caracteresDoRegistro = 0;
+        boolean entreAspas = false;
+        campo.setLength(0);
+        while (true) {
+            if (entreAspas) {
+                if (c == FIM) {
+                    throw new IllegalStateException("Aspas sem fechamento no registro da linha " + linhaDoRegistro + ".");
+                }
+                contarCaractere();
+                if (c == '"') {
+                    c = ler();
+                    if (c != '"') { // Aspas duplicadas são uma aspa literal
+                        entreAspas = false;
+                        continue;
+                    }
+                    contarCaractere();
+                }
+                campo.append((char) c);
+            } else if (c == '\r' || c == '\n' || c == FIM) { // O fim de linha não conta no limite
+                campos.add(campo.toString());
+                if (c == '\r') {
+                    c = ler();
+                    if (c != '\n') {
+                        devolver(c);
+                    }
+                }
+                return campos;
+            } else {
+                contarCaractere();
+                if (c == '"' && campo.isEmpty()) {
+                    entreAspas = true;
+                } else if (c == separador) {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else {
+                    campo.append((char) c);
+                }
+            }
+            c = ler();
+        }
+    }
+
+    /**
+     * @return Número da linha do arquivo em que começa o último registro lido (a primeira linha é 1).
+     */
+    public long linhaDoRegistro() {
+        return linhaDoRegistro;
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private int ler() throws IOException {
+        if (proximo != -2) {
+            int c = proximo;
+            proximo = -2;
+            return c;
+        }
+        int c = origem.read();
+        if (inicio) {
+            inicio = false;
+            if (c == '\uFEFF') {
+                c = origem.read();
+            }
+        }
+        if (c == '\n') {
+            linhaAtual++;
+        }
+        return c;
+    }
+
+    private void contarCaractere() {
+        if (++caracteresDoRegistro > maxCaracteresRegistro) {
+            throw new IllegalStateException("O registro da linha " + linhaDoRegistro
+                    + " passa de " + maxCaracteresRegistro + " caracteres.");
+        }
+    }
+
+    private void devolver(int c) {
+        proximo = c;
+    }
+}
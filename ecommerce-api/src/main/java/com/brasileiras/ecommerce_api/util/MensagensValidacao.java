@@ -0,0 +1,33 @@
+package com.brasileiras.ecommerce_api.util;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Validação de itens de operações em lote, em que cada item inválido recebe a própria mensagem de erro
+ * em vez de recusar o lote inteiro.
+ */
+public final class MensagensValidacao {
+
+    private MensagensValidacao() {
+    }
+
+    /**
+     * Valida o objeto pelas anotações de Bean Validation.
+     *
+     * @return As violações no formato "campo: mensagem", ordenadas e separadas por "; ", ou null se o objeto for válido.
+     */
+    public static String validar(Validator validator, Object objeto) {
+        Set<ConstraintViolation<Object>> violacoes = validator.validate(objeto);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+        return violacoes.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
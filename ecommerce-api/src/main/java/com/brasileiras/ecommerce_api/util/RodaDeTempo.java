@@ -0,0 +1,96 @@
+package com.brasileiras.ecommerce_api.util;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Roda de tempo (hashed timing wheel) para agendar expirações em grande quantidade.
+ * <p>
+ * O tempo é dividido em "ticks" de duração fixa e cada tick cai em um dos slots da roda
+ * (tick % quantidadeDeSlots). Agendar é O(1) e avançar a roda custa apenas o número de
+ * itens dos slots percorridos, independentemente de quantos itens estão agendados no total.
+ * Itens cujo prazo está várias voltas à frente permanecem no slot até a volta correta.
+ * <p>
+ * {@link #agendar} pode ser chamado por várias threads; {@link #avancar} deve ser chamado
+ * por uma única thread (o agendador).
+ *
+ * @param <T> Tipo do item agendado (ex.: ID do pedido).
+ */
+public class RodaDeTempo<T> {
+
+    private record Entrada<T>(T item, long tickLimite) {
+    }
+
+    private final long duracaoTickMillis;
+    private final Queue<Entrada<T>>[] slots;
+    private volatile long ultimoTickProcessado;
+
+    @SuppressWarnings("unchecked")
+    public RodaDeTempo(int quantidadeDeSlots, long duracaoTickMillis, Instant inicio) {
+        if (quantidadeDeSlots <= 0 || duracaoTickMillis <= 0) {
+            throw new IllegalArgumentException("Quantidade de slots e duração do tick devem ser positivas.");
+        }
+        this.duracaoTickMillis = duracaoTickMillis;
+        this.slots = new Queue[quantidadeDeSlots];
+        for (int i = 0; i < quantidadeDeSlots; i++) {
+            this.slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.ultimoTickProcessado = tick(inicio);
+    }
+
+    /**
+     * Agenda um item para expirar no instante informado.
+     * Itens com prazo já vencido são devolvidos no próximo avanço da roda.
+     */
+    public void agendar(T item, Instant expiraEm) {
+        long tickLimite = Math.max(tick(expiraEm), ultimoTickProcessado + 1);
+        slots[indice(tickLimite)].add(new Entrada<>(item, tickLimite));
+    }
+
+    /**
+     * Avança a roda até o instante informado e devolve os itens cujo prazo venceu.
+     */
+    public List<T> avancar(Instant agora) {
+        long tickAtual = tick(agora);
+        List<T> vencidos = new ArrayList<>();
+        // Se ficou parada por mais de uma volta, basta percorrer cada slot uma única vez
+        long primeiroTick = Math.max(ultimoTickProcessado + 1, tickAtual - slots.length + 1);
+        for (long t = primeiroTick; t <= tickAtual; t++) {
+            Iterator<Entrada<T>> it = slots[indice(t)].iterator();
+            while (it.hasNext()) {
+                Entrada<T> entrada = it.next();
+                if (entrada.tickLimite() <= tickAtual) {
+                    vencidos.add(entrada.item());
+                    it.remove();
+                }
+            }
+        }
+        if (tickAtual > ultimoTickProcessado) {
+            ultimoTickProcessado = tickAtual;
+        }
+        return vencidos;
+    }
+
+    /**
+     * @return Quantidade de itens agendados (custo O(n), usar apenas para diagnóstico).
+     */
+    public int tamanho() {
+        int total = 0;
+        for (Queue<Entrada<T>> slot : slots) {
+            total += slot.size();
+        }
+        return total;
+    }
+
+    private long tick(Instant instante) {
+        return Math.floorDiv(instante.toEpochMilli(), duracaoTickMillis);
+    }
+
+    private int indice(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.length);
+    }
+}
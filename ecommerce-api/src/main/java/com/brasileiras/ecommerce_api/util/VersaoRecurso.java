@@ -0,0 +1,25 @@
+package com.brasileiras.ecommerce_api.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validadores de cache de uma representação para GET condicional (If-None-Match / If-Modified-Since).
+ * <p>
+ * O ETag é montado com as versões de todas as linhas cujos dados aparecem na resposta, então muda
+ * sempre que a representação muda. A última modificação é só a da linha principal e serve apenas de
+ * apoio: quando o cliente envia If-None-Match, o ETag prevalece (RFC 9110) e If-Modified-Since é ignorado.
+ *
+ * @param etag Valor do ETag, sem aspas.
+ * @param ultimaModificacao Data da última alteração da linha principal (nula em linhas anteriores à coluna).
+ */
+public record VersaoRecurso(String etag, LocalDateTime ultimaModificacao) {
+
+    /**
+     * @return A última modificação em milissegundos (época), ou -1 quando desconhecida.
+     */
+    public long ultimaModificacaoMillis() {
+        return ultimaModificacao == null ? -1
+                : ultimaModificacao.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,9 +1,9 @@
 package com.brasileiras.ecommerce_api;
 
+import com.brasileiras.ecommerce_api.suporte.TesteIntegracao;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@TesteIntegracao
 class EcommerceApiApplicationTests {
 
 	@Test
@@ -0,0 +1,59 @@
+package com.brasileiras.ecommerce_api.benchmark;
+
+import com.brasileiras.ecommerce_api.util.IndiceCodigoBarras;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo de uma leitura no índice de códigos de barras com 1 milhão de produtos (EAN-13 e SKU).
+ * Não é executado pelo "mvn test": rode o main() pela IDE após "./mvnw test-compile".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndiceCodigoBarrasBenchmark {
+
+    private static final int PRODUTOS = 1_000_000;
+
+    private IndiceCodigoBarras indice;
+    private String[] eans;
+    private String[] skus;
+
+    @Setup
+    public void carregar() {
+        indice = new IndiceCodigoBarras(PRODUTOS);
+        eans = new String[PRODUTOS];
+        skus = new String[PRODUTOS];
+        for (int i = 0; i < PRODUTOS; i++) {
+            eans[i] = String.valueOf(7_890_000_000_000L + i * 7L);
+            skus[i] = "SKU-" + i;
+            indice.gravar(new IndiceCodigoBarras.Item(i + 1, skus[i], eans[i], "Produto " + i, 990, 10));
+        }
+    }
+
+    @Benchmark
+    public IndiceCodigoBarras.Item porEan() {
+        return indice.buscar(eans[ThreadLocalRandom.current().nextInt(PRODUTOS)]);
+    }
+
+    @Benchmark
+    public IndiceCodigoBarras.Item porSku() {
+        return indice.buscar(skus[ThreadLocalRandom.current().nextInt(PRODUTOS)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opcoes = new OptionsBuilder()
+                .include(IndiceCodigoBarrasBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opcoes).run();
+    }
+}
@@ -0,0 +1,58 @@
+package com.brasileiras.ecommerce_api.benchmark;
+
+import com.brasileiras.ecommerce_api.service.NumeroPedidoGenerator;
+import com.brasileiras.ecommerce_api.service.SnowflakeNumeroPedidoGenerator;
+import com.brasileiras.ecommerce_api.service.UuidNumeroPedidoGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o gerador Snowflake com o gerador original baseado em UUID.
+ * Não é executado pelo "mvn test": rode o main() pela IDE após "./mvnw test-compile".
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NumeroPedidoGeneratorBenchmark {
+
+    private final NumeroPedidoGenerator snowflake = new SnowflakeNumeroPedidoGenerator(1);
+    private final NumeroPedidoGenerator uuid = new UuidNumeroPedidoGenerator();
+
+    @Benchmark
+    public String snowflake() {
+        return snowflake.gerar();
+    }
+
+    @Benchmark
+    public String uuid() {
+        return uuid.gerar();
+    }
+
+    // Mesmo cenário com 4 threads disputando o gerador (checkout em pico)
+    @Benchmark
+    @Threads(4)
+    public String snowflakeConcorrente() {
+        return snowflake.gerar();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String uuidConcorrente() {
+        return uuid.gerar();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opcoes = new OptionsBuilder()
+                .include(NumeroPedidoGeneratorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opcoes).run();
+    }
+}
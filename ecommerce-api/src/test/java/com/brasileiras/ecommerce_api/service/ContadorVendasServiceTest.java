@@ -0,0 +1,67 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.*;
+import com.brasileiras.ecommerce_api.enums.StatusPedido;
+import com.brasileiras.ecommerce_api.suporte.DadosDeTeste;
+import com.brasileiras.ecommerce_api.suporte.TesteIntegracao;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static com.brasileiras.ecommerce_api.suporte.DadosDeTeste.item;
+import static com.brasileiras.ecommerce_api.suporte.DadosDeTeste.pedido;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Os contadores mantidos na aprovação, no cancelamento e na exclusão de pedidos devem ser iguais
+ * aos recalculados pela reconstrução a partir dos itens de pedido. Com faixas de dois itens
+ * (ver {@link TesteIntegracao}), poucos pedidos já passam por várias faixas.
+ */
+@TesteIntegracao
+class ContadorVendasServiceTest {
+
+    @Autowired
+    private ContadorVendasService contadorVendasService;
+    @Autowired
+    private PedidoService pedidoService;
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Test
+    void contadoresIncrementaisConferemComAReconstrucao() {
+        FornecedorResponseDTO fornecedor = dados.criarFornecedor();
+        ClienteResponseDTO cliente = dados.criarCliente();
+        Long cafe = dados.criarProduto(fornecedor.id()).id();
+        Long acucar = dados.criarProduto(fornecedor.id()).id();
+
+        List<Long> pedidos = List.of(
+                criarPedido(cliente, cafe, 1, acucar, 2),
+                criarPedido(cliente, cafe, 3, acucar, 1),
+                criarPedido(cliente, cafe, 5, acucar, 4),
+                criarPedido(cliente, cafe, 7, acucar, 8),
+                criarPedido(cliente, cafe, 9, acucar, 16));
+        pedidoService.atualizarStatusPedido(pedidos.get(0), StatusPedido.PAGAMENTO_APROVADO);
+        pedidoService.atualizarStatusEmLote(pedidos.subList(1, 4), StatusPedido.PAGAMENTO_APROVADO);
+        pedidoService.atualizarStatusPedido(pedidos.get(1), StatusPedido.CANCELADO);
+        pedidoService.atualizarStatusEmLote(List.of(pedidos.get(2)), StatusPedido.CANCELADO);
+        pedidoService.deletarPedido(pedidos.get(3));
+        pedidoService.atualizarStatusPedido(pedidos.get(4), StatusPedido.CANCELADO); // Sem pagamento: não conta
+
+        // Só o primeiro pedido segue como venda
+        assertThat(contadorVendasService.consultar(cafe, null, null).quantidadeVendida()).isEqualTo(1);
+        assertThat(contadorVendasService.consultar(acucar, null, null).quantidadeVendida()).isEqualTo(2);
+        VendasProdutoResponseDTO antes = contadorVendasService.consultar(acucar, null, null);
+
+        ReconstrucaoVendasResponseDTO reconstrucao = contadorVendasService.reconstruir();
+
+        assertThat(reconstrucao.faixas()).isGreaterThan(1);
+        assertThat(contadorVendasService.consultar(cafe, null, null).quantidadeVendida()).isEqualTo(1);
+        assertThat(contadorVendasService.consultar(acucar, null, null)).isEqualTo(antes);
+        assertThat(antes.vendasPorDia()).hasSize(1);
+    }
+
+    private Long criarPedido(ClienteResponseDTO cliente, Long produtoA, int quantidadeA, Long produtoB, int quantidadeB) {
+        return pedidoService.criarPedido(pedido(cliente, item(produtoA, quantidadeA), item(produtoB, quantidadeB))).id();
+    }
+}
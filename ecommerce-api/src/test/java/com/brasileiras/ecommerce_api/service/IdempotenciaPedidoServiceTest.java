@@ -0,0 +1,54 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.*;
+import com.brasileiras.ecommerce_api.enums.FormaPagamento;
+import com.brasileiras.ecommerce_api.exception.BusinessRuleException;
+import com.brasileiras.ecommerce_api.suporte.DadosDeTeste;
+import com.brasileiras.ecommerce_api.suporte.TesteIntegracao;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.brasileiras.ecommerce_api.suporte.DadosDeTeste.item;
+import static com.brasileiras.ecommerce_api.suporte.DadosDeTeste.pedido;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A mesma requisição repetida com a mesma Idempotency-Key deve ser reconhecida como repetição
+ * mesmo que as formas de pagamento cheguem em outra ordem.
+ */
+@TesteIntegracao
+class IdempotenciaPedidoServiceTest {
+
+    @Autowired
+    private IdempotenciaPedidoService idempotenciaPedidoService;
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Test
+    void ordemDasFormasDePagamentoNaoMudaORegistroDaChave() {
+        FornecedorResponseDTO fornecedor = dados.criarFornecedor();
+        ClienteResponseDTO cliente = dados.criarCliente();
+        Long produtoId = dados.criarProduto(fornecedor.id()).id();
+
+        // LinkedHashSet: a serialização segue a ordem de inserção
+        Set<FormaPagamento> pixPrimeiro = new LinkedHashSet<>(List.of(FormaPagamento.PIX, FormaPagamento.CARTAO_CREDITO));
+        Set<FormaPagamento> cartaoPrimeiro = new LinkedHashSet<>(List.of(FormaPagamento.CARTAO_CREDITO, FormaPagamento.PIX));
+
+        IdempotenciaPedidoService.Resultado original = idempotenciaPedidoService.criarPedido("chave-ordem-pagamentos",
+                pedido(cliente, pixPrimeiro, item(produtoId, 2)));
+        IdempotenciaPedidoService.Resultado repetido = idempotenciaPedidoService.criarPedido("chave-ordem-pagamentos",
+                pedido(cliente, cartaoPrimeiro, item(produtoId, 2)));
+
+        assertThat(original.repetida()).isFalse();
+        assertThat(repetido.repetida()).isTrue();
+        assertThat(repetido.pedido().id()).isEqualTo(original.pedido().id());
+        assertThatThrownBy(() -> idempotenciaPedidoService.criarPedido("chave-ordem-pagamentos",
+                pedido(cliente, cartaoPrimeiro, item(produtoId, 3))))
+                .isInstanceOf(BusinessRuleException.class);
+    }
+}
@@ -0,0 +1,130 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.*;
+import com.brasileiras.ecommerce_api.enums.SituacaoLinhaImportacao;
+import com.brasileiras.ecommerce_api.model.Produto;
+import com.brasileiras.ecommerce_api.repository.ProdutoRepository;
+import com.brasileiras.ecommerce_api.suporte.DadosDeTeste;
+import com.brasileiras.ecommerce_api.suporte.TesteIntegracao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static com.brasileiras.ecommerce_api.suporte.DadosDeTeste.item;
+import static com.brasileiras.ecommerce_api.suporte.DadosDeTeste.pedido;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Importação de produtos por CSV: o resultado de cada linha e a nova tentativa quando outro cadastro usa um SKU
+ * que os filtros da importação não conheciam.
+ */
+@TesteIntegracao
+class ImportacaoProdutoServiceTest {
+
+    private static final String CABECALHO =
+            "codigoBarrasProduto;descricao;codigoBarras;valorCompra;valorVenda;estoque;pontoReposicao;fornecedorId\n";
+
+    @Autowired
+    private ImportacaoProdutoService importacaoProdutoService;
+    @Autowired
+    private PedidoService pedidoService;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Test
+    void cadaLinhaRecebeOProprioResultado() throws Exception {
+        FornecedorResponseDTO fornecedor = dados.criarFornecedor();
+        ClienteResponseDTO cliente = dados.criarCliente();
+        ProdutoResponseDTO existente = dados.criarProduto(fornecedor.id(), null, "10.00", 10);
+        ProdutoResponseDTO outro = dados.criarProduto(fornecedor.id(), null, "10.00", 10);
+        ProdutoResponseDTO reservado = dados.criarProduto(fornecedor.id(), null, "10.00", 10);
+        pedidoService.criarPedido(pedido(cliente, item(reservado.id(), 4)));
+        String novo = "IMP-" + DadosDeTeste.numero();
+        String codigoBarrasNovo = String.format("780%010d", DadosDeTeste.numero());
+        // Criado por outro cadastro depois de montados os filtros da importação, antes de o lote ser gravado
+        AtomicReference<ProdutoResponseDTO> concorrente = new AtomicReference<>();
+        long f = fornecedor.id();
+
+        List<ResultadoImportacaoProdutoDTO> resultados = importar(() -> {
+            concorrente.set(dados.criarProduto(fornecedor.id(), null, "3.00", 7));
+            String sku = concorrente.get().codigoBarrasProduto();
+            return existente.codigoBarrasProduto() + ";Descrição importada;" + existente.codigoBarras() + ";5,00;11,90;;0;" + f + "\n"
+                    + novo + ";Primeira versão;" + codigoBarrasNovo + ";1.00;2.00;5;;" + f + "\n"
+                    + "IMP-INVALIDO;Preço inválido;7800000000000;1.00;abc;5;;" + f + "\n"
+                    + novo + ";\"Versão final; com separador\";" + codigoBarrasNovo + ";1.00;2.50;6;;" + f + "\n"
+                    + sku + ";Concorrente importado;" + concorrente.get().codigoBarras() + ";3.00;3.50;;;" + f + "\n"
+                    + "IMP-" + DadosDeTeste.numero() + ";Código de outro;" + outro.codigoBarras() + ";1.00;2.00;1;;" + f + "\n"
+                    + reservado.codigoBarrasProduto() + ";Abaixo do reservado;" + reservado.codigoBarras() + ";1.00;2.00;3;;" + f + "\n";
+        });
+
+        Long idNovo = produtoRepository.findIdsByCodigoBarrasProdutoIn(List.of(novo)).stream()
+                .map(linha -> (Long) linha[0]).findFirst().orElseThrow();
+        assertThat(resultados)
+                .extracting(ResultadoImportacaoProdutoDTO::linha, ResultadoImportacaoProdutoDTO::situacao,
+                        ResultadoImportacaoProdutoDTO::produtoId, ResultadoImportacaoProdutoDTO::erro)
+                .containsExactly(
+                        tuple(2L, SituacaoLinhaImportacao.ATUALIZADO, existente.id(), null),
+                        tuple(3L, SituacaoLinhaImportacao.IGNORADO, null, "SKU repetido na linha 5; vale a última ocorrência."),
+                        tuple(4L, SituacaoLinhaImportacao.REJEITADO, null, "valorVenda: valor inválido 'abc'."),
+                        tuple(5L, SituacaoLinhaImportacao.CRIADO, idNovo, null),
+                        tuple(6L, SituacaoLinhaImportacao.ATUALIZADO, concorrente.get().id(), null),
+                        tuple(7L, SituacaoLinhaImportacao.REJEITADO, null,
+                                "Já existe outro produto com o código de barras da NF: " + outro.codigoBarras()),
+                        tuple(8L, SituacaoLinhaImportacao.REJEITADO, null,
+                                "O estoque informado é menor que o reservado por pedidos em aberto."));
+
+        Produto existenteAtual = produtoRepository.findById(existente.id()).orElseThrow();
+        assertThat(existenteAtual.getDescricao()).isEqualTo("Descrição importada");
+        assertThat(existenteAtual.getValorVenda()).isEqualByComparingTo("11.90");
+        assertThat(existenteAtual.getEstoque()).isEqualTo(10); // Estoque em branco mantém o atual
+        Produto novoAtual = produtoRepository.findById(idNovo).orElseThrow();
+        assertThat(novoAtual.getDescricao()).isEqualTo("Versão final; com separador");
+        assertThat(novoAtual.getEstoque()).isEqualTo(6);
+        Produto concorrenteAtual = produtoRepository.findById(concorrente.get().id()).orElseThrow();
+        assertThat(concorrenteAtual.getDescricao()).isEqualTo("Concorrente importado");
+        assertThat(concorrenteAtual.getEstoque()).isEqualTo(7);
+        assertThat(produtoRepository.findById(reservado.id()).orElseThrow().getEstoque()).isEqualTo(10);
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    /**
+     * Importa o CSV com o cabeçalho e as linhas de dados, geradas só quando a importação começa a lê-las.
+     */
+    private List<ResultadoImportacaoProdutoDTO> importar(Supplier<String> linhasDeDados) throws Exception {
+        Enumeration<InputStream> partes = new Enumeration<>() {
+            private int lidas;
+
+            @Override
+            public boolean hasMoreElements() {
+                return lidas < 2;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String parte = lidas++ == 0 ? CABECALHO : linhasDeDados.get();
+                return new ByteArrayInputStream(parte.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        ImportacaoProdutoService.ArquivoImportacao arquivo = importacaoProdutoService.abrir(new SequenceInputStream(partes));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        importacaoProdutoService.importar(arquivo, saida);
+        return objectMapper.readerFor(ResultadoImportacaoProdutoDTO.class)
+                .<ResultadoImportacaoProdutoDTO>readValues(saida.toByteArray()).readAll();
+    }
+}
@@ -0,0 +1,107 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.*;
+import com.brasileiras.ecommerce_api.enums.FormaPagamento;
+import com.brasileiras.ecommerce_api.suporte.ContadorDeConsultas;
+import com.brasileiras.ecommerce_api.suporte.DadosDeTeste;
+import com.brasileiras.ecommerce_api.suporte.TesteIntegracao;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static com.brasileiras.ecommerce_api.suporte.DadosDeTeste.item;
+import static com.brasileiras.ecommerce_api.suporte.DadosDeTeste.pedido;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A listagem paginada de pedidos deve executar o mesmo número de comandos SQL
+ * independentemente do tamanho da página (sem N+1 em cliente, endereço, itens e pagamentos).
+ */
+@TesteIntegracao
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PedidoServiceListagemTest {
+
+    private static final int QUANTIDADE_PEDIDOS = 30;
+
+    // ids da página, count, cabeçalhos, itens, formas de pagamento, endereços dos clientes
+    private static final int MAXIMO_CONSULTAS = 6;
+
+    @Autowired
+    private PedidoService pedidoService;
+    @Autowired
+    private DadosDeTeste dados;
+
+    private Long clienteId;
+    // O banco é compartilhado com as outras classes de teste
+    private long pedidosAnteriores;
+
+    @BeforeAll
+    void cadastrarPedidos() {
+        pedidosAnteriores = pedidoService.listarPedidos(PageRequest.of(0, 1)).getTotalElements();
+        FornecedorResponseDTO fornecedor = dados.criarFornecedor();
+        ClienteResponseDTO primeiroCliente = dados.criarCliente();
+        ClienteResponseDTO segundoCliente = dados.criarCliente();
+        clienteId = primeiroCliente.id();
+
+        List<ProdutoResponseDTO> produtos = List.of(
+                dados.criarProduto(fornecedor.id()),
+                dados.criarProduto(fornecedor.id()),
+                dados.criarProduto(fornecedor.id()));
+
+        for (int i = 0; i < QUANTIDADE_PEDIDOS; i++) {
+            ClienteResponseDTO cliente = i % 2 == 0 ? primeiroCliente : segundoCliente;
+            pedidoService.criarPedido(pedido(cliente,
+                    item(produtos.get(i % 3).id(), 1),
+                    item(produtos.get((i + 1) % 3).id(), 2)));
+        }
+    }
+
+    @Test
+    void listarPedidosExecutaQuantidadeFixaDeConsultas() {
+        int consultasPaginaPequena = contarConsultasDaListagem(5);
+        int consultasPaginaGrande = contarConsultasDaListagem(20);
+
+        assertThat(consultasPaginaGrande).isEqualTo(consultasPaginaPequena);
+        assertThat(consultasPaginaGrande).isLessThanOrEqualTo(MAXIMO_CONSULTAS);
+    }
+
+    @Test
+    void listarPedidosPorClienteExecutaQuantidadeFixaDeConsultas() {
+        ContadorDeConsultas.zerar();
+        Page<PedidoResponseDTO> pequena = pedidoService.listarPedidosPorCliente(clienteId, PageRequest.of(0, 3));
+        int consultasPaginaPequena = ContadorDeConsultas.total();
+
+        ContadorDeConsultas.zerar();
+        Page<PedidoResponseDTO> grande = pedidoService.listarPedidosPorCliente(clienteId, PageRequest.of(0, 12));
+        int consultasPaginaGrande = ContadorDeConsultas.total();
+
+        assertThat(pequena.getContent()).hasSize(3);
+        assertThat(grande.getContent()).hasSize(12);
+        assertThat(consultasPaginaGrande).isEqualTo(consultasPaginaPequena);
+        // + a verificação de existência do cliente
+        assertThat(consultasPaginaGrande).isLessThanOrEqualTo(MAXIMO_CONSULTAS + 1);
+    }
+
+    private int contarConsultasDaListagem(int tamanhoPagina) {
+        ContadorDeConsultas.zerar();
+        Page<PedidoResponseDTO> pagina = pedidoService.listarPedidos(
+                PageRequest.of(0, tamanhoPagina, Sort.by(Sort.Direction.DESC, "dataPedido")));
+        int consultas = ContadorDeConsultas.total();
+
+        assertThat(pagina.getContent()).hasSize(tamanhoPagina);
+        assertThat(pagina.getTotalElements()).isEqualTo(pedidosAnteriores + QUANTIDADE_PEDIDOS);
+        // Os mais recentes são os desta classe. Montados por projeção: nenhuma consulta adicional por pedido
+        assertThat(pagina.getContent()).allSatisfy(pedido -> {
+            assertThat(pedido.itens()).hasSize(2);
+            assertThat(pedido.cliente()).isNotNull();
+            assertThat(pedido.formasPagamento()).containsExactly(FormaPagamento.PIX);
+        });
+        return consultas;
+    }
+}
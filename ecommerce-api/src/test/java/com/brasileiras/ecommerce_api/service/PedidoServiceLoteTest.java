@@ -0,0 +1,97 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.*;
+import com.brasileiras.ecommerce_api.enums.StatusPedido;
+import com.brasileiras.ecommerce_api.model.Produto;
+import com.brasileiras.ecommerce_api.repository.PedidoRepository;
+import com.brasileiras.ecommerce_api.repository.ProdutoRepository;
+import com.brasileiras.ecommerce_api.suporte.DadosDeTeste;
+import com.brasileiras.ecommerce_api.suporte.TesteIntegracao;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static com.brasileiras.ecommerce_api.suporte.DadosDeTeste.item;
+import static com.brasileiras.ecommerce_api.suporte.DadosDeTeste.pedido;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Operações de pedidos em lote: cada pedido recebe o próprio resultado e um pedido inválido não afeta os outros.
+ */
+@TesteIntegracao
+class PedidoServiceLoteTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+    @Autowired
+    private ReservaEstoqueService reservaEstoqueService;
+    @Autowired
+    private PedidoRepository pedidoRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Test
+    void importacaoRejeitaSoOPedidoInvalidoDoBloco() {
+        FornecedorResponseDTO fornecedor = dados.criarFornecedor();
+        ClienteResponseDTO cliente = dados.criarCliente();
+        Long produtoId = dados.criarProduto(fornecedor.id(), null, "10.00", 10).id();
+
+        PedidoLoteResponseDTO resposta = pedidoService.criarPedidosEmLote(List.of(
+                pedido(cliente, item(produtoId, 2)),
+                // Linhas repetidas cuja soma passa do maior int
+                pedido(cliente, item(produtoId, 2_000_000_000), item(produtoId, 2_000_000_000)),
+                pedido(cliente, item(produtoId, 9)),
+                pedido(cliente, item(produtoId, 3), item(produtoId, 5))));
+
+        assertThat(resposta.resultados()).extracting(ResultadoPedidoLoteDTO::sucesso)
+                .containsExactly(true, false, false, true);
+        assertThat(resposta.resultados().get(1).erro()).contains("quantidadesDentroDoLimite");
+        // O terceiro pedido já não cabe no saldo que sobrou do primeiro
+        assertThat(resposta.resultados().get(2).erro()).startsWith("Estoque insuficiente");
+        assertThat(produtoRepository.findById(produtoId).orElseThrow().getEstoqueDisponivel()).isZero();
+    }
+
+    @Test
+    void mudancaDeStatusEmLoteRecusaCadaPedidoPeloProprioMotivo() {
+        FornecedorResponseDTO fornecedor = dados.criarFornecedor();
+        ClienteResponseDTO cliente = dados.criarCliente();
+        Long cafe = dados.criarProduto(fornecedor.id(), null, "10.00", 10).id();
+        Long filtro = dados.criarProduto(fornecedor.id(), null, "4.00", 10).id();
+        Long caneca = dados.criarProduto(fornecedor.id(), null, "25.00", 5).id();
+
+        Long comReserva = pedidoService.criarPedido(pedido(cliente, item(cafe, 2))).id();
+        // Reserva já liberada (como a de um pedido antigo): a aprovação debita o estoque direto, produto a produto
+        Long semReserva = pedidoService.criarPedido(pedido(cliente, item(filtro, 3), item(caneca, 5))).id();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                reservaEstoqueService.liberarEmLote(List.of(semReserva)));
+        pedidoService.criarPedido(pedido(cliente, item(caneca, 1))); // Sobram 4 canecas para o pedido que pede 5
+        Long cancelado = pedidoService.criarPedido(pedido(cliente, item(cafe, 1))).id();
+        pedidoService.atualizarStatusPedido(cancelado, StatusPedido.CANCELADO);
+
+        PedidoStatusLoteResponseDTO resposta = pedidoService.atualizarStatusEmLote(
+                List.of(comReserva, semReserva, cancelado, comReserva, Long.MAX_VALUE), StatusPedido.PAGAMENTO_APROVADO);
+
+        assertThat(resposta.total()).isEqualTo(4); // O ID repetido conta uma vez
+        assertThat(resposta.atualizados()).isEqualTo(1);
+        assertThat(resposta.recusas()).containsExactlyInAnyOrder(
+                new RecusaStatusPedidoDTO(semReserva, "Estoque insuficiente para o(s) produto(s) com ID: [" + caneca + "]"),
+                new RecusaStatusPedidoDTO(cancelado, "Não é possível alterar o status de um pedido Cancelado para Pagamento Aprovado."),
+                new RecusaStatusPedidoDTO(Long.MAX_VALUE, "Pedido não encontrado."));
+        assertThat(pedidoRepository.findById(comReserva).orElseThrow().getStatus()).isEqualTo(StatusPedido.PAGAMENTO_APROVADO);
+        assertThat(pedidoRepository.findById(semReserva).orElseThrow().getStatus()).isEqualTo(StatusPedido.AGUARDANDO_PAGAMENTO);
+
+        Produto cafeAtual = produtoRepository.findById(cafe).orElseThrow();
+        assertThat(cafeAtual.getEstoque()).isEqualTo(8);
+        assertThat(cafeAtual.getEstoqueReservado()).isZero();
+        // O filtro debitado antes da falta de canecas volta ao estoque
+        assertThat(produtoRepository.findById(filtro).orElseThrow().getEstoque()).isEqualTo(10);
+        assertThat(produtoRepository.findById(caneca).orElseThrow().getEstoqueDisponivel()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,155 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.*;
+import com.brasileiras.ecommerce_api.suporte.ContadorDeConsultas;
+import com.brasileiras.ecommerce_api.suporte.DadosDeTeste;
+import com.brasileiras.ecommerce_api.suporte.TesteIntegracao;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Os filtros da listagem de produtos devem ser aplicados juntos e, quando combinados, atendidos por índices:
+ * nenhum comando SQL da listagem pode percorrer a tabela de produtos inteira (plano do EXPLAIN do H2).
+ */
+@TesteIntegracao
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProdutoServiceFiltrosTest {
+
+    private static final String VARREDURA_COMPLETA = "PRODUTOS.tableScan";
+
+    @Autowired
+    private ProdutoService produtoService;
+    @Autowired
+    private BuscaProdutoService buscaProdutoService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DadosDeTeste dados;
+    @Value("${ecommerce.busca-produtos.max-ids-filtro}")
+    private int maxIdsFiltroDescricao;
+
+    private Long fornecedorA;
+    private Long fornecedorB;
+    // Os outros testes só cadastram produtos com descrição "Produto SKU-n"
+    private Long cafeTradicional;
+    private Long cafeExtraForte;
+    private Long acucar;
+    private Long cafeMelitta;
+
+    @BeforeAll
+    void cadastrarProdutos() {
+        fornecedorA = dados.criarFornecedor().id();
+        fornecedorB = dados.criarFornecedor().id();
+
+        cafeTradicional = dados.criarProduto(fornecedorA, "Café Pilão Tradicional", "12.90", 5).id();
+        cafeExtraForte = dados.criarProduto(fornecedorA, "Café Pilão Extra Forte", "14.50", 50).id();
+        acucar = dados.criarProduto(fornecedorA, "Açúcar Cristal União", "4.99", 8).id();
+        cafeMelitta = dados.criarProduto(fornecedorB, "Café Melitta Tradicional", "13.20", 3).id();
+        dados.criarProduto(fornecedorB, "Arroz Tio João", "27.00", 40);
+        // Não depende da construção em segundo plano iniciada com a aplicação
+        buscaProdutoService.reconstruir();
+    }
+
+    @Test
+    void combinaTodosOsFiltrosInformados() {
+        Page<ProdutoResponseDTO> pagina = produtoService.listarProdutosComFiltros(
+                FiltroProdutosDTO.de(null, fornecedorA, 10, new BigDecimal("10.00"), null), PageRequest.of(0, 10));
+
+        assertThat(pagina.getContent()).extracting(ProdutoResponseDTO::id).containsExactly(cafeTradicional);
+        assertThat(pagina.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void combinaDescricaoComOutrosFiltrosEOrdenacao() {
+        Page<ProdutoResponseDTO> pagina = produtoService.listarProdutosComFiltros(
+                FiltroProdutosDTO.de("cafe", null, 10, null, null),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "valorVenda")));
+
+        assertThat(pagina.getContent()).extracting(ProdutoResponseDTO::id)
+                .containsExactly(cafeMelitta, cafeTradicional);
+    }
+
+    /*
+     * Com max-ids-filtro=2 (ver TesteIntegracao), as consultas que o índice encontra em mais de dois produtos
+     * ("cafe", "ca", "afe", "t") vão para o filtro no banco; as demais usam os IDs do índice. Em todos os casos
+     * a listagem deve trazer os mesmos produtos que a busca no próprio índice.
+     */
+    @Test
+    void descricaoEncontraOsMesmosProdutosAcimaDoLimiteDoIndice() {
+        List<String> consultas = List.of("cafe", "ACUCAR", "pilão trad", "afe", "tradicional cafe", "ca", "t", "-- ", "xyz");
+        Pageable todos = PageRequest.of(0, 100);
+        for (String consulta : consultas) {
+            List<Long> peloIndice = buscaProdutoService.buscar(consulta, todos).orElseThrow().getContent();
+            List<Long> pelaListagem = ids(produtoService.listarProdutosComFiltros(
+                    FiltroProdutosDTO.de(consulta, null, null, null, null), PageRequest.of(0, 100, Sort.by("valorVenda"))));
+
+            assertThat(pelaListagem).as("Busca por '%s'", consulta).containsExactlyInAnyOrderElementsOf(peloIndice);
+        }
+        assertThat(buscaProdutoService.buscarIds("cafe", maxIdsFiltroDescricao)).as("'cafe' acima do limite").isEmpty();
+        assertThat(buscaProdutoService.buscarIds("ca", maxIdsFiltroDescricao)).as("'ca' acima do limite").isEmpty();
+        assertThat(buscaProdutoService.buscarIds("t", maxIdsFiltroDescricao)).as("'t' acima do limite").isEmpty();
+        assertThat(ids(produtoService.listarProdutosComFiltros(FiltroProdutosDTO.de("ca", null, null, null, null), todos)))
+                .containsExactlyInAnyOrder(cafeTradicional, cafeExtraForte, cafeMelitta)
+                .doesNotContain(acucar);
+        assertThat(ids(produtoService.listarProdutosComFiltros(FiltroProdutosDTO.de("acucar", null, null, null, null), todos)))
+                .containsExactly(acucar);
+    }
+
+    @Test
+    void filtrosCombinadosNaoPercorremATabelaInteira() {
+        BigDecimal minimo = new BigDecimal("5.00");
+        BigDecimal maximo = new BigDecimal("20.00");
+        List<FiltroProdutosDTO> combinacoes = List.of(
+                FiltroProdutosDTO.de(null, fornecedorA, 10, null, null),
+                FiltroProdutosDTO.de(null, fornecedorB, null, minimo, maximo),
+                FiltroProdutosDTO.de(null, fornecedorA, 10, minimo, maximo),
+                FiltroProdutosDTO.de(null, null, 10, minimo, maximo),
+                FiltroProdutosDTO.de(null, null, 10, minimo, null),
+                // Acima do limite de IDs do índice (filtro no banco) e dentro dele (IDs do índice)
+                FiltroProdutosDTO.de("cafe", fornecedorA, null, null, null),
+                FiltroProdutosDTO.de("cafe", null, 10, minimo, maximo),
+                FiltroProdutosDTO.de("pilao", null, 10, minimo, maximo));
+        List<Pageable> paginacoes = List.of(
+                PageRequest.of(0, 2),
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "valorVenda")),
+                PageRequest.of(0, 2, Sort.by("estoque")));
+
+        for (FiltroProdutosDTO filtro : combinacoes) {
+            for (Pageable paginacao : paginacoes) {
+                ContadorDeConsultas.zerar();
+                produtoService.listarProdutosComFiltros(filtro, paginacao);
+                List<String> consultasDeProdutos = ContadorDeConsultas.comandos().stream()
+                        .filter(sql -> sql.contains("produtos"))
+                        .toList();
+
+                assertThat(consultasDeProdutos).isNotEmpty();
+                assertThat(consultasDeProdutos).allSatisfy(sql -> assertThat(plano(sql))
+                        .as("Plano de %s com %s", filtro, paginacao)
+                        .doesNotContain(VARREDURA_COMPLETA));
+            }
+        }
+    }
+
+    private static List<Long> ids(Page<ProdutoResponseDTO> pagina) {
+        return pagina.getContent().stream().map(ProdutoResponseDTO::id).toList();
+    }
+
+    // O H2 monta o plano sem os valores dos parâmetros
+    private String plano(String sql) {
+        return jdbcTemplate.query(conexao -> conexao.prepareStatement("EXPLAIN " + sql),
+                resultado -> resultado.next() ? resultado.getString(1) : "");
+    }
+}
@@ -0,0 +1,124 @@
+package com.brasileiras.ecommerce_api.service;
+
+import com.brasileiras.ecommerce_api.dto.*;
+import com.brasileiras.ecommerce_api.model.Produto;
+import com.brasileiras.ecommerce_api.repository.ProdutoRepository;
+import com.brasileiras.ecommerce_api.suporte.DadosDeTeste;
+import com.brasileiras.ecommerce_api.suporte.TesteIntegracao;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.brasileiras.ecommerce_api.suporte.DadosDeTeste.item;
+import static com.brasileiras.ecommerce_api.suporte.DadosDeTeste.pedido;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Operações de produtos em lote: cada item do lote recebe o próprio resultado e um item inválido não afeta os outros.
+ */
+@TesteIntegracao
+class ProdutoServiceLoteTest {
+
+    @Autowired
+    private ProdutoService produtoService;
+    @Autowired
+    private PedidoService pedidoService;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Test
+    void catalogoEmLoteGravaSoOsCamposInformadosEValeAUltimaAlteracao() {
+        FornecedorResponseDTO fornecedor = dados.criarFornecedor();
+        ProdutoResponseDTO cafe = dados.criarProduto(fornecedor.id(), null, "10.50", 10);
+        ProdutoResponseDTO biscoito = dados.criarProduto(fornecedor.id(), null, "4.00", 10);
+        ProdutoResponseDTO acucar = dados.criarProduto(fornecedor.id(), null, "6.00", 10);
+
+        AlteracaoCatalogoLoteResponseDTO resposta = produtoService.atualizarCatalogoEmLote(List.of(
+                new AlteracaoCatalogoDTO(cafe.id(), null, new BigDecimal("12.00"), null, null),
+                new AlteracaoCatalogoDTO(null, biscoito.codigoBarrasProduto(), null, null, "Biscoito Nova Receita"),
+                new AlteracaoCatalogoDTO(cafe.id(), null, new BigDecimal("13.00"), new BigDecimal("6.00"), null),
+                new AlteracaoCatalogoDTO(cafe.id(), biscoito.codigoBarrasProduto(), new BigDecimal("1.00"), null, null),
+                new AlteracaoCatalogoDTO(null, "SKU-INEXISTENTE", new BigDecimal("1.00"), null, null),
+                new AlteracaoCatalogoDTO(biscoito.id(), null, null, null, "  "),
+                new AlteracaoCatalogoDTO(acucar.id(), null, new BigDecimal("6.0"), null, null), // Mesmo preço
+                new AlteracaoCatalogoDTO(null, null, new BigDecimal("5.00"), null, null),
+                new AlteracaoCatalogoDTO(acucar.id(), null, new BigDecimal("-1.00"), null, null)));
+
+        assertThat(resposta.total()).isEqualTo(9);
+        assertThat(resposta.atualizados()).isEqualTo(3);
+        assertThat(resposta.inalterados()).isEqualTo(1);
+        assertThat(resposta.recusas()).containsExactly(
+                new RecusaAlteracaoCatalogoDTO(3, cafe.id(), biscoito.codigoBarrasProduto(),
+                        "O SKU " + biscoito.codigoBarrasProduto() + " não pertence ao produto ID: " + cafe.id()),
+                new RecusaAlteracaoCatalogoDTO(4, null, "SKU-INEXISTENTE", "Produto não encontrado com SKU: SKU-INEXISTENTE"),
+                new RecusaAlteracaoCatalogoDTO(5, biscoito.id(), null, "descricao: A descrição não pode estar em branco"),
+                new RecusaAlteracaoCatalogoDTO(7, null, null, "Informe o ID ou o código de barras interno (SKU) do produto."),
+                new RecusaAlteracaoCatalogoDTO(8, acucar.id(), null, "valorVenda: O valor de venda deve ser positivo."));
+
+        Produto cafeAtual = produtoRepository.findById(cafe.id()).orElseThrow();
+        assertThat(cafeAtual.getValorVenda()).isEqualByComparingTo("13.00");
+        assertThat(cafeAtual.getValorCompra()).isEqualByComparingTo("6.00");
+        assertThat(cafeAtual.getDescricao()).isEqualTo(cafe.descricao());
+        Produto biscoitoAtual = produtoRepository.findById(biscoito.id()).orElseThrow();
+        assertThat(biscoitoAtual.getDescricao()).isEqualTo("Biscoito Nova Receita");
+        assertThat(biscoitoAtual.getValorVenda()).isEqualByComparingTo("4.00");
+        assertThat(produtoService.buscarProdutoPorId(biscoito.id()).descricao()).isEqualTo("Biscoito Nova Receita");
+        assertThat(produtoRepository.findById(acucar.id()).orElseThrow().getValorVenda()).isEqualByComparingTo("6.00");
+    }
+
+    @Test
+    void ajustesDoMesmoProdutoSaoAplicadosOuRecusadosPeloLiquido() {
+        FornecedorResponseDTO fornecedor = dados.criarFornecedor();
+        ClienteResponseDTO cliente = dados.criarCliente();
+        Long cafe = dados.criarProduto(fornecedor.id(), null, "10.00", 10).id();
+        Long filtro = dados.criarProduto(fornecedor.id(), null, "4.00", 10).id();
+        Long caneca = dados.criarProduto(fornecedor.id(), null, "25.00", 10).id();
+        Long acucar = dados.criarProduto(fornecedor.id(), null, "6.00", 10).id();
+        pedidoService.criarPedido(pedido(cliente, item(filtro, 4))); // 4 filtros reservados: 6 disponíveis
+
+        AjusteEstoqueLoteResponseDTO resposta = produtoService.ajustarEstoqueEmLote(List.of(
+                new AjusteEstoqueDTO(cafe, 5),
+                new AjusteEstoqueDTO(filtro, -3),
+                new AjusteEstoqueDTO(cafe, -12), // Sozinho passaria do estoque; o líquido de -7 cabe
+                new AjusteEstoqueDTO(filtro, -4),
+                new AjusteEstoqueDTO(caneca, Integer.MAX_VALUE),
+                new AjusteEstoqueDTO(caneca, Integer.MAX_VALUE),
+                new AjusteEstoqueDTO(acucar, Integer.MAX_VALUE),
+                new AjusteEstoqueDTO(cafe, 0),
+                new AjusteEstoqueDTO(null, 1),
+                new AjusteEstoqueDTO(Long.MAX_VALUE, 1)));
+
+        assertThat(resposta.aplicados()).isEqualTo(2);
+        assertThat(resposta.recusados()).isEqualTo(8);
+        assertThat(resposta.produtosAjustados()).isEqualTo(1);
+        String semSaldo = "Estoque insuficiente para o ajuste líquido de -7 do produto no lote. Disponível: 6";
+        String foraDoLimite = "Ajuste líquido do produto fora do limite: " + 2L * Integer.MAX_VALUE;
+        assertThat(resposta.resultados())
+                .extracting(ResultadoAjusteEstoqueDTO::indice, ResultadoAjusteEstoqueDTO::aplicado,
+                        ResultadoAjusteEstoqueDTO::estoque, ResultadoAjusteEstoqueDTO::motivo)
+                .containsExactly(
+                        tuple(0, true, 3, null),
+                        tuple(1, false, null, semSaldo),
+                        tuple(2, true, 3, null),
+                        tuple(3, false, null, semSaldo),
+                        tuple(4, false, null, foraDoLimite),
+                        tuple(5, false, null, foraDoLimite),
+                        tuple(6, false, null, "O ajuste líquido de " + Integer.MAX_VALUE
+                                + " do produto no lote ultrapassa o estoque máximo. Estoque atual: 10"),
+                        tuple(7, false, null, "A quantidade do ajuste não pode ser zero."),
+                        tuple(8, false, null, "produtoId: O ID do produto não pode ser nulo"),
+                        tuple(9, false, null, "Produto não encontrado com ID: " + Long.MAX_VALUE));
+
+        assertThat(produtoRepository.findById(cafe).orElseThrow().getEstoque()).isEqualTo(3);
+        Produto filtroAtual = produtoRepository.findById(filtro).orElseThrow();
+        assertThat(filtroAtual.getEstoque()).isEqualTo(10);
+        assertThat(filtroAtual.getEstoqueReservado()).isEqualTo(4);
+        assertThat(produtoRepository.findById(caneca).orElseThrow().getEstoque()).isEqualTo(10);
+        assertThat(produtoRepository.findById(acucar).orElseThrow().getEstoque()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,103 @@
+package com.brasileiras.ecommerce_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeNumeroPedidoGeneratorTest {
+
+    private static final long INSTANTE = SnowflakeNumeroPedidoGenerator.EPOCA + 1_000_000;
+
+    /**
+     * Com o relógio parado, as threads disputam a mesma sequência e esgotam vários milissegundos seguidos.
+     */
+    @Test
+    void idsUnicosECrescentesPorThreadSobDisputa() throws Exception {
+        SnowflakeNumeroPedidoGenerator gerador = new SnowflakeNumeroPedidoGenerator(7, () -> INSTANTE);
+        int threads = 4;
+        int porThread = 50_000;
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> tarefas = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    long[] ids = new long[porThread];
+                    for (int i = 0; i < porThread; i++) {
+                        ids[i] = gerador.proximoId();
+                    }
+                    return ids;
+                }));
+            }
+            largada.countDown();
+
+            Set<Long> todos = new HashSet<>();
+            for (Future<long[]> tarefa : tarefas) {
+                long[] ids = tarefa.get();
+                for (int i = 0; i < ids.length; i++) {
+                    if (i > 0) {
+                        assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                    }
+                    todos.add(ids[i]);
+                }
+            }
+            assertThat(todos).hasSize(threads * porThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void sequenciaEsgotadaERelogioVoltandoContinuamCrescendo() {
+        AtomicLong relogio = new AtomicLong(INSTANTE);
+        SnowflakeNumeroPedidoGenerator gerador = new SnowflakeNumeroPedidoGenerator(0, relogio::get);
+
+        long anterior = gerador.proximoId();
+        for (int i = 0; i < 4096; i++) { // Passa das 4096 sequências do milissegundo
+            long id = gerador.proximoId();
+            assertThat(id).isGreaterThan(anterior);
+            anterior = id;
+        }
+        relogio.set(INSTANTE - 60_000);
+        assertThat(gerador.proximoId()).isGreaterThan(anterior);
+    }
+
+    @Test
+    void textoTemLarguraFixaEOrdemDosIds() {
+        AtomicLong relogio = new AtomicLong(INSTANTE);
+        SnowflakeNumeroPedidoGenerator gerador = new SnowflakeNumeroPedidoGenerator(1023, relogio::getAndIncrement);
+
+        String anterior = gerador.gerar();
+        for (int i = 0; i < 1000; i++) {
+            String numero = gerador.gerar();
+            assertThat(numero).hasSize(23).startsWith("PED-").isGreaterThan(anterior);
+            anterior = numero;
+        }
+        assertThat(SnowflakeNumeroPedidoGenerator.formatar(42)).isEqualTo("PED-0000000000000000042");
+        assertThat(SnowflakeNumeroPedidoGenerator.formatar(Long.MAX_VALUE)).isEqualTo("PED-" + Long.MAX_VALUE);
+    }
+
+    @Test
+    void nosDiferentesNaoRepetemNumeros() {
+        long idNo1 = new SnowflakeNumeroPedidoGenerator(1, () -> INSTANTE).proximoId();
+        long idNo2 = new SnowflakeNumeroPedidoGenerator(2, () -> INSTANTE).proximoId();
+
+        assertThat(idNo1).isNotEqualTo(idNo2);
+        assertThatThrownBy(() -> new SnowflakeNumeroPedidoGenerator(1024, () -> INSTANTE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeNumeroPedidoGenerator(-1, () -> INSTANTE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
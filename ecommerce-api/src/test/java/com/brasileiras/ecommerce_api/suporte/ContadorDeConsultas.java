@@ -0,0 +1,40 @@
+package com.brasileiras.ecommerce_api.suporte;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conta (e guarda) os comandos SQL preparados pelo Hibernate na thread atual.
+ * Registrado nos testes via {@code hibernate.session_factory.statement_inspector}; a contagem é por thread
+ * para não somar as consultas das tarefas agendadas que rodam em paralelo.
+ */
+public class ContadorDeConsultas implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTAGEM = ThreadLocal.withInitial(() -> new int[1]);
+    private static final ThreadLocal<List<String>> COMANDOS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        CONTAGEM.get()[0]++;
+        COMANDOS.get().add(sql);
+        return sql;
+    }
+
+    public static void zerar() {
+        CONTAGEM.get()[0] = 0;
+        COMANDOS.get().clear();
+    }
+
+    public static int total() {
+        return CONTAGEM.get()[0];
+    }
+
+    /**
+     * @return Comandos preparados desde o último {@link #zerar()}, na ordem.
+     */
+    public static List<String> comandos() {
+        return List.copyOf(COMANDOS.get());
+    }
+}
@@ -0,0 +1,133 @@
+package com.brasileiras.ecommerce_api.suporte;
+
+import com.brasileiras.ecommerce_api.dto.*;
+import com.brasileiras.ecommerce_api.enums.EstadoBrasileiro;
+import com.brasileiras.ecommerce_api.enums.FormaPagamento;
+import com.brasileiras.ecommerce_api.service.ClienteService;
+import com.brasileiras.ecommerce_api.service.FornecedorService;
+import com.brasileiras.ecommerce_api.service.ProdutoService;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cadastros usados pelos testes de integração. O banco é compartilhado por todas as classes de teste
+ * (ver {@link TesteIntegracao}), então cada cadastro recebe CNPJ, CPF, e-mail, endereço e códigos de barras
+ * próprios, gerados a partir de uma sequência.
+ */
+@TestComponent
+public class DadosDeTeste {
+
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+
+    private final FornecedorService fornecedorService;
+    private final ClienteService clienteService;
+    private final ProdutoService produtoService;
+
+    public DadosDeTeste(FornecedorService fornecedorService, ClienteService clienteService, ProdutoService produtoService) {
+        this.fornecedorService = fornecedorService;
+        this.clienteService = clienteService;
+        this.produtoService = produtoService;
+    }
+
+    /**
+     * Próximo número da sequência, para códigos únicos de cadastros feitos fora desta classe.
+     */
+    public static int numero() {
+        return SEQUENCIA.incrementAndGet();
+    }
+
+    public FornecedorResponseDTO criarFornecedor() {
+        int numero = SEQUENCIA.incrementAndGet();
+        return fornecedorService.criarFornecedor(new FornecedorRequestDTO("Distribuidora Teste " + numero + " LTDA",
+                String.format("%08d000100", numero), "fornecedor" + numero + "@teste.com", "11999990000", endereco()));
+    }
+
+    public ClienteResponseDTO criarCliente() {
+        int numero = SEQUENCIA.incrementAndGet();
+        return clienteService.criarCliente(ClienteRequestDTO.builder()
+                .nome("Cliente Teste " + numero)
+                .cpf(cpf(numero))
+                .email("cliente" + numero + "@teste.com")
+                .telefone("11988887777")
+                .senha("segredo123")
+                .enderecos(List.of(endereco()))
+                .build());
+    }
+
+    /**
+     * Produto "Produto SKU-n" com R$ 10,50 e 1000 unidades.
+     */
+    public ProdutoResponseDTO criarProduto(Long fornecedorId) {
+        return criarProduto(fornecedorId, null, "10.50", 1000);
+    }
+
+    /**
+     * @param descricao Descrição do produto, ou null para "Produto " seguido do SKU.
+     */
+    public ProdutoResponseDTO criarProduto(Long fornecedorId, String descricao, String valorVenda, int estoque) {
+        int numero = SEQUENCIA.incrementAndGet();
+        String sku = "SKU-" + numero;
+        return produtoService.criarProduto(ProdutoRequestDTO.builder()
+                .codigoBarrasProduto(sku)
+                .descricao(descricao != null ? descricao : "Produto " + sku)
+                .codigoBarras(String.format("789%010d", numero))
+                .valorCompra(new BigDecimal("5.00"))
+                .valorVenda(new BigDecimal(valorVenda))
+                .estoque(estoque)
+                .fornecedorId(fornecedorId)
+                .build());
+    }
+
+    /**
+     * Pedido pago com PIX, entregue no primeiro endereço do cliente.
+     */
+    public static PedidoRequestDTO pedido(ClienteResponseDTO cliente, ItemPedidoRequestDTO... itens) {
+        return pedido(cliente, Set.of(FormaPagamento.PIX), itens);
+    }
+
+    public static PedidoRequestDTO pedido(ClienteResponseDTO cliente, Set<FormaPagamento> formasPagamento,
+                                          ItemPedidoRequestDTO... itens) {
+        return PedidoRequestDTO.builder()
+                .clienteId(cliente.id())
+                .enderecoEntregaId(cliente.enderecos().get(0).id())
+                .itens(List.of(itens))
+                .formasPagamento(formasPagamento)
+                .build();
+    }
+
+    public static ItemPedidoRequestDTO item(Long produtoId, int quantidade) {
+        return new ItemPedidoRequestDTO(produtoId, quantidade);
+    }
+
+    // Endereços iguais são o mesmo registro (ver EnderecoService.findOrCreateEndereco): o número os diferencia
+    public static EnderecoRequestDTO endereco() {
+        return EnderecoRequestDTO.builder()
+                .logradouro("Rua das Flores")
+                .numero(String.valueOf(SEQUENCIA.incrementAndGet()))
+                .bairro("Centro")
+                .cidade("São Paulo")
+                .estado(EstadoBrasileiro.SP)
+                .cep("01001000")
+                .build();
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    // Nove dígitos da sequência mais os dois dígitos verificadores
+    private static String cpf(int numero) {
+        StringBuilder cpf = new StringBuilder(String.format("%09d", 100_000_000 + numero));
+        for (int digito = 0; digito < 2; digito++) {
+            int soma = 0;
+            for (int i = 0; i < cpf.length(); i++) {
+                soma += (cpf.charAt(i) - '0') * (cpf.length() + 1 - i);
+            }
+            int resto = soma % 11;
+            cpf.append(resto < 2 ? 0 : 11 - resto);
+        }
+        return cpf.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package com.brasileiras.ecommerce_api.suporte;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Configuração única dos testes de integração: todas as classes anotadas compartilham o mesmo contexto Spring
+ * (e o mesmo banco H2 em memória), que o Spring guarda em cache entre as classes. Por isso os testes cadastram
+ * os próprios dados com {@link DadosDeTeste} e não contam com o banco vazio.
+ * <p>
+ * As tarefas agendadas (outbox e expiração de reservas) ficam com intervalo de uma hora para não rodarem durante
+ * os testes. A reconstrução dos contadores de vendas usa faixas de dois itens e o filtro por descrição aceita até
+ * dois IDs do índice, para que poucos registros já passem por mais de uma faixa e pelo filtro no banco.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.brasileiras.ecommerce_api.suporte.ContadorDeConsultas",
+        "ecommerce.outbox.intervalo-ms=3600000",
+        "ecommerce.reserva.intervalo-verificacao-ms=3600000",
+        "ecommerce.vendas.tamanho-faixa-reconstrucao=2",
+        "ecommerce.busca-produtos.max-ids-filtro=2"
+})
+@Import(DadosDeTeste.class)
+public @interface TesteIntegracao {
+}
@@ -0,0 +1,53 @@
+package com.brasileiras.ecommerce_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CalculadoraParcelasTest {
+
+    @Test
+    void somaDasParcelasEIgualAoTotalAteOCentavo() {
+        for (long total = 0; total <= 5_000; total++) {
+            for (int parcelas = 1; parcelas <= 24; parcelas++) {
+                long[] valores = CalculadoraParcelas.dividir(total, parcelas);
+
+                assertThat(valores).hasSize(parcelas);
+                assertThat(Arrays.stream(valores).sum()).as("%d em %d", total, parcelas).isEqualTo(total);
+                // O resto vai para as primeiras parcelas, um centavo em cada
+                for (int i = 1; i < parcelas; i++) {
+                    assertThat(valores[i - 1] - valores[i]).isBetween(0L, 1L);
+                }
+                assertThat(valores[0] - valores[parcelas - 1]).isBetween(0L, 1L);
+            }
+        }
+    }
+
+    @Test
+    void dividePeloValorEmReais() {
+        long[] valores = CalculadoraParcelas.dividir(CalculadoraParcelas.paraCentavos(new BigDecimal("100.00")), 3);
+
+        assertThat(Arrays.stream(valores).mapToObj(CalculadoraParcelas::deCentavos))
+                .containsExactly(new BigDecimal("33.34"), new BigDecimal("33.33"), new BigDecimal("33.33"));
+        assertThat(Arrays.stream(CalculadoraParcelas.dividir(Long.MAX_VALUE, 7)).reduce(0, Math::addExact))
+                .isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void converteReaisECentavosComArredondamentoBancario() {
+        assertThat(CalculadoraParcelas.paraCentavos(new BigDecimal("10.5"))).isEqualTo(1050);
+        assertThat(CalculadoraParcelas.paraCentavos(new BigDecimal("0.125"))).isEqualTo(12);
+        assertThat(CalculadoraParcelas.paraCentavos(new BigDecimal("0.135"))).isEqualTo(14);
+        assertThat(CalculadoraParcelas.deCentavos(1050)).isEqualTo(new BigDecimal("10.50"));
+    }
+
+    @Test
+    void recusaParcelasOuTotalInvalidos() {
+        assertThatThrownBy(() -> CalculadoraParcelas.dividir(1000, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CalculadoraParcelas.dividir(-1, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,51 @@
+package com.brasileiras.ecommerce_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FiltroBloomTest {
+
+    @Test
+    void todoTextoAdicionadoTalvezEstejaNoFiltro() {
+        FiltroBloom filtro = new FiltroBloom(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filtro.adicionar("SKU-" + i);
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(filtro.talvezContenha("SKU-" + i)).as("SKU-%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void falsosPositivosFicamPertoDaTaxaPedida() {
+        FiltroBloom filtro = new FiltroBloom(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filtro.adicionar("SKU-" + i);
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 50_000; i < 150_000; i++) {
+            if (filtro.talvezContenha("SKU-" + i)) {
+                falsosPositivos++;
+            }
+        }
+        assertThat(falsosPositivos / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void passarDaCapacidadeNaoCriaFalsosNegativos() {
+        FiltroBloom filtro = new FiltroBloom(100, 0.01);
+        long tamanho = filtro.tamanhoEmBytes();
+        for (int i = 0; i < 5_000; i++) {
+            filtro.adicionar("7891000" + i);
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            assertThat(filtro.talvezContenha("7891000" + i)).isTrue();
+        }
+        assertThat(filtro.tamanhoEmBytes()).isEqualTo(tamanho);
+        assertThat(new FiltroBloom(100, 0.01).talvezContenha("7891000")).isFalse();
+    }
+}
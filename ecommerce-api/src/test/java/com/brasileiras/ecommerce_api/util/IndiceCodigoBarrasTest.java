@@ -0,0 +1,151 @@
+package com.brasileiras.ecommerce_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceCodigoBarrasTest {
+
+    @Test
+    void removerNoMeioDeUmaSequenciaDeColisoesMantemAsSeguintes() {
+        // Mesmo hashCode: caem todos no mesmo lugar ideal da tabela de SKUs
+        String[] skus = {"AaAa", "AaBB", "BBAa", "BBBB"};
+        IndiceCodigoBarras indice = new IndiceCodigoBarras();
+        for (int i = 0; i < skus.length; i++) {
+            indice.gravar(item(i, skus[i], "789000000000" + i));
+        }
+
+        indice.remover(1);
+        assertThat(indice.buscar("AaBB")).isNull();
+        assertThat(indice.buscar("AaAa").id()).isZero();
+        assertThat(indice.buscar("BBAa").id()).isEqualTo(2);
+        assertThat(indice.buscar("BBBB").id()).isEqualTo(3);
+
+        indice.remover(0);
+        assertThat(indice.buscar("AaAa")).isNull();
+        assertThat(indice.buscar("BBAa").id()).isEqualTo(2);
+        assertThat(indice.buscar("BBBB").id()).isEqualTo(3);
+        assertThat(indice.buscar("7890000000003").id()).isEqualTo(3);
+        assertThat(indice.tamanho()).isEqualTo(2);
+    }
+
+    @Test
+    void posicaoLiberadaEReaproveitadaSemOsCodigosAntigos() {
+        IndiceCodigoBarras indice = new IndiceCodigoBarras();
+        indice.gravar(item(1, "CAFE-500", "7891000100103"));
+        indice.remover(1);
+        indice.gravar(item(2, "ACUCAR-1KG", "7891000200209"));
+
+        assertThat(indice.buscar("CAFE-500")).isNull();
+        assertThat(indice.buscar("7891000100103")).isNull();
+        assertThat(indice.buscar("ACUCAR-1KG").id()).isEqualTo(2);
+        assertThat(indice.buscar("7891000200209").id()).isEqualTo(2);
+        assertThat(indice.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void regravarTrocaOsCodigosDoProduto() {
+        IndiceCodigoBarras indice = new IndiceCodigoBarras();
+        indice.gravar(item(1, "SKU-A", "7891000100103"));
+        indice.gravar(new IndiceCodigoBarras.Item(1, "SKU-B", "NF-TEXTO", "Novo", 990, 3));
+
+        assertThat(indice.buscar("SKU-A")).isNull();
+        assertThat(indice.buscar("7891000100103")).isNull();
+        assertThat(indice.buscar("NF-TEXTO")).isEqualTo(new IndiceCodigoBarras.Item(1, "SKU-B", "NF-TEXTO", "Novo", 990, 3));
+        assertThat(indice.buscar("SKU-B").id()).isEqualTo(1);
+        assertThat(indice.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void zerosAEsquerdaDiferenciamOsCodigos() {
+        IndiceCodigoBarras indice = new IndiceCodigoBarras();
+        indice.gravar(item(1, "SKU-1", "12345678905"));
+        indice.gravar(item(2, "SKU-2", "012345678905"));
+        indice.gravar(item(3, "SKU-3", "0012345678905"));
+        indice.gravar(item(4, "SKU-4", "00012345678905"));
+        indice.gravar(item(5, "SKU-5", "0"));
+        // Mais de 15 dígitos vai para a tabela de textos
+        indice.gravar(item(6, "SKU-6", "00000000000000001"));
+
+        assertThat(indice.buscar("12345678905").id()).isEqualTo(1);
+        assertThat(indice.buscar("012345678905").id()).isEqualTo(2);
+        assertThat(indice.buscar("0012345678905").id()).isEqualTo(3);
+        assertThat(indice.buscar("00012345678905").id()).isEqualTo(4);
+        assertThat(indice.buscar("0").id()).isEqualTo(5);
+        assertThat(indice.buscar("00")).isNull();
+        assertThat(indice.buscar("00000000000000001").id()).isEqualTo(6);
+        assertThat(indice.buscar("1")).isNull();
+    }
+
+    /**
+     * Sequência aleatória (com semente fixa) de gravações e remoções comparada com um mapa. Todos os SKUs têm o
+     * mesmo hashCode e formam uma única sequência de colisões, que dá a volta no fim da tabela: cada remoção
+     * desloca entradas para trás.
+     */
+    @Test
+    void gravacoesERemocoesAleatoriasBatemComUmMapa() {
+        Random aleatorio = new Random(42);
+        IndiceCodigoBarras indice = new IndiceCodigoBarras();
+        Map<Long, IndiceCodigoBarras.Item> esperados = new HashMap<>();
+        Set<String> codigosUsados = new HashSet<>();
+
+        for (int operacao = 0; operacao < 4000; operacao++) {
+            long id = aleatorio.nextInt(200);
+            if (aleatorio.nextInt(10) < 6) {
+                IndiceCodigoBarras.Item item = item(id, skuColidente(id), codigoBarras(id, operacao));
+                indice.gravar(item);
+                esperados.put(id, item);
+                codigosUsados.add(item.codigoBarras());
+            } else {
+                indice.remover(id);
+                esperados.remove(id);
+            }
+
+            assertThat(indice.buscar(skuColidente(id))).isEqualTo(esperados.get(id));
+            if (operacao % 200 == 0) {
+                conferir(indice, esperados, codigosUsados);
+            }
+        }
+        conferir(indice, esperados, codigosUsados);
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private static void conferir(IndiceCodigoBarras indice, Map<Long, IndiceCodigoBarras.Item> esperados,
+                                 Set<String> codigosUsados) {
+        assertThat(indice.tamanho()).isEqualTo(esperados.size());
+        for (long id = 0; id < 200; id++) {
+            assertThat(indice.buscar(skuColidente(id))).as("SKU do produto %d", id).isEqualTo(esperados.get(id));
+        }
+        Map<String, IndiceCodigoBarras.Item> porCodigo = new HashMap<>();
+        esperados.values().forEach(item -> porCodigo.put(item.codigoBarras(), item));
+        for (String codigo : codigosUsados) {
+            assertThat(indice.buscar(codigo)).as("código %s", codigo).isEqualTo(porCodigo.get(codigo));
+        }
+    }
+
+    // Oito pares "Aa"/"BB" escolhidos pelos bits do ID: 256 textos com o mesmo hashCode
+    private static String skuColidente(long id) {
+        StringBuilder sku = new StringBuilder();
+        for (int bit = 0; bit < 8; bit++) {
+            sku.append((id >> bit & 1) == 0 ? "Aa" : "BB");
+        }
+        return sku.toString();
+    }
+
+    // Zeros à esquerda conforme o ID e, para alguns produtos, código não numérico
+    private static String codigoBarras(long id, int versao) {
+        String numero = "0".repeat((int) (id % 3)) + (id * 10_000 + versao);
+        return id % 5 == 0 ? "NF-" + numero : numero;
+    }
+
+    private static IndiceCodigoBarras.Item item(long id, String sku, String codigoBarras) {
+        return new IndiceCodigoBarras.Item(id, sku, codigoBarras, "Produto " + id, 1050, 10);
+    }
+}
@@ -0,0 +1,93 @@
+package com.brasileiras.ecommerce_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceTextualTest {
+
+    @Test
+    void ordenaPorPalavraIgualDepoisInicioDepoisTrecho() {
+        IndiceTextual indice = new IndiceTextual();
+        indice.indexar(1, "Descafeinado Solúvel");
+        indice.indexar(2, "Cafeteira Elétrica");
+        indice.indexar(3, "Café Pilão Tradicional");
+        indice.indexar(4, "CAFÉ");
+
+        // Palavra igual (a descrição mais curta primeiro), início de palavra e trecho
+        assertThat(indice.buscar("cafe", 0, 10)).isEqualTo(new IndiceTextual.Resultado(List.of(4L, 3L, 2L, 1L), 4));
+        assertThat(indice.buscar("cafe", 1, 2)).isEqualTo(new IndiceTextual.Resultado(List.of(3L, 2L), 4));
+        assertThat(indice.buscar("Café  PILÃO", 0, 10).ids()).containsExactly(3L);
+        assertThat(indice.buscar("cafe acucar", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void termosCurtosSoEncontramInicioDePalavra() {
+        IndiceTextual indice = new IndiceTextual();
+        indice.indexar(1, "Bica");
+        indice.indexar(2, "Café");
+        indice.indexar(3, "Cacau em pó");
+
+        assertThat(indice.buscar("ca", 0, 10).ids()).containsExactly(2L, 3L);
+        assertThat(indice.buscar("c", 0, 10).ids()).containsExactly(2L, 3L);
+        assertThat(indice.buscar("po", 0, 10).ids()).containsExactly(3L);
+        assertThat(indice.buscar("ica", 0, 10).ids()).containsExactly(1L);
+    }
+
+    @Test
+    void removerEReindexarTiramOTextoAnterior() {
+        IndiceTextual indice = new IndiceTextual();
+        indice.indexar(1, "Arroz Agulhinha");
+        indice.indexar(2, "Arroz Integral");
+
+        indice.remover(1);
+        indice.indexar(2, "Feijão Carioca");
+
+        assertThat(indice.tamanho()).isEqualTo(1);
+        assertThat(indice.buscar("arroz", 0, 10).total()).isZero();
+        assertThat(indice.buscar("carioca", 0, 10).ids()).containsExactly(2L);
+        indice.remover(99); // Ausente: nada muda
+        assertThat(indice.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void compactarMantemOsResultadosSemOsRemovidos() {
+        IndiceTextual indice = new IndiceTextual();
+        for (int id = 0; id < 2048; id++) {
+            indice.indexar(id, "Produto " + id + (id % 2 == 0 ? " par" : " impar"));
+        }
+        for (int id = 0; id < 1500; id++) {
+            indice.remover(id);
+        }
+
+        assertThat(indice.precisaCompactar()).isTrue();
+        IndiceTextual compactado = indice.compactar();
+
+        assertThat(compactado.precisaCompactar()).isFalse();
+        assertThat(compactado.tamanho()).isEqualTo(548);
+        for (String consulta : List.of("par", "impar", "produto 20", "1999", "1499")) {
+            assertThat(compactado.buscar(consulta, 0, 1000)).as(consulta).isEqualTo(indice.buscar(consulta, 0, 1000));
+        }
+        assertThat(compactado.buscar("1499", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void construirDeUmaVezEquivaleAIndexarUmAUm() {
+        long[] ids = new long[3000];
+        String[] textos = new String[ids.length];
+        IndiceTextual incremental = new IndiceTextual();
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 10_000 + i;
+            textos[i] = "Item " + i + " lote " + (i % 7);
+            incremental.indexar(ids[i], textos[i]);
+        }
+
+        IndiceTextual construido = IndiceTextual.construir(ids, textos);
+
+        for (String consulta : List.of("lote 3", "item", "12", "ote")) {
+            assertThat(construido.buscar(consulta, 0, 5000)).as(consulta).isEqualTo(incremental.buscar(consulta, 0, 5000));
+        }
+    }
+}
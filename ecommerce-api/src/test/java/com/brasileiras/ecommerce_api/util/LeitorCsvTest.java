@@ -0,0 +1,85 @@
+package com.brasileiras.ecommerce_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LeitorCsvTest {
+
+    @Test
+    void camposEntreAspasGuardamSeparadorQuebraDeLinhaEAspas() throws IOException {
+        LeitorCsv leitor = leitor("sku;descricao;valor\n"
+                + "CAF-1;\"Café; torrado\";\"10,50\"\n"
+                + "CAF-2;\"Linha 1\nLinha 2\";\"\"\n"
+                + "CAF-3;\"Caneca \"\"Brasil\"\"\";3\n", 100);
+
+        assertThat(leitor.proximoRegistro()).containsExactly("sku", "descricao", "valor");
+        assertThat(leitor.proximoRegistro()).containsExactly("CAF-1", "Café; torrado", "10,50");
+        assertThat(leitor.proximoRegistro()).containsExactly("CAF-2", "Linha 1\nLinha 2", "");
+        assertThat(leitor.linhaDoRegistro()).isEqualTo(3);
+        assertThat(leitor.proximoRegistro()).containsExactly("CAF-3", "Caneca \"Brasil\"", "3");
+        assertThat(leitor.linhaDoRegistro()).isEqualTo(5);
+        assertThat(leitor.proximoRegistro()).isNull();
+    }
+
+    @Test
+    void aceitaCrlfBomCamposVaziosELinhasEmBranco() throws IOException {
+        LeitorCsv leitor = leitor("\uFEFFsku,estoque\r\n\r\nA,\r\n\"B\r\nC\",7\r\n,\n\nD", ',', 100);
+
+        assertThat(todos(leitor)).containsExactly(
+                List.of("sku", "estoque"),
+                List.of("A", ""),
+                List.of("B\r\nC", "7"),
+                List.of("", ""),
+                List.of("D"));
+        assertThat(leitor.linhaDoRegistro()).isEqualTo(8);
+    }
+
+    @Test
+    void limiteContaOsCaracteresDoRegistroSemOFimDeLinha() throws IOException {
+        // "a;\"b\"\"c\"" tem 8 caracteres: as aspas entram na conta
+        LeitorCsv leitor = leitor("a;\"b\"\"c\"\r\n12345678\n123456789\n", 8);
+
+        assertThat(leitor.proximoRegistro()).containsExactly("a", "b\"c");
+        assertThat(leitor.proximoRegistro()).containsExactly("12345678");
+        assertThatThrownBy(leitor::proximoRegistro)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("O registro da linha 3 passa de 8 caracteres.");
+    }
+
+    @Test
+    void aspasSemFechamentoSaoRecusadas() {
+        assertThatThrownBy(() -> todos(leitor("a;\"b\nc;d\n", 100)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Aspas sem fechamento no registro da linha 1.");
+        // Com o arquivo maior que o limite, para no limite sem ler o resto
+        assertThatThrownBy(() -> todos(leitor("a;\"b" + "x".repeat(10_000), 100)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("O registro da linha 1 passa de 100 caracteres.");
+    }
+
+    // --- Métodos privados auxiliares ---
+
+    private static LeitorCsv leitor(String conteudo, int maxCaracteres) {
+        return leitor(conteudo, ';', maxCaracteres);
+    }
+
+    private static LeitorCsv leitor(String conteudo, char separador, int maxCaracteres) {
+        return new LeitorCsv(new BufferedReader(new StringReader(conteudo)), separador, maxCaracteres);
+    }
+
+    private static List<List<String>> todos(LeitorCsv leitor) throws IOException {
+        List<List<String>> registros = new ArrayList<>();
+        for (List<String> registro = leitor.proximoRegistro(); registro != null; registro = leitor.proximoRegistro()) {
+            registros.add(registro);
+        }
+        return registros;
+    }
+}
@@ -0,0 +1,69 @@
+package com.brasileiras.ecommerce_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RodaDeTempoTest {
+
+    // Oito slots de um segundo: uma volta da roda dura oito segundos
+    private static final Instant INICIO = Instant.parse("2025-06-01T12:00:00Z");
+
+    @Test
+    void itemVariasVoltasAFrenteSoVenceNaVoltaCerta() {
+        RodaDeTempo<Long> roda = new RodaDeTempo<>(8, 1000, INICIO);
+        roda.agendar(1L, INICIO.plusSeconds(3));
+        roda.agendar(2L, INICIO.plusSeconds(11)); // Mesmo slot, uma volta depois
+        roda.agendar(3L, INICIO.plusSeconds(19)); // Mesmo slot, duas voltas depois
+
+        List<String> vencimentos = new ArrayList<>();
+        for (int segundo = 1; segundo <= 24; segundo++) {
+            for (Long item : roda.avancar(INICIO.plusSeconds(segundo))) {
+                vencimentos.add(item + "@" + segundo);
+            }
+        }
+
+        assertThat(vencimentos).containsExactly("1@3", "2@11", "3@19");
+        assertThat(roda.tamanho()).isZero();
+    }
+
+    @Test
+    void rodaParadaPorMaisDeUmaVoltaDevolveSoOsVencidos() {
+        RodaDeTempo<Long> roda = new RodaDeTempo<>(8, 1000, INICIO);
+        roda.agendar(1L, INICIO.plusSeconds(2));
+        roda.agendar(2L, INICIO.plusMillis(9_500));
+        roda.agendar(3L, INICIO.plusSeconds(13));
+        roda.agendar(4L, INICIO.plusSeconds(30));
+
+        assertThat(roda.avancar(INICIO.plusSeconds(12))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(roda.tamanho()).isEqualTo(2);
+        assertThat(roda.avancar(INICIO.plusSeconds(13))).containsExactly(3L);
+        assertThat(roda.avancar(INICIO.plusSeconds(100))).containsExactly(4L);
+        assertThat(roda.tamanho()).isZero();
+    }
+
+    @Test
+    void prazoJaVencidoSaiNoProximoAvanco() {
+        RodaDeTempo<Long> roda = new RodaDeTempo<>(8, 1000, INICIO);
+        roda.agendar(1L, INICIO.minusSeconds(60));
+        roda.agendar(2L, INICIO);
+
+        assertThat(roda.avancar(INICIO.plusMillis(999))).isEmpty();
+        assertThat(roda.avancar(INICIO.plusSeconds(1))).containsExactlyInAnyOrder(1L, 2L);
+        // Avançar para trás não devolve nem perde nada
+        roda.agendar(3L, INICIO.plusSeconds(5));
+        assertThat(roda.avancar(INICIO)).isEmpty();
+        assertThat(roda.avancar(INICIO.plusSeconds(5))).containsExactly(3L);
+    }
+
+    @Test
+    void recusaSlotsOuTickNaoPositivos() {
+        assertThatThrownBy(() -> new RodaDeTempo<Long>(0, 1000, INICIO)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RodaDeTempo<Long>(8, 0, INICIO)).isInstanceOf(IllegalArgumentException.class);
+    }
+}